@@ -0,0 +1,85 @@
+package edu.uci.ics.amber.engine.benchmark
+
+import java.io.{BufferedOutputStream, File, FileInputStream, FileOutputStream}
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.TimeUnit
+
+import edu.uci.ics.texera.workflow.common.scanner.{BufferedBlockReader, MappedBlockReader}
+import edu.uci.ics.texera.workflow.common.tuple.schema.{AttributeType, AttributeTypeUtils}
+import org.openjdk.jmh.annotations._
+
+import scala.util.Random
+
+/**
+  * Compares the CSV readers used by the parallel CSV scan on a generated file of
+  * integer, double and text columns. Each invocation reads and parses the whole file.
+  *
+  * The default file size keeps a run short, pass a larger one to measure a multi-GB file:
+  * sbt "benchmark/Jmh/run -p fileSizeMB=4096 CSVScanBenchmark"
+  */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.SingleShotTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+class CSVScanBenchmark {
+
+  @Param(Array("256"))
+  var fileSizeMB: Long = _
+
+  var file: File = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    file = File.createTempFile("csv-scan-benchmark", ".csv")
+    file.deleteOnExit()
+    val output = new BufferedOutputStream(new FileOutputStream(file), 1 << 20)
+    val random = new Random(0)
+    var written = 0L
+    while (written < fileSizeMB * (1 << 20)) {
+      val line = s"${random.nextInt()},${random.nextLong()},${random.nextInt(1000000) / 100.0}," +
+        s"${random.alphanumeric.take(16).mkString}\n"
+      val bytes = line.getBytes(StandardCharsets.UTF_8)
+      output.write(bytes)
+      written += bytes.length
+    }
+    output.close()
+  }
+
+  @TearDown(Level.Trial)
+  def tearDown(): Unit = {
+    file.delete()
+  }
+
+  @Benchmark
+  def bufferedBlockReader(): Long = {
+    val reader = new BufferedBlockReader(new FileInputStream(file), file.length(), ',', null)
+    var count = 0L
+    while (reader.hasNext) {
+      val line = reader.readLine
+      if (line != null && line.length == CSVScanBenchmark.types.length) {
+        AttributeTypeUtils.parseFields(line.asInstanceOf[Array[Object]], CSVScanBenchmark.types)
+        count += 1
+      }
+    }
+    reader.close()
+    count
+  }
+
+  @Benchmark
+  def mappedBlockReader(): Long = {
+    val reader = new MappedBlockReader(file.getPath, 0, file.length(), ',', CSVScanBenchmark.types)
+    var count = 0L
+    while (reader.hasNext) {
+      if (reader.readRecord() != null) count += 1
+    }
+    reader.close()
+    count
+  }
+}
+
+object CSVScanBenchmark {
+  val types: Array[AttributeType] =
+    Array(AttributeType.INTEGER, AttributeType.LONG, AttributeType.DOUBLE, AttributeType.STRING)
+}
@@ -0,0 +1,187 @@
+package edu.uci.ics.amber.engine.benchmark
+
+import java.util.concurrent.TimeUnit
+
+import akka.actor.ActorSystem
+import com.typesafe.config.ConfigFactory
+import edu.uci.ics.amber.engine.architecture.messaginglayer.NetworkCommunicationActor.NetworkSenderActorRef
+import edu.uci.ics.amber.engine.architecture.messaginglayer.{
+  BatchToTupleConverter,
+  ControlOutputPort,
+  DataOutputPort,
+  TupleToBatchConverter
+}
+import edu.uci.ics.amber.engine.architecture.worker.WorkerInternalQueue.{
+  EndMarker,
+  EndOfAllMarker,
+  InputTuple
+}
+import edu.uci.ics.amber.engine.architecture.worker.promisehandlers.PauseHandler.PauseWorker
+import edu.uci.ics.amber.engine.architecture.worker.promisehandlers.ResumeHandler.ResumeWorker
+import edu.uci.ics.amber.engine.architecture.worker.{
+  BreakpointManager,
+  DataProcessor,
+  PauseManager,
+  WorkerAsyncRPCHandlerInitializer,
+  WorkerInternalQueue
+}
+import edu.uci.ics.amber.engine.common.rpc.AsyncRPCClient.ControlInvocation
+import edu.uci.ics.amber.engine.common.rpc.AsyncRPCServer.ControlCommand
+import edu.uci.ics.amber.engine.common.rpc.{AsyncRPCClient, AsyncRPCServer}
+import edu.uci.ics.amber.engine.common.statetransition.WorkerStateManager
+import edu.uci.ics.amber.engine.common.tuple.ITuple
+import edu.uci.ics.amber.engine.common.virtualidentity.util.CONTROLLER
+import edu.uci.ics.amber.engine.common.virtualidentity.{ActorVirtualIdentity, LinkIdentity}
+import edu.uci.ics.amber.engine.common.worker.WorkerState
+import edu.uci.ics.amber.engine.common.worker.WorkerState.{Completed, Paused, Running}
+import edu.uci.ics.amber.engine.common.{IOperatorExecutor, InputExhausted, WorkflowLogger}
+import org.openjdk.jmh.annotations._
+
+/**
+  * Measures the DP thread of a worker running a map-heavy operator, where every input tuple
+  * produces many output tuples and the control queue is checked after each of them.
+  *
+  * controlPendingFlag and controlQueueProbe compare the check done after every output tuple
+  * with the probe of the control sub-queue it replaced, mapHeavyOperator the output rate of
+  * the whole loop, and pauseWhileOutputting the latency of a pause (see its percentiles).
+  */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+class DataProcessorBenchmark {
+
+  @Param(Array("1000000"))
+  var outputsPerTuple: Int = _
+
+  var system: ActorSystem = _
+  var queue: WorkerInternalQueue = _
+  var worker: DataProcessorBenchmark.Worker = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    system = ActorSystem("DataProcessorBenchmark", ConfigFactory.load())
+    queue = new WorkerInternalQueue {}
+    // an endless operator that the pause benchmark interrupts
+    worker = new DataProcessorBenchmark.Worker(system, Int.MaxValue)
+    worker.dataProcessor.appendElement(InputTuple(ITuple(0)))
+    while (worker.dataProcessor.collectStatistics()._2 == 0) {
+      //wait for the output to start
+    }
+  }
+
+  @TearDown(Level.Trial)
+  def tearDown(): Unit = {
+    worker.dataProcessor.shutdown()
+    system.terminate()
+  }
+
+  @Benchmark
+  @BenchmarkMode(Array(Mode.AverageTime))
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  def controlPendingFlag(): Boolean = queue.isControlPending
+
+  @Benchmark
+  @BenchmarkMode(Array(Mode.AverageTime))
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  def controlQueueProbe(): Boolean = !queue.isControlQueueEmpty
+
+  @Benchmark
+  @BenchmarkMode(Array(Mode.SingleShotTime))
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  def mapHeavyOperator(): Long = {
+    val mapWorker = new DataProcessorBenchmark.Worker(system, outputsPerTuple)
+    mapWorker.dataProcessor.appendElement(InputTuple(ITuple(0)))
+    mapWorker.dataProcessor.appendElement(EndMarker)
+    mapWorker.dataProcessor.appendElement(EndOfAllMarker)
+    mapWorker.await(Completed)
+    mapWorker.dataProcessor.shutdown()
+    mapWorker.dataProcessor.collectStatistics()._2
+  }
+
+  @Benchmark
+  @BenchmarkMode(Array(Mode.SampleTime))
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  def pauseWhileOutputting(): Unit = {
+    worker.control(PauseWorker())
+    worker.await(Paused)
+  }
+
+  @TearDown(Level.Invocation)
+  def resume(): Unit = {
+    if (worker.stateManager.getCurrentState == Paused) {
+      worker.control(ResumeWorker())
+      worker.await(Running)
+    }
+  }
+}
+
+object DataProcessorBenchmark {
+
+  class Worker(system: ActorSystem, outputsPerTuple: Int) {
+    private val selfID = ActorVirtualIdentity("Worker-benchmark-[0]")
+    private val logger = WorkflowLogger("DataProcessorBenchmark")
+    private val networkSender = NetworkSenderActorRef(system.deadLetters)
+    private val controlOutputPort = new ControlOutputPort(selfID, networkSender)
+    private val dataOutputPort = new DataOutputPort(selfID, networkSender)
+    // without partitionings the output tuples are dropped after being counted
+    private val tupleToBatchConverter = new TupleToBatchConverter(selfID, dataOutputPort)
+    private val asyncRPCClient = new AsyncRPCClient(controlOutputPort, logger)
+    private val asyncRPCServer = new AsyncRPCServer(controlOutputPort, logger)
+    private val pauseManager = new PauseManager()
+    private val breakpointManager = new BreakpointManager(asyncRPCClient)
+    val stateManager = new WorkerStateManager(Running)
+    private var nextCommandID = 0L
+
+    private val operator: IOperatorExecutor = new IOperatorExecutor {
+      override def open(): Unit = {}
+      override def close(): Unit = {}
+      override def processTuple(
+          tuple: Either[ITuple, InputExhausted],
+          input: LinkIdentity
+      ): Iterator[ITuple] =
+        tuple match {
+          case Left(t)  => Iterator.range(0, outputsPerTuple).map(i => ITuple(t.getInt(0) + i))
+          case Right(_) => Iterator.empty
+        }
+    }
+
+    val dataProcessor = new DataProcessor(
+      logger,
+      operator,
+      asyncRPCClient,
+      tupleToBatchConverter,
+      pauseManager,
+      breakpointManager,
+      stateManager,
+      asyncRPCServer
+    )
+
+    new WorkerAsyncRPCHandlerInitializer(
+      selfID,
+      controlOutputPort,
+      dataOutputPort,
+      tupleToBatchConverter,
+      new BatchToTupleConverter(dataProcessor),
+      pauseManager,
+      dataProcessor,
+      operator,
+      breakpointManager,
+      stateManager,
+      null,
+      asyncRPCClient,
+      asyncRPCServer
+    )
+
+    def control(command: ControlCommand[_]): Unit = {
+      dataProcessor.enqueueCommand(ControlInvocation(nextCommandID, command), CONTROLLER)
+      nextCommandID += 1
+    }
+
+    def await(state: WorkerState): Unit = {
+      while (stateManager.getCurrentState != state) {
+        //wait
+      }
+    }
+  }
+}
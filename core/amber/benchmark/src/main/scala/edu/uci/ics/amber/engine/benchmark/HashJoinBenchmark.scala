@@ -0,0 +1,145 @@
+package edu.uci.ics.amber.engine.benchmark
+
+import java.util.concurrent.TimeUnit
+
+import edu.uci.ics.amber.engine.common.InputExhausted
+import edu.uci.ics.amber.engine.common.virtualidentity.{LayerIdentity, LinkIdentity}
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.{
+  Attribute,
+  AttributeType,
+  OperatorSchemaInfo,
+  Schema
+}
+import edu.uci.ics.texera.workflow.operators.hashJoin.{HashJoinOpDesc, HashJoinOpExec}
+import org.openjdk.jmh.annotations._
+
+import scala.collection.mutable
+import scala.collection.mutable.ArrayBuffer
+
+/**
+  * Compares HashJoinOpExec with the join it replaced, which kept the build tuples in a HashMap
+  * of buffers and built each output tuple by attribute name. Each invocation builds the table
+  * of the build rows and joins all the probe rows with it on an integer key, half of the probe
+  * rows have a match.
+  *
+  * The default rows keep the heap small, measure larger inputs with a heap of a few GB:
+  * sbt "benchmark/Jmh/run -jvmArgs -Xmx8g -p numBuildRows=1000000 -p numProbeRows=10000000
+  * HashJoinBenchmark"
+  */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+class HashJoinBenchmark {
+
+  @Param(Array("100000"))
+  var numBuildRows: Int = _
+
+  @Param(Array("1000000"))
+  var numProbeRows: Int = _
+
+  var schemaInfo: OperatorSchemaInfo = _
+  var buildTuples: Array[Tuple] = _
+  var probeTuples: Array[Tuple] = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    val desc = new HashJoinOpDesc[Integer]()
+    desc.buildAttributeName = "id"
+    desc.probeAttributeName = "item"
+    val inputSchemas = Array(HashJoinBenchmark.buildSchema, HashJoinBenchmark.probeSchema)
+    schemaInfo = OperatorSchemaInfo(inputSchemas, desc.getOutputSchema(inputSchemas))
+
+    buildTuples = Array.tabulate(numBuildRows)(i =>
+      Tuple
+        .newBuilder(HashJoinBenchmark.buildSchema)
+        .addSequentially(Array[Object](Int.box(i), "item " + i, Double.box(i % 100)))
+        .build()
+    )
+    probeTuples = Array.tabulate(numProbeRows)(i =>
+      Tuple
+        .newBuilder(HashJoinBenchmark.probeSchema)
+        .addSequentially(
+          Array[Object](Long.box(i), Int.box(i % (numBuildRows * 2)), Double.box(i % 10))
+        )
+        .build()
+    )
+  }
+
+  /**
+    * @return the number of output tuples
+    */
+  @Benchmark
+  def joinTable(): Long = {
+    val join = LayerIdentity("join", "join", "join")
+    val build = LinkIdentity(LayerIdentity("build", "build", "build"), join)
+    val probe = LinkIdentity(LayerIdentity("probe", "probe", "probe"), join)
+    val opExec = new HashJoinOpExec[Integer](build, "id", "item", schemaInfo)
+    opExec.open()
+    buildTuples.foreach(t => opExec.processTexeraTuple(Left(t), build))
+    opExec.processTexeraTuple(Right(InputExhausted()), build)
+    var count = 0L
+    probeTuples.foreach(t => count += opExec.processTexeraTuple(Left(t), probe).size)
+    opExec.close()
+    count
+  }
+
+  /**
+    * The join of HashJoinOpExec before it had a JoinTable.
+    * @return the number of output tuples
+    */
+  @Benchmark
+  def hashMap(): Long = {
+    val outputSchema = schemaInfo.outputSchema
+    val table = new mutable.HashMap[Integer, ArrayBuffer[Tuple]]()
+    buildTuples.foreach(t =>
+      table.getOrElseUpdate(t.getField[Integer]("id"), new ArrayBuffer[Tuple]()) += t
+    )
+    var count = 0L
+    probeTuples.foreach(probeTuple =>
+      table
+        .getOrElse(probeTuple.getField[Integer]("item"), ArrayBuffer[Tuple]())
+        .foreach(buildTuple => {
+          val builder = Tuple.newBuilder(outputSchema).add(buildTuple)
+          for (i <- 0 until probeTuple.getFields.size()) {
+            val attributeName = probeTuple.getSchema.getAttributeNames.get(i)
+            val attribute = probeTuple.getSchema.getAttribute(attributeName)
+            if (attributeName != "item") {
+              builder.add(
+                new Attribute(
+                  if (HashJoinBenchmark.buildSchema.getAttributeNames.contains(attributeName))
+                    attributeName + "#@1"
+                  else attributeName,
+                  attribute.getType
+                ),
+                probeTuple.getFields.get(i)
+              )
+            }
+          }
+          builder.build()
+          count += 1
+        })
+    )
+    count
+  }
+}
+
+object HashJoinBenchmark {
+
+  val buildSchema: Schema = Schema
+    .newBuilder()
+    .add("id", AttributeType.INTEGER)
+    .add("name", AttributeType.STRING)
+    .add("price", AttributeType.DOUBLE)
+    .build()
+
+  val probeSchema: Schema = Schema
+    .newBuilder()
+    .add("order", AttributeType.LONG)
+    .add("item", AttributeType.INTEGER)
+    .add("price", AttributeType.DOUBLE)
+    .build()
+}
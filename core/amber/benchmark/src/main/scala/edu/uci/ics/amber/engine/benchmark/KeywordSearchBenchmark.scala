@@ -0,0 +1,95 @@
+package edu.uci.ics.amber.engine.benchmark
+
+import java.util.concurrent.TimeUnit
+
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.{AttributeType, Schema}
+import edu.uci.ics.texera.workflow.operators.keywordSearch.{
+  KeywordSearchOpDesc,
+  KeywordSearchOpExec
+}
+import org.apache.lucene.index.memory.MemoryIndex
+import org.openjdk.jmh.annotations._
+
+import scala.util.Random
+
+/**
+  * Compares KeywordSearchOpExec with the MemoryIndex it used for every tuple, for a term, a
+  * phrase and a boolean query on rows of 20 random words of 676. Each invocation searches all
+  * the rows, the returned number of matches over numRows is the match rate of the query.
+  *
+  * sbt "benchmark/Jmh/run -p query=phrase KeywordSearchBenchmark"
+  */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+class KeywordSearchBenchmark {
+
+  @Param(Array("1000000"))
+  var numRows: Int = _
+
+  @Param(Array("term", "phrase", "boolean"))
+  var query: String = _
+
+  var keyword: String = _
+  var tuples: Array[Tuple] = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    keyword = query match {
+      case "term"    => "wordab"
+      case "phrase"  => "\"wordab wordcd\""
+      case "boolean" => "+wordab +(wordcd wordef) -wordgh"
+    }
+    // the compiled benchmark would otherwise measure the MemoryIndex fallback
+    assert(KeywordSearchBenchmark.opExec(keyword).matcher.isDefined)
+
+    val random = new Random(0)
+    val words = (0 until 26 * 26).map(i => "word" + ('a' + i % 26).toChar + ('a' + i / 26).toChar)
+    tuples = Array.fill(numRows)(
+      new Tuple(
+        KeywordSearchBenchmark.schema,
+        (0 until 20).map(_ => words(random.nextInt(words.size))).mkString(" ")
+      )
+    )
+  }
+
+  /**
+    * @return the number of matching tuples
+    */
+  @Benchmark
+  def memoryIndex(): Int = {
+    val opExec = KeywordSearchBenchmark.opExec(keyword)
+    val memoryIndex = new MemoryIndex()
+    tuples.count(tuple => {
+      memoryIndex.addField("text", tuple.getField[String]("text"), opExec.analyzer)
+      val isMatch = memoryIndex.search(opExec.query) > 0.0f
+      memoryIndex.reset()
+      isMatch
+    })
+  }
+
+  /**
+    * @return the number of matching tuples
+    */
+  @Benchmark
+  def compiled(): Int = {
+    val opExec = KeywordSearchBenchmark.opExec(keyword)
+    tuples.count(tuple => opExec.findKeyword(tuple))
+  }
+}
+
+object KeywordSearchBenchmark {
+
+  val schema: Schema = Schema.newBuilder().add("text", AttributeType.STRING).build()
+
+  def opExec(keyword: String): KeywordSearchOpExec = {
+    val opDesc = new KeywordSearchOpDesc()
+    opDesc.attribute = "text"
+    opDesc.keyword = keyword
+    new KeywordSearchOpExec(0, opDesc)
+  }
+}
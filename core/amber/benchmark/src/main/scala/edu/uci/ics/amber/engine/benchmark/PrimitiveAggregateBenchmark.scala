@@ -0,0 +1,121 @@
+package edu.uci.ics.amber.engine.benchmark
+
+import java.util.concurrent.TimeUnit
+
+import edu.uci.ics.amber.engine.common.InputExhausted
+import edu.uci.ics.texera.workflow.common.operators.OperatorExecutor
+import edu.uci.ics.texera.workflow.common.operators.aggregate.{
+  DistributedAggregation,
+  PartialAggregateOpExec
+}
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.{AttributeType, OperatorSchemaInfo, Schema}
+import edu.uci.ics.texera.workflow.operators.aggregate.{
+  AggregationFunction,
+  PartialPrimitiveAggregateOpExec
+}
+import org.openjdk.jmh.annotations._
+
+/**
+  * Compares the partial aggregation of an average grouped by an integer key, between the
+  * generic DistributedAggregation and PartialPrimitiveAggregateOpExec. Each invocation
+  * aggregates all the rows, which are spread evenly over the groups.
+  *
+  * The default rows keep the heap small, measure larger inputs with a heap of a few GB:
+  * sbt "benchmark/Jmh/run -jvmArgs -Xmx8g -p numRows=10000000 PrimitiveAggregateBenchmark"
+  */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+class PrimitiveAggregateBenchmark {
+
+  @Param(Array("1000000"))
+  var numRows: Int = _
+
+  @Param(Array("10", "10000", "1000000"))
+  var numGroups: Int = _
+
+  var tuples: Array[Tuple] = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    tuples = Array.tabulate(numRows)(i =>
+      Tuple
+        .newBuilder(PrimitiveAggregateBenchmark.inputSchema)
+        .addSequentially(Array[Object](Int.box(i % numGroups), Double.box(i)))
+        .build()
+    )
+  }
+
+  @Benchmark
+  def distributedAggregation(): Int =
+    aggregate(new PartialAggregateOpExec(PrimitiveAggregateBenchmark.distributedAverage()))
+
+  @Benchmark
+  def primitiveAggregation(): Int =
+    aggregate(
+      new PartialPrimitiveAggregateOpExec(
+        AggregationFunction.AVERAGE,
+        "value",
+        List("key"),
+        false,
+        PrimitiveAggregateBenchmark.schemaInfo
+      )
+    )
+
+  /**
+    * @return the number of partial results
+    */
+  def aggregate(opExec: OperatorExecutor): Int = {
+    opExec.open()
+    tuples.foreach(tuple => opExec.processTexeraTuple(Left(tuple), null))
+    val results = opExec.processTexeraTuple(Right(InputExhausted()), null).size
+    opExec.close()
+    results
+  }
+}
+
+object PrimitiveAggregateBenchmark {
+
+  val inputSchema: Schema = Schema
+    .newBuilder()
+    .add("key", AttributeType.INTEGER)
+    .add("value", AttributeType.DOUBLE)
+    .build()
+
+  val schemaInfo: OperatorSchemaInfo = OperatorSchemaInfo(
+    Array(inputSchema),
+    Schema
+      .newBuilder()
+      .add(inputSchema.getAttribute("key"))
+      .add("result", AttributeType.DOUBLE)
+      .build()
+  )
+
+  case class AveragePartial(sum: Double, count: Double)
+
+  // the average of SpecializedAverageOpDesc before it had its own executors
+  def distributedAverage(): DistributedAggregation[AveragePartial] = {
+    val groupBySchema = Schema.newBuilder().add(inputSchema.getAttribute("key")).build()
+    val resultSchema = Schema.newBuilder().add("result", AttributeType.DOUBLE).build()
+    new DistributedAggregation[AveragePartial](
+      () => AveragePartial(0, 0),
+      (partial, tuple) => {
+        val value: Object = tuple.getField("value")
+        if (value == null) partial
+        else AveragePartial(partial.sum + value.toString.toDouble, partial.count + 1)
+      },
+      (partial1, partial2) =>
+        AveragePartial(partial1.sum + partial2.sum, partial1.count + partial2.count),
+      partial =>
+        Tuple
+          .newBuilder(resultSchema)
+          .add("result", AttributeType.DOUBLE, partial.sum / partial.count)
+          .build(),
+      _ => groupBySchema
+    )
+  }
+}
@@ -0,0 +1,78 @@
+package edu.uci.ics.amber.engine.benchmark
+
+import java.util.concurrent.TimeUnit
+
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.{AttributeType, Schema}
+import edu.uci.ics.texera.workflow.operators.regex.{RegexOpDesc, RegexOpExec}
+import org.openjdk.jmh.annotations._
+
+/**
+  * Compares java.util.regex, which RegexOpExec used, with RegexOpExec. The "backtracking"
+  * texts are 100 texts on which (a+)+b backtracks exponentially in java.util.regex when it
+  * does not match, each character of backtrackingLength more doubling its time. The "literals"
+  * texts are 1M log lines, most of which lack the literals (ERROR|FATAL) .*timeout requires.
+  *
+  * sbt "benchmark/Jmh/run -p texts=backtracking -p backtrackingLength=24 RegexBenchmark"
+  */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+class RegexBenchmark {
+
+  @Param(Array("backtracking", "literals"))
+  var texts: String = _
+
+  @Param(Array("20"))
+  var backtrackingLength: Int = _
+
+  var regex: String = _
+  var strings: Array[String] = _
+  var tuples: Array[Tuple] = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    texts match {
+      case "backtracking" =>
+        regex = "(a+)+b"
+        strings = Array.tabulate(100)(i =>
+          "a" * backtrackingLength + (if (i % 10 == 0) "b" else "c")
+        )
+      case "literals" =>
+        regex = "(ERROR|FATAL) .*timeout"
+        strings = Array.tabulate(1000000)(i =>
+          s"2021-06-0${i % 9 + 1} ${if (i % 100 == 0) "ERROR" else "INFO"} request $i " +
+            (if (i % 3 == 0) "timeout" else "done")
+        )
+    }
+    tuples = strings.map(text => new Tuple(RegexBenchmark.schema, text))
+  }
+
+  /**
+    * @return the number of matching texts
+    */
+  @Benchmark
+  def javaRegex(): Int = {
+    val pattern = java.util.regex.Pattern.compile(regex)
+    strings.count(text => pattern.matcher(text).find)
+  }
+
+  /**
+    * @return the number of matching texts
+    */
+  @Benchmark
+  def regexOpExec(): Int = {
+    val opDesc = new RegexOpDesc()
+    opDesc.attribute = "text"
+    opDesc.regex = regex
+    val opExec = new RegexOpExec(opDesc)
+    tuples.count(tuple => opExec.matchRegex(tuple))
+  }
+}
+
+object RegexBenchmark {
+  val schema: Schema = Schema.newBuilder().add("text", AttributeType.STRING).build()
+}
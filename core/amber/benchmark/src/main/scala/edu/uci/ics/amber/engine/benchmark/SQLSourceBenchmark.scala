@@ -0,0 +1,189 @@
+package edu.uci.ics.amber.engine.benchmark
+
+import java.lang.reflect.{InvocationHandler, Method, Proxy}
+import java.sql.{Connection, PreparedStatement, ResultSet}
+import java.util.concurrent.TimeUnit
+
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.{Attribute, AttributeType, Schema}
+import edu.uci.ics.texera.workflow.operators.source.sql.SQLSourceOpExec
+import org.openjdk.jmh.annotations._
+
+/**
+  * Measures the time to the first tuple and to the last tuple of a SQL source reading a
+  * table of integer, long, double and text columns, through an in-process JDBC driver.
+  *
+  * Like the PostgreSQL and MySQL drivers, the driver fetches the rows of a statement
+  * fetchSize at a time if a fetch size is set, and all of them when the query is executed
+  * otherwise. "streaming" reads the table with the fetch size of SQLSourceOpExec,
+  * "buffered" without one. The largest number of rows the driver holds at once is reported
+  * as the "heldRows" secondary metric, run with -prof gc for the bytes allocated per read.
+  */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.SingleShotTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+class SQLSourceBenchmark {
+
+  @Param(Array("streaming", "buffered"))
+  var fetch: String = _
+
+  @Param(Array("1000000"))
+  var rows: Int = _
+
+  def exec(driver: DriverRows): SQLSourceOpExec =
+    new SQLSourceOpExec(
+      SQLSourceBenchmark.schema,
+      "orders",
+      None,
+      None,
+      None,
+      None,
+      None,
+      None,
+      None,
+      None,
+      None,
+      0,
+      List(),
+      0,
+      1
+    ) {
+      override protected def fetchSize: Int = if (fetch == "streaming") super.fetchSize else 0
+
+      override protected def establishConn(): Connection =
+        SQLSourceBenchmark.connection(rows, driver)
+
+      override protected def loadTableNames(): Unit = tableNames += "orders"
+
+      override protected def addKeywordSearch(queryBuilder: StringBuilder): Unit = {}
+    }
+
+  @Benchmark
+  def timeToFirstTuple(driver: DriverRows): Tuple = {
+    val source = exec(driver)
+    source.open()
+    val tuple = source.produceTexeraTuple().next()
+    source.close()
+    tuple
+  }
+
+  @Benchmark
+  def readAll(driver: DriverRows): Long = {
+    val source = exec(driver)
+    source.open()
+    var count = 0L
+    source.produceTexeraTuple().foreach(_ => count += 1)
+    source.close()
+    count
+  }
+}
+
+object SQLSourceBenchmark {
+
+  val schema: Schema = Schema
+    .newBuilder()
+    .add(new Attribute("id", AttributeType.INTEGER))
+    .add(new Attribute("amount", AttributeType.LONG))
+    .add(new Attribute("price", AttributeType.DOUBLE))
+    .add(new Attribute("name", AttributeType.STRING))
+    .build()
+
+  val columns: Array[String] = Array("id", "amount", "price", "name")
+
+  def row(i: Int): Array[AnyRef] =
+    Array(Int.box(i), Long.box(i * 31L), Double.box(i / 100.0), s"name-${i % 10000}")
+
+  def proxy[T](interface: Class[T])(handle: PartialFunction[(String, Array[AnyRef]), AnyRef]): T =
+    Proxy
+      .newProxyInstance(
+        getClass.getClassLoader,
+        Array[Class[_]](interface),
+        new InvocationHandler {
+          override def invoke(proxy: Any, method: Method, args: Array[AnyRef]): AnyRef =
+            handle.applyOrElse(
+              (method.getName, args),
+              (_: (String, Array[AnyRef])) =>
+                throw new UnsupportedOperationException(method.getName)
+            )
+        }
+      )
+      .asInstanceOf[T]
+
+  /**
+    * A connection to a table of numRows generated rows.
+    */
+  def connection(numRows: Int, driver: DriverRows): Connection =
+    proxy(classOf[Connection]) {
+      case ("prepareStatement", _) =>
+        var fetchSize = 0
+        proxy(classOf[PreparedStatement]) {
+          case ("setFetchSize", Array(size: Integer)) =>
+            fetchSize = size.intValue
+            null
+          case ("executeQuery", _) => resultSet(numRows, fetchSize, driver)
+          case ("close", _)        => null
+        }
+      case ("close", _) => null
+    }
+
+  /**
+    * The rows of the table, fetched fetchSize at a time, or all at once if fetchSize is 0.
+    */
+  def resultSet(numRows: Int, fetchSize: Int, driver: DriverRows): ResultSet = {
+    val batchSize = if (fetchSize > 0) fetchSize else numRows
+    var fetched: Array[Array[AnyRef]] = Array()
+    var fetchedRows = 0
+    var cursor = 0
+    var current: Array[AnyRef] = null
+    var wasNull = false
+
+    def fetchBatch(): Unit = {
+      val size = math.min(batchSize, numRows - fetchedRows)
+      fetched = Array.tabulate(size)(i => row(fetchedRows + i))
+      fetchedRows += fetched.length
+      cursor = 0
+      driver.hold(fetched.length)
+    }
+    fetchBatch()
+
+    proxy(classOf[ResultSet]) {
+      case ("next", _) =>
+        if (cursor == fetched.length && fetchedRows < numRows) fetchBatch()
+        if (cursor < fetched.length) {
+          current = fetched(cursor)
+          // the driver drops the rows it returned
+          fetched(cursor) = null
+          cursor += 1
+          Boolean.box(true)
+        } else Boolean.box(false)
+      case ("findColumn", Array(name)) => Int.box(columns.indexOf(name) + 1)
+      case ("wasNull", _)              => Boolean.box(wasNull)
+      case ("close", _)                => null
+      case (_, Array(index: Integer)) =>
+        val value = current(index - 1)
+        wasNull = value == null
+        value
+    }
+  }
+}
+
+/**
+  * The largest number of rows the driver held at once during an iteration.
+  */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+class DriverRows {
+  var heldRows: Long = 0
+
+  @Setup(Level.Iteration)
+  def reset(): Unit = {
+    heldRows = 0
+  }
+
+  def hold(rows: Int): Unit = {
+    heldRows = math.max(heldRows, rows)
+  }
+}
@@ -0,0 +1,279 @@
+package edu.uci.ics.amber.engine.benchmark
+
+import java.util.concurrent.TimeUnit
+
+import akka.actor.ActorSystem
+import akka.serialization.{Serialization, SerializationExtension}
+import com.typesafe.config.ConfigFactory
+import edu.uci.ics.amber.engine.architecture.messaginglayer.NetworkCommunicationActor.NetworkMessage
+import edu.uci.ics.amber.engine.architecture.sendsemantics.partitionings.HashBasedShufflePartitioning
+import edu.uci.ics.amber.engine.architecture.worker.WorkerResult
+import edu.uci.ics.amber.engine.architecture.worker.promisehandlers.AddPartitioningHandler.AddPartitioning
+import edu.uci.ics.amber.engine.architecture.worker.promisehandlers.PauseHandler.PauseWorker
+import edu.uci.ics.amber.engine.architecture.worker.promisehandlers.QueryStatisticsHandler.QueryStatistics
+import edu.uci.ics.amber.engine.architecture.worker.promisehandlers.UpdateInputLinkingHandler.UpdateInputLinking
+import edu.uci.ics.amber.engine.common.ambermessage.{
+  DataFrame,
+  EndOfUpstream,
+  WorkflowControlMessage,
+  WorkflowDataMessage
+}
+import edu.uci.ics.amber.engine.common.rpc.AsyncRPCClient.{ControlInvocation, ReturnInvocation}
+import edu.uci.ics.amber.engine.common.tuple.ITuple
+import edu.uci.ics.amber.engine.common.virtualidentity.{
+  ActorVirtualIdentity,
+  LayerIdentity,
+  LinkIdentity
+}
+import edu.uci.ics.amber.engine.common.worker.WorkerState.{Paused, Running}
+import edu.uci.ics.amber.engine.common.worker.WorkerStatistics
+import edu.uci.ics.amber.engine.common.Constants
+import edu.uci.ics.texera.workflow.common.IncrementalOutputMode
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.{Attribute, AttributeType, Schema}
+import org.openjdk.jmh.annotations._
+
+import scala.util.Random
+
+/**
+  * Measures serialization and deserialization of engine messages through the
+  * serializer configured for the actor system (kryo, see application.conf).
+  *
+  * The data messages are a full data frame of each tuple schema and the end of upstream
+  * marker, the control messages the invocations the controller sends to workers and the
+  * values workers return. The bytes and number of the serialized messages are reported
+  * as the "serializedBytes" and "serializedMessages" secondary metrics, their ratio is the
+  * average message size, so that message size regressions show up when diffing the json
+  * results.
+  */
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+class SerializationBenchmark {
+
+  @Benchmark
+  def serializeDataMessage(
+      serializer: Serializer,
+      messages: DataMessages,
+      size: MessageSize
+  ): Array[Byte] = size.count(serializer.serialize(messages.message))
+
+  @Benchmark
+  def deserializeDataMessage(serializer: Serializer, messages: DataMessages): AnyRef =
+    serializer.deserialize(messages.serialized)
+
+  @Benchmark
+  def roundTripDataMessage(serializer: Serializer, messages: DataMessages): AnyRef =
+    serializer.deserialize(serializer.serialize(messages.message))
+
+  @Benchmark
+  def serializeControlMessage(
+      serializer: Serializer,
+      messages: ControlMessages,
+      size: MessageSize
+  ): Array[Byte] = size.count(serializer.serialize(messages.message))
+
+  @Benchmark
+  def deserializeControlMessage(serializer: Serializer, messages: ControlMessages): AnyRef =
+    serializer.deserialize(messages.serialized)
+
+  @Benchmark
+  def roundTripControlMessage(serializer: Serializer, messages: ControlMessages): AnyRef =
+    serializer.deserialize(serializer.serialize(messages.message))
+}
+
+object SerializationBenchmark {
+  val sender: ActorVirtualIdentity = ActorVirtualIdentity("Worker-benchmark-[0]")
+
+  val link: LinkIdentity = LinkIdentity(
+    LayerIdentity("workflow", "source", "main"),
+    LayerIdentity("workflow", "join", "probe")
+  )
+
+  val wideTextColumns = 50
+
+  val narrowNumericSchema: Schema = Schema
+    .newBuilder()
+    .add(new Attribute("int", AttributeType.INTEGER))
+    .add(new Attribute("long", AttributeType.LONG))
+    .add(new Attribute("double1", AttributeType.DOUBLE))
+    .add(new Attribute("double2", AttributeType.DOUBLE))
+    .build()
+
+  val wideTextSchema: Schema = {
+    val builder = Schema.newBuilder()
+    (0 until wideTextColumns).foreach { i =>
+      builder.add(new Attribute(s"text$i", AttributeType.STRING))
+    }
+    builder.build()
+  }
+
+  val nestedListSchema: Schema = Schema
+    .newBuilder()
+    .add(new Attribute("id", AttributeType.INTEGER))
+    .add(new Attribute("list", AttributeType.ANY))
+    .build()
+
+  def generateTuple(tupleSchema: String): Tuple = {
+    tupleSchema match {
+      case "narrow-numeric" =>
+        Tuple
+          .newBuilder(narrowNumericSchema)
+          .addSequentially(
+            Array[AnyRef](
+              Int.box(Random.nextInt()),
+              Long.box(Random.nextLong()),
+              Double.box(Random.nextDouble()),
+              Double.box(Random.nextDouble())
+            )
+          )
+          .build()
+      case "wide-text" =>
+        Tuple
+          .newBuilder(wideTextSchema)
+          .addSequentially(
+            Array.fill[AnyRef](wideTextColumns)(Random.alphanumeric.take(32).mkString)
+          )
+          .build()
+      case "nested-list" =>
+        val list = new java.util.ArrayList[AnyRef]()
+        (0 until 16).foreach { i =>
+          list.add(java.util.Arrays.asList[AnyRef](Random.nextString(8), Int.box(i)))
+        }
+        Tuple
+          .newBuilder(nestedListSchema)
+          .addSequentially(Array[AnyRef](Int.box(Random.nextInt()), list))
+          .build()
+    }
+  }
+}
+
+/**
+  * The serializer of the actor system the engine messages are sent through.
+  */
+@State(Scope.Benchmark)
+class Serializer {
+  var system: ActorSystem = _
+  var serialization: Serialization = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    system = ActorSystem("SerializationBenchmark", ConfigFactory.load())
+    serialization = SerializationExtension(system)
+  }
+
+  @TearDown(Level.Trial)
+  def tearDown(): Unit = {
+    system.terminate()
+  }
+
+  def serialize(message: NetworkMessage): Array[Byte] =
+    serialization.serialize(message).get
+
+  def deserialize(bytes: Array[Byte]): AnyRef =
+    serialization.deserialize(bytes, classOf[NetworkMessage]).get
+}
+
+@State(Scope.Benchmark)
+class DataMessages {
+
+  @Param(Array("frame-narrow-numeric", "frame-wide-text", "frame-nested-list", "end-of-upstream"))
+  var dataMessage: String = _
+
+  var message: NetworkMessage = _
+  var serialized: Array[Byte] = _
+
+  @Setup(Level.Trial)
+  def setup(serializer: Serializer): Unit = {
+    val payload = dataMessage match {
+      case "end-of-upstream" => EndOfUpstream()
+      case frame =>
+        val tupleSchema = frame.stripPrefix("frame-")
+        DataFrame(
+          Array.fill[ITuple](Constants.defaultBatchSize)(
+            SerializationBenchmark.generateTuple(tupleSchema)
+          )
+        )
+    }
+    message = NetworkMessage(0, WorkflowDataMessage(SerializationBenchmark.sender, 0, payload))
+    serialized = serializer.serialize(message)
+  }
+}
+
+@State(Scope.Benchmark)
+class ControlMessages {
+
+  @Param(
+    Array(
+      "pause-worker",
+      "query-statistics",
+      "add-partitioning",
+      "update-input-linking",
+      "return-worker-state",
+      "return-statistics",
+      "return-worker-result"
+    )
+  )
+  var controlMessage: String = _
+
+  var message: NetworkMessage = _
+  var serialized: Array[Byte] = _
+
+  @Setup(Level.Trial)
+  def setup(serializer: Serializer): Unit = {
+    val receivers = (0 until 8).map(i => ActorVirtualIdentity(s"Worker-benchmark-[$i]"))
+    val payload = controlMessage match {
+      case "pause-worker"     => ControlInvocation(1, PauseWorker())
+      case "query-statistics" => ControlInvocation(1, QueryStatistics())
+      case "add-partitioning" =>
+        ControlInvocation(
+          1,
+          AddPartitioning(
+            SerializationBenchmark.link,
+            HashBasedShufflePartitioning(Constants.defaultBatchSize, receivers, Seq(0, 2))
+          )
+        )
+      case "update-input-linking" =>
+        ControlInvocation(1, UpdateInputLinking(receivers.head, SerializationBenchmark.link))
+      case "return-worker-state" => ReturnInvocation(1, Paused)
+      case "return-statistics"   => ReturnInvocation(1, WorkerStatistics(Running, 1000, 1000))
+      case "return-worker-result" =>
+        ReturnInvocation(
+          1,
+          Some(
+            WorkerResult(
+              IncrementalOutputMode.SET_SNAPSHOT,
+              List.fill(100)(SerializationBenchmark.generateTuple("narrow-numeric"))
+            )
+          )
+        )
+    }
+    message =
+      NetworkMessage(1, WorkflowControlMessage(SerializationBenchmark.sender, 1, payload))
+    serialized = serializer.serialize(message)
+  }
+}
+
+/**
+  * Sums the bytes and counts the messages serialized in an iteration, as secondary metrics.
+  */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+class MessageSize {
+  var serializedBytes: Long = 0
+  var serializedMessages: Long = 0
+
+  @Setup(Level.Iteration)
+  def reset(): Unit = {
+    serializedBytes = 0
+    serializedMessages = 0
+  }
+
+  def count(bytes: Array[Byte]): Array[Byte] = {
+    serializedBytes += bytes.length
+    serializedMessages += 1
+    bytes
+  }
+}
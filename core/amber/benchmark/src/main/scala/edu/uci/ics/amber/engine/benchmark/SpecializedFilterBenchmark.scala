@@ -0,0 +1,98 @@
+package edu.uci.ics.amber.engine.benchmark
+
+import java.util.concurrent.TimeUnit
+
+import edu.uci.ics.texera.workflow.common.WorkflowContext
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.{AttributeType, Schema}
+import edu.uci.ics.texera.workflow.operators.filter.{
+  ComparisonType,
+  FilterPredicate,
+  SpecializedFilterOpDesc,
+  SpecializedFilterOpExec
+}
+import org.openjdk.jmh.annotations._
+
+import scala.collection.JavaConverters._
+
+/**
+  * Compares the filter predicates evaluated by attribute name on each tuple, as
+  * SpecializedFilterOpExec did, with the predicates it now compiles against its input schema.
+  * Each invocation filters all the rows, on a numeric column or on a string column with two
+  * predicates in OR.
+  *
+  * sbt "benchmark/Jmh/run -p column=name SpecializedFilterBenchmark"
+  */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+class SpecializedFilterBenchmark {
+
+  @Param(Array("1000000"))
+  var numRows: Int = _
+
+  @Param(Array("price", "name"))
+  var column: String = _
+
+  var tuples: Array[Tuple] = _
+  var predicates: List[FilterPredicate] = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    import SpecializedFilterBenchmark._
+    tuples = Array.tabulate(numRows)(i =>
+      new Tuple(inputSchema, Double.box(i % 1000 / 10.0), "item " + i % 5000)
+    )
+    predicates = column match {
+      case "price" => List(predicate("price", ComparisonType.LESS_THAN, "25"))
+      case "name" =>
+        List(
+          predicate("name", ComparisonType.EQUAL_TO, "item 42"),
+          predicate("name", ComparisonType.GREATER_THAN, "item 4")
+        )
+    }
+  }
+
+  /**
+    * @return the number of tuples satisfying the predicates
+    */
+  @Benchmark
+  def evaluate(): Int = {
+    val context = new WorkflowContext()
+    tuples.count(tuple => predicates.exists(p => p.evaluate(tuple, context)))
+  }
+
+  /**
+    * @return the number of tuples satisfying the predicates
+    */
+  @Benchmark
+  def compiled(): Int = {
+    val opDesc = new SpecializedFilterOpDesc()
+    opDesc.predicates = predicates.asJava
+    val opExec = new SpecializedFilterOpExec(opDesc, SpecializedFilterBenchmark.inputSchema)
+    opExec.open()
+    val count = tuples.count(tuple => opExec.filterFunc(tuple))
+    opExec.close()
+    count
+  }
+}
+
+object SpecializedFilterBenchmark {
+
+  val inputSchema: Schema = Schema
+    .newBuilder()
+    .add("price", AttributeType.DOUBLE)
+    .add("name", AttributeType.STRING)
+    .build()
+
+  def predicate(attribute: String, condition: ComparisonType, value: String): FilterPredicate = {
+    val predicate = new FilterPredicate()
+    predicate.attribute = attribute
+    predicate.condition = condition
+    predicate.value = value
+    predicate
+  }
+}
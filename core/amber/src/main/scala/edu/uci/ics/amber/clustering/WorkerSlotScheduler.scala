@@ -0,0 +1,130 @@
+package edu.uci.ics.amber.clustering
+
+import edu.uci.ics.amber.engine.common.Constants
+
+import scala.collection.mutable
+
+object WorkerSlotScheduler
+    extends WorkerSlotScheduler(
+      math.max(1, Constants.defaultNumWorkers / Constants.numWorkerPerNode) *
+        Constants.workerSlotsPerNode,
+      Constants.jobSlotShare
+    ) {
+
+  /**
+    * The outcome of submitting a job.
+    */
+  sealed trait Admission
+
+  case object Started extends Admission
+
+  /**
+    * @param position  the position of the job in the queue, 1 if it is the next one started
+    * @param freeSlots the slots not held by running jobs when the job was queued
+    */
+  case class Queued(position: Int, freeSlots: Int) extends Admission
+
+  /**
+    * The job needs more slots than one job may hold, it is neither started nor queued.
+    */
+  case class Rejected(jobSlots: Int) extends Admission
+
+  case class SlotUtilization(
+      totalSlots: Int,
+      usedSlots: Int,
+      runningJobs: Int,
+      queuedJobs: Int
+  )
+
+  private case class PendingJob(jobID: String, slots: Int, start: () => Unit)
+
+}
+
+/**
+  * Admits jobs into a cluster of worker slots, the slots of the cluster the web server runs
+  * jobs on are scheduled by the WorkerSlotScheduler object.
+  * @param clusterSlots number of worker slots of the cluster, evaluated on every admission
+  *                     since nodes may join the cluster after the scheduler is created
+  * @param jobSlotShare share of the slots of the cluster one job may hold, so that a single
+  *                     job can not take the whole cluster
+  */
+class WorkerSlotScheduler(clusterSlots: => Int, jobSlotShare: => Double = 1.0) {
+  import WorkerSlotScheduler._
+
+  // Map[jobID, number of worker slots held by the job]
+  private val runningJobs = new mutable.HashMap[String, Int]()
+  private val pendingJobs = new mutable.Queue[PendingJob]()
+  private var usedSlots = 0
+
+  /**
+    * Total number of worker slots of the cluster, one slot per worker actor.
+    */
+  def totalSlots: Int = clusterSlots
+
+  /**
+    * Number of worker slots one job may hold, at least one.
+    */
+  def jobSlots: Int = math.max(1, (totalSlots * jobSlotShare).toInt)
+
+  /**
+    * Admits a job that needs the given number of worker slots. The job is started
+    * right away if the cluster has enough free slots, otherwise it is queued and
+    * started once earlier jobs release their slots. Jobs are admitted in FIFO order,
+    * and a job needing more than jobSlots is rejected.
+    * @param jobID id of the job
+    * @param slots number of workers the job will spawn
+    * @param start starts the job, called outside of the scheduler lock
+    * @return whether the job is started immediately, queued or rejected
+    */
+  def submit(jobID: String, slots: Int, start: () => Unit): Admission = {
+    val admission = synchronized {
+      if (slots > jobSlots) {
+        Rejected(jobSlots)
+      } else if (pendingJobs.isEmpty && canAdmit(slots)) {
+        acquire(jobID, slots)
+        Started
+      } else {
+        pendingJobs.enqueue(PendingJob(jobID, slots, start))
+        Queued(pendingJobs.size, math.max(0, totalSlots - usedSlots))
+      }
+    }
+    if (admission == Started) {
+      start()
+    }
+    admission
+  }
+
+  /**
+    * Releases the slots of a finished or killed job, or removes it from the queue,
+    * then starts the queued jobs that fit into the freed slots.
+    */
+  def release(jobID: String): Unit = {
+    val admittedJobs = synchronized {
+      runningJobs.remove(jobID).foreach(slots => usedSlots -= slots)
+      pendingJobs.dequeueAll(_.jobID == jobID)
+      val admitted = mutable.ArrayBuffer[PendingJob]()
+      while (pendingJobs.nonEmpty && canAdmit(pendingJobs.head.slots)) {
+        val job = pendingJobs.dequeue()
+        acquire(job.jobID, job.slots)
+        admitted.append(job)
+      }
+      admitted
+    }
+    admittedJobs.foreach(_.start())
+  }
+
+  def getUtilization: SlotUtilization =
+    synchronized {
+      SlotUtilization(totalSlots, usedSlots, runningJobs.size, pendingJobs.size)
+    }
+
+  // a queued job is started on an idle cluster even if nodes left it since the job was queued
+  private def canAdmit(slots: Int): Boolean =
+    runningJobs.isEmpty || usedSlots + slots <= totalSlots
+
+  private def acquire(jobID: String, slots: Int): Unit = {
+    runningJobs(jobID) = slots
+    usedSlots += slots
+  }
+
+}
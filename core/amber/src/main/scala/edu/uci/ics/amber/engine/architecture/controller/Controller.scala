@@ -9,7 +9,8 @@ import edu.uci.ics.amber.clustering.ClusterListener.GetAvailableNodeAddresses
 import edu.uci.ics.amber.engine.architecture.common.WorkflowActor
 import edu.uci.ics.amber.engine.architecture.controller.ControllerEvent.{
   ErrorOccurred,
-  WorkflowStatusUpdate
+  WorkflowStatusUpdate,
+  WorkflowTerminated
 }
 import edu.uci.ics.amber.engine.architecture.controller.promisehandlers.LinkWorkersHandler.LinkWorkers
 import edu.uci.ics.amber.engine.architecture.messaginglayer.NetworkCommunicationActor.{
@@ -178,6 +179,9 @@ class Controller(
       statusUpdateAskHandle.cancel()
     }
     logger.logInfo("stopped!")
+    if (eventListener.workflowTerminatedListener != null) {
+      eventListener.workflowTerminatedListener.apply(WorkflowTerminated())
+    }
   }
 
   private def errorLogAction(err: WorkflowRuntimeError): Unit = {
@@ -22,6 +22,9 @@ object ControllerEvent {
 
   case class WorkflowPaused()
 
+  // the controller stopped, after completion, a kill or a fatal error
+  case class WorkflowTerminated()
+
   case class WorkflowStatusUpdate(
       operatorStatistics: Map[String, OperatorStatistics]
   )
@@ -9,7 +9,8 @@ import edu.uci.ics.amber.engine.architecture.controller.ControllerEvent.{
   WorkflowCompleted,
   WorkflowPaused,
   WorkflowResultUpdate,
-  WorkflowStatusUpdate
+  WorkflowStatusUpdate,
+  WorkflowTerminated
 }
 
 case class ControllerEventListener(
@@ -22,5 +23,6 @@ case class ControllerEventListener(
     skipTupleResponseListener: SkipTupleResponse => Unit = null,
     reportCurrentTuplesListener: ReportCurrentProcessingTuple => Unit = null,
     recoveryStartedListener: Unit => Unit = null,
-    workflowExecutionErrorListener: ErrorOccurred => Unit = null
+    workflowExecutionErrorListener: ErrorOccurred => Unit = null,
+    workflowTerminatedListener: WorkflowTerminated => Unit = null
 )
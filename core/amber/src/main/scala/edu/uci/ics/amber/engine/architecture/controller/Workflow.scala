@@ -149,7 +149,9 @@ class Workflow(
   ): LinkStrategy = {
     val sender = from._2
     val receiver = to._2
-    if (to._1.requiredShuffle) {
+    if (to._1.requiredBroadcast(sender.id)) {
+      new Broadcast(sender, receiver, Constants.defaultBatchSize)
+    } else if (to._1.requiredShuffle) {
       new HashBasedShuffle(
         sender,
         receiver,
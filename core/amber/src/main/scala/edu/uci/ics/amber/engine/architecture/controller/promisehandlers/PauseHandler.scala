@@ -46,13 +46,13 @@ trait PauseHandler {
                 .map { worker =>
                   // send a pause message
                   send(PauseWorker(), worker).map { ret =>
-                    operator.getWorker(worker).state = ret
+                    operator.setWorkerState(worker, ret)
                     send(QueryStatistics(), worker)
                       .join(send(QueryCurrentInputTuple(), worker))
                       // get the stats and current input tuple from the worker
                       .map {
                         case (stats, tuple) =>
-                          operator.getWorker(worker).stats = stats
+                          operator.setWorkerStatistics(worker, stats)
                           buffer.append((tuple, worker))
                       }
                   }
@@ -45,8 +45,9 @@ trait QueryWorkerStatisticsHandler {
     val requests = workers.map(worker =>
       // must immediately update worker state and stats after reply
       send(QueryStatistics(), worker).map(res => {
-        workflow.getOperator(worker).getWorker(worker).state = res.workerState
-        workflow.getOperator(worker).getWorker(worker).stats = res
+        val operator = workflow.getOperator(worker)
+        operator.setWorkerState(worker, res.workerState)
+        operator.setWorkerStatistics(worker, res)
       })
     )
 
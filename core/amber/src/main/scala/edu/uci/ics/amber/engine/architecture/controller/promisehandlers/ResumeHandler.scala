@@ -28,7 +28,7 @@ trait ResumeHandler {
       Future
         .collect(workflow.getAllWorkers.map { worker =>
           send(ResumeWorker(), worker).map { ret =>
-            workflow.getWorkerInfo(worker).state = ret
+            workflow.getOperator(worker).setWorkerState(worker, ret)
           }
         }.toSeq)
         .map { _ =>
@@ -37,7 +37,7 @@ trait StartWorkflowHandler {
               layer.workers.keys.map { worker =>
                 send(StartWorker(), worker).map { ret =>
                   // update worker state
-                  workflow.getWorkerInfo(worker).state = ret
+                  workflow.getOperator(worker).setWorkerState(worker, ret)
                 }
               }
             }
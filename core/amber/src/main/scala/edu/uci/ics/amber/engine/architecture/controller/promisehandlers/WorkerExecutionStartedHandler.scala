@@ -19,7 +19,7 @@ trait WorkerExecutionStartedHandler {
   registerHandler { (msg: WorkerStateUpdated, sender) =>
     {
       // set the state
-      workflow.getOperator(sender).getWorker(sender).state = msg.state
+      workflow.getOperator(sender).setWorkerState(sender, msg.state)
       updateFrontendWorkflowStatus()
 
     }
@@ -0,0 +1,21 @@
+package edu.uci.ics.amber.engine.architecture.linksemantics
+
+import edu.uci.ics.amber.engine.architecture.deploysemantics.layer.WorkerLayer
+import edu.uci.ics.amber.engine.architecture.sendsemantics.partitionings.{
+  BroadcastPartitioning,
+  Partitioning
+}
+import edu.uci.ics.amber.engine.common.virtualidentity.{ActorVirtualIdentity, LinkIdentity}
+
+class Broadcast(from: WorkerLayer, to: WorkerLayer, batchSize: Int)
+    extends LinkStrategy(from, to, batchSize) {
+  override def getPartitioning: Iterable[
+    (ActorVirtualIdentity, LinkIdentity, Partitioning, Seq[ActorVirtualIdentity])
+  ] = {
+    assert(from.isBuilt && to.isBuilt)
+    from.identifiers.map(x =>
+      (x, id, BroadcastPartitioning(batchSize, to.identifiers), to.identifiers.toSeq)
+    )
+  }
+
+}
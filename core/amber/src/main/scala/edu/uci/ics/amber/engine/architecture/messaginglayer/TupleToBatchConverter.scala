@@ -1,6 +1,7 @@
 package edu.uci.ics.amber.engine.architecture.messaginglayer
 
 import edu.uci.ics.amber.engine.architecture.sendsemantics.partitioners.{
+  BroadcastPartitioner,
   HashBasedShufflePartitioner,
   OneToOnePartitioner,
   Partitioner,
@@ -36,6 +37,8 @@ class TupleToBatchConverter(
         RoundRobinPartitioner(roundRobinPartitioning)
       case hashBasedShufflePartitioning: HashBasedShufflePartitioning =>
         HashBasedShufflePartitioner(hashBasedShufflePartitioning)
+      case broadcastPartitioning: BroadcastPartitioning =>
+        BroadcastPartitioner(broadcastPartitioning)
     }
 
     // update the existing partitioners.
@@ -0,0 +1,48 @@
+package edu.uci.ics.amber.engine.architecture.sendsemantics.partitioners
+
+import edu.uci.ics.amber.engine.architecture.sendsemantics.partitionings.BroadcastPartitioning
+import edu.uci.ics.amber.engine.common.ambermessage.{DataFrame, DataPayload, EndOfUpstream}
+import edu.uci.ics.amber.engine.common.tuple.ITuple
+import edu.uci.ics.amber.engine.common.virtualidentity.ActorVirtualIdentity
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+  * Sends every tuple to all the receivers. A single batch is kept, and the same batch is sent
+  * to each receiver once it is full.
+  */
+case class BroadcastPartitioner(partitioning: BroadcastPartitioning) extends Partitioner {
+  var batch: Array[ITuple] = new Array[ITuple](partitioning.batchSize)
+  var currentSize = 0
+
+  override def addTupleToBatch(
+      tuple: ITuple
+  ): Iterable[(ActorVirtualIdentity, DataPayload)] = {
+    batch(currentSize) = tuple
+    currentSize += 1
+    if (currentSize == partitioning.batchSize) {
+      currentSize = 0
+      val retBatch = DataFrame(batch)
+      batch = new Array[ITuple](partitioning.batchSize)
+      return partitioning.receivers.map(receiver => (receiver, retBatch))
+    }
+    None
+  }
+
+  override def noMore(): Array[(ActorVirtualIdentity, DataPayload)] = {
+    val ret = new ArrayBuffer[(ActorVirtualIdentity, DataPayload)]
+    val lastBatch = DataFrame(batch.slice(0, currentSize))
+    partitioning.receivers.foreach(receiver => {
+      if (currentSize > 0) {
+        ret.append((receiver, lastBatch))
+      }
+      ret.append((receiver, EndOfUpstream()))
+    })
+    ret.toArray
+  }
+
+  override def reset(): Unit = {
+    batch = new Array[ITuple](partitioning.batchSize)
+    currentSize = 0
+  }
+}
@@ -15,7 +15,7 @@ case class OneToOnePartitioner(partitioning: OneToOnePartitioning) extends Parti
 
   override def addTupleToBatch(
       tuple: ITuple
-  ): Option[(ActorVirtualIdentity, DataPayload)] = {
+  ): Iterable[(ActorVirtualIdentity, DataPayload)] = {
     batch(currentSize) = tuple
     currentSize += 1
     if (currentSize == partitioning.batchSize) {
@@ -30,7 +30,7 @@ abstract class ParallelBatchingPartitioner(batchSize: Int, receivers: Seq[ActorV
 
   override def addTupleToBatch(
       tuple: ITuple
-  ): Option[(ActorVirtualIdentity, DataPayload)] = {
+  ): Iterable[(ActorVirtualIdentity, DataPayload)] = {
     val index = selectBatchingIndex(tuple)
     batches(index)(currentSizes(index)) = tuple
     currentSizes(index) += 1
@@ -9,12 +9,12 @@ abstract class Partitioner() {
   val partitioning: Partitioning
 
   /**
-    * Keeps on adding tuples to the batch. When the batch_size is reached, the batch is returned along with the receiver
+    * Keeps on adding tuples to the batch. When the batch_size is reached, the batch is returned along with the receivers
     * to send the batch to.
     * @param tuple ITuple to be added.
-    * @return When return condition is met, return the (to: ActorVirtualIdentity, payload:
+    * @return When return condition is met, return the (to: ActorVirtualIdentity, payload: DataPayload) pairs to send
     */
-  def addTupleToBatch(tuple: ITuple): Option[(ActorVirtualIdentity, DataPayload)]
+  def addTupleToBatch(tuple: ITuple): Iterable[(ActorVirtualIdentity, DataPayload)]
 
   def noMore(): Array[(ActorVirtualIdentity, DataPayload)]
 
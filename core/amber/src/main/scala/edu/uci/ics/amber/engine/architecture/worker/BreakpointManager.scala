@@ -34,36 +34,37 @@ class BreakpointManager(asyncRPCClient: AsyncRPCClient) {
   }
 
   def removeBreakpoint(breakpointID: String): Unit = {
-    val idx = breakpoints.indexWhere(_.id == breakpointID)
-    if (idx != -1) {
-      breakpoints = breakpoints.take(idx)
-    }
+    breakpoints = breakpoints.filter(_.id != breakpointID)
   }
 
   def removeBreakpoints(breakpointIDs: Array[String]): Unit = {
     breakpoints = breakpoints.filter(x => !breakpointIDs.contains(x.id))
   }
 
+  /** check if there is any local breakpoint on this worker,
+    * the DP thread skips breakpoint evaluation entirely when there is none.
+    */
+  def hasBreakpoints: Boolean = breakpoints.length > 0
+
   def evaluateTuple(tuple: ITuple): Boolean = {
-    var isTriggered = false
     var triggeredBreakpoints: ArrayBuffer[(String, Long)] = null
-    breakpoints.indices.foreach { i =>
+    var i = 0
+    while (i < breakpoints.length) {
       if (breakpoints(i).checkCondition(tuple)) {
-        isTriggered = true
         if (triggeredBreakpoints == null) {
           triggeredBreakpoints = ArrayBuffer[(String, Long)]()
-        } else {
-          triggeredBreakpoints.append((breakpoints(i).id, breakpoints(i).version))
         }
+        triggeredBreakpoints.append((breakpoints(i).id, breakpoints(i).version))
       }
+      i += 1
     }
-    if (isTriggered) {
+    if (triggeredBreakpoints != null) {
       asyncRPCClient.send(
         LocalBreakpointTriggered(triggeredBreakpoints.toArray),
         CONTROLLER
       )
     }
-    isTriggered
+    triggeredBreakpoints != null
   }
 
 }
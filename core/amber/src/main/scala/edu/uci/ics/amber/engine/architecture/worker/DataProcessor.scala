@@ -119,7 +119,8 @@ class DataProcessor( // dependencies:
         handleOperatorException(e)
     }
     if (outputTuple != null) {
-      if (breakpointManager.evaluateTuple(outputTuple)) {
+      // workers without breakpoints do not pay for evaluation
+      if (breakpointManager.hasBreakpoints && breakpointManager.evaluateTuple(outputTuple)) {
         pauseManager.pause()
       } else {
         outputTupleCount += 1
@@ -210,8 +211,12 @@ class DataProcessor( // dependencies:
   }
 
   private[this] def processControlCommandsDuringExecution(): Unit = {
-    while (!isControlQueueEmpty || pauseManager.isPaused) {
-      takeOneControlCommandAndProcess()
+    // fast path: a single volatile read when there is no control to process.
+    if (isControlPending || pauseManager.isPaused) {
+      clearControlPending()
+      while (!isControlQueueEmpty || pauseManager.isPaused) {
+        takeOneControlCommandAndProcess()
+      }
     }
   }
 
@@ -45,12 +45,27 @@ trait WorkerInternalQueue {
 
   private val controlQueue = lbmq.getSubQueue(CONTROL_QUEUE)
 
+  // set by the actor thread whenever a control command is enqueued,
+  // the DP thread only touches the control queue when this flag is set.
+  @volatile private var controlPending = false
+
   def appendElement(elem: InternalQueueElement): Unit = {
     dataQueue.add(elem)
   }
 
   def enqueueCommand(cmd: ControlPayload, from: ActorVirtualIdentity): Unit = {
     controlQueue.add(ControlElement(cmd, from))
+    controlPending = true
+  }
+
+  def isControlPending: Boolean = controlPending
+
+  /** clear the pending flag, must be called by the DP thread
+    * before it drains the control queue so that commands
+    * enqueued afterwards set the flag again.
+    */
+  def clearControlPending(): Unit = {
+    controlPending = false
   }
 
   def getElement: InternalQueueElement = lbmq.take()
@@ -11,6 +11,10 @@ object Constants {
   var masterNodeAddr: String = null
 
   var numWorkerPerNode = 2
+  // max number of worker actors all running jobs may spawn on one node
+  var workerSlotsPerNode = 64
+  // max share of the worker slots of the cluster one job may hold
+  var jobSlotShare = 0.5
   var dataVolumePerNode = 10
   var defaultTau: FiniteDuration = 10.milliseconds
 
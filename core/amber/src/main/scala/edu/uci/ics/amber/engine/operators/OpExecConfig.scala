@@ -12,7 +12,7 @@ import edu.uci.ics.amber.engine.common.virtualidentity.{
   LinkIdentity,
   OperatorIdentity
 }
-import edu.uci.ics.amber.engine.common.worker.WorkerState
+import edu.uci.ics.amber.engine.common.worker.{WorkerState, WorkerStatistics}
 import edu.uci.ics.amber.engine.common.worker.WorkerState._
 
 import scala.collection.mutable
@@ -27,39 +27,78 @@ abstract class OpExecConfig(val id: OperatorIdentity) extends Serializable {
   var inputToOrdinalMapping = new mutable.HashMap[LinkIdentity, Int]()
   var attachedBreakpoints = new mutable.HashMap[String, GlobalBreakpoint[_]]()
 
+  // controller-side counters of the worker states and row counts of this operator, counted
+  // once all layers are built. worker states and statistics must be updated through
+  // setWorkerState and setWorkerStatistics so that the counters stay consistent.
+  // the worker of an id is found through the layers, the workflow keeps the index of all
+  // workers.
+  private val workerStateCounts = new mutable.HashMap[WorkerState, Int]()
+  private var isCounted = false
+  private var numWorkers = 0
+  private var inputRowCount = 0L
+  private var outputRowCount = 0L
+  private var cachedStatistics: OperatorStatistics = _
+
   def getAllWorkers: Iterable[ActorVirtualIdentity] = topology.layers.flatMap(l => l.identifiers)
 
-  def getWorker(id: ActorVirtualIdentity): WorkerInfo = {
-    val layer = topology.layers.find(l => l.workers.contains(id)).get
-    layer.workers(id)
+  def getWorker(id: ActorVirtualIdentity): WorkerInfo = getLayerFromWorkerID(id).workers(id)
+
+  def setWorkerState(id: ActorVirtualIdentity, state: WorkerState): Unit = {
+    countWorkers()
+    val worker = getWorker(id)
+    if (worker.state != state) {
+      workerStateCounts(worker.state) -= 1
+      workerStateCounts(state) = getWorkerStateCount(state) + 1
+      worker.state = state
+      cachedStatistics = null
+    }
+  }
+
+  def setWorkerStatistics(id: ActorVirtualIdentity, stats: WorkerStatistics): Unit = {
+    countWorkers()
+    val layer = getLayerFromWorkerID(id)
+    val worker = layer.workers(id)
+    if (layer == topology.layers.head) {
+      inputRowCount += stats.inputRowCount - worker.stats.inputRowCount
+    }
+    if (layer == topology.layers.last) {
+      outputRowCount += stats.outputRowCount - worker.stats.outputRowCount
+    }
+    worker.stats = stats
+    cachedStatistics = null
   }
 
   def setAllWorkerState(state: WorkerState): Unit = {
     topology.layers.foreach { layer =>
-      (0 until layer.numWorkers).foreach(layer.states.update(_, state))
+      layer.workers.keys.foreach(setWorkerState(_, state))
     }
   }
 
   def getLayerFromWorkerID(id: ActorVirtualIdentity): WorkerLayer =
-    topology.layers.find(_.identifiers.contains(id)).get
+    topology.layers.find(_.workers.contains(id)).get
 
-  def getOperatorStatistics: OperatorStatistics =
-    OperatorStatistics(getState, getInputRowCount, getOutputRowCount)
+  def getOperatorStatistics: OperatorStatistics = {
+    if (cachedStatistics == null) {
+      cachedStatistics = OperatorStatistics(getState, getInputRowCount, getOutputRowCount)
+    }
+    cachedStatistics
+  }
 
   def getState: OperatorState = {
-    val workerStates = getAllWorkerStates
-    if (workerStates.forall(_ == Completed)) {
+    countWorkers()
+    val numCompleted = getWorkerStateCount(Completed)
+    if (numCompleted == numWorkers) {
       return OperatorState.Completed
     }
-    if (workerStates.exists(_ == Running)) {
+    if (getWorkerStateCount(Running) > 0) {
       return OperatorState.Running
     }
-    val unCompletedWorkerStates = workerStates.filter(_ != Completed)
-    if (unCompletedWorkerStates.forall(_ == Uninitialized)) {
+    val numUnCompleted = numWorkers - numCompleted
+    if (getWorkerStateCount(Uninitialized) == numUnCompleted) {
       OperatorState.Uninitialized
-    } else if (unCompletedWorkerStates.forall(_ == Paused)) {
+    } else if (getWorkerStateCount(Paused) == numUnCompleted) {
       OperatorState.Paused
-    } else if (unCompletedWorkerStates.forall(_ == Ready)) {
+    } else if (getWorkerStateCount(Ready) == numUnCompleted) {
       OperatorState.Ready
     } else {
       OperatorState.Unknown
@@ -68,9 +107,32 @@ abstract class OpExecConfig(val id: OperatorIdentity) extends Serializable {
 
   def getAllWorkerStates: Iterable[WorkerState] = topology.layers.flatMap(l => l.states)
 
-  def getInputRowCount: Long = topology.layers.head.statistics.map(_.inputRowCount).sum
+  def getInputRowCount: Long = {
+    countWorkers()
+    inputRowCount
+  }
+
+  def getOutputRowCount: Long = {
+    countWorkers()
+    outputRowCount
+  }
 
-  def getOutputRowCount: Long = topology.layers.last.statistics.map(_.outputRowCount).sum
+  private def getWorkerStateCount(state: WorkerState): Int = workerStateCounts.getOrElse(state, 0)
+
+  private def countWorkers(): Unit = {
+    if (isCounted) {
+      return
+    }
+    topology.layers.foreach { layer =>
+      layer.workers.values.foreach { worker =>
+        numWorkers += 1
+        workerStateCounts(worker.state) = getWorkerStateCount(worker.state) + 1
+      }
+    }
+    inputRowCount = topology.layers.head.statistics.map(_.inputRowCount).sum
+    outputRowCount = topology.layers.last.statistics.map(_.outputRowCount).sum
+    isCounted = true
+  }
 
   def checkStartDependencies(workflow: Workflow): Unit = {
     //do nothing by default
@@ -78,6 +140,12 @@ abstract class OpExecConfig(val id: OperatorIdentity) extends Serializable {
 
   def requiredShuffle: Boolean = false
 
+  /**
+    * @return true if every worker needs all the tuples of the input from the given layer,
+    *         which takes precedence over requiredShuffle
+    */
+  def requiredBroadcast(layer: LayerIdentity): Boolean = false
+
   def setInputToOrdinalMapping(input: LinkIdentity, ordinal: Integer): Unit = {
     this.inputToOrdinalMapping.update(input, ordinal)
   }
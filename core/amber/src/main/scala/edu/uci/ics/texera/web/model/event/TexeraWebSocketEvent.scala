@@ -10,6 +10,7 @@ import com.fasterxml.jackson.annotation.{JsonSubTypes, JsonTypeInfo}
     new Type(value = classOf[HeartBeatResponse]),
     new Type(value = classOf[WorkflowErrorEvent]),
     new Type(value = classOf[WorkflowStartedEvent]),
+    new Type(value = classOf[WorkflowQueuedEvent]),
     new Type(value = classOf[WorkflowCompletedEvent]),
     new Type(value = classOf[WebWorkflowStatusUpdateEvent]),
     new Type(value = classOf[WorkflowPausedEvent]),
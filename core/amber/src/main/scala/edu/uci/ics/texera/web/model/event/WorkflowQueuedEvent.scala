@@ -0,0 +1,9 @@
+package edu.uci.ics.texera.web.model.event
+
+/**
+  * Sent instead of WorkflowStartedEvent when the cluster does not have the free worker slots
+  * the job needs, WorkflowStartedEvent follows once earlier jobs release theirs.
+  * @param position the position of the job in the queue, 1 if it is the next one started
+  */
+case class WorkflowQueuedEvent(position: Int, neededSlots: Int, freeSlots: Int)
+    extends TexeraWebSocketEvent
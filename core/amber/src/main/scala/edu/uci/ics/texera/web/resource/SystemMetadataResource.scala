@@ -1,5 +1,7 @@
 package edu.uci.ics.texera.web.resource
 
+import edu.uci.ics.amber.clustering.WorkerSlotScheduler
+import edu.uci.ics.amber.clustering.WorkerSlotScheduler.SlotUtilization
 import edu.uci.ics.texera.workflow.common.metadata.{AllOperatorMetadata, OperatorMetadataGenerator}
 import javax.ws.rs.core.MediaType
 import javax.ws.rs.{GET, Path, Produces}
@@ -13,4 +15,9 @@ class SystemMetadataResource {
     OperatorMetadataGenerator.allOperatorMetadata
   }
 
+  @GET
+  @Path("/worker-slots") def getWorkerSlotUtilization: SlotUtilization = {
+    WorkerSlotScheduler.getUtilization
+  }
+
 }
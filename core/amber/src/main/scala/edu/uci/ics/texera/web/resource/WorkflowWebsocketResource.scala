@@ -1,6 +1,7 @@
 package edu.uci.ics.texera.web.resource
 
 import akka.actor.{ActorRef, PoisonPill}
+import edu.uci.ics.amber.clustering.WorkerSlotScheduler
 import edu.uci.ics.amber.engine.architecture.controller.{
   Controller,
   ControllerConfig,
@@ -11,22 +12,25 @@ import edu.uci.ics.amber.engine.architecture.controller.promisehandlers.ResumeHa
 import edu.uci.ics.amber.engine.architecture.controller.promisehandlers.StartWorkflowHandler.StartWorkflow
 import edu.uci.ics.amber.engine.common.rpc.AsyncRPCClient
 import edu.uci.ics.amber.engine.common.rpc.AsyncRPCClient.ControlInvocation
+import edu.uci.ics.amber.engine.common.WorkflowLogger
 import edu.uci.ics.amber.engine.common.tuple.ITuple
 import edu.uci.ics.amber.engine.common.virtualidentity.WorkflowIdentity
 import edu.uci.ics.texera.web.{ServletAwareConfigurator, TexeraWebApplication}
 import edu.uci.ics.texera.web.model.event._
 import edu.uci.ics.texera.web.model.request._
 import edu.uci.ics.texera.web.resource.WorkflowWebsocketResource.{
+  logger,
   send,
   sessionDownloadCache,
   sessionJobs,
   sessionMap,
+  sessionPendingJobs,
   sessionResults
 }
 import edu.uci.ics.texera.web.resource.auth.UserResource
 import edu.uci.ics.texera.workflow.common.{Utils, WorkflowContext}
 import edu.uci.ics.texera.workflow.common.tuple.Tuple
-import edu.uci.ics.texera.workflow.common.workflow.{WorkflowCompiler, WorkflowInfo}
+import edu.uci.ics.texera.workflow.common.workflow.{ResultCache, WorkflowCompiler, WorkflowInfo}
 import java.util.concurrent.atomic.AtomicInteger
 
 import edu.uci.ics.texera.workflow.common.Utils.objectMapper
@@ -34,18 +38,26 @@ import javax.servlet.http.HttpSession
 import javax.websocket.{EndpointConfig, _}
 import javax.websocket.server.ServerEndpoint
 
+import scala.collection.concurrent.TrieMap
 import scala.collection.mutable
 
 object WorkflowWebsocketResource {
   // TODO should reorganize this resource.
 
+  val logger: WorkflowLogger = WorkflowLogger("WorkflowWebsocketResource")
+
   val nextJobID = new AtomicInteger(0)
 
   // Map[sessionId, (Session, HttpSession)]
   val sessionMap = new mutable.HashMap[String, (Session, HttpSession)]
 
   // Map[sessionId, (WorkflowCompiler, ActorRef)]
-  val sessionJobs = new mutable.HashMap[String, (WorkflowCompiler, ActorRef)]
+  // queued jobs are started, and their slots released, by the controller listener threads
+  // of other jobs, hence the concurrent maps
+  val sessionJobs = new TrieMap[String, (WorkflowCompiler, ActorRef)]
+
+  // Map[sessionId, jobID], jobs waiting for worker slots
+  val sessionPendingJobs = new TrieMap[String, String]
 
   // Map[sessionId, Map[operatorId, List[ITuple]]]
   val sessionResults = new mutable.HashMap[String, WorkflowResultService]
@@ -172,8 +184,12 @@ class WorkflowWebsocketResource {
       .getUser(sessionMap(session.getId)._2)
       .map(u => u.getUid)
 
+    // operators whose results are cached from a previous execution are not executed again
     val texeraWorkflowCompiler = new WorkflowCompiler(
-      WorkflowInfo(request.operators, request.links, request.breakpoints),
+      ResultCache.reuseCachedResults(
+        WorkflowInfo(request.operators, request.links, request.breakpoints),
+        context
+      ),
       context
     )
 
@@ -194,9 +210,19 @@ class WorkflowWebsocketResource {
         sessionDownloadCache.remove(session.getId)
         send(session, WorkflowCompletedEvent())
         WorkflowWebsocketResource.sessionJobs.remove(session.getId)
+        WorkerSlotScheduler.release(jobID)
+        // once per job, off the workers writing the results
+        if (ResultCache.enabled) ResultCache.evict()
       },
       workflowStatusUpdateListener = statusUpdate => {
-        send(session, WebWorkflowStatusUpdateEvent.apply(statusUpdate))
+        // the operators writing the result cache are not shown
+        send(
+          session,
+          WebWorkflowStatusUpdateEvent(
+            statusUpdate.operatorStatistics
+              .filter(e => texeraWorkflowCompiler.workflow.operators.contains(e._1))
+          )
+        )
       },
       workflowResultUpdateListener = resultUpdate => {
         workflowResultService.onResultUpdate(resultUpdate, session)
@@ -221,19 +247,53 @@ class WorkflowWebsocketResource {
       },
       workflowExecutionErrorListener = errorOccurred => {
         send(session, WorkflowExecutionErrorEvent(errorOccurred.error.convertToMap()))
+      },
+      workflowTerminatedListener = _ => {
+        // a job killed after a fatal error does not complete, but it no longer runs workers
+        WorkerSlotScheduler.release(jobID)
       }
     )
 
-    val controllerActorRef = TexeraWebApplication.actorSystem.actorOf(
-      Controller.props(workflowTag, workflow, eventListener, ControllerConfig.default)
-    )
-    texeraWorkflowCompiler.initializeBreakpoint(controllerActorRef)
-    controllerActorRef ! ControlInvocation(AsyncRPCClient.IgnoreReply, StartWorkflow())
+    def startWorkflow(): Unit = {
+      val controllerActorRef = TexeraWebApplication.actorSystem.actorOf(
+        Controller.props(workflowTag, workflow, eventListener, ControllerConfig.default)
+      )
+      texeraWorkflowCompiler.initializeBreakpoint(controllerActorRef)
+      controllerActorRef ! ControlInvocation(AsyncRPCClient.IgnoreReply, StartWorkflow())
+
+      WorkflowWebsocketResource.sessionJobs(session.getId) =
+        (texeraWorkflowCompiler, controllerActorRef)
 
-    WorkflowWebsocketResource.sessionJobs(session.getId) =
-      (texeraWorkflowCompiler, controllerActorRef)
+      send(session, WorkflowStartedEvent())
+    }
 
-    send(session, WorkflowStartedEvent())
+    // each worker of the job occupies one slot of the shared cluster,
+    // the job is queued if other running jobs already hold the slots, and
+    // rejected if it needs more slots than one job may hold.
+    val numWorkers = workflow.getAllLayers.map(_.numWorkers).sum
+    sessionPendingJobs(session.getId) = jobID
+    val admission = WorkerSlotScheduler.submit(
+      jobID,
+      numWorkers,
+      () =>
+        // the job is not started if the session killed it while it was being admitted
+        if (sessionPendingJobs.remove(session.getId, jobID)) {
+          startWorkflow()
+        } else {
+          WorkerSlotScheduler.release(jobID)
+        }
+    )
+    admission match {
+      case WorkerSlotScheduler.Queued(position, freeSlots) =>
+        logger.logInfo(s"job $jobID is queued, waiting for $numWorkers worker slots")
+        send(session, WorkflowQueuedEvent(position, numWorkers, freeSlots))
+      case WorkerSlotScheduler.Rejected(jobSlots) =>
+        sessionPendingJobs.remove(session.getId, jobID)
+        val message =
+          s"the workflow needs $numWorkers workers, more than the $jobSlots one job may run"
+        send(session, WorkflowErrorEvent(generalErrors = Map("workerSlots" -> message)))
+      case WorkerSlotScheduler.Started =>
+    }
 
   }
 
@@ -243,13 +303,21 @@ class WorkflowWebsocketResource {
   }
 
   def killWorkflow(session: Session): Unit = {
-    WorkflowWebsocketResource.sessionJobs(session.getId)._2 ! PoisonPill
-    println("workflow killed")
+    sessionPendingJobs.remove(session.getId).foreach(WorkerSlotScheduler.release)
+    WorkflowWebsocketResource.sessionJobs.get(session.getId).foreach {
+      case (compiler, controller) =>
+        controller ! PoisonPill
+        WorkerSlotScheduler.release(compiler.context.jobID)
+        println("workflow killed")
+    }
   }
 
   @OnClose
   def myOnClose(session: Session, cr: CloseReason): Unit = {
-    if (WorkflowWebsocketResource.sessionJobs.contains(session.getId)) {
+    if (
+      WorkflowWebsocketResource.sessionJobs.contains(session.getId) ||
+      sessionPendingJobs.contains(session.getId)
+    ) {
       println(s"session ${session.getId} disconnected, kill its controller actor")
       this.killWorkflow(session)
     }
@@ -5,6 +5,7 @@ import edu.uci.ics.texera.web.model.jooq.generated.Tables.FILE
 import edu.uci.ics.texera.web.model.jooq.generated.tables.daos.FileDao
 import edu.uci.ics.texera.web.model.jooq.generated.tables.pojos.File
 import edu.uci.ics.texera.web.resource.auth.UserResource
+import edu.uci.ics.texera.workflow.operators.source.scan.FileIndex
 import io.dropwizard.jersey.sessions.Session
 import org.apache.commons.lang3.tuple.Pair
 import org.glassfish.jersey.media.multipart.{FormDataContentDisposition, FormDataParam}
@@ -65,6 +66,8 @@ class UserFileResource {
             description
           )
         )
+        // index the file for the scans that will read it, see FileIndex
+        FileIndex.buildInBackground(UserFileUtils.getFilePath(userID.toString, fileName))
         Response.ok().build()
       case None =>
         Response.status(Response.Status.UNAUTHORIZED).build()
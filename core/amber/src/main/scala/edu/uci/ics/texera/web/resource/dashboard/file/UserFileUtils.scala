@@ -3,6 +3,7 @@ package edu.uci.ics.texera.web.resource.dashboard.file
 import edu.uci.ics.amber.engine.common.amberexception.WorkflowRuntimeException
 import edu.uci.ics.amber.error.WorkflowRuntimeError
 import edu.uci.ics.texera.workflow.common.Utils
+import edu.uci.ics.texera.workflow.operators.source.scan.FileIndex
 
 import java.io._
 import java.nio.file.{Files, Path}
@@ -24,8 +25,10 @@ object UserFileUtils {
 
   @throws[FileIOException]
   def deleteFile(filePath: Path): Unit = {
-    try Files.deleteIfExists(filePath)
-    catch {
+    try {
+      Files.deleteIfExists(filePath)
+      Files.deleteIfExists(FileIndex.indexPath(filePath))
+    } catch {
       case e: Exception =>
         throw FileIOException(
           "Error occur when deleting the file " + filePath.toString + ": " + e.getMessage
@@ -50,20 +53,14 @@ object UserFileUtils {
 
   @throws[FileIOException]
   private def writeToFile(filePath: Path, fileStream: InputStream): Unit = {
-    val charArray = new Array[Char](1024)
-    val reader = new BufferedReader(new InputStreamReader(fileStream))
-    val writer = new BufferedWriter(new FileWriter(filePath.toString))
-    var bytesRead = 0
-    try while ({
-      bytesRead = reader.read(charArray)
-      bytesRead
-    } != -1) writer.write(charArray, 0, bytesRead)
+    // copy the bytes as they are, decoding them as text would corrupt binary
+    // and compressed files
+    try Files.copy(fileStream, filePath)
     catch {
       case e: IOException =>
         throw FileIOException("Error occurred while writing file on disk: " + e.getMessage)
     } finally {
-      if (reader != null) reader.close()
-      if (writer != null) writer.close()
+      fileStream.close()
     }
   }
 
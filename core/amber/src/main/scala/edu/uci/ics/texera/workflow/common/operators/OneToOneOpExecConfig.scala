@@ -11,16 +11,20 @@ import edu.uci.ics.amber.engine.operators.OpExecConfig
 
 class OneToOneOpExecConfig(
     override val id: OperatorIdentity,
-    val opExec: Int => IOperatorExecutor
+    val opExec: Int => IOperatorExecutor,
+    numWorkers: Int
 ) extends OpExecConfig(id) {
 
+  def this(id: OperatorIdentity, opExec: Int => IOperatorExecutor) =
+    this(id, opExec, Constants.defaultNumWorkers)
+
   override lazy val topology: Topology = {
     new Topology(
       Array(
         new WorkerLayer(
           makeLayer(id, "main"),
           opExec,
-          Constants.defaultNumWorkers,
+          numWorkers,
           FollowPrevious(),
           RoundRobinDeployment()
         )
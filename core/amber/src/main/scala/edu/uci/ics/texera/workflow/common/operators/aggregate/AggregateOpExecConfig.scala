@@ -12,7 +12,7 @@ import edu.uci.ics.amber.engine.architecture.deploysemantics.deploystrategy.{
 }
 import edu.uci.ics.amber.engine.architecture.deploysemantics.layer.WorkerLayer
 import edu.uci.ics.amber.engine.architecture.linksemantics.{AllToOne, HashBasedShuffle}
-import edu.uci.ics.amber.engine.common.Constants
+import edu.uci.ics.amber.engine.common.{Constants, IOperatorExecutor}
 import edu.uci.ics.amber.engine.common.virtualidentity.util.makeLayer
 import edu.uci.ics.amber.engine.common.virtualidentity.{
   ActorVirtualIdentity,
@@ -22,25 +22,59 @@ import edu.uci.ics.amber.engine.common.virtualidentity.{
 import edu.uci.ics.amber.engine.operators.OpExecConfig
 import edu.uci.ics.texera.workflow.common.tuple.schema.OperatorSchemaInfo
 
-class AggregateOpExecConfig[P <: AnyRef](
+object AggregateOpExecConfig {
+
+  /**
+    * @return the two layer execution of a DistributedAggregation
+    */
+  def apply[P <: AnyRef](
+      id: OperatorIdentity,
+      aggFunc: DistributedAggregation[P],
+      operatorSchemaInfo: OperatorSchemaInfo
+  ): AggregateOpExecConfig = {
+    val numGroupByKeys =
+      if (aggFunc.groupByFunc == null) 0
+      else aggFunc.groupByFunc(operatorSchemaInfo.inputSchemas(0)).getAttributes.size
+    new AggregateOpExecConfig(
+      id,
+      _ => new PartialAggregateOpExec(aggFunc),
+      _ => new FinalAggregateOpExec(aggFunc),
+      numGroupByKeys
+    )
+  }
+
+}
+
+/**
+  * Executes an aggregation in two layers: the partial layer aggregates the tuples each worker
+  * receives per group, and sends one partial tuple per group, starting with the group by
+  * keys, to the final layer. The partial tuples are shuffled by their group by keys among
+  * the final workers, or all sent to a single final worker if there is no group by key.
+  *
+  * @param partialExec the executor of the partial layer
+  * @param finalExec the executor of the final layer
+  * @param numGroupByKeys the number of group by keys at the start of the partial tuples
+  */
+class AggregateOpExecConfig(
     id: OperatorIdentity,
-    val aggFunc: DistributedAggregation[P],
-    operatorSchemaInfo: OperatorSchemaInfo
+    val partialExec: Int => IOperatorExecutor,
+    val finalExec: Int => IOperatorExecutor,
+    val numGroupByKeys: Int
 ) extends OpExecConfig(id) {
 
   override lazy val topology: Topology = {
 
-    if (aggFunc.groupByFunc == null) {
+    if (numGroupByKeys == 0) {
       val partialLayer = new WorkerLayer(
         makeLayer(id, "localAgg"),
-        _ => new PartialAggregateOpExec(aggFunc),
+        partialExec,
         Constants.defaultNumWorkers,
         UseAll(),
         RoundRobinDeployment()
       )
       val finalLayer = new WorkerLayer(
         makeLayer(id, "globalAgg"),
-        _ => new FinalAggregateOpExec(aggFunc),
+        finalExec,
         1,
         ForceLocal(),
         RandomDeployment()
@@ -57,14 +91,14 @@ class AggregateOpExecConfig[P <: AnyRef](
     } else {
       val partialLayer = new WorkerLayer(
         makeLayer(id, "localAgg"),
-        _ => new PartialAggregateOpExec(aggFunc),
+        partialExec,
         Constants.defaultNumWorkers,
         UseAll(),
         RoundRobinDeployment()
       )
       val finalLayer = new WorkerLayer(
         makeLayer(id, "globalAgg"),
-        _ => new FinalAggregateOpExec(aggFunc),
+        finalExec,
         Constants.defaultNumWorkers,
         FollowPrevious(),
         RoundRobinDeployment()
@@ -86,14 +120,8 @@ class AggregateOpExecConfig[P <: AnyRef](
     }
   }
 
-  override def getPartitionColumnIndices(layer: LayerIdentity): Array[Int] = {
-    aggFunc
-      .groupByFunc(operatorSchemaInfo.inputSchemas(0))
-      .getAttributes
-      .toArray
-      .indices
-      .toArray
-  }
+  override def getPartitionColumnIndices(layer: LayerIdentity): Array[Int] =
+    (0 until numGroupByKeys).toArray
 
   override def assignBreakpoint(
       breakpoint: GlobalBreakpoint[_]
@@ -0,0 +1,82 @@
+package edu.uci.ics.texera.workflow.common.operators.source
+
+import edu.uci.ics.texera.workflow.common.tuple.schema.{AttributeType, Schema}
+import edu.uci.ics.texera.workflow.operators.filter.FilterPredicate
+
+import scala.collection.JavaConverters._
+
+/**
+  * A source operator that can take over the projection and filters placed right after it,
+  * see WorkflowCompiler.pushDownIntoSources. The projection and filter operators stay in
+  * the workflow, the source only avoids producing what they would drop.
+  */
+trait SourcePushdown {
+
+  /**
+    * @param projection the attributes read by the downstream operators, all if empty
+    * @param predicates filters in AND, each filter a list of predicates in OR
+    */
+  def pushDown(projection: Option[List[String]], predicates: List[List[FilterPredicate]]): Unit
+
+}
+
+object SourcePushdown {
+
+  type BoundFilter = Array[(Int, AttributeType, FilterPredicate)]
+
+  /**
+    * Keeps the projected attributes of the schema, in the order of the schema.
+    */
+  def projectSchema(schema: Schema, projection: Option[List[String]]): Schema = {
+    projection match {
+      case Some(attributes) =>
+        Schema.newBuilder
+          .add(
+            schema.getAttributes.asScala
+              .filter(attr => attributes.exists(name => name.equalsIgnoreCase(attr.getName)))
+              .asJava
+          )
+          .build
+      case None => schema
+    }
+  }
+
+  /**
+    * Resolves each predicate to the index and type of its attribute in the schema. Filters
+    * referring to an attribute the schema does not have are left to the filter operator.
+    */
+  def bindPredicates(
+      schema: Schema,
+      predicates: List[List[FilterPredicate]]
+  ): Array[BoundFilter] = {
+    predicates
+      .filter(filter => filter.nonEmpty && filter.forall(p => schema.containsAttribute(p.attribute)))
+      .map(filter =>
+        filter
+          .map(p => {
+            val attributeType = schema.getAttribute(p.attribute).getType
+            (schema.getIndex(p.attribute).intValue, attributeType, p)
+          })
+          .toArray
+      )
+      .toArray
+  }
+
+  /**
+    * @return true if the fields satisfy at least one predicate of every filter. A predicate
+    *         that fails to evaluate keeps the row, so the filter operator reports the error.
+    */
+  def evaluate(filters: Array[BoundFilter], fields: Array[Object]): Boolean = {
+    filters.forall(filter =>
+      filter.exists {
+        case (index, attributeType, predicate) =>
+          try {
+            predicate.evaluate(fields(index), attributeType)
+          } catch {
+            case _: Throwable => true
+          }
+      }
+    )
+  }
+
+}
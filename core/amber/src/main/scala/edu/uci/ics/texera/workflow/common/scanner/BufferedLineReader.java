@@ -0,0 +1,76 @@
+package edu.uci.ics.texera.workflow.common.scanner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads '\n' terminated UTF-8 lines from a stream while keeping track of the number of
+ * bytes consumed, so that a reader started at a seek position knows where each line starts.
+ */
+public class BufferedLineReader {
+    private InputStream input;
+    private long bytesRead = 0;
+    private int cursor;
+    private int bufferSize = 0;
+    private byte[] buffer = new byte[8192]; //8k buffer
+    private ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    public BufferedLineReader(InputStream input) {
+        this.input = input;
+    }
+
+    /**
+     * @return the next line without its line terminator, or null at the end of the stream.
+     */
+    public String readLine() throws IOException {
+        outputStream.reset();
+        while (true) {
+            if (cursor >= bufferSize) {
+                fillBuffer();
+                if (bufferSize == -1) {
+                    return outputStream.size() > 0 ? toLine() : null;
+                }
+            }
+            int start = cursor;
+            while (cursor < bufferSize) {
+                if (buffer[cursor] == '\n') {
+                    outputStream.write(buffer, start, cursor - start);
+                    cursor++;
+                    bytesRead += cursor - start;
+                    return toLine();
+                }
+                cursor++;
+            }
+            outputStream.write(buffer, start, bufferSize - start);
+            bytesRead += bufferSize - start;
+        }
+    }
+
+    /**
+     * @return the number of bytes consumed by the lines returned so far, including terminators.
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    private String toLine() {
+        byte[] bytes = outputStream.toByteArray();
+        int length = bytes.length;
+        // drop the '\r' of a '\r\n' terminated line
+        if (length > 0 && bytes[length - 1] == '\r') {
+            length--;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void fillBuffer() throws IOException {
+        bufferSize = input.read(buffer);
+        cursor = 0;
+    }
+
+    public void close() throws IOException {
+        input.close();
+    }
+}
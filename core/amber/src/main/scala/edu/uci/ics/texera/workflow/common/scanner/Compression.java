@@ -0,0 +1,282 @@
+package edu.uci.ics.texera.workflow.common.scanner;
+
+import com.github.luben.zstd.ZstdInputStream;
+import org.tukaani.xz.XZInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The compression of a scanned file, detected from its magic bytes rather than its name,
+ * since uploaded files are stored without their extension.
+ *
+ * Compressed files are decompressed on a separate thread, see PipelinedInputStream.
+ * Block compressed files, bgzip (BGZF) and seekable zstd, consist of independently
+ * compressed blocks whose offsets and decompressed sizes are known without decompressing,
+ * so they can be split among workers at block boundaries like an uncompressed file.
+ */
+public enum Compression {
+    NONE,
+    GZIP,
+    BGZF,
+    XZ,
+    ZSTD,
+    ZSTD_SEEKABLE;
+
+    private static final int ZSTD_MAGIC = 0xFD2FB528;
+    private static final int ZSTD_SEEKABLE_MAGIC = 0x8F92EAB1;
+    private static final int ZSTD_SEEK_TABLE_FOOTER_SIZE = 9;
+    private static final int ZSTD_SKIPPABLE_HEADER_SIZE = 8;
+    private static final byte[] XZ_MAGIC = {(byte) 0xFD, '7', 'z', 'X', 'Z', 0};
+
+    /**
+     * @return true if the file can be split among workers at block boundaries
+     */
+    public boolean isSplittable() {
+        return this == NONE || this == BGZF || this == ZSTD_SEEKABLE;
+    }
+
+    public static Compression detect(String filePath) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "r")) {
+            byte[] header = new byte[18];
+            int length = file.read(header);
+            if (length >= 2 && (header[0] & 0xff) == 0x1f && (header[1] & 0xff) == 0x8b) {
+                return length == header.length && readBgzfBlockSize(header) > 0 ? BGZF : GZIP;
+            }
+            if (length >= XZ_MAGIC.length && startsWith(header, XZ_MAGIC)) {
+                return XZ;
+            }
+            if (length >= 4 && readIntLE(header, 0) == ZSTD_MAGIC) {
+                if (file.length() >= ZSTD_SEEK_TABLE_FOOTER_SIZE) {
+                    byte[] footer = new byte[ZSTD_SEEK_TABLE_FOOTER_SIZE];
+                    file.seek(file.length() - footer.length);
+                    file.readFully(footer);
+                    if (readIntLE(footer, 5) == ZSTD_SEEKABLE_MAGIC) {
+                        return ZSTD_SEEKABLE;
+                    }
+                }
+                return ZSTD;
+            }
+            return NONE;
+        }
+    }
+
+    /**
+     * Opens the file for reading its decompressed bytes.
+     */
+    public static InputStream open(String filePath) throws IOException {
+        return open(filePath, detect(filePath), 0);
+    }
+
+    /**
+     * Opens the file for reading its decompressed bytes, starting at the compressed block at
+     * blockOffset. Compressed files are decompressed on a separate thread.
+     */
+    public static InputStream open(String filePath, Compression compression, long blockOffset)
+            throws IOException {
+        FileInputStream file = new FileInputStream(filePath);
+        if (blockOffset > 0) {
+            file.getChannel().position(blockOffset);
+        }
+        InputStream input = new BufferedInputStream(file, 1 << 16);
+        switch (compression) {
+            case GZIP:
+            case BGZF:
+                // a BGZF file is a series of gzip members, read one after another
+                return new PipelinedInputStream(new GZIPInputStream(input, 1 << 16));
+            case XZ:
+                return new PipelinedInputStream(new XZInputStream(input));
+            case ZSTD:
+            case ZSTD_SEEKABLE:
+                // the seek table is a skippable frame, ignored by the decompressor
+                return new PipelinedInputStream(new ZstdInputStream(input));
+            default:
+                return input;
+        }
+    }
+
+    /**
+     * Skips exactly n bytes of the stream, which may need several calls on a decompressing
+     * stream.
+     */
+    public static void skipFully(InputStream input, long n) throws IOException {
+        while (n > 0) {
+            long skipped = input.skip(n);
+            if (skipped <= 0) {
+                if (input.read() == -1) {
+                    throw new EOFException("unexpected end of the stream while skipping");
+                }
+                skipped = 1;
+            }
+            n -= skipped;
+        }
+    }
+
+    /**
+     * Splits the file into numSplits ranges of about the same compressed size, some of which
+     * may be empty. A file that is not splittable is read by a single split.
+     */
+    public static List<FileSplit> split(String filePath, Compression compression, int numSplits)
+            throws IOException {
+        List<FileSplit> splits = new ArrayList<>();
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "r")) {
+            long totalBytes = file.length();
+            switch (compression) {
+                case NONE:
+                    for (int i = 0; i < numSplits; i++) {
+                        long endOffset = i != numSplits - 1 ? totalBytes / numSplits * (i + 1) : totalBytes;
+                        splits.add(new FileSplit(0, totalBytes / numSplits * i, endOffset));
+                    }
+                    return splits;
+                case BGZF:
+                    return splitBlocks(bgzfBlocks(file), totalBytes, numSplits);
+                case ZSTD_SEEKABLE:
+                    return splitBlocks(zstdSeekableFrames(file), totalBytes, numSplits);
+                default:
+                    splits.add(new FileSplit(0, 0, Long.MAX_VALUE));
+                    return splits;
+            }
+        }
+    }
+
+    /**
+     * Assigns the blocks, given as pairs of compressed offset and decompressed size, to
+     * numSplits contiguous ranges. Each split starts decompressing at the block before its
+     * first one, so that it can tell if its first line starts exactly at its first block.
+     */
+    private static List<FileSplit> splitBlocks(List<long[]> blocks, long totalBytes, int numSplits) {
+        List<FileSplit> splits = new ArrayList<>();
+        // decompressed position of the first block of each split, and of the block before it
+        long[] firstPositions = new long[numSplits];
+        long[] previousBlockOffsets = new long[numSplits];
+        long[] previousPositions = new long[numSplits];
+        int split = 1;
+        long position = 0;
+        long[] previous = null;
+        long previousPosition = 0;
+        for (long[] block : blocks) {
+            // the first block always belongs to the first split. If several splits start at
+            // the same block, all but the last of them are empty.
+            while (previous != null && split < numSplits && block[0] >= totalBytes / numSplits * split) {
+                firstPositions[split] = position;
+                previousBlockOffsets[split] = previous[0];
+                previousPositions[split] = previousPosition;
+                split++;
+            }
+            previous = block;
+            previousPosition = position;
+            position += block[1];
+        }
+        // splits past the last block are empty
+        for (; split < numSplits; split++) {
+            firstPositions[split] = position;
+            previousBlockOffsets[split] = previous == null ? 0 : previous[0];
+            previousPositions[split] = previous == null ? 0 : previousPosition;
+        }
+        for (int i = 0; i < numSplits; i++) {
+            long base = i == 0 ? 0 : previousPositions[i];
+            long endPosition = i != numSplits - 1 ? firstPositions[i + 1] : position;
+            splits.add(new FileSplit(
+                    i == 0 ? 0 : previousBlockOffsets[i],
+                    i == 0 ? 0 : firstPositions[i] - base,
+                    endPosition - base
+            ));
+        }
+        return splits;
+    }
+
+    /**
+     * Walks the headers of the BGZF blocks, each carrying its compressed size in the BC extra
+     * subfield and its decompressed size in the last 4 bytes.
+     */
+    private static List<long[]> bgzfBlocks(RandomAccessFile file) throws IOException {
+        List<long[]> blocks = new ArrayList<>();
+        byte[] header = new byte[18];
+        byte[] isize = new byte[4];
+        long offset = 0;
+        long totalBytes = file.length();
+        while (offset + header.length <= totalBytes) {
+            file.seek(offset);
+            file.readFully(header);
+            int blockSize = readBgzfBlockSize(header);
+            if (blockSize <= 0) {
+                throw new IOException("not a BGZF block at offset " + offset);
+            }
+            file.seek(offset + blockSize - isize.length);
+            file.readFully(isize);
+            blocks.add(new long[]{offset, readIntLE(isize, 0) & 0xffffffffL});
+            offset += blockSize;
+        }
+        return blocks;
+    }
+
+    /**
+     * @return the total size of the BGZF block starting with this gzip header, or -1 if the
+     * header does not have the BC extra subfield.
+     */
+    private static int readBgzfBlockSize(byte[] header) {
+        boolean hasExtra = (header[3] & 0x04) != 0;
+        int extraLength = (header[10] & 0xff) | (header[11] & 0xff) << 8;
+        if ((header[0] & 0xff) != 0x1f || (header[1] & 0xff) != 0x8b || !hasExtra || extraLength < 6) {
+            return -1;
+        }
+        // bgzip writes the BC subfield first
+        if (header[12] != 'B' || header[13] != 'C' || header[14] != 2 || header[15] != 0) {
+            return -1;
+        }
+        return ((header[16] & 0xff) | (header[17] & 0xff) << 8) + 1;
+    }
+
+    /**
+     * Reads the frames of a seekable zstd file from the seek table at its end: entries of
+     * compressed size, decompressed size and an optional checksum, in the order of the frames.
+     */
+    private static List<long[]> zstdSeekableFrames(RandomAccessFile file) throws IOException {
+        byte[] footer = new byte[ZSTD_SEEK_TABLE_FOOTER_SIZE];
+        file.seek(file.length() - footer.length);
+        file.readFully(footer);
+        long numFrames = readIntLE(footer, 0) & 0xffffffffL;
+        boolean hasChecksum = (footer[4] & 0x80) != 0;
+        int entrySize = hasChecksum ? 12 : 8;
+        long tableStart = file.length() - footer.length - numFrames * entrySize;
+        if (tableStart < ZSTD_SKIPPABLE_HEADER_SIZE) {
+            throw new IOException("invalid zstd seek table");
+        }
+        byte[] table = new byte[(int) (numFrames * entrySize)];
+        file.seek(tableStart);
+        file.readFully(table);
+
+        List<long[]> frames = new ArrayList<>();
+        long offset = 0;
+        for (int i = 0; i < numFrames; i++) {
+            long compressedSize = readIntLE(table, i * entrySize) & 0xffffffffL;
+            long decompressedSize = readIntLE(table, i * entrySize + 4) & 0xffffffffL;
+            frames.add(new long[]{offset, decompressedSize});
+            offset += compressedSize;
+        }
+        return frames;
+    }
+
+    private static int readIntLE(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff)
+                | (bytes[offset + 1] & 0xff) << 8
+                | (bytes[offset + 2] & 0xff) << 16
+                | (bytes[offset + 3] & 0xff) << 24;
+    }
+
+    private static boolean startsWith(byte[] bytes, byte[] prefix) {
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,35 @@
+package edu.uci.ics.texera.workflow.common.scanner;
+
+import java.io.Serializable;
+
+/**
+ * A range of a possibly compressed file, read by one worker.
+ *
+ * Decompression starts at blockOffset, a position in the file where a compressed block
+ * begins (0 for an uncompressed file). startOffset and endOffset are positions in the
+ * decompressed bytes counted from there: the worker reads the lines that start in
+ * [startOffset, endOffset), and resyncs to a line break if startOffset is not 0.
+ */
+public class FileSplit implements Serializable {
+    public final long blockOffset;
+    public final long startOffset;
+    public final long endOffset;
+
+    public FileSplit(long blockOffset, long startOffset, long endOffset) {
+        this.blockOffset = blockOffset;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+    }
+
+    /**
+     * @return true if this split starts at the beginning of the file
+     */
+    public boolean isFirst() {
+        return blockOffset == 0 && startOffset == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + blockOffset + ": " + startOffset + ", " + endOffset + ")";
+    }
+}
@@ -0,0 +1,549 @@
+package edu.uci.ics.texera.workflow.common.scanner;
+
+import edu.uci.ics.texera.workflow.common.tuple.schema.AttributeType;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Reads the CSV records that start in the byte range [startOffset, endOffset) of a file
+ * through a memory-mapped window.
+ *
+ * Delimiters, line breaks and quotes are located 8 bytes at a time, and INTEGER, LONG and
+ * simple DOUBLE fields are parsed directly from the mapped bytes. Fields that can not be
+ * parsed on the fast path are returned as Strings, to be parsed by the caller.
+ *
+ * Quoted fields follow RFC 4180: they may contain delimiters, line breaks and escaped ("")
+ * quotes. A record that starts in the range is always read to its end, even if it extends
+ * past endOffset, the reader of the next range skips it while resyncing to a line break.
+ * Lines end with "\n", "\r\n" or a lone "\r".
+ */
+public class MappedBlockReader {
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+    public static final int DEFAULT_WINDOW_SIZE = 64 << 20; //64M window
+    private static final int MAX_WINDOW_SIZE = Integer.MAX_VALUE - 8;
+    private static final int QUOTED = 1;
+    private static final int ESCAPED = 2;
+    // exact powers of ten, a mantissa below 2^53 divided by one of them is correctly rounded
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // unmaps a mapped buffer before it is garbage collected, as Lucene's MMapDirectory does:
+    // with Unsafe.invokeCleaner on Java 9+, with the Cleaner of the buffer on Java 8. null if
+    // neither is accessible, the windows are then unmapped when they are collected.
+    private static final Consumer<ByteBuffer> UNMAPPER = createUnmapper();
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long startPosition;
+    private final long endOffset;
+    private final byte delimiter;
+    private final long delimiterPattern;
+    private final long newlinePattern;
+    private final long carriageReturnPattern;
+    private final long quotePattern;
+    private final AttributeType[] types;
+    private final boolean[] kept;
+
+    private int windowSize;
+    private MappedByteBuffer window;
+    private ByteBuffer view;
+    private long windowStart;
+    private int windowLimit;
+    // absolute position of the next record
+    private long position;
+
+    // boundaries of the fields of the current record, relative to the window
+    private int fieldCount;
+    private int[] fieldStarts = new int[16];
+    private int[] fieldEnds = new int[16];
+    private int[] fieldFlags = new int[16];
+    private byte[] scratch = new byte[256];
+    private boolean numberParsed;
+
+    private long readNanos = 0;
+
+    public MappedBlockReader(String filePath, long startOffset, long endOffset, char delimiter,
+                             AttributeType[] types) throws IOException {
+        this(filePath, startOffset, endOffset, delimiter, types, null);
+    }
+
+    /**
+     * @param kept the fields to parse, the others are returned as null. All fields if null.
+     */
+    public MappedBlockReader(String filePath, long startOffset, long endOffset, char delimiter,
+                             AttributeType[] types, boolean[] kept) throws IOException {
+        this(filePath, startOffset, endOffset, delimiter, types, kept, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param windowSize the initial size of the mapped window, at least 8 bytes, doubled for
+     *                   a record that does not fit in it.
+     */
+    public MappedBlockReader(String filePath, long startOffset, long endOffset, char delimiter,
+                             AttributeType[] types, boolean[] kept, int windowSize)
+            throws IOException {
+        this.windowSize = Math.max(windowSize, 8);
+        this.channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.endOffset = Math.min(endOffset, fileSize);
+        this.delimiter = (byte) delimiter;
+        this.delimiterPattern = broadcast(this.delimiter);
+        this.newlinePattern = broadcast((byte) '\n');
+        this.carriageReturnPattern = broadcast((byte) '\r');
+        this.quotePattern = broadcast((byte) '"');
+        this.types = types;
+        this.kept = kept;
+
+        if (startOffset > 0) {
+            // start one byte early, so that a record beginning exactly at startOffset is kept,
+            // then skip the partial line, it belongs to the previous reader
+            position = startOffset - 1;
+            skipLine();
+        } else {
+            position = 0;
+        }
+        startPosition = position;
+    }
+
+    public boolean hasNext() {
+        return position < endOffset && position < fileSize;
+    }
+
+    /**
+     * @return the fields of the next record, or null if the record is blank.
+     * Fields are nulls (empty or not kept), Integers, Longs and Doubles parsed on the fast
+     * path, or Strings.
+     */
+    public Object[] readRecord() throws IOException {
+        long startTime = System.nanoTime();
+        tokenizeRecord();
+        Object[] values = new Object[types.length];
+        boolean blank = true;
+        for (int i = 0; i < Math.min(fieldCount, types.length); i++) {
+            if (kept == null || kept[i]) {
+                values[i] = parseField(i);
+                if (values[i] != null) {
+                    blank = false;
+                }
+            } else if (fieldFlags[i] != 0 || fieldEnds[i] > fieldStarts[i]) {
+                blank = false;
+            }
+        }
+        readNanos += System.nanoTime() - startTime;
+        return blank ? null : values;
+    }
+
+    public void skipRecord() throws IOException {
+        tokenizeRecord();
+    }
+
+    /**
+     * @return the number of bytes consumed so far.
+     */
+    public long getBytesRead() {
+        return position - startPosition;
+    }
+
+    /**
+     * @return the read throughput in bytes per second, measured over the time spent in readRecord.
+     */
+    public double getBytesPerSecond() {
+        return readNanos == 0 ? 0 : getBytesRead() * 1e9 / readNanos;
+    }
+
+    public void close() throws IOException {
+        unmap();
+        channel.close();
+    }
+
+    private void tokenizeRecord() throws IOException {
+        long recordStart = position;
+        ensureMapped(recordStart);
+        while (!tokenize()) {
+            // the record is cut by the end of the window, map a window starting at the record
+            if (windowStart == recordStart) {
+                if (windowSize == MAX_WINDOW_SIZE) {
+                    throw new IOException("record at " + recordStart + " exceeds " + MAX_WINDOW_SIZE + " bytes");
+                }
+                windowSize = (int) Math.min((long) windowSize * 2, MAX_WINDOW_SIZE);
+            }
+            map(recordStart);
+        }
+    }
+
+    /**
+     * Splits the record at the current position into fields.
+     *
+     * @return false if the record does not end inside the current window.
+     */
+    private boolean tokenize() {
+        int limit = windowLimit;
+        boolean atEof = windowStart + limit >= fileSize;
+        int i = (int) (position - windowStart);
+        fieldCount = 0;
+        while (true) {
+            if (i < limit && window.get(i) == '"') {
+                int j = i + 1;
+                int flags = QUOTED;
+                while (true) {
+                    j = find(quotePattern, (byte) '"', j, limit);
+                    if (j + 1 >= limit && !atEof) {
+                        // can not tell a closing quote from an escaped one yet
+                        return false;
+                    }
+                    if (j >= limit) {
+                        // unterminated quote, the field extends to the end of the file
+                        break;
+                    }
+                    if (j + 1 < limit && window.get(j + 1) == '"') {
+                        flags |= ESCAPED;
+                        j += 2;
+                        continue;
+                    }
+                    break;
+                }
+                addField(i + 1, Math.min(j, limit), flags);
+                // ignore any stray bytes between the closing quote and the next delimiter
+                i = findDelimiterOrNewline(Math.min(j + 1, limit), limit);
+            } else {
+                int j = findDelimiterOrNewline(i, limit);
+                addField(i, j, 0);
+                i = j;
+            }
+
+            if (i >= limit) {
+                if (!atEof) {
+                    return false;
+                }
+                position = windowStart + limit;
+                return true;
+            }
+            if (window.get(i) == delimiter) {
+                i++;
+                continue;
+            }
+            int lineEnd = endOfLineBreak(i, limit, atEof);
+            if (lineEnd < 0) {
+                return false;
+            }
+            position = windowStart + lineEnd;
+            return true;
+        }
+    }
+
+    /**
+     * @param i the index of a '\n' or '\r'
+     * @return the index after the line break starting at i, or -1 if a '\r' ends the window
+     * and the next window may start with the '\n' of a "\r\n".
+     */
+    private int endOfLineBreak(int i, int limit, boolean atEof) {
+        if (window.get(i) == '\n') {
+            return i + 1;
+        }
+        if (i + 1 < limit) {
+            return window.get(i + 1) == '\n' ? i + 2 : i + 1;
+        }
+        return atEof ? i + 1 : -1;
+    }
+
+    private void skipLine() throws IOException {
+        ensureMapped(position);
+        while (true) {
+            boolean atEof = windowStart + windowLimit >= fileSize;
+            int i = findNewline((int) (position - windowStart), windowLimit);
+            if (i < windowLimit) {
+                int lineEnd = endOfLineBreak(i, windowLimit, atEof);
+                if (lineEnd >= 0) {
+                    position = windowStart + lineEnd;
+                    return;
+                }
+                // a '\r' ends the window, map the next one from it to look for its '\n'
+                map(windowStart + i);
+                position = windowStart;
+                continue;
+            }
+            if (atEof) {
+                position = fileSize;
+                return;
+            }
+            map(windowStart + windowLimit);
+            position = windowStart;
+        }
+    }
+
+    private void ensureMapped(long pos) throws IOException {
+        if (window == null || pos < windowStart || pos >= windowStart + windowLimit) {
+            map(pos);
+        }
+    }
+
+    private void map(long pos) throws IOException {
+        unmap();
+        windowStart = pos;
+        windowLimit = (int) Math.min(windowSize, fileSize - pos);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowLimit);
+        window.order(ByteOrder.LITTLE_ENDIAN);
+        view = window.duplicate();
+    }
+
+    private void addField(int start, int end, int flags) {
+        if (fieldCount == fieldStarts.length) {
+            int length = fieldCount * 2;
+            fieldStarts = java.util.Arrays.copyOf(fieldStarts, length);
+            fieldEnds = java.util.Arrays.copyOf(fieldEnds, length);
+            fieldFlags = java.util.Arrays.copyOf(fieldFlags, length);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldFlags[fieldCount] = flags;
+        fieldCount++;
+    }
+
+    /**
+     * Unmaps the current window right away instead of when it is garbage collected, so that
+     * a reader does not keep up to its whole range mapped. The window must not be read after.
+     */
+    private void unmap() {
+        if (window != null && UNMAPPER != null) {
+            UNMAPPER.accept(window);
+        }
+        window = null;
+        view = null;
+    }
+
+    /**
+     * @return the index of the first byte equal to value in [from, limit), or limit.
+     */
+    private int find(long pattern, byte value, int from, int limit) {
+        int i = from;
+        while (i + 8 <= limit) {
+            long mask = match(window.getLong(i), pattern);
+            if (mask != 0) {
+                return i + (Long.numberOfTrailingZeros(mask) >>> 3);
+            }
+            i += 8;
+        }
+        while (i < limit && window.get(i) != value) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return the index of the first '\n' or '\r' in [from, limit), or limit.
+     */
+    private int findNewline(int from, int limit) {
+        int i = from;
+        while (i + 8 <= limit) {
+            long word = window.getLong(i);
+            long mask = match(word, newlinePattern) | match(word, carriageReturnPattern);
+            if (mask != 0) {
+                return i + (Long.numberOfTrailingZeros(mask) >>> 3);
+            }
+            i += 8;
+        }
+        while (i < limit && window.get(i) != '\n' && window.get(i) != '\r') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return the index of the first delimiter, '\n' or '\r' in [from, limit), or limit.
+     */
+    private int findDelimiterOrNewline(int from, int limit) {
+        int i = from;
+        while (i + 8 <= limit) {
+            long word = window.getLong(i);
+            long mask = match(word, delimiterPattern) | match(word, newlinePattern)
+                    | match(word, carriageReturnPattern);
+            if (mask != 0) {
+                return i + (Long.numberOfTrailingZeros(mask) >>> 3);
+            }
+            i += 8;
+        }
+        while (i < limit) {
+            byte b = window.get(i);
+            if (b == delimiter || b == '\n' || b == '\r') {
+                return i;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static Consumer<ByteBuffer> createUnmapper() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Object unsafe = theUnsafe.get(null);
+            return buffer -> invoke(invokeCleaner, unsafe, buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // not Java 9+
+        }
+        try {
+            Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+            Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            return buffer -> {
+                Object bufferCleaner = invoke(cleaner, buffer);
+                if (bufferCleaner != null) {
+                    invoke(clean, bufferCleaner);
+                }
+            };
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            // the buffer stays mapped until it is collected
+            return null;
+        }
+    }
+
+    private static long broadcast(byte value) {
+        return (value & 0xFFL) * ONES;
+    }
+
+    /**
+     * Sets the high bit of every byte of word equal to the byte in pattern. Bytes above a
+     * match may be falsely flagged, so only the lowest set bit (the first byte, as the
+     * window is little-endian) is exact.
+     */
+    private static long match(long word, long pattern) {
+        long x = word ^ pattern;
+        return (x - ONES) & ~x & HIGHS;
+    }
+
+    private Object parseField(int field) {
+        int start = fieldStarts[field];
+        int end = fieldEnds[field];
+        int flags = fieldFlags[field];
+        if (flags == 0 && start == end) {
+            return null;
+        }
+        if ((flags & ESCAPED) == 0) {
+            switch (types[field]) {
+                case INTEGER: {
+                    long value = parseLong(start, end);
+                    if (numberParsed && value == (int) value) {
+                        return (int) value;
+                    }
+                    break;
+                }
+                case LONG: {
+                    long value = parseLong(start, end);
+                    if (numberParsed) {
+                        return value;
+                    }
+                    break;
+                }
+                case DOUBLE: {
+                    double value = parseDouble(start, end);
+                    if (numberParsed) {
+                        return value;
+                    }
+                    break;
+                }
+                default:
+                    break;
+            }
+        }
+        String value = decode(start, end);
+        return (flags & ESCAPED) == 0 ? value : value.replace("\"\"", "\"");
+    }
+
+    /**
+     * Parses an optionally signed integer of at most 18 digits, sets numberParsed on success.
+     */
+    private long parseLong(int start, int end) {
+        numberParsed = false;
+        int i = start;
+        boolean negative = false;
+        if (i < end && (window.get(i) == '-' || window.get(i) == '+')) {
+            negative = window.get(i) == '-';
+            i++;
+        }
+        if (i == end || end - i > 18) {
+            return 0;
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = window.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return 0;
+            }
+            value = value * 10 + digit;
+        }
+        numberParsed = true;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses a plain decimal of at most 15 significant digits, sets numberParsed on success.
+     */
+    private double parseDouble(int start, int end) {
+        numberParsed = false;
+        int i = start;
+        boolean negative = false;
+        if (i < end && (window.get(i) == '-' || window.get(i) == '+')) {
+            negative = window.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            byte b = window.get(i);
+            if (b == '.' && !fraction) {
+                fraction = true;
+                continue;
+            }
+            int digit = b - '0';
+            if (digit < 0 || digit > 9) {
+                return 0;
+            }
+            mantissa = mantissa * 10 + digit;
+            digits++;
+            if (fraction) {
+                fractionDigits++;
+            }
+        }
+        if (digits == 0 || digits > 15 || fractionDigits >= POWERS_OF_TEN.length) {
+            return 0;
+        }
+        numberParsed = true;
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    private String decode(int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        view.position(start);
+        view.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,133 @@
+package edu.uci.ics.texera.workflow.common.scanner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads an input stream on a separate thread into a bounded queue of chunks, so that an
+ * expensive stream, e.g. a decompressing one, runs in parallel with the parser reading it.
+ * The reading thread blocks when the queue is full, which bounds the memory used.
+ * An exception thrown while reading the input is thrown by the reader once it has read
+ * the bytes before it.
+ */
+public class PipelinedInputStream extends InputStream {
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 20; //1M chunks
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final byte[] END = new byte[0];
+
+    private final BlockingQueue<byte[]> queue;
+    private final Thread thread;
+    private volatile boolean closed = false;
+    private volatile Throwable failure = null;
+    private byte[] chunk = new byte[0];
+    private int cursor = 0;
+
+    public PipelinedInputStream(InputStream input) {
+        this(input, DEFAULT_CHUNK_SIZE, DEFAULT_CAPACITY);
+    }
+
+    public PipelinedInputStream(InputStream input, int chunkSize, int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.thread = new Thread(() -> {
+            try {
+                while (!closed) {
+                    byte[] buffer = new byte[chunkSize];
+                    int length = 0;
+                    int read = 0;
+                    try {
+                        while (length < chunkSize && (read = input.read(buffer, length, chunkSize - length)) != -1) {
+                            length += read;
+                        }
+                    } catch (Throwable e) {
+                        // e.g. an IOException or a RuntimeException of a corrupt compressed
+                        // stream, passed on after the bytes read before it
+                        failure = e;
+                        read = -1;
+                    }
+                    if (length > 0) {
+                        queue.put(length == chunkSize ? buffer : Arrays.copyOf(buffer, length));
+                    }
+                    if (read == -1) {
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                // closed by the reader
+            } finally {
+                try {
+                    input.close();
+                } catch (IOException ignored) {
+                }
+                try {
+                    if (!closed) {
+                        queue.put(END);
+                    }
+                } catch (InterruptedException ignored) {
+                }
+            }
+        }, "pipelined-input-stream");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!nextChunk()) {
+            return -1;
+        }
+        return chunk[cursor++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!nextChunk()) {
+            return -1;
+        }
+        int length = Math.min(len, chunk.length - cursor);
+        System.arraycopy(chunk, cursor, b, off, length);
+        cursor += length;
+        return length;
+    }
+
+    @Override
+    public int available() {
+        return chunk.length - cursor;
+    }
+
+    /**
+     * @return false at the end of the stream, otherwise makes sure a chunk has bytes left.
+     */
+    private boolean nextChunk() throws IOException {
+        while (cursor >= chunk.length) {
+            if (chunk == END) {
+                if (failure instanceof IOException) {
+                    throw (IOException) failure;
+                } else if (failure instanceof RuntimeException) {
+                    throw (RuntimeException) failure;
+                } else if (failure instanceof Error) {
+                    throw (Error) failure;
+                }
+                return false;
+            }
+            try {
+                chunk = queue.take();
+            } catch (InterruptedException e) {
+                throw new IOException("interrupted while waiting for input", e);
+            }
+            cursor = 0;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        thread.interrupt();
+    }
+}
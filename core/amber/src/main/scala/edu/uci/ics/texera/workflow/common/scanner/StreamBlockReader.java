@@ -0,0 +1,177 @@
+package edu.uci.ics.texera.workflow.common.scanner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads the CSV records that start in the byte range [startOffset, endOffset) of a stream,
+ * e.g. the decompressed bytes of a compressed file, which can not be mapped.
+ *
+ * Records are split as MappedBlockReader splits them: quoted fields follow RFC 4180, lines
+ * end with "\n", "\r\n" or a lone "\r", and a record that starts in the range is read to its
+ * end, the reader of the next range skips it while resyncing to a line break. Fields are
+ * decoded as UTF-8 and returned as Strings, to be parsed by the caller.
+ */
+public class StreamBlockReader {
+    private static final int END = -1;
+
+    private final InputStream input;
+    private final long endOffset;
+    private final char delimiter;
+    private final int numFields;
+    private final boolean[] kept;
+
+    private final byte[] buffer = new byte[1 << 16];
+    private int cursor = 0;
+    private int bufferSize = 0;
+    // position of the next byte of the stream, counted from its start
+    private long position;
+
+    private byte[] field = new byte[256];
+    private int fieldLength;
+
+    /**
+     * @param input     the stream, positioned at its start
+     * @param numFields the number of fields of a record, missing fields are nulls
+     * @param kept      the fields to decode, the others are returned as null. All fields if null.
+     */
+    public StreamBlockReader(InputStream input, long startOffset, long endOffset, char delimiter,
+                             int numFields, boolean[] kept) throws IOException {
+        this.input = input;
+        this.endOffset = endOffset;
+        this.delimiter = delimiter;
+        this.numFields = numFields;
+        this.kept = kept;
+        if (startOffset > 0) {
+            // start one byte early, so that a record beginning exactly at startOffset is kept,
+            // then skip the partial line, it belongs to the previous reader
+            Compression.skipFully(input, startOffset - 1);
+            position = startOffset - 1;
+            skipLine();
+        }
+    }
+
+    public boolean hasNext() throws IOException {
+        return position < endOffset && peek() != END;
+    }
+
+    /**
+     * @return the fields of the next record, or null if the record is blank.
+     * Fields are nulls (empty or not kept) or Strings.
+     */
+    public Object[] readRecord() throws IOException {
+        Object[] values = new Object[numFields];
+        boolean blank = true;
+        int index = 0;
+        while (true) {
+            boolean quoted = readField();
+            if (quoted || fieldLength > 0) {
+                blank = false;
+                if (index < numFields && (kept == null || kept[index])) {
+                    values[index] = new String(field, 0, fieldLength, StandardCharsets.UTF_8);
+                }
+            }
+            index++;
+            int next = read();
+            if (next != delimiter) {
+                if (next == '\r' && peek() == '\n') {
+                    read();
+                }
+                return blank ? null : values;
+            }
+        }
+    }
+
+    public void skipRecord() throws IOException {
+        readRecord();
+    }
+
+    public void close() throws IOException {
+        input.close();
+    }
+
+    /**
+     * Reads a field into the field buffer, up to the delimiter or line break after it, which
+     * is not consumed.
+     *
+     * @return true if the field is quoted.
+     */
+    private boolean readField() throws IOException {
+        fieldLength = 0;
+        if (peek() != '"') {
+            int next = peek();
+            while (next != END && next != delimiter && next != '\n' && next != '\r') {
+                append(read());
+                next = peek();
+            }
+            return false;
+        }
+        read();
+        while (true) {
+            int next = read();
+            if (next == END) {
+                // unterminated quote, the field extends to the end of the stream
+                return true;
+            }
+            if (next == '"') {
+                if (peek() != '"') {
+                    break;
+                }
+                read();
+            }
+            append(next);
+        }
+        // ignore any stray bytes between the closing quote and the next delimiter
+        int next = peek();
+        while (next != END && next != delimiter && next != '\n' && next != '\r') {
+            read();
+            next = peek();
+        }
+        return true;
+    }
+
+    private void skipLine() throws IOException {
+        int next = read();
+        while (next != END && next != '\n' && next != '\r') {
+            next = read();
+        }
+        if (next == '\r' && peek() == '\n') {
+            read();
+        }
+    }
+
+    private void append(int b) {
+        if (fieldLength == field.length) {
+            field = Arrays.copyOf(field, field.length * 2);
+        }
+        field[fieldLength++] = (byte) b;
+    }
+
+    private int peek() throws IOException {
+        if (cursor == bufferSize && !fillBuffer()) {
+            return END;
+        }
+        return buffer[cursor] & 0xFF;
+    }
+
+    private int read() throws IOException {
+        int b = peek();
+        if (b != END) {
+            cursor++;
+            position++;
+        }
+        return b;
+    }
+
+    private boolean fillBuffer() throws IOException {
+        int n = input.read(buffer);
+        if (n <= 0) {
+            return false;
+        }
+        bufferSize = n;
+        cursor = 0;
+        return true;
+    }
+}
@@ -0,0 +1,123 @@
+package edu.uci.ics.texera.workflow.common.tuple
+
+import com.google.common.hash.{HashFunction, Hasher, Hashing}
+
+import java.nio.{ByteBuffer, ByteOrder}
+import java.sql.Timestamp
+
+/**
+  * A 128 bit hash of all the fields of a tuple, which tells tuples apart without keeping them:
+  * two tuples of different fields collide with a probability of about n^2 / 2^129 among n
+  * tuples, negligible for any number of tuples a worker can process.
+  *
+  * Each field is hashed with a tag of its type and the length of its text, so that
+  * different sequences of fields do not hash the same bytes.
+  */
+object RowFingerprint {
+
+  private val hashFunction: HashFunction = Hashing.murmur3_128()
+
+  /**
+    * @return the fingerprint of the fields of the tuple, as its high and low 64 bits
+    */
+  def of(tuple: Tuple): (Long, Long) = {
+    val hasher = hashFunction.newHasher()
+    var i = 0
+    while (i < tuple.length) {
+      putField(hasher, tuple.get(i))
+      i += 1
+    }
+    val bytes = ByteBuffer.wrap(hasher.hash().asBytes()).order(ByteOrder.LITTLE_ENDIAN)
+    (bytes.getLong(0), bytes.getLong(8))
+  }
+
+  private def putField(hasher: Hasher, field: AnyRef): Unit =
+    field match {
+      case null                 => hasher.putByte(0)
+      case v: String            => hasher.putByte(1).putInt(v.length).putUnencodedChars(v)
+      case v: java.lang.Integer => hasher.putByte(2).putInt(v)
+      case v: java.lang.Long    => hasher.putByte(3).putLong(v)
+      case v: java.lang.Double  => hasher.putByte(4).putDouble(v)
+      case v: java.lang.Boolean => hasher.putByte(5).putBoolean(v)
+      case v: Timestamp         => hasher.putByte(6).putLong(v.getTime).putInt(v.getNanos)
+      // other values are only told apart as far as their hash codes, like in a HashSet
+      case v => hasher.putByte(7).putInt(v.hashCode)
+    }
+
+}
+
+/**
+  * A set of row fingerprints, kept in an open addressing table of primitive longs, 16 bytes
+  * per fingerprint instead of a Tuple and a hash set entry per row.
+  */
+class FingerprintSet {
+
+  private var highs = new Array[Long](16)
+  private var lows = new Array[Long](16)
+  // the slot of (0, 0) marks an empty slot, so that fingerprint is kept aside
+  private var hasZero = false
+  private var numEntries = 0
+
+  def size: Int = numEntries + (if (hasZero) 1 else 0)
+
+  def contains(fingerprint: (Long, Long)): Boolean = {
+    val (high, low) = fingerprint
+    if (high == 0 && low == 0) return hasZero
+    val slot = slotOf(high, low)
+    highs(slot) == high && lows(slot) == low
+  }
+
+  /**
+    * @return true if the fingerprint was not in the set
+    */
+  def add(fingerprint: (Long, Long)): Boolean = {
+    val (high, low) = fingerprint
+    if (high == 0 && low == 0) {
+      val added = !hasZero
+      hasZero = true
+      return added
+    }
+    val slot = slotOf(high, low)
+    if (highs(slot) == high && lows(slot) == low) return false
+    highs(slot) = high
+    lows(slot) = low
+    numEntries += 1
+    // keep the table at most half full, so that probes stay short
+    if (numEntries * 2 > highs.length) rehash()
+    true
+  }
+
+  def clear(): Unit = {
+    highs = new Array[Long](16)
+    lows = new Array[Long](16)
+    hasZero = false
+    numEntries = 0
+  }
+
+  /**
+    * @return the slot of the fingerprint if it is in the table, otherwise the empty slot where
+    *         it would be added
+    */
+  private def slotOf(high: Long, low: Long): Int = {
+    val mask = highs.length - 1
+    // the bits of a fingerprint are already uniformly distributed
+    var slot = low.toInt & mask
+    while ((highs(slot) != 0 || lows(slot) != 0) && (highs(slot) != high || lows(slot) != low)) {
+      slot = (slot + 1) & mask
+    }
+    slot
+  }
+
+  private def rehash(): Unit = {
+    val oldHighs = highs
+    val oldLows = lows
+    highs = new Array[Long](oldHighs.length * 2)
+    lows = new Array[Long](oldLows.length * 2)
+    for (i <- oldHighs.indices if oldHighs(i) != 0 || oldLows(i) != 0) {
+      val slot = slotOf(oldHighs(i), oldLows(i))
+      highs(slot) = oldHighs(i)
+      lows(slot) = oldLows(i)
+    }
+  }
+
+}
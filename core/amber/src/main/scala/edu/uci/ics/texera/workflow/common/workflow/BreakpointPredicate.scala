@@ -0,0 +1,85 @@
+package edu.uci.ics.texera.workflow.common.workflow
+
+import edu.uci.ics.amber.engine.common.tuple.ITuple
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.{AttributeType, AttributeTypeUtils, Schema}
+import edu.uci.ics.texera.workflow.common.workflow.BreakpointCondition._
+
+import scala.util.Try
+
+/**
+  * Compiles a ConditionBreakpoint into a predicate over output tuples.
+  *
+  * The column is resolved to a field index and the constant is parsed into the
+  * column type once, at compile time, so that evaluating the predicate on a worker
+  * only reads one field by index and does a typed comparison.
+  */
+object BreakpointPredicate {
+
+  def compile(breakpoint: ConditionBreakpoint, schema: Option[Schema]): ITuple => Boolean = {
+    val condition = breakpoint.condition
+    val value = breakpoint.value
+    if (schema.isEmpty || !schema.get.containsAttribute(breakpoint.column)) {
+      // the output schema is not available, resolve the column by name on every tuple
+      val column = breakpoint.column
+      return tuple =>
+        compareString(tuple.asInstanceOf[Tuple].getField[Object](column), value, condition)
+    }
+
+    val index: Int = schema.get.getIndex(breakpoint.column)
+    val attributeType = schema.get.getAttribute(breakpoint.column).getType
+    condition match {
+      case CONTAINS | NOT_CONTAINS =>
+        tuple => compareString(tuple.get(index), value, condition)
+      case _ =>
+        attributeType match {
+          case AttributeType.INTEGER | AttributeType.LONG | AttributeType.DOUBLE
+              if Try(value.trim.toDouble).isSuccess =>
+            val constant = value.trim.toDouble
+            tuple => compareNumber(tuple.get(index), constant, condition)
+          case AttributeType.TIMESTAMP
+              if Try(AttributeTypeUtils.parseTimestamp(value.trim)).isSuccess =>
+            val constant = AttributeTypeUtils.parseTimestamp(value.trim).getTime.toDouble
+            tuple => compareNumber(tuple.get(index), constant, condition)
+          case _ =>
+            tuple => compareString(tuple.get(index), value, condition)
+        }
+    }
+  }
+
+  private def compareNumber(field: Any, constant: Double, condition: Condition): Boolean = {
+    val number: Double = field match {
+      case n: java.lang.Number           => n.doubleValue()
+      case timestamp: java.sql.Timestamp => timestamp.getTime.toDouble
+      case _                             => return false
+    }
+    val result = java.lang.Double.compare(number, constant)
+    condition match {
+      case EQ => result == 0
+      case LT => result < 0
+      case LE => result <= 0
+      case GT => result > 0
+      case GE => result >= 0
+      case NE => result != 0
+      case _  => false
+    }
+  }
+
+  private def compareString(field: Any, value: String, condition: Condition): Boolean = {
+    if (field == null) {
+      return false
+    }
+    val str = field.toString.trim
+    condition match {
+      case EQ           => str == value
+      case LT           => str < value
+      case LE           => str <= value
+      case GT           => str > value
+      case GE           => str >= value
+      case NE           => str != value
+      case CONTAINS     => str.contains(value)
+      case NOT_CONTAINS => !str.contains(value)
+    }
+  }
+
+}
@@ -0,0 +1,250 @@
+package edu.uci.ics.texera.workflow.common.workflow
+
+import com.fasterxml.jackson.databind.node.ObjectNode
+import edu.uci.ics.texera.web.WebUtils
+import edu.uci.ics.texera.workflow.common.{Utils, WorkflowContext}
+import edu.uci.ics.texera.workflow.common.Utils.objectMapper
+import edu.uci.ics.texera.workflow.common.metadata.PropertyNameConstants
+import edu.uci.ics.texera.workflow.common.operators.OperatorDescriptor
+import edu.uci.ics.texera.workflow.common.operators.source.SourceOperatorDescriptor
+import edu.uci.ics.texera.workflow.common.tuple.schema.{AttributeType, Schema}
+import edu.uci.ics.texera.workflow.operators.cache.CachedResultSourceOpDesc
+import edu.uci.ics.texera.workflow.operators.pythonUDF.PythonUDFOpDesc
+import edu.uci.ics.texera.workflow.operators.randomksampling.RandomKSamplingOpDesc
+import edu.uci.ics.texera.workflow.operators.reservoirsampling.ReservoirSamplingOpDesc
+import edu.uci.ics.texera.workflow.operators.sink.SimpleSinkOpDesc
+import edu.uci.ics.texera.workflow.operators.source.scan.ScanSourceOpDesc
+import edu.uci.ics.texera.workflow.operators.visualization.VisualizationOperator
+
+import java.io.File
+import java.nio.charset.StandardCharsets
+import java.nio.file.{Files, Path}
+import java.security.MessageDigest
+import scala.collection.JavaConverters._
+import scala.collection.mutable
+import scala.util.Try
+
+/**
+  * A cache of operator results on the local disk, reused across executions of a workflow
+  * that is edited between them.
+  *
+  * The result of an operator is identified by a key hashing its descriptor, the keys of its
+  * upstream operators, and the versions of the files its sources scan. When a workflow is
+  * executed, the output of each operator whose result is not cached yet is written to an
+  * Arrow file by an extra operator, see CacheWriterOpExec. The next execution replaces each
+  * operator whose result is cached by a CachedResultSourceOpDesc reading that file, and
+  * drops the upstream operators that are then no longer needed. Nondeterministic operators,
+  * and the operators downstream of them, are never cached, nor are the operators whose output
+  * a projection or filter pushed into their source narrowed, see
+  * WorkflowCompiler.pushDownIntoSources.
+  *
+  * Once a job completes, entries are evicted when they have not been used for
+  * resultCache.maxAgeHours, and least recently used first when a user exceeds
+  * resultCache.userQuotaMB or the whole cache exceeds resultCache.maxSizeMB.
+  */
+object ResultCache {
+
+  val WRITER_SUFFIX = "-cache-writer"
+  private val MB = 1024L * 1024
+
+  var enabled: Boolean = Try(WebUtils.config.getBoolean("resultCache.enabled")).getOrElse(false)
+  var maxSize: Long = Try(WebUtils.config.getLong("resultCache.maxSizeMB")).getOrElse(10240L) * MB
+  var userQuota: Long =
+    Try(WebUtils.config.getLong("resultCache.userQuotaMB")).getOrElse(1024L) * MB
+  var maxAge: Long =
+    Try(WebUtils.config.getLong("resultCache.maxAgeHours")).getOrElse(168L) * 3600 * 1000
+
+  private var directory: Option[Path] = None
+
+  /**
+    * The directory of the cache, user-resources/cache unless another one is set, e.g. a
+    * temporary directory in tests.
+    */
+  def cacheDirectory: Path =
+    directory.getOrElse(Utils.amberHomePath.resolve("user-resources").resolve("cache"))
+
+  def cacheDirectory_=(path: Path): Unit = directory = Option(path)
+
+  def userDirectory(context: WorkflowContext): Path =
+    cacheDirectory.resolve(context.userID.map(_.toString).getOrElse("anonymous"))
+
+  def path(context: WorkflowContext, key: String): Path =
+    userDirectory(context).resolve(key + ".arrow")
+
+  /**
+    * @return the file of the cached result, if there is one. Its last modified time is
+    *         updated, which eviction uses as the time of last use.
+    */
+  def lookup(context: WorkflowContext, key: String): Option[Path] = {
+    val file = path(context, key).toFile
+    if (!file.isFile) return None
+    file.setLastModified(System.currentTimeMillis())
+    Option(file.toPath)
+  }
+
+  /**
+    * @return true if the operator can be replaced by its cached result. The output mode of a
+    *         sink is set from the visualization operator before it, which must stay.
+    */
+  def isCacheable(operator: OperatorDescriptor): Boolean =
+    operator match {
+      case _: SourceOperatorDescriptor | _: SimpleSinkOpDesc | _: VisualizationOperator => false
+      case _                                                                            => true
+    }
+
+  /**
+    * @return false if the operator can produce another result from the same input, e.g. a
+    *         sample with seeds drawn when the operator is created, or a Python UDF.
+    */
+  def isDeterministic(operator: OperatorDescriptor): Boolean =
+    operator match {
+      case _: PythonUDFOpDesc | _: RandomKSamplingOpDesc | _: ReservoirSamplingOpDesc => false
+      case _                                                                         => true
+    }
+
+  /**
+    * @return true if the output of the operator can be written to the cache
+    */
+  def isMaterializable(operator: OperatorDescriptor, outputSchema: Schema): Boolean = {
+    // values of type ANY cannot be written to Arrow
+    isCacheable(operator) && outputSchema != null &&
+    !outputSchema.getAttributes.asScala.exists(_.getType == AttributeType.ANY)
+  }
+
+  /**
+    * Computes the cache key of each operator whose result only depends on its descriptor
+    * and versioned files. Nondeterministic operators and the operators downstream of them,
+    * or of a source that is not a file scan, e.g. a database, have no key.
+    */
+  def keys(workflowInfo: WorkflowInfo): Map[String, String] = {
+    val workflow = new WorkflowDAG(workflowInfo)
+    val keys = mutable.Map[String, String]()
+    workflow.jgraphtDag
+      .iterator()
+      .forEachRemaining(operatorID => {
+        val upstreamKeys = workflowInfo.links
+          .filter(link => link.destination.operatorID == operatorID)
+          .sortBy(link => (link.destination.portOrdinal, link.origin.operatorID))
+          .map(link => keys.get(link.origin.operatorID))
+        val key: Option[String] = workflow.getOperator(operatorID) match {
+          case cached: CachedResultSourceOpDesc => Option(cached.key)
+          case scan: ScanSourceOpDesc =>
+            scan.filePath.map(filePath => {
+              val file = new File(filePath)
+              hash(descriptorJson(scan), filePath, file.length(), file.lastModified())
+            })
+          case _: SourceOperatorDescriptor            => None
+          case operator if !isDeterministic(operator) => None
+          case operator if upstreamKeys.forall(_.isDefined) =>
+            Option(hash(descriptorJson(operator) +: upstreamKeys.map(_.get): _*))
+          case _ => None
+        }
+        key.foreach(k => keys(operatorID) = k)
+      })
+    keys.toMap
+  }
+
+  /**
+    * Replaces each operator whose result is cached by a source reading it, and drops the
+    * operators that no sink depends on anymore.
+    */
+  def reuseCachedResults(workflowInfo: WorkflowInfo, context: WorkflowContext): WorkflowInfo = {
+    if (!enabled) return workflowInfo
+    // the scans resolve their files from the context
+    workflowInfo.operators.foreach(operator => operator.setContext(context))
+    val keys = this.keys(workflowInfo)
+    val workflow = new WorkflowDAG(workflowInfo)
+
+    // walk upstream from the sinks, up to the operators whose results are cached
+    val needed = mutable.Set[String]()
+    val replaced = mutable.Map[String, OperatorDescriptor]()
+    var toVisit = workflow.getSinkOperators
+    while (toVisit.nonEmpty) {
+      val operatorID = toVisit.head
+      toVisit = toVisit.tail
+      if (needed.add(operatorID)) {
+        val operator = workflow.getOperator(operatorID)
+        val cached = keys
+          .get(operatorID)
+          .filter(_ => isCacheable(operator))
+          .flatMap(key => lookup(context, key).map(path => (key, path)))
+        cached match {
+          case Some((key, path)) =>
+            val source = new CachedResultSourceOpDesc(key, path)
+            source.operatorID = operatorID
+            replaced(operatorID) = source
+          case None =>
+            toVisit = workflow.getUpstream(operatorID).map(_.operatorID) ++ toVisit
+        }
+      }
+    }
+
+    WorkflowInfo(
+      workflowInfo.operators
+        .filter(operator => needed.contains(operator.operatorID))
+        .map(operator => replaced.getOrElse(operator.operatorID, operator)),
+      workflowInfo.links.filter(link =>
+        needed.contains(link.origin.operatorID) &&
+          needed.contains(link.destination.operatorID) &&
+          !replaced.contains(link.destination.operatorID)
+      ),
+      workflowInfo.breakpoints.filter(breakpoint => needed.contains(breakpoint.operatorID))
+    )
+  }
+
+  /**
+    * Deletes the entries unused for longer than maxAge, then the least recently used entries
+    * of the users above their quota, then the least recently used entries of all users until
+    * the cache fits in maxSize. It runs once a job completes, not while results are written.
+    */
+  def evict(): Unit =
+    synchronized {
+      if (!Files.isDirectory(cacheDirectory)) return
+      val now = System.currentTimeMillis()
+      val userDirectories = cacheDirectory.toFile.listFiles().filter(_.isDirectory).toList
+      // entries being written are only removed once they are abandoned
+      val entries = userDirectories
+        .flatMap(directory => directory.listFiles())
+        .filter(file => file.isFile && now - file.lastModified() > maxAge)
+      entries.foreach(_.delete())
+
+      val remaining = userDirectories.map(directory =>
+        directory.listFiles().filter(_.getName.endsWith(".arrow")).sortBy(_.lastModified()).toList
+      )
+      val kept = remaining.flatMap(files => evictLeastRecentlyUsed(files, userQuota))
+      evictLeastRecentlyUsed(kept.sortBy(_.lastModified()), maxSize)
+    }
+
+  /**
+    * Deletes the oldest of the files, sorted by last modified time, until they fit in size.
+    * @return the files kept
+    */
+  private def evictLeastRecentlyUsed(files: List[File], size: Long): List[File] = {
+    var total = files.map(_.length()).sum
+    files.dropWhile(file => {
+      val evicted = total > size
+      if (evicted) {
+        total -= file.length()
+        file.delete()
+      }
+      evicted
+    })
+  }
+
+  private def descriptorJson(operator: OperatorDescriptor): String = {
+    // the same operator can have another ID in an edited copy of the workflow
+    val json = objectMapper.valueToTree[ObjectNode](operator)
+    json.remove(PropertyNameConstants.OPERATOR_ID)
+    objectMapper.writeValueAsString(json)
+  }
+
+  private def hash(parts: Any*): String = {
+    val digest = MessageDigest.getInstance("SHA-256")
+    parts.foreach(part => {
+      digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8))
+      digest.update(0.toByte)
+    })
+    digest.digest().map(byte => "%02x".format(byte)).mkString
+  }
+
+}
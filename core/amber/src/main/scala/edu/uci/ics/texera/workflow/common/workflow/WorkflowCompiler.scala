@@ -1,19 +1,35 @@
 package edu.uci.ics.texera.workflow.common.workflow
 
 import akka.actor.ActorRef
+import edu.uci.ics.amber.engine.architecture.breakpoint.globalbreakpoint.ConditionalGlobalBreakpoint
 import edu.uci.ics.amber.engine.architecture.controller.Workflow
+import edu.uci.ics.amber.engine.architecture.controller.promisehandlers.AssignBreakpointHandler.AssignGlobalBreakpoint
+import edu.uci.ics.amber.engine.common.rpc.AsyncRPCClient
+import edu.uci.ics.amber.engine.common.rpc.AsyncRPCClient.ControlInvocation
 import edu.uci.ics.amber.engine.common.virtualidentity.{LinkIdentity, OperatorIdentity}
 import edu.uci.ics.amber.engine.operators.OpExecConfig
 import edu.uci.ics.texera.workflow.common.{ConstraintViolation, WorkflowContext}
 import edu.uci.ics.texera.workflow.common.operators.OperatorDescriptor
-import edu.uci.ics.texera.workflow.common.operators.source.SourceOperatorDescriptor
-import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.operators.filter.FilterOpDesc
+import edu.uci.ics.texera.workflow.common.operators.source.{
+  SourceOperatorDescriptor,
+  SourcePushdown
+}
 import edu.uci.ics.texera.workflow.common.tuple.schema.{OperatorSchemaInfo, Schema}
+import edu.uci.ics.texera.workflow.operators.cache.CacheWriterOpExecConfig
+import edu.uci.ics.texera.workflow.operators.distinct.DistinctOpDesc
+import edu.uci.ics.texera.workflow.operators.filter.{FilterPredicate, SpecializedFilterOpDesc}
+import edu.uci.ics.texera.workflow.operators.hashJoin.HashJoinOpDesc
+import edu.uci.ics.texera.workflow.operators.limit.LimitOpDesc
+import edu.uci.ics.texera.workflow.operators.projection.ProjectionOpDesc
+import edu.uci.ics.texera.workflow.operators.source.scan.ScanSourceOpDesc
 import edu.uci.ics.texera.workflow.operators.sink.SimpleSinkOpDesc
 import edu.uci.ics.texera.workflow.operators.visualization.VisualizationOperator
 import org.jgrapht.graph.{DefaultEdge, DirectedAcyclicGraph}
 
+import scala.collection.JavaConverters._
 import scala.collection.mutable
+import scala.util.Try
 
 object WorkflowCompiler {
 
@@ -41,6 +57,9 @@ class WorkflowCompiler(val workflowInfo: WorkflowInfo, val context: WorkflowCont
 
   val workflow = new WorkflowDAG(workflowInfo)
 
+  // the operators whose output pushDownIntoSources narrowed to what the operators after them need
+  private val narrowedOperators = mutable.Set[String]()
+
   init()
 
   def init(): Unit = {
@@ -75,8 +94,12 @@ class WorkflowCompiler(val workflowInfo: WorkflowInfo, val context: WorkflowCont
       }
     })
 
+    pushDownIntoSources()
+    chooseJoinStrategies()
+
     val inputSchemaMap = propagateWorkflowSchema()
     val amberOperators: mutable.Map[OperatorIdentity, OpExecConfig] = mutable.Map()
+    val outputSchemas: mutable.Map[String, Schema] = mutable.Map()
     workflowInfo.operators.foreach(o => {
       val inputSchemas = inputSchemaMap(o).map(s => s.get).toArray
       val outputSchema =
@@ -85,6 +108,7 @@ class WorkflowCompiler(val workflowInfo: WorkflowInfo, val context: WorkflowCont
       val amberOperator: OpExecConfig =
         o.operatorExecutor(OperatorSchemaInfo(inputSchemas, outputSchema))
       amberOperators.put(amberOperator.id, amberOperator)
+      outputSchemas.put(o.operatorID, outputSchema)
     })
 
     val outLinks: mutable.Map[OperatorIdentity, mutable.Set[OperatorIdentity]] = mutable.Map()
@@ -101,6 +125,8 @@ class WorkflowCompiler(val workflowInfo: WorkflowInfo, val context: WorkflowCont
       amberOperators(dest).setInputToOrdinalMapping(layerLink, link.destination.portOrdinal)
     })
 
+    addCacheWriters(amberOperators, outLinks, outputSchemas)
+
     val outLinksImmutableValue: mutable.Map[OperatorIdentity, Set[OperatorIdentity]] =
       mutable.Map()
     outLinks.foreach(entry => {
@@ -112,6 +138,122 @@ class WorkflowCompiler(val workflowInfo: WorkflowInfo, val context: WorkflowCont
     new Workflow(amberOperators, outLinksImmutable)
   }
 
+  /**
+    * Adds an operator writing the output of each operator into the ResultCache, unless its
+    * result is already cached. The writers are only part of the Amber workflow, not of the
+    * Texera workflow the user sees.
+    */
+  private def addCacheWriters(
+      amberOperators: mutable.Map[OperatorIdentity, OpExecConfig],
+      outLinks: mutable.Map[OperatorIdentity, mutable.Set[OperatorIdentity]],
+      outputSchemas: mutable.Map[String, Schema]
+  ): Unit = {
+    if (!ResultCache.enabled) return
+    val keys = ResultCache.keys(workflowInfo)
+    workflowInfo.operators
+      .filter(o =>
+        keys.contains(o.operatorID) &&
+          !narrowedOperators.contains(o.operatorID) &&
+          ResultCache.isMaterializable(o, outputSchemas(o.operatorID)) &&
+          ResultCache.lookup(context, keys(o.operatorID)).isEmpty
+      )
+      .foreach(o => {
+        val origin = OperatorIdentity(this.context.jobID, o.operatorID)
+        val cacheWriter = new CacheWriterOpExecConfig(
+          OperatorIdentity(this.context.jobID, o.operatorID + ResultCache.WRITER_SUFFIX),
+          outputSchemas(o.operatorID),
+          ResultCache.path(context, keys(o.operatorID))
+        )
+        amberOperators.put(cacheWriter.id, cacheWriter)
+        outLinks.getOrElseUpdate(origin, mutable.Set()).add(cacheWriter.id)
+        val layerLink = LinkIdentity(
+          amberOperators(origin).topology.layers.last.id,
+          cacheWriter.topology.layers.head.id
+        )
+        cacheWriter.setInputToOrdinalMapping(layerLink, 0)
+      })
+  }
+
+  /**
+    * Pushes the projection and filters that directly follow a source into the source, so that
+    * the source does not parse the columns nobody reads, nor build tuples that are filtered out.
+    *
+    * Starting from each source, the chain of filters is followed as long as each operator has
+    * a single downstream operator, up to the first projection. The filters and the projection
+    * stay in the workflow, they only see the reduced output of the source. The filters before
+    * the last operator of the chain then output fewer columns or rows than their descriptors
+    * say, so their output is not written to the ResultCache, whose keys only hash descriptors.
+    */
+  def pushDownIntoSources(): Unit = {
+    workflow.getSourceOperators
+      .map(workflow.getOperator)
+      .foreach {
+        case source: OperatorDescriptor with SourcePushdown =>
+          val predicates = mutable.ListBuffer[List[FilterPredicate]]()
+          var projection: Option[List[String]] = None
+          var current: OperatorDescriptor = source
+          val filters = mutable.ListBuffer[String]()
+          var done = false
+          while (!done && workflow.getDownstream(current.operatorID).size == 1) {
+            workflow.getDownstream(current.operatorID).head match {
+              case filter: SpecializedFilterOpDesc if filter.predicates != null =>
+                predicates += filter.predicates.asScala.toList
+                filters += filter.operatorID
+                current = filter
+              case projectionOp: ProjectionOpDesc if projectionOp.attributes.nonEmpty =>
+                // the filters before the projection still need their attributes
+                projection = Option(
+                  (projectionOp.attributes ++ predicates.flatten.map(p => p.attribute)).distinct
+                )
+                done = true
+              case _ =>
+                done = true
+            }
+          }
+          source.pushDown(projection, predicates.toList)
+          // the last filter outputs all the columns and the rows it keeps, unless projected
+          narrowedOperators ++= (if (projection.isDefined) filters else filters.dropRight(1))
+        case _ =>
+      }
+  }
+
+  /**
+    * Makes each hash join broadcast its small input to all its workers, instead of hash
+    * partitioning both of its inputs, when the small input is estimated to be below
+    * HashJoinOpDesc.broadcastThreshold. The large input is then not shuffled at all.
+    */
+  def chooseJoinStrategies(): Unit = {
+    workflowInfo.operators.foreach {
+      case join: HashJoinOpDesc[_] =>
+        val buildSize = workflowInfo.links
+          .find(link =>
+            link.destination.operatorID == join.operatorID && link.destination.portOrdinal == 0
+          )
+          .flatMap(link => estimatedOutputSize(link.origin.operatorID))
+        // every worker would output the small input tuples it did not match
+        join.broadcast = !join.joinType.outputsUnmatchedBuildRows &&
+          buildSize.exists(size => size <= HashJoinOpDesc.broadcastThreshold)
+      case _ =>
+    }
+  }
+
+  /**
+    * @return the estimated number of bytes output by the operator, from the statistics of the
+    *         file it reads or that an upstream scan reads, None if unknown
+    */
+  private def estimatedOutputSize(operatorID: String): Option[Long] = {
+    workflow.getOperator(operatorID) match {
+      case scan: ScanSourceOpDesc => Try(scan.estimatedOutputSize()).toOption.flatten
+      // operators outputting at most the rows and columns of their single input
+      case _: FilterOpDesc | _: ProjectionOpDesc | _: DistinctOpDesc | _: LimitOpDesc =>
+        workflow
+          .getUpstream(operatorID)
+          .headOption
+          .flatMap(upstream => estimatedOutputSize(upstream.operatorID))
+      case _ => None
+    }
+  }
+
   def initializeBreakpoint(controller: ActorRef): Unit = {
     for (pair <- this.workflowInfo.breakpoints) {
       addBreakpoint(controller, pair.operatorID, pair.breakpoint)
@@ -126,39 +268,17 @@ class WorkflowCompiler(val workflowInfo: WorkflowInfo, val context: WorkflowCont
     val breakpointID = "breakpoint-" + operatorID
     breakpoint match {
       case conditionBp: ConditionBreakpoint =>
-        val column = conditionBp.column
-        val predicate: Tuple => Boolean = conditionBp.condition match {
-          case BreakpointCondition.EQ =>
-            tuple => {
-              tuple.getField(column).toString.trim == conditionBp.value
-            }
-          case BreakpointCondition.LT =>
-            tuple => tuple.getField(column).toString.trim < conditionBp.value
-          case BreakpointCondition.LE =>
-            tuple => tuple.getField(column).toString.trim <= conditionBp.value
-          case BreakpointCondition.GT =>
-            tuple => tuple.getField(column).toString.trim > conditionBp.value
-          case BreakpointCondition.GE =>
-            tuple => tuple.getField(column).toString.trim >= conditionBp.value
-          case BreakpointCondition.NE =>
-            tuple => tuple.getField(column).toString.trim != conditionBp.value
-          case BreakpointCondition.CONTAINS =>
-            tuple => tuple.getField(column).toString.trim.contains(conditionBp.value)
-          case BreakpointCondition.NOT_CONTAINS =>
-            tuple => !tuple.getField(column).toString.trim.contains(conditionBp.value)
-        }
-      //TODO: add new handling logic here
-//        controller ! PassBreakpointTo(
-//          operatorID,
-//          new ConditionalGlobalBreakpoint(
-//            breakpointID,
-//            tuple => {
-//              val texeraTuple = tuple.asInstanceOf[Tuple]
-//              predicate.apply(texeraTuple)
-//            }
-//          )
-//        )
+        // resolve the column and parse the constant once, instead of per tuple on the workers
+        val predicate = BreakpointPredicate.compile(conditionBp, getOutputSchema(operatorID))
+        controller ! ControlInvocation(
+          AsyncRPCClient.IgnoreReply,
+          AssignGlobalBreakpoint(
+            new ConditionalGlobalBreakpoint(breakpointID, predicate),
+            OperatorIdentity(this.context.jobID, operatorID)
+          )
+        )
       case countBp: CountBreakpoint =>
+      //TODO: add new handling logic here
 //        controller ! PassBreakpointTo(
 //          operatorID,
 //          new CountGlobalBreakpoint("breakpointID", countBp.count)
@@ -166,6 +286,22 @@ class WorkflowCompiler(val workflowInfo: WorkflowInfo, val context: WorkflowCont
     }
   }
 
+  /**
+    * Infers the output schema of an operator from the propagated input schemas.
+    * @param operatorID the operator to infer output schema for
+    * @return the output schema, or empty if it cannot be inferred
+    */
+  def getOutputSchema(operatorID: String): Option[Schema] = {
+    val op = workflow.getOperator(operatorID)
+    Try {
+      if (op.isInstanceOf[SourceOperatorDescriptor]) {
+        op.getOutputSchema(Array())
+      } else {
+        op.getOutputSchema(propagateWorkflowSchema()(op).map(s => s.get).toArray)
+      }
+    }.toOption
+  }
+
   def propagateWorkflowSchema(): Map[OperatorDescriptor, List[Option[Schema]]] = {
     // a map from an operator to the list of its input schema
     val inputSchemaMap =
@@ -60,7 +60,7 @@ class WorkflowDAG(workflowInfo: WorkflowInfo) {
     val downstream = new mutable.MutableList[OperatorDescriptor]
     jgraphtDag
       .outgoingEdgesOf(operatorID)
-      .forEach(e => downstream += operators(e.origin.operatorID))
+      .forEach(e => downstream += operators(e.destination.operatorID))
     downstream.toList
   }
 
@@ -0,0 +1,235 @@
+package edu.uci.ics.texera.workflow.operators.aggregate
+
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.AttributeTypeUtils.parseTimestamp
+import edu.uci.ics.texera.workflow.common.tuple.schema.{Attribute, AttributeType}
+
+import java.sql.Timestamp
+
+/**
+  * The states of an AggregationFunction for all the groups, kept in primitive arrays indexed
+  * by the ids of GroupIdTable instead of one object per group.
+  *
+  * The partial aggregation adds the values of its tuples and sends the state of each group
+  * as the partialAttributes of a tuple. The final aggregation merges those states and
+  * outputs the result of each group. A progressive partial aggregation sends and resets
+  * the states of the groups updated since it last sent them, which the final aggregation
+  * merges the same way.
+  */
+abstract class ColumnAccumulator {
+
+  protected var capacity = 0
+
+  /**
+    * @return the attributes of the state of a group, sent from the partial aggregation to
+    *         the final aggregation
+    */
+  def partialAttributes: Array[Attribute]
+
+  /**
+    * Adds the value of the aggregated attribute of a tuple of the group, which may be null.
+    */
+  def add(group: Int, value: Object): Unit
+
+  /**
+    * Merges the state of the group sent in the partial tuple, starting at the given index.
+    */
+  def merge(group: Int, partial: Tuple, index: Int): Unit
+
+  def partial(group: Int): Array[Object]
+
+  def result(group: Int): Object
+
+  /**
+    * Clears the state of the group, after a progressive aggregation sent it.
+    */
+  def reset(group: Int): Unit
+
+  /**
+    * Grows the arrays to hold the states of all the groups up to this one.
+    */
+  protected def grow(newCapacity: Int): Unit
+
+  protected def ensureCapacity(group: Int): Unit =
+    if (group >= capacity) {
+      val newCapacity = math.max(16, math.max(capacity * 2, group + 1))
+      grow(newCapacity)
+      capacity = newCapacity
+    }
+}
+
+object ColumnAccumulator {
+
+  def apply(function: AggregationFunction, attributeType: AttributeType): ColumnAccumulator = {
+    val toDouble = numericalValue(attributeType)
+    function match {
+      case AggregationFunction.SUM     => new SumAccumulator(toDouble)
+      case AggregationFunction.COUNT   => new CountAccumulator()
+      case AggregationFunction.AVERAGE => new AverageAccumulator(toDouble)
+      case AggregationFunction.MIN     => new ExtremumAccumulator(toDouble, isMin = true)
+      case AggregationFunction.MAX     => new ExtremumAccumulator(toDouble, isMin = false)
+      case _ =>
+        throw new UnsupportedOperationException("Unknown aggregation function: " + function)
+    }
+  }
+
+  /**
+    * @return the numerical value of a non null field of the type: the epoch milliseconds of
+    *         a timestamp, the parsed number of a string
+    */
+  def numericalValue(attributeType: AttributeType): Object => Double =
+    attributeType match {
+      case AttributeType.TIMESTAMP =>
+        value =>
+          value match {
+            case timestamp: Timestamp => timestamp.getTime.toDouble
+            case _                    => parseTimestamp(value.toString).getTime.toDouble
+          }
+      case AttributeType.INTEGER | AttributeType.LONG | AttributeType.DOUBLE =>
+        value =>
+          value match {
+            case number: Number => number.doubleValue
+            case _              => value.toString.toDouble
+          }
+      case _ => value => value.toString.toDouble
+    }
+
+  private def partialAttribute(name: String, attributeType: AttributeType): Attribute =
+    new Attribute("__internal_aggregate_" + name + "__", attributeType)
+
+  private class SumAccumulator(toDouble: Object => Double) extends ColumnAccumulator {
+    private var sums = new Array[Double](0)
+
+    override val partialAttributes: Array[Attribute] =
+      Array(partialAttribute("sum", AttributeType.DOUBLE))
+
+    override protected def grow(newCapacity: Int): Unit =
+      sums = java.util.Arrays.copyOf(sums, newCapacity)
+
+    override def add(group: Int, value: Object): Unit = {
+      ensureCapacity(group)
+      if (value != null) sums(group) += toDouble(value)
+    }
+
+    override def merge(group: Int, partial: Tuple, index: Int): Unit = {
+      ensureCapacity(group)
+      sums(group) += partial.get(index).asInstanceOf[java.lang.Double]
+    }
+
+    override def partial(group: Int): Array[Object] = Array(Double.box(sums(group)))
+
+    override def result(group: Int): Object = Double.box(sums(group))
+
+    override def reset(group: Int): Unit = sums(group) = 0
+  }
+
+  private class CountAccumulator extends ColumnAccumulator {
+    private var counts = new Array[Long](0)
+
+    override val partialAttributes: Array[Attribute] =
+      Array(partialAttribute("count", AttributeType.LONG))
+
+    override protected def grow(newCapacity: Int): Unit =
+      counts = java.util.Arrays.copyOf(counts, newCapacity)
+
+    override def add(group: Int, value: Object): Unit = {
+      ensureCapacity(group)
+      if (value != null) counts(group) += 1
+    }
+
+    override def merge(group: Int, partial: Tuple, index: Int): Unit = {
+      ensureCapacity(group)
+      counts(group) += partial.get(index).asInstanceOf[java.lang.Long]
+    }
+
+    override def partial(group: Int): Array[Object] = Array(Long.box(counts(group)))
+
+    // the result attribute of a count is an INTEGER
+    override def result(group: Int): Object = Int.box(counts(group).toInt)
+
+    override def reset(group: Int): Unit = counts(group) = 0
+  }
+
+  private class AverageAccumulator(toDouble: Object => Double) extends ColumnAccumulator {
+    private var sums = new Array[Double](0)
+    private var counts = new Array[Long](0)
+
+    override val partialAttributes: Array[Attribute] =
+      Array(
+        partialAttribute("sum", AttributeType.DOUBLE),
+        partialAttribute("count", AttributeType.LONG)
+      )
+
+    override protected def grow(newCapacity: Int): Unit = {
+      sums = java.util.Arrays.copyOf(sums, newCapacity)
+      counts = java.util.Arrays.copyOf(counts, newCapacity)
+    }
+
+    override def add(group: Int, value: Object): Unit = {
+      ensureCapacity(group)
+      if (value != null) {
+        sums(group) += toDouble(value)
+        counts(group) += 1
+      }
+    }
+
+    override def merge(group: Int, partial: Tuple, index: Int): Unit = {
+      ensureCapacity(group)
+      sums(group) += partial.get(index).asInstanceOf[java.lang.Double]
+      counts(group) += partial.get(index + 1).asInstanceOf[java.lang.Long]
+    }
+
+    override def partial(group: Int): Array[Object] =
+      Array(Double.box(sums(group)), Long.box(counts(group)))
+
+    override def result(group: Int): Object =
+      if (counts(group) == 0) null else Double.box(sums(group) / counts(group))
+
+    override def reset(group: Int): Unit = {
+      sums(group) = 0
+      counts(group) = 0
+    }
+  }
+
+  /**
+    * The min or max of the values of each group, null for a group without any value.
+    */
+  private class ExtremumAccumulator(toDouble: Object => Double, isMin: Boolean)
+      extends ColumnAccumulator {
+    private var extrema = new Array[Double](0)
+    private var present = new Array[Boolean](0)
+
+    override val partialAttributes: Array[Attribute] =
+      Array(partialAttribute(if (isMin) "min" else "max", AttributeType.DOUBLE))
+
+    override protected def grow(newCapacity: Int): Unit = {
+      extrema = java.util.Arrays.copyOf(extrema, newCapacity)
+      present = java.util.Arrays.copyOf(present, newCapacity)
+    }
+
+    override def add(group: Int, value: Object): Unit = {
+      ensureCapacity(group)
+      if (value != null) update(group, toDouble(value))
+    }
+
+    override def merge(group: Int, partial: Tuple, index: Int): Unit = {
+      ensureCapacity(group)
+      val value = partial.get(index)
+      if (value != null) update(group, value.asInstanceOf[java.lang.Double])
+    }
+
+    private def update(group: Int, value: Double): Unit =
+      if (!present(group) || (if (isMin) value < extrema(group) else value > extrema(group))) {
+        extrema(group) = value
+        present(group) = true
+      }
+
+    override def partial(group: Int): Array[Object] = Array(result(group))
+
+    override def result(group: Int): Object =
+      if (present(group)) Double.box(extrema(group)) else null
+
+    override def reset(group: Int): Unit = present(group) = false
+  }
+
+}
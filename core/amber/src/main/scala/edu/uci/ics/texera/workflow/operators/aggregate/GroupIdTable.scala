@@ -0,0 +1,191 @@
+package edu.uci.ics.texera.workflow.operators.aggregate
+
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.AttributeType
+
+import java.util.Objects
+import scala.collection.mutable.ArrayBuffer
+
+/**
+  * Assigns the dense ids 0, 1, 2... to the distinct group by keys of the tuples, in the order
+  * they are first seen, so that the states of the groups can be kept in arrays indexed by id,
+  * see ColumnAccumulator.
+  *
+  * The ids are found in an open addressing table with linear probing. A single key of a
+  * numerical or boolean attribute is compared by its value encoded in a long.
+  * Other keys are compared field by field against the keys of the groups, so that looking up
+  * an existing group reads the fields of the tuple in place and allocates nothing. An integer
+  * and a long field of the same value are equal, so that a join of an INTEGER and a LONG
+  * key finds the matches.
+  *
+  * @param keyIndices the indices of the group by keys in the tuples
+  * @param keyTypes the types of the group by keys
+  */
+class GroupIdTable(keyIndices: Array[Int], keyTypes: Array[AttributeType]) {
+
+  private val encoded = keyIndices.length == 1 && GroupIdTable.isEncodable(keyTypes(0))
+
+  // the group ids by slot, -1 for an empty slot
+  private var slots = Array.fill(16)(-1)
+  // the hash and, for an encoded key, the encoded key of each group
+  private var hashes = new Array[Int](16)
+  private var encodedKeys = new Array[Long](16)
+  private val keys = new ArrayBuffer[Array[Object]]()
+  // an encoded null key has no slot
+  private var nullGroup = -1
+
+  def size: Int = keys.size
+
+  /**
+    * @return the fields of the group by keys of the group
+    */
+  def key(group: Int): Array[Object] = keys(group)
+
+  /**
+    * @return the id of the group of the tuple, a new one if it is the first of its group
+    */
+  def groupId(tuple: Tuple): Int = lookup(tuple, keyIndices, insert = true)
+
+  /**
+    * Finds the group of the fields at the given indices of the tuple, which have the types of
+    * the group by keys, without adding a group.
+    * @return the id of the group, -1 if there is none
+    */
+  def find(tuple: Tuple, indices: Array[Int]): Int = lookup(tuple, indices, insert = false)
+
+  private def lookup(tuple: Tuple, indices: Array[Int], insert: Boolean): Int = {
+    if (indices.isEmpty) {
+      if (keys.isEmpty) {
+        if (!insert) return -1
+        keys += Array()
+      }
+      return 0
+    }
+
+    if (encoded) {
+      val value = tuple.get(indices(0))
+      if (value == null) {
+        if (nullGroup < 0) {
+          if (!insert) return -1
+          nullGroup = keys.size
+          keys += Array(null)
+        }
+        return nullGroup
+      }
+      val key = GroupIdTable.encode(value)
+      val hash = GroupIdTable.mix(key)
+      var slot = hash & (slots.length - 1)
+      while (slots(slot) >= 0) {
+        val group = slots(slot)
+        if (encodedKeys(group) == key) return group
+        slot = (slot + 1) & (slots.length - 1)
+      }
+      if (insert) add(tuple, slot, hash, key) else -1
+    } else {
+      val hash = hashKey(tuple, indices)
+      var slot = hash & (slots.length - 1)
+      while (slots(slot) >= 0) {
+        val group = slots(slot)
+        if (hashes(group) == hash && keyEquals(keys(group), tuple, indices)) return group
+        slot = (slot + 1) & (slots.length - 1)
+      }
+      if (insert) add(tuple, slot, hash, 0) else -1
+    }
+  }
+
+  private def add(tuple: Tuple, slot: Int, hash: Int, encodedKey: Long): Int = {
+    val group = keys.size
+    keys += keyIndices.map(i => tuple.get(i))
+    if (group == hashes.length) {
+      hashes = java.util.Arrays.copyOf(hashes, group * 2)
+      encodedKeys = java.util.Arrays.copyOf(encodedKeys, group * 2)
+    }
+    hashes(group) = hash
+    encodedKeys(group) = encodedKey
+    slots(slot) = group
+    // keep the table at most half full, so that probes stay short
+    if (keys.size * 2 > slots.length) rehash()
+    group
+  }
+
+  private def rehash(): Unit = {
+    slots = Array.fill(slots.length * 2)(-1)
+    for (group <- keys.indices if group != nullGroup) {
+      var slot = hashes(group) & (slots.length - 1)
+      while (slots(slot) >= 0) slot = (slot + 1) & (slots.length - 1)
+      slots(slot) = group
+    }
+  }
+
+  private def hashKey(tuple: Tuple, indices: Array[Int]): Int = {
+    var hash = 1
+    var i = 0
+    while (i < indices.length) {
+      hash = 31 * hash + GroupIdTable.hashField(tuple.get(indices(i)))
+      i += 1
+    }
+    hash ^ (hash >>> 16)
+  }
+
+  private def keyEquals(key: Array[Object], tuple: Tuple, indices: Array[Int]): Boolean = {
+    var i = 0
+    while (i < indices.length) {
+      if (!GroupIdTable.fieldEquals(key(i), tuple.get(indices(i)))) return false
+      i += 1
+    }
+    true
+  }
+
+}
+
+object GroupIdTable {
+
+  def isEncodable(attributeType: AttributeType): Boolean =
+    attributeType match {
+      case AttributeType.INTEGER | AttributeType.LONG | AttributeType.DOUBLE |
+          AttributeType.BOOLEAN =>
+        true
+      case _ => false
+    }
+
+  /**
+    * @return the hash of a field like Objects.hashCode, but that of the long of an integer
+    */
+  def hashField(value: Object): Int =
+    value match {
+      case v: java.lang.Integer => java.lang.Long.hashCode(v.longValue)
+      case _                    => Objects.hashCode(value)
+    }
+
+  /**
+    * @return whether two fields are equal like Objects.equals, or an integer and a long of the
+    *         same value
+    */
+  def fieldEquals(a: Object, b: Object): Boolean =
+    a match {
+      case x: java.lang.Integer if b.isInstanceOf[java.lang.Long] =>
+        x.longValue == b.asInstanceOf[java.lang.Long].longValue
+      case x: java.lang.Long if b.isInstanceOf[java.lang.Integer] =>
+        x.longValue == b.asInstanceOf[java.lang.Integer].longValue
+      case _ => Objects.equals(a, b)
+    }
+
+  /**
+    * Encodes a value of an encodable type in a long, such that two values of the same type
+    * are encoded the same if and only if they are equal.
+    */
+  def encode(value: Object): Long =
+    value match {
+      case v: java.lang.Integer => v.longValue
+      case v: java.lang.Long    => v
+      // like Double.equals, which tells 0.0 from -0.0 and equates NaNs
+      case v: java.lang.Double  => java.lang.Double.doubleToLongBits(v)
+      case v: java.lang.Boolean => if (v) 1 else 0
+    }
+
+  private def mix(key: Long): Int = {
+    val hash = key * 0x9e3779b97f4a7c15L
+    (hash ^ (hash >>> 32)).toInt
+  }
+
+}
@@ -0,0 +1,221 @@
+package edu.uci.ics.texera.workflow.operators.aggregate
+
+import edu.uci.ics.amber.engine.common.InputExhausted
+import edu.uci.ics.amber.engine.common.virtualidentity.LinkIdentity
+import edu.uci.ics.texera.workflow.common.ProgressiveUtils
+import edu.uci.ics.texera.workflow.common.operators.OperatorExecutor
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.{OperatorSchemaInfo, Schema}
+
+import java.util
+import scala.collection.mutable.ArrayBuffer
+
+object PrimitiveAggregateOpExec {
+
+  // a progressive aggregation outputs its updated groups this often
+  val UPDATE_INTERVAL_MS = 500
+  val UPDATE_INTERVAL_TUPLES = 100000
+
+  /**
+    * @return the schema of the partial tuples: the group by keys, then the state of the group
+    */
+  def partialSchema(
+      inputSchema: Schema,
+      groupByKeys: List[String],
+      accumulator: ColumnAccumulator
+  ): Schema =
+    Schema
+      .newBuilder()
+      .add(groupByKeys.map(key => inputSchema.getAttribute(key)).toArray: _*)
+      .add(accumulator.partialAttributes: _*)
+      .build()
+}
+
+/**
+  * Keeps track of the groups updated since the last output of a progressive aggregation,
+  * and of when the next output is due.
+  */
+class GroupUpdates {
+
+  private val updated = new util.BitSet()
+  private var tuplesSinceUpdate = 0L
+  private var lastUpdateTime = System.currentTimeMillis()
+
+  /**
+    * Marks the group updated by an input tuple.
+    * @return true if the updated groups should be output
+    */
+  def update(group: Int): Boolean = {
+    updated.set(group)
+    tuplesSinceUpdate += 1
+    tuplesSinceUpdate >= PrimitiveAggregateOpExec.UPDATE_INTERVAL_TUPLES ||
+    System.currentTimeMillis() - lastUpdateTime >= PrimitiveAggregateOpExec.UPDATE_INTERVAL_MS
+  }
+
+  /**
+    * @return the groups updated since the last call, which starts a new interval
+    */
+  def drain(): Array[Int] = {
+    val groups = updated.stream().toArray
+    updated.clear()
+    tuplesSinceUpdate = 0
+    lastUpdateTime = System.currentTimeMillis()
+    groups
+  }
+}
+
+/**
+  * The partial aggregation of SpecializedAverageOpDesc. Instead of building a group by tuple
+  * and a partial object per input tuple, it reads the keys and the aggregated value of each
+  * tuple by index, and accumulates them into the primitive columns of a ColumnAccumulator.
+  *
+  * A progressive partial aggregation also sends the groups updated since its last output
+  * every UPDATE_INTERVAL_MS or UPDATE_INTERVAL_TUPLES tuples, and starts them over.
+  */
+class PartialPrimitiveAggregateOpExec(
+    val aggFunction: AggregationFunction,
+    val attribute: String,
+    val groupByKeys: List[String],
+    val progressive: Boolean,
+    val operatorSchemaInfo: OperatorSchemaInfo
+) extends OperatorExecutor {
+
+  private var groups: GroupIdTable = _
+  private var accumulator: ColumnAccumulator = _
+  private var updates: GroupUpdates = _
+  private var valueIndex: Int = _
+  private var schema: Schema = _
+
+  override def open(): Unit = {
+    val inputSchema = operatorSchemaInfo.inputSchemas(0)
+    groups = new GroupIdTable(
+      groupByKeys.map(key => inputSchema.getIndex(key).intValue).toArray,
+      groupByKeys.map(key => inputSchema.getAttribute(key).getType).toArray
+    )
+    accumulator = ColumnAccumulator(aggFunction, inputSchema.getAttribute(attribute).getType)
+    updates = new GroupUpdates()
+    valueIndex = inputSchema.getIndex(attribute)
+    schema = PrimitiveAggregateOpExec.partialSchema(inputSchema, groupByKeys, accumulator)
+  }
+
+  override def close(): Unit = {}
+
+  override def processTexeraTuple(
+      tuple: Either[Tuple, InputExhausted],
+      input: LinkIdentity
+  ): Iterator[Tuple] = {
+    tuple match {
+      case Left(t) =>
+        val group = groups.groupId(t)
+        accumulator.add(group, t.get(valueIndex))
+        if (progressive && updates.update(group)) sendUpdates() else Iterator()
+      case Right(_) =>
+        if (progressive) sendUpdates()
+        else Iterator.range(0, groups.size).map(partialTuple)
+    }
+  }
+
+  private def partialTuple(group: Int): Tuple =
+    Tuple
+      .newBuilder(schema)
+      .addSequentially(groups.key(group) ++ accumulator.partial(group))
+      .build()
+
+  private def sendUpdates(): Iterator[Tuple] = {
+    val partials = updates
+      .drain()
+      .map(group => {
+        val partial = partialTuple(group)
+        accumulator.reset(group)
+        partial
+      })
+    partials.iterator
+  }
+
+}
+
+/**
+  * The final aggregation of SpecializedAverageOpDesc, merging the partial tuples of each group
+  * sent by PartialPrimitiveAggregateOpExec, which start with the numGroupByKeys group by keys.
+  *
+  * A progressive final aggregation outputs the groups updated since its last output every
+  * UPDATE_INTERVAL_MS or UPDATE_INTERVAL_TUPLES partial tuples, as insertions of their new
+  * results and retractions of their previous ones, see ProgressiveUtils. Once the input is
+  * exhausted, the inserted results minus the retracted ones are the results of the blocking
+  * aggregation.
+  */
+class FinalPrimitiveAggregateOpExec(
+    val aggFunction: AggregationFunction,
+    val attribute: String,
+    val numGroupByKeys: Int,
+    val progressive: Boolean,
+    val operatorSchemaInfo: OperatorSchemaInfo
+) extends OperatorExecutor {
+
+  private var groups: GroupIdTable = _
+  private var accumulator: ColumnAccumulator = _
+  private var updates: GroupUpdates = _
+  private var resultSchema: Schema = _
+  // the last result output for each group, null if none was
+  private val outputResults = new ArrayBuffer[Tuple]()
+
+  override def open(): Unit = {
+    val inputSchema = operatorSchemaInfo.inputSchemas(0)
+    resultSchema =
+      if (!progressive) operatorSchemaInfo.outputSchema
+      else
+        Schema
+          .newBuilder()
+          .add(operatorSchemaInfo.outputSchema)
+          .remove(ProgressiveUtils.insertRetractFlagAttr.getName)
+          .build()
+    groups = new GroupIdTable(
+      (0 until numGroupByKeys).toArray,
+      (0 until numGroupByKeys).map(i => resultSchema.getAttributes.get(i).getType).toArray
+    )
+    accumulator = ColumnAccumulator(aggFunction, inputSchema.getAttribute(attribute).getType)
+    updates = new GroupUpdates()
+  }
+
+  override def close(): Unit = {}
+
+  override def processTexeraTuple(
+      tuple: Either[Tuple, InputExhausted],
+      input: LinkIdentity
+  ): Iterator[Tuple] = {
+    tuple match {
+      case Left(t) =>
+        val group = groups.groupId(t)
+        accumulator.merge(group, t, numGroupByKeys)
+        if (progressive && updates.update(group)) outputUpdates() else Iterator()
+      case Right(_) =>
+        if (progressive) outputUpdates()
+        else Iterator.range(0, groups.size).map(resultTuple)
+    }
+  }
+
+  private def resultTuple(group: Int): Tuple =
+    Tuple
+      .newBuilder(resultSchema)
+      .addSequentially(groups.key(group) :+ accumulator.result(group))
+      .build()
+
+  private def outputUpdates(): Iterator[Tuple] = {
+    val outputSchema = operatorSchemaInfo.outputSchema
+    val deltas = new ArrayBuffer[Tuple]()
+    updates
+      .drain()
+      .foreach(group => {
+        while (outputResults.size <= group) outputResults += null
+        val previous = outputResults(group)
+        val result = resultTuple(group)
+        if (previous == null || !previous.equals(result)) {
+          if (previous != null) deltas += ProgressiveUtils.addRetractionFlag(previous, outputSchema)
+          deltas += ProgressiveUtils.addInsertionFlag(result, outputSchema)
+          outputResults(group) = result
+        }
+      })
+    deltas.iterator
+  }
+
+}
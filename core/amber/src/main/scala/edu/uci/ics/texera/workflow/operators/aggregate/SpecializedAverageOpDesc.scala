@@ -1,7 +1,8 @@
 package edu.uci.ics.texera.workflow.operators.aggregate
 
-import com.fasterxml.jackson.annotation.{JsonIgnore, JsonProperty, JsonPropertyDescription}
+import com.fasterxml.jackson.annotation.{JsonProperty, JsonPropertyDescription}
 import com.kjetland.jackson.jsonSchema.annotations.JsonSchemaTitle
+import edu.uci.ics.texera.workflow.common.ProgressiveUtils
 import edu.uci.ics.texera.workflow.common.metadata.annotations.{
   AutofillAttributeName,
   AutofillAttributeNameList
@@ -14,17 +15,10 @@ import edu.uci.ics.texera.workflow.common.metadata.{
 }
 import edu.uci.ics.texera.workflow.common.operators.aggregate.{
   AggregateOpDesc,
-  AggregateOpExecConfig,
-  DistributedAggregation
+  AggregateOpExecConfig
 }
-import edu.uci.ics.texera.workflow.common.tuple.Tuple
-import edu.uci.ics.texera.workflow.common.tuple.schema.AttributeTypeUtils.parseTimestamp
 import edu.uci.ics.texera.workflow.common.tuple.schema.{AttributeType, OperatorSchemaInfo, Schema}
 
-import java.io.Serializable
-
-case class AveragePartialObj(sum: Double, count: Double) extends Serializable {}
-
 class SpecializedAverageOpDesc extends AggregateOpDesc {
 
   @JsonProperty(required = true)
@@ -47,174 +41,36 @@ class SpecializedAverageOpDesc extends AggregateOpDesc {
   @AutofillAttributeNameList
   var groupByKeys: List[String] = _
 
-  @JsonIgnore
-  private var groupBySchema: Schema = _
-  @JsonIgnore
-  private var finalAggValueSchema: Schema = _
+  @JsonProperty(defaultValue = "false")
+  @JsonSchemaTitle("Progressive")
+  @JsonPropertyDescription("output updated results while the input is being read")
+  var progressive: Boolean = false
 
   override def operatorExecutor(
       operatorSchemaInfo: OperatorSchemaInfo
-  ): AggregateOpExecConfig[_] = {
-    this.groupBySchema = getGroupByKeysSchema(operatorSchemaInfo.inputSchemas)
-    this.finalAggValueSchema = getFinalAggValueSchema
-
-    aggFunction match {
-      case AggregationFunction.AVERAGE => averageAgg(operatorSchemaInfo)
-      case AggregationFunction.COUNT   => countAgg(operatorSchemaInfo)
-      case AggregationFunction.MAX     => maxAgg(operatorSchemaInfo)
-      case AggregationFunction.MIN     => minAgg(operatorSchemaInfo)
-      case AggregationFunction.SUM     => sumAgg(operatorSchemaInfo)
-      case _ =>
-        throw new UnsupportedOperationException("Unknown aggregation function: " + aggFunction)
+  ): AggregateOpExecConfig = {
+    if (groupByKeys == null) {
+      groupByKeys = List()
     }
-  }
-
-  def sumAgg(operatorSchemaInfo: OperatorSchemaInfo): AggregateOpExecConfig[_] = {
-    val aggregation = new DistributedAggregation[java.lang.Double](
-      () => 0,
-      (partial, tuple) => {
-        val value = getNumericalValue(tuple)
-        partial + (if (value.isDefined) value.get else 0)
-
-      },
-      (partial1, partial2) => partial1 + partial2,
-      partial => {
-        Tuple
-          .newBuilder(finalAggValueSchema)
-          .add(resultAttribute, AttributeType.DOUBLE, partial)
-          .build
-      },
-      groupByFunc()
-    )
-    new AggregateOpExecConfig[java.lang.Double](
-      operatorIdentifier,
-      aggregation,
-      operatorSchemaInfo
-    )
-  }
-
-  def countAgg(operatorSchemaInfo: OperatorSchemaInfo): AggregateOpExecConfig[_] = {
-    val aggregation = new DistributedAggregation[Integer](
-      () => 0,
-      (partial, tuple) => {
-        partial + (if (tuple.getField(attribute) != null) 1 else 0)
-      },
-      (partial1, partial2) => partial1 + partial2,
-      partial => {
-        Tuple
-          .newBuilder(finalAggValueSchema)
-          .add(resultAttribute, AttributeType.INTEGER, partial)
-          .build
-      },
-      groupByFunc()
-    )
-    new AggregateOpExecConfig[Integer](
-      operatorIdentifier,
-      aggregation,
-      operatorSchemaInfo
-    )
-  }
-
-  def minAgg(operatorSchemaInfo: OperatorSchemaInfo): AggregateOpExecConfig[_] = {
-    val aggregation = new DistributedAggregation[java.lang.Double](
-      () => Double.MaxValue,
-      (partial, tuple) => {
-        val value = getNumericalValue(tuple)
-        if (value.isDefined && value.get < partial) value.get else partial
-      },
-      (partial1, partial2) => if (partial1 < partial2) partial1 else partial2,
-      partial => {
-        if (partial == Double.MaxValue) null
-        else
-          Tuple
-            .newBuilder(finalAggValueSchema)
-            .add(resultAttribute, AttributeType.DOUBLE, partial)
-            .build
-      },
-      groupByFunc()
-    )
-    new AggregateOpExecConfig[java.lang.Double](
-      operatorIdentifier,
-      aggregation,
-      operatorSchemaInfo
-    )
-  }
-
-  def maxAgg(operatorSchemaInfo: OperatorSchemaInfo): AggregateOpExecConfig[_] = {
-    val aggregation = new DistributedAggregation[java.lang.Double](
-      () => Double.MinValue,
-      (partial, tuple) => {
-        val value = getNumericalValue(tuple)
-        if (value.isDefined && value.get > partial) value.get else partial
-      },
-      (partial1, partial2) => if (partial1 > partial2) partial1 else partial2,
-      partial => {
-        if (partial == Double.MinValue) null
-        else
-          Tuple
-            .newBuilder(finalAggValueSchema)
-            .add(resultAttribute, AttributeType.DOUBLE, partial)
-            .build
-      },
-      groupByFunc()
-    )
-    new AggregateOpExecConfig[java.lang.Double](
-      operatorIdentifier,
-      aggregation,
-      operatorSchemaInfo
-    )
-  }
-
-  def groupByFunc(): Schema => Schema = {
-    if (this.groupByKeys == null) null
-    else
-      schema => {
-        // Since this is a partially evaluated tuple, there is no actual schema for this
-        // available anywhere. Constructing it once for re-use
-        if (groupBySchema == null) {
-          val schemaBuilder = Schema.newBuilder()
-          groupByKeys.foreach(key => schemaBuilder.add(schema.getAttribute(key)))
-          groupBySchema = schemaBuilder.build
-        }
-        groupBySchema
-      }
-  }
-
-  private def getNumericalValue(tuple: Tuple): Option[Double] = {
-    val value: Object = tuple.getField(attribute)
-    if (value == null)
-      return None
-
-    if (tuple.getSchema.getAttribute(attribute).getType == AttributeType.TIMESTAMP)
-      Option(parseTimestamp(value.toString).getTime.toDouble)
-    else Option(value.toString.toDouble)
-  }
-
-  def averageAgg(operatorSchemaInfo: OperatorSchemaInfo): AggregateOpExecConfig[_] = {
-    val aggregation = new DistributedAggregation[AveragePartialObj](
-      () => AveragePartialObj(0, 0),
-      (partial, tuple) => {
-        val value = getNumericalValue(tuple)
-        AveragePartialObj(
-          partial.sum + (if (value.isDefined) value.get else 0),
-          partial.count + (if (value.isDefined) 1 else 0)
-        )
-      },
-      (partial1, partial2) =>
-        AveragePartialObj(partial1.sum + partial2.sum, partial1.count + partial2.count),
-      partial => {
-        val value = if (partial.count == 0) null else partial.sum / partial.count
-        Tuple
-          .newBuilder(finalAggValueSchema)
-          .add(resultAttribute, AttributeType.DOUBLE, value)
-          .build
-      },
-      groupByFunc()
-    )
-    new AggregateOpExecConfig[AveragePartialObj](
+    new AggregateOpExecConfig(
       operatorIdentifier,
-      aggregation,
-      operatorSchemaInfo
+      _ =>
+        new PartialPrimitiveAggregateOpExec(
+          aggFunction,
+          attribute,
+          groupByKeys,
+          progressive,
+          operatorSchemaInfo
+        ),
+      _ =>
+        new FinalPrimitiveAggregateOpExec(
+          aggFunction,
+          attribute,
+          groupByKeys.size,
+          progressive,
+          operatorSchemaInfo
+        ),
+      groupByKeys.size
     )
   }
 
@@ -255,8 +111,10 @@ class SpecializedAverageOpDesc extends AggregateOpDesc {
     if (resultAttribute == null || resultAttribute.trim.isEmpty) {
       return null
     }
-    Schema
-      .newBuilder()
+    val builder = Schema.newBuilder()
+    // progressive results are insertions and retractions
+    if (progressive) builder.add(ProgressiveUtils.insertRetractFlagAttr)
+    builder
       .add(getGroupByKeysSchema(schemas).getAttributes)
       .add(getFinalAggValueSchema.getAttributes)
       .build()
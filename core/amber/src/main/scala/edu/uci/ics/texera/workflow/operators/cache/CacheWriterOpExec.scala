@@ -0,0 +1,115 @@
+package edu.uci.ics.texera.workflow.operators.cache
+
+import edu.uci.ics.amber.engine.common.InputExhausted
+import edu.uci.ics.amber.engine.common.virtualidentity.LinkIdentity
+import edu.uci.ics.texera.workflow.common.operators.OperatorExecutor
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.Schema
+import edu.uci.ics.texera.workflow.operators.pythonUDF.ArrowUtils
+import org.apache.arrow.memory.RootAllocator
+import org.apache.arrow.vector._
+import org.apache.arrow.vector.ipc.ArrowFileWriter
+
+import java.nio.channels.FileChannel
+import java.nio.charset.StandardCharsets
+import java.nio.file.{Files, Path, StandardCopyOption, StandardOpenOption}
+import java.sql.Timestamp
+import java.util.UUID
+import scala.collection.JavaConverters._
+import scala.util.Try
+
+/**
+  * Writes all the tuples it receives into an Arrow file of the ResultCache, in record batches
+  * of BATCH_SIZE rows. The file is written aside and only moved to its path in the cache
+  * once the input is exhausted, so that an interrupted execution leaves no partial result.
+  */
+class CacheWriterOpExec(val schema: Schema, val path: Path) extends OperatorExecutor {
+
+  val BATCH_SIZE = 4096
+
+  private var temporaryPath: Path = _
+  private var allocator: RootAllocator = _
+  private var root: VectorSchemaRoot = _
+  private var writer: ArrowFileWriter = _
+  private var writers: Array[(Int, Object) => Unit] = _
+  private var rowCount = 0
+  private var completed = false
+
+  override def open(): Unit = {
+    Files.createDirectories(path.getParent)
+    temporaryPath = path.resolveSibling(path.getFileName + "." + UUID.randomUUID() + ".tmp")
+    allocator = new RootAllocator()
+    root = VectorSchemaRoot.create(ArrowUtils.fromTexeraSchema(schema), allocator)
+    writer = new ArrowFileWriter(
+      root,
+      null,
+      FileChannel.open(temporaryPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)
+    )
+    writer.start()
+    writers = root.getFieldVectors.asScala.map(fieldWriter).toArray
+  }
+
+  override def close(): Unit = {
+    if (!completed) {
+      Try(writer.close())
+      Files.deleteIfExists(temporaryPath)
+    }
+    root.close()
+    allocator.close()
+  }
+
+  override def processTexeraTuple(
+      tuple: Either[Tuple, InputExhausted],
+      input: LinkIdentity
+  ): Iterator[Tuple] = {
+    tuple match {
+      case Left(t) =>
+        for (i <- writers.indices) writers(i)(rowCount, t.get(i))
+        rowCount += 1
+        if (rowCount == BATCH_SIZE) writeBatch()
+      case Right(_) =>
+        if (rowCount > 0) writeBatch()
+        writer.end()
+        writer.close()
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING)
+        completed = true
+    }
+    Iterator()
+  }
+
+  private def writeBatch(): Unit = {
+    root.setRowCount(rowCount)
+    writer.writeBatch()
+    // the buffers are kept for the next batch
+    root.getFieldVectors.asScala.foreach(vector => vector.reset())
+    rowCount = 0
+  }
+
+  /**
+    * @return a function setting a row of the vector to a value of the corresponding
+    *         AttributeType, see ArrowUtils.fromAttributeType for the mapping.
+    */
+  private def fieldWriter(vector: FieldVector): (Int, Object) => Unit = {
+    val write: (Int, Object) => Unit = vector match {
+      case v: IntVector =>
+        (i: Int, value: Object) => v.setSafe(i, value.asInstanceOf[Number].intValue)
+      case v: BigIntVector =>
+        (i: Int, value: Object) => v.setSafe(i, value.asInstanceOf[Number].longValue)
+      case v: Float8Vector =>
+        (i: Int, value: Object) => v.setSafe(i, value.asInstanceOf[Number].doubleValue)
+      case v: BitVector =>
+        (i: Int, value: Object) =>
+          v.setSafe(i, if (value.asInstanceOf[java.lang.Boolean]) 1 else 0)
+      case v: TimeStampMilliTZVector =>
+        (i: Int, value: Object) => v.setSafe(i, value.asInstanceOf[Timestamp].getTime)
+      case v: VarCharVector =>
+        (i: Int, value: Object) => v.setSafe(i, value.toString.getBytes(StandardCharsets.UTF_8))
+    }
+    val setNull: Int => Unit = vector match {
+      case v: BaseFixedWidthVector    => (i: Int) => v.setNull(i)
+      case v: BaseVariableWidthVector => (i: Int) => v.setNull(i)
+    }
+    (i: Int, value: Object) => if (value == null) setNull(i) else write(i, value)
+  }
+
+}
@@ -0,0 +1,41 @@
+package edu.uci.ics.texera.workflow.operators.cache
+
+import edu.uci.ics.amber.engine.architecture.breakpoint.globalbreakpoint.GlobalBreakpoint
+import edu.uci.ics.amber.engine.architecture.deploysemantics.deploymentfilter.ForceLocal
+import edu.uci.ics.amber.engine.architecture.deploysemantics.deploystrategy.RandomDeployment
+import edu.uci.ics.amber.engine.architecture.deploysemantics.layer.WorkerLayer
+import edu.uci.ics.amber.engine.common.virtualidentity.{ActorVirtualIdentity, OperatorIdentity}
+import edu.uci.ics.amber.engine.common.virtualidentity.util.makeLayer
+import edu.uci.ics.amber.engine.operators.OpExecConfig
+import edu.uci.ics.texera.workflow.common.tuple.schema.Schema
+
+import java.nio.file.Path
+
+/**
+  * A single worker on the local node, where the ResultCache is, writing all the output of
+  * an operator into one file.
+  */
+class CacheWriterOpExecConfig(
+    tag: OperatorIdentity,
+    val schema: Schema,
+    val path: Path
+) extends OpExecConfig(tag) {
+  override lazy val topology = new Topology(
+    Array(
+      new WorkerLayer(
+        makeLayer(tag, "main"),
+        _ => new CacheWriterOpExec(schema, path),
+        1,
+        ForceLocal(),
+        RandomDeployment()
+      )
+    ),
+    Array()
+  )
+
+  override def assignBreakpoint(
+      breakpoint: GlobalBreakpoint[_]
+  ): Array[ActorVirtualIdentity] = {
+    topology.layers(0).identifiers
+  }
+}
@@ -0,0 +1,41 @@
+package edu.uci.ics.texera.workflow.operators.cache
+
+import com.fasterxml.jackson.annotation.JsonIgnore
+import edu.uci.ics.texera.workflow.common.WorkflowContext
+import edu.uci.ics.texera.workflow.common.metadata.{
+  OperatorGroupConstants,
+  OperatorInfo,
+  OutputPort
+}
+import edu.uci.ics.texera.workflow.operators.source.scan.arrow.ArrowScanSourceOpDesc
+
+import java.nio.file.Path
+
+/**
+  * Replaces an operator whose result is in the ResultCache, by reading the Arrow file the
+  * result was written to. It takes the operatorID of the operator it replaces.
+  *
+  * @param key the cache key of the replaced operator
+  * @param path the file of the cached result
+  */
+class CachedResultSourceOpDesc(@JsonIgnore val key: String, @JsonIgnore val path: Path)
+    extends ArrowScanSourceOpDesc {
+
+  fileName = Option(path.toString)
+
+  override def setContext(workflowContext: WorkflowContext): Unit = {
+    super.setContext(workflowContext)
+    // the file is in the cache, not in the files of the user
+    filePath = Option(path.toString)
+  }
+
+  override def operatorInfo: OperatorInfo =
+    OperatorInfo(
+      userFriendlyName = "Cached Result",
+      operatorDescription = "Read the result of an operator from a previous execution",
+      OperatorGroupConstants.SOURCE_GROUP,
+      List.empty,
+      List(OutputPort(""))
+    )
+
+}
@@ -13,7 +13,10 @@ import edu.uci.ics.texera.workflow.common.tuple.schema.{OperatorSchemaInfo, Sche
 
 class DifferenceOpDesc extends OperatorDescriptor {
   override def operatorExecutor(operatorSchemaInfo: OperatorSchemaInfo): OpExecConfig = {
-    new DifferenceOpExecConf(operatorIdentifier)
+    new DifferenceOpExecConf(
+      operatorIdentifier,
+      operatorSchemaInfo.inputSchemas(0).getAttributes.size()
+    )
   }
 
   override def operatorInfo: OperatorInfo =
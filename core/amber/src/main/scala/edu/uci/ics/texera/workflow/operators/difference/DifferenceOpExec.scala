@@ -3,18 +3,30 @@ package edu.uci.ics.texera.workflow.operators.difference
 import edu.uci.ics.amber.engine.common.InputExhausted
 import edu.uci.ics.amber.engine.common.virtualidentity.LinkIdentity
 import edu.uci.ics.texera.workflow.common.operators.OperatorExecutor
-import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.{FingerprintSet, RowFingerprint, Tuple}
 import org.apache.arrow.util.Preconditions
 
 import scala.collection.mutable
+import scala.collection.mutable.ArrayBuffer
 
+/**
+  * Outputs each distinct tuple of the left input that is not in the right input.
+  *
+  * Only the fingerprints of the right tuples are kept, see RowFingerprint. Once the right
+  * input is exhausted, the left tuples are streamed against them, the left tuples received
+  * before are buffered until then. DifferenceOpExecConf starts the left input after the right
+  * one when they do not share a source, so that nothing needs to be buffered.
+  */
 class DifferenceOpExec(
     val rightTable: LinkIdentity
 ) extends OperatorExecutor {
 
   private val linkIdentityHashSet: mutable.HashSet[LinkIdentity] = new mutable.HashSet()
-  private val leftHashSet: mutable.HashSet[Tuple] = new mutable.HashSet()
-  private val rightHashSet: mutable.HashSet[Tuple] = new mutable.HashSet()
+  private val rightFingerprints = new FingerprintSet()
+  // the fingerprints of the left tuples output or buffered, to output each of them once
+  private val leftFingerprints = new FingerprintSet()
+  private val bufferedLeftTuples = new ArrayBuffer[Tuple]()
+  private var isRightFinished = false
   private var exhaustedCounter: Int = 0
 
   override def processTexeraTuple(
@@ -27,17 +39,29 @@ class DifferenceOpExec(
     Preconditions.checkArgument(2 >= linkIdentityHashSet.size)
 
     tuple match {
+      case Left(t) if rightTable == input =>
+        rightFingerprints.add(RowFingerprint.of(t))
+        Iterator()
       case Left(t) =>
-        if (rightTable == input) {
-          rightHashSet.add(t)
+        val fingerprint = RowFingerprint.of(t)
+        if (!isRightFinished) {
+          if (leftFingerprints.add(fingerprint)) bufferedLeftTuples += t
+          Iterator()
+        } else if (!rightFingerprints.contains(fingerprint) && leftFingerprints.add(fingerprint)) {
+          Iterator(t)
         } else {
-          leftHashSet.add(t)
+          Iterator()
         }
-        Iterator()
       case Right(_) =>
         exhaustedCounter += 1
-        if (2 == exhaustedCounter) {
-          leftHashSet.diff(rightHashSet).iterator
+        // the right input is also finished once both inputs are
+        if (!isRightFinished && (rightTable == input || 2 == exhaustedCounter)) {
+          isRightFinished = true
+          val output = bufferedLeftTuples
+            .filter(t => !rightFingerprints.contains(RowFingerprint.of(t)))
+            .toList
+          bufferedLeftTuples.clear()
+          output.iterator
         } else {
           Iterator()
         }
@@ -46,5 +70,8 @@ class DifferenceOpExec(
 
   override def open(): Unit = {}
 
-  override def close(): Unit = {}
+  override def close(): Unit = {
+    rightFingerprints.clear()
+    leftFingerprints.clear()
+  }
 }
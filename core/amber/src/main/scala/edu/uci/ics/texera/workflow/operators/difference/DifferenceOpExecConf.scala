@@ -6,13 +6,17 @@ import edu.uci.ics.amber.engine.architecture.deploysemantics.deploymentfilter.Us
 import edu.uci.ics.amber.engine.architecture.deploysemantics.deploystrategy.RoundRobinDeployment
 import edu.uci.ics.amber.engine.architecture.deploysemantics.layer.WorkerLayer
 import edu.uci.ics.amber.engine.common.Constants
-import edu.uci.ics.amber.engine.common.virtualidentity.ActorVirtualIdentity
-import edu.uci.ics.amber.engine.common.virtualidentity.OperatorIdentity
-import edu.uci.ics.amber.engine.common.virtualidentity.util.makeLayer
+import edu.uci.ics.amber.engine.common.virtualidentity.{
+  ActorVirtualIdentity,
+  LayerIdentity,
+  OperatorIdentity
+}
+import edu.uci.ics.amber.engine.common.virtualidentity.util.{makeLayer, toOperatorIdentity}
 import edu.uci.ics.amber.engine.operators.OpExecConfig
 
 class DifferenceOpExecConf[K](
-    id: OperatorIdentity
+    id: OperatorIdentity,
+    numColumns: Int
 ) extends OpExecConfig(id) {
 
   override lazy val topology: Topology = {
@@ -31,10 +35,23 @@ class DifferenceOpExecConf[K](
   }
 
   override def checkStartDependencies(workflow: Workflow): Unit = {
+    val leftLink = inputToOrdinalMapping.find(pair => pair._2 == 0).get._1
     val rightLink = inputToOrdinalMapping.find(pair => pair._2 == 1).get._1
+    // the left input is streamed once the right input is finished, unless that would wait for
+    // a source of the right input itself
+    val rightSources = workflow.getSources(toOperatorIdentity(rightLink.from))
+    workflow.getSources(toOperatorIdentity(leftLink.from)).diff(rightSources).foreach { source =>
+      workflow.getOperator(source).topology.layers.head.startAfter(rightLink)
+    }
     topology.layers.head.metadata = _ => new DifferenceOpExec(rightLink)
   }
 
+  // equal tuples of the two inputs go to the same worker
+  override def requiredShuffle: Boolean = true
+
+  override def getPartitionColumnIndices(layer: LayerIdentity): Array[Int] =
+    (0 until numColumns).toArray
+
   override def assignBreakpoint(breakpoint: GlobalBreakpoint[_]): Array[ActorVirtualIdentity] = {
     topology.layers(0).identifiers
   }
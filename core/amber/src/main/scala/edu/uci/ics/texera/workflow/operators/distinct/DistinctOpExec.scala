@@ -3,25 +3,28 @@ package edu.uci.ics.texera.workflow.operators.distinct
 import edu.uci.ics.amber.engine.common.InputExhausted
 import edu.uci.ics.amber.engine.common.virtualidentity.LinkIdentity
 import edu.uci.ics.texera.workflow.common.operators.OperatorExecutor
-import edu.uci.ics.texera.workflow.common.tuple.Tuple
-
-import scala.collection.mutable
+import edu.uci.ics.texera.workflow.common.tuple.{FingerprintSet, RowFingerprint, Tuple}
 
+/**
+  * Outputs each tuple the first time it is seen, keeping only the fingerprints of the tuples
+  * seen so far, see RowFingerprint.
+  */
 class DistinctOpExec extends OperatorExecutor {
-  private val hashset: mutable.HashSet[Tuple] = mutable.HashSet()
+  private val fingerprints = new FingerprintSet()
   override def processTexeraTuple(
       tuple: Either[Tuple, InputExhausted],
       input: LinkIdentity
   ): Iterator[Tuple] = {
     tuple match {
       case Left(t) =>
-        hashset.add(t)
-        Iterator()
-      case Right(_) => hashset.iterator
+        if (fingerprints.add(RowFingerprint.of(t))) Iterator(t) else Iterator()
+      case Right(_) => Iterator()
     }
   }
 
   override def open(): Unit = {}
 
-  override def close(): Unit = {}
+  override def close(): Unit = {
+    fingerprints.clear()
+  }
 }
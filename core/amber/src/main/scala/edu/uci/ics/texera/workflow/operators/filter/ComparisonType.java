@@ -27,4 +27,28 @@ public enum ComparisonType {
         return this.name;
     }
 
+    /**
+     * @param compareResult the result of comparing a value to the value to compare it to
+     * @return true if the value satisfies the comparison
+     */
+    public boolean test(int compareResult) {
+        switch (this) {
+            case EQUAL_TO:
+                return compareResult == 0;
+            case GREATER_THAN:
+                return compareResult > 0;
+            case GREATER_THAN_OR_EQUAL_TO:
+                return compareResult >= 0;
+            case LESS_THAN:
+                return compareResult < 0;
+            case LESS_THAN_OR_EQUAL_TO:
+                return compareResult <= 0;
+            case NOT_EQUAL_TO:
+                return compareResult != 0;
+            default:
+                throw new RuntimeException(
+                        "Unable to do comparison: unknown comparison type: " + this);
+        }
+    }
+
 }
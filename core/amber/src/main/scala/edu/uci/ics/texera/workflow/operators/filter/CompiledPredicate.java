@@ -0,0 +1,62 @@
+package edu.uci.ics.texera.workflow.operators.filter;
+
+import edu.uci.ics.texera.workflow.common.tuple.Tuple;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A filter condition bound to the schema of its input, see FilterPredicate.compile, which
+ * reads the fields by index and has its constants already parsed.
+ */
+public interface CompiledPredicate extends Serializable {
+
+    boolean test(Tuple tuple);
+
+    static CompiledPredicate and(List<CompiledPredicate> predicates) {
+        return predicates.size() == 1 ? predicates.get(0) : new And(predicates);
+    }
+
+    static CompiledPredicate or(List<CompiledPredicate> predicates) {
+        return predicates.size() == 1 ? predicates.get(0) : new Or(predicates);
+    }
+
+    final class And implements CompiledPredicate {
+
+        private final CompiledPredicate[] predicates;
+
+        And(List<CompiledPredicate> predicates) {
+            this.predicates = predicates.toArray(new CompiledPredicate[0]);
+        }
+
+        @Override
+        public boolean test(Tuple tuple) {
+            for (CompiledPredicate predicate : predicates) {
+                if (!predicate.test(tuple)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    final class Or implements CompiledPredicate {
+
+        private final CompiledPredicate[] predicates;
+
+        Or(List<CompiledPredicate> predicates) {
+            this.predicates = predicates.toArray(new CompiledPredicate[0]);
+        }
+
+        @Override
+        public boolean test(Tuple tuple) {
+            for (CompiledPredicate predicate : predicates) {
+                if (predicate.test(tuple)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+}
@@ -7,6 +7,7 @@ import edu.uci.ics.texera.workflow.common.metadata.annotations.AutofillAttribute
 import edu.uci.ics.texera.workflow.common.tuple.Tuple;
 import edu.uci.ics.texera.workflow.common.tuple.schema.AttributeType;
 import edu.uci.ics.texera.workflow.common.tuple.schema.AttributeTypeUtils;
+import edu.uci.ics.texera.workflow.common.tuple.schema.Schema;
 
 import java.sql.Timestamp;
 
@@ -26,52 +27,57 @@ public class FilterPredicate {
     @JsonIgnore
     public boolean evaluate(Tuple tuple, WorkflowContext context) {
         AttributeType type = tuple.getSchema().getAttribute(this.attribute).getType();
+        return evaluate(tuple.getField(this.attribute), type);
+    }
+
+    /**
+     * Evaluates the predicate on the value of the attribute, e.g. in a source operator
+     * before the value is built into a tuple.
+     */
+    @JsonIgnore
+    public boolean evaluate(Object field, AttributeType type) {
         switch (type) {
             case STRING:
             case ANY:
-                return evaluateFilterString(tuple);
+                return evaluateFilterString(field);
             case BOOLEAN:
-                return evaluateFilterBoolean(tuple);
+                return evaluateFilterBoolean((Boolean) field);
             case LONG:
-                return evaluateFilterLong(tuple);
+                return evaluateFilterLong((Long) field);
             case INTEGER:
-                return evaluateFilterInt(tuple);
+                return evaluateFilterInt((Integer) field);
             case DOUBLE:
-                return evaluateFilterDouble(tuple);
+                return evaluateFilterDouble((Double) field);
             case TIMESTAMP:
-                return evaluateFilterTimestamp(tuple);
+                return evaluateFilterTimestamp((Timestamp) field);
 
             default:
                 throw new RuntimeException("unsupported attribute type: " + type);
         }
     }
 
-    private boolean evaluateFilterBoolean(Tuple inputTuple) {
-        Boolean tupleValue = inputTuple.getField(attribute, Boolean.class);
+    private boolean evaluateFilterBoolean(Boolean tupleValue) {
         return evaluateFilter(tupleValue.toString().toLowerCase(), value.trim().toLowerCase(), condition);
     }
 
-    private boolean evaluateFilterDouble(Tuple inputTuple) {
-        Double tupleValue = inputTuple.getField(attribute, Double.class);
+    private boolean evaluateFilterDouble(Double tupleValue) {
         Double compareToValue = Double.parseDouble(value);
         return evaluateFilter(tupleValue, compareToValue, condition);
     }
 
-    private boolean evaluateFilterInt(Tuple inputTuple) {
-        Integer tupleValueInt = inputTuple.getField(attribute, Integer.class);
+    private boolean evaluateFilterInt(Integer tupleValueInt) {
         Double tupleValueDouble = tupleValueInt == null ? null : (double) tupleValueInt;
         Double compareToValue = Double.parseDouble(value);
         return evaluateFilter(tupleValueDouble, compareToValue, condition);
     }
 
-    private boolean evaluateFilterLong(Tuple inputTuple) {
-        Long tupleValue = inputTuple.getField(attribute, Long.class);
+    private boolean evaluateFilterLong(Long tupleValue) {
         Long compareToValue = Long.valueOf(value.trim());
         return evaluateFilter(tupleValue, compareToValue, condition);
     }
 
-    private boolean evaluateFilterString(Tuple inputTuple) {
-        String tupleValue = inputTuple.getField(attribute).toString();
+    private boolean evaluateFilterString(Object field) {
+        String tupleValue = field.toString();
         try {
             Double tupleValueDouble = tupleValue == null ? null : Double.parseDouble(tupleValue.trim());
             Double compareToValueDouble = Double.parseDouble(value);
@@ -81,10 +87,9 @@ public class FilterPredicate {
         }
     }
 
-    private boolean evaluateFilterTimestamp(Tuple inputTuple) {
-        Long tupleValue = inputTuple.getField(attribute, Timestamp.class).getTime();
+    private boolean evaluateFilterTimestamp(Timestamp tupleValue) {
         Long compareToValue = AttributeTypeUtils.parseTimestamp(value.trim()).getTime();
-        return evaluateFilter(tupleValue, compareToValue, condition);
+        return evaluateFilter(tupleValue.getTime(), compareToValue, condition);
 
     }
 
@@ -93,24 +98,97 @@ public class FilterPredicate {
         if (value == null) {
             return compareToValue == null;
         }
-        int compareResult = value.compareTo(compareToValue);
-        switch (comparisonType) {
-            case EQUAL_TO:
-                return compareResult == 0;
-            case GREATER_THAN:
-                return compareResult > 0;
-            case GREATER_THAN_OR_EQUAL_TO:
-                return compareResult >= 0;
-            case LESS_THAN:
-                return compareResult < 0;
-            case LESS_THAN_OR_EQUAL_TO:
-                return compareResult <= 0;
-            case NOT_EQUAL_TO:
-                return compareResult != 0;
-            default:
-                throw new RuntimeException(
-                        "Unable to do comparison: unknown comparison type: " + comparisonType);
+        return comparisonType.test(value.compareTo(compareToValue));
+    }
+
+    /**
+     * Binds the predicate to the index of its attribute in the schema and parses its value
+     * once, to evaluate it on every tuple of the schema the same as evaluate.
+     */
+    @JsonIgnore
+    public CompiledPredicate compile(Schema schema) {
+        int index = schema.getIndex(this.attribute);
+        AttributeType type = schema.getAttribute(this.attribute).getType();
+        ComparisonType condition = this.condition;
+        String value = this.value;
+        try {
+            switch (type) {
+                case STRING:
+                case ANY:
+                    return compileString(index, condition, value);
+                case BOOLEAN:
+                    String booleanValue = value.trim().toLowerCase();
+                    return tuple -> condition.test(
+                            tuple.get(index).toString().toLowerCase().compareTo(booleanValue));
+                case LONG:
+                    long longValue = Long.parseLong(value.trim());
+                    return tuple -> {
+                        Long field = (Long) tuple.get(index);
+                        return field != null && condition.test(Long.compare(field, longValue));
+                    };
+                case INTEGER:
+                    double intValue = Double.parseDouble(value);
+                    return tuple -> {
+                        Integer field = (Integer) tuple.get(index);
+                        return field != null && condition.test(Double.compare(field, intValue));
+                    };
+                case DOUBLE:
+                    double doubleValue = Double.parseDouble(value);
+                    return tuple -> {
+                        Double field = (Double) tuple.get(index);
+                        return field != null && condition.test(Double.compare(field, doubleValue));
+                    };
+                case TIMESTAMP:
+                    long timeValue = AttributeTypeUtils.parseTimestamp(value.trim()).getTime();
+                    return tuple -> condition.test(
+                            Long.compare(((Timestamp) tuple.get(index)).getTime(), timeValue));
+                default:
+                    throw new RuntimeException("unsupported attribute type: " + type);
+            }
+        } catch (RuntimeException e) {
+            // fails on the first tuple, as evaluate does, not on an input without tuples
+            return tuple -> {
+                throw e;
+            };
+        }
+    }
+
+    private static CompiledPredicate compileString(int index, ComparisonType condition, String value) {
+        double doubleValue;
+        try {
+            doubleValue = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return tuple -> condition.test(tuple.get(index).toString().compareTo(value));
+        }
+        // compares the fields that are numbers as numbers
+        return tuple -> {
+            String field = tuple.get(index).toString();
+            if (mayBeNumber(field)) {
+                try {
+                    return condition.test(Double.compare(Double.parseDouble(field.trim()), doubleValue));
+                } catch (NumberFormatException e) {
+                    // not a number after all
+                }
+            }
+            return condition.test(field.compareTo(value));
+        };
+    }
+
+    /**
+     * @return false if Double.parseDouble certainly fails on the string, to not throw and catch
+     * an exception for most strings that are not numbers
+     */
+    private static boolean mayBeNumber(String string) {
+        int start = 0;
+        while (start < string.length() && string.charAt(start) <= ' ') {
+            start++;
+        }
+        if (start == string.length()) {
+            return false;
         }
+        char first = string.charAt(start);
+        return (first >= '0' && first <= '9') || first == '-' || first == '+' || first == '.'
+                || first == 'N' || first == 'I';
     }
 
 }
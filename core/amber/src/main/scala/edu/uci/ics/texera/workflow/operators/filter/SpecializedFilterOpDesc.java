@@ -25,7 +25,7 @@ public class SpecializedFilterOpDesc extends FilterOpDesc {
     public OneToOneOpExecConfig operatorExecutor(OperatorSchemaInfo operatorSchemaInfo) {
         return new OneToOneOpExecConfig(
                 operatorIdentifier(),
-                worker -> new SpecializedFilterOpExec(this)
+                worker -> new SpecializedFilterOpExec(this, operatorSchemaInfo.inputSchemas()[0])
         );
     }
 
@@ -2,28 +2,38 @@ package edu.uci.ics.texera.workflow.operators.filter;
 
 import edu.uci.ics.texera.workflow.common.operators.filter.FilterOpExec;
 import edu.uci.ics.texera.workflow.common.tuple.Tuple;
+import edu.uci.ics.texera.workflow.common.tuple.schema.Schema;
 import scala.Function1;
 import scala.Serializable;
 
+import java.util.stream.Collectors;
+
 public class SpecializedFilterOpExec extends FilterOpExec {
 
     private final SpecializedFilterOpDesc opDesc;
+    private final Schema inputSchema;
+    private CompiledPredicate predicate;
 
-    public SpecializedFilterOpExec(SpecializedFilterOpDesc opDesc) {
+    public SpecializedFilterOpExec(SpecializedFilterOpDesc opDesc, Schema inputSchema) {
         this.opDesc = opDesc;
+        this.inputSchema = inputSchema;
         setFilterFunc(
                 // must cast the lambda function to "(Function & Serializable)" in Java
                 (Function1<Tuple, Boolean> & Serializable) this::filterFunc);
     }
 
-    public Boolean filterFunc(Tuple tuple) {
-        boolean satisfy = false;
-        for (FilterPredicate predicate : opDesc.predicates) {
-            satisfy = satisfy || predicate.evaluate(tuple, opDesc.context());
-        }
-        return satisfy;
+    /**
+     * Compiles the predicates in OR against the input schema, once instead of on every tuple.
+     */
+    @Override
+    public void open() {
+        predicate = CompiledPredicate.or(opDesc.predicates.stream()
+                .map(p -> p.compile(inputSchema))
+                .collect(Collectors.toList()));
     }
 
-    ;
+    public Boolean filterFunc(Tuple tuple) {
+        return predicate.test(tuple);
+    }
 
 }
@@ -0,0 +1,25 @@
+package edu.uci.ics.texera.workflow.operators.hashJoin
+
+import com.fasterxml.jackson.annotation.JsonProperty
+import com.kjetland.jackson.jsonSchema.annotations.JsonSchemaTitle
+import edu.uci.ics.texera.workflow.common.metadata.annotations.{
+  AutofillAttributeName,
+  AutofillAttributeNameOnPort1
+}
+
+/**
+  * A pair of attributes of the two inputs of a hash join that must be equal, besides the
+  * main join keys.
+  */
+class HashJoinKey {
+
+  @JsonProperty(required = true)
+  @JsonSchemaTitle("Small input attr")
+  @AutofillAttributeName
+  var buildAttributeName: String = _
+
+  @JsonProperty(required = true)
+  @JsonSchemaTitle("Large input attr")
+  @AutofillAttributeNameOnPort1
+  var probeAttributeName: String = _
+}
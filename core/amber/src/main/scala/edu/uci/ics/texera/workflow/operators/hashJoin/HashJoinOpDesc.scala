@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.{JsonIgnore, JsonProperty, JsonPropertyD
 import com.google.common.base.Preconditions
 import com.kjetland.jackson.jsonSchema.annotations.JsonSchemaTitle
 import edu.uci.ics.amber.engine.operators.OpExecConfig
+import edu.uci.ics.texera.web.WebUtils
 import edu.uci.ics.texera.workflow.common.metadata.annotations.{
   AutofillAttributeName,
   AutofillAttributeNameOnPort1
@@ -15,9 +16,32 @@ import edu.uci.ics.texera.workflow.common.metadata.{
   OutputPort
 }
 import edu.uci.ics.texera.workflow.common.operators.OperatorDescriptor
-import edu.uci.ics.texera.workflow.common.tuple.schema.{Attribute, OperatorSchemaInfo, Schema}
+import edu.uci.ics.texera.workflow.common.tuple.schema.{
+  Attribute,
+  AttributeType,
+  OperatorSchemaInfo,
+  Schema
+}
 
 import scala.collection.convert.ImplicitConversions.`collection AsScalaIterable`
+import scala.util.Try
+
+object HashJoinOpDesc {
+
+  // the estimated size of the small input below which it is broadcast to every worker
+  var broadcastThreshold: Long =
+    Try(WebUtils.config.getLong("hashJoin.broadcastThresholdMB")).getOrElse(10L) * 1024 * 1024
+
+  /**
+    * @return the type of the output of a build and a probe key, None if they are never equal.
+    *         An INTEGER and a LONG key are compared by value, and output as a LONG.
+    */
+  def keyType(buildType: AttributeType, probeType: AttributeType): Option[AttributeType] =
+    if (buildType == probeType) Option(buildType)
+    else if (Set(buildType, probeType) == Set(AttributeType.INTEGER, AttributeType.LONG))
+      Option(AttributeType.LONG)
+    else None
+}
 
 class HashJoinOpDesc[K] extends OperatorDescriptor {
 
@@ -33,6 +57,27 @@ class HashJoinOpDesc[K] extends OperatorDescriptor {
   @AutofillAttributeNameOnPort1
   var probeAttributeName: String = _
 
+  @JsonProperty()
+  @JsonSchemaTitle("More join keys")
+  @JsonPropertyDescription("pairs of attributes of the two inputs that must also be equal")
+  var additionalKeys: List[HashJoinKey] = List()
+
+  @JsonProperty(defaultValue = "inner")
+  @JsonSchemaTitle("Join Type")
+  @JsonPropertyDescription("inner, left outer, right outer, full outer, semi or anti join")
+  var joinType: JoinType = JoinType.INNER
+
+  @JsonProperty(defaultValue = "false")
+  @JsonSchemaTitle("Pipelined")
+  @JsonPropertyDescription(
+    "join the large input while the small input is being read, for an inner join"
+  )
+  var pipelined: Boolean = false
+
+  /** set by the compiler when the small input is estimated to be below the broadcast threshold */
+  @JsonIgnore
+  var broadcast: Boolean = false
+
   @JsonIgnore
   var opExecConfig: HashJoinOpExecConfig[K] = _
 
@@ -41,7 +86,11 @@ class HashJoinOpDesc[K] extends OperatorDescriptor {
       operatorIdentifier,
       probeAttributeName,
       buildAttributeName,
-      operatorSchemaInfo
+      operatorSchemaInfo,
+      pipelined,
+      broadcast,
+      joinKeys.tail,
+      joinType
     )
     opExecConfig
   }
@@ -55,35 +104,61 @@ class HashJoinOpDesc[K] extends OperatorDescriptor {
       outputPorts = List(OutputPort())
     )
 
-  // remove the probe attribute in the output
+  /**
+    * @return the pairs of a build and a probe attribute that must be equal, the main pair first
+    */
+  def joinKeys: List[(String, String)] =
+    (buildAttributeName, probeAttributeName) ::
+      Option(additionalKeys)
+        .getOrElse(List())
+        .map(key => (key.buildAttributeName, key.probeAttributeName))
+
+  // remove the probe join keys in the output
   override def getOutputSchema(schemas: Array[Schema]): Schema = {
     Preconditions.checkArgument(schemas.length == 2)
+    if (joinType != null && joinType.outputsProbeRowsOnly) return schemas(1)
     val builder = Schema.newBuilder()
     val buildSchema = schemas(0)
     val probeSchema = schemas(1)
-    builder.add(buildSchema).removeIfExists(probeAttributeName)
-    if (probeAttributeName.equals(buildAttributeName)) {
-      probeSchema.getAttributes.foreach(attr => {
-        val attributeName = attr.getName
-        if (buildSchema.containsAttribute(attributeName) && attributeName != probeAttributeName) {
+    // a key of the same name in both inputs is output once, in the place of the probe key
+    val sameNameKeys = joinKeys
+      .filter(key => key._1.equalsIgnoreCase(key._2))
+      .map(key => key._1.toLowerCase)
+      .toSet
+    val probeKeys = joinKeys.map(key => key._2.toLowerCase).toSet -- sameNameKeys
+    // the output type of each key of two types by its build name
+    val widenedKeys = joinKeys
+      .filter(key => buildSchema.containsAttribute(key._1) && probeSchema.containsAttribute(key._2))
+      .flatMap(key => {
+        val buildType = buildSchema.getAttribute(key._1).getType
+        val probeType = probeSchema.getAttribute(key._2).getType
+        HashJoinOpDesc
+          .keyType(buildType, probeType)
+          .filter(_ => buildType != probeType)
+          .map(keyType => (key._1.toLowerCase, keyType))
+      })
+      .toMap
+    def keyAttribute(attr: Attribute): Attribute =
+      widenedKeys
+        .get(attr.getName.toLowerCase)
+        .map(keyType => new Attribute(attr.getName, keyType))
+        .getOrElse(attr)
+    buildSchema.getAttributes
+      .filter(attr => !sameNameKeys.contains(attr.getName.toLowerCase))
+      .foreach(attr => builder.add(keyAttribute(attr)))
+    probeSchema.getAttributes.foreach(attr => {
+      val attributeName = attr.getName
+      if (sameNameKeys.contains(attributeName.toLowerCase)) {
+        builder.add(keyAttribute(attr))
+      } else if (!probeKeys.contains(attributeName.toLowerCase)) {
+        if (buildSchema.containsAttribute(attributeName)) {
           // appending 1 to the output of Join schema in case of duplicate attributes in probe and build table
           builder.add(new Attribute(s"$attributeName#@1", attr.getType))
         } else {
           builder.add(attr)
         }
-      })
-
-    } else {
-      probeSchema.getAttributes
-        .forEach(attr => {
-          val attributeName = attr.getName
-          if (buildSchema.containsAttribute(attributeName)) {
-            builder.add(new Attribute(s"$attributeName#@1", attr.getType))
-          } else if (!attributeName.equalsIgnoreCase(probeAttributeName)) {
-            builder.add(attr)
-          }
-        })
-    }
+      }
+    })
     builder.build()
   }
 }
@@ -6,26 +6,56 @@ import edu.uci.ics.amber.engine.common.virtualidentity.LinkIdentity
 import edu.uci.ics.amber.error.WorkflowRuntimeError
 import edu.uci.ics.texera.workflow.common.operators.OperatorExecutor
 import edu.uci.ics.texera.workflow.common.tuple.Tuple
-import edu.uci.ics.texera.workflow.common.tuple.schema.{Attribute, OperatorSchemaInfo, Schema}
+import edu.uci.ics.texera.workflow.common.tuple.schema.{AttributeType, OperatorSchemaInfo, Schema}
 
-import scala.collection.mutable
-import scala.collection.mutable.ArrayBuffer
+import java.util
+import scala.collection.JavaConverters._
 
+/**
+  * Joins the tuples of the probe input with the tuples of the build input of equal keys, once
+  * the build input is finished. The probe tuples are joined as they arrive, the build tuples
+  * without a match of an outer join are output once the probe input is finished, see JoinType.
+  *
+  * The build tuples are kept in a JoinTable, and the output tuples are made by copying fields
+  * by index, according to a mapping from the output schema to the fields of the two inputs
+  * computed in open(). The build rows with a match are marked in a bitmap when the join
+  * outputs the ones without.
+  *
+  * @param additionalKeys the pairs of a build and a probe attribute that must also be equal
+  */
 class HashJoinOpExec[K](
     val buildTable: LinkIdentity,
     val buildAttributeName: String,
     val probeAttributeName: String,
-    val operatorSchemaInfo: OperatorSchemaInfo
+    val operatorSchemaInfo: OperatorSchemaInfo,
+    val additionalKeys: List[(String, String)] = List(),
+    val joinType: JoinType = JoinType.INNER
 ) extends OperatorExecutor {
 
   val buildSchema: Schema = operatorSchemaInfo.inputSchemas(0)
   val probeSchema: Schema = operatorSchemaInfo.inputSchemas(1)
   var isBuildTableFinished: Boolean = false
-  var buildTableHashMap: mutable.HashMap[K, ArrayBuffer[Tuple]] = _
-  var outputProbeSchema: Schema = operatorSchemaInfo.outputSchema
+  var buildRows: JoinTable = _
+  var matchedBuildRows: util.BitSet = _
 
-  var currentEntry: Iterator[Tuple] = _
-  var currentTuple: Tuple = _
+  val buildKeyIndices: Array[Int] = (buildAttributeName :: additionalKeys.map(_._1))
+    .map(name => buildSchema.getIndex(name).intValue)
+    .toArray
+  val probeKeyIndices: Array[Int] = (probeAttributeName :: additionalKeys.map(_._2))
+    .map(name => probeSchema.getIndex(name).intValue)
+    .toArray
+  // keys of different types are never equal, except INTEGER and LONG keys, which the JoinTable
+  // compares by value
+  val isJoinable: Boolean = keyTypes(buildSchema, buildKeyIndices)
+    .zip(keyTypes(probeSchema, probeKeyIndices))
+    .forall(types => HashJoinOpDesc.keyType(types._1, types._2).isDefined)
+
+  // for each output field, the index of the build field it is, otherwise of the probe field it
+  // is in probeOutputIndices, -1 if none
+  var buildOutputIndices: Array[Int] = _
+  var probeOutputIndices: Array[Int] = _
+  // the output fields of an INTEGER key joined with a LONG key, which are output as LONG
+  var widenedOutputIndices: Array[Int] = Array()
 
   override def processTexeraTuple(
       tuple: Either[Tuple, InputExhausted],
@@ -38,10 +68,7 @@ class HashJoinOpExec[K](
         // the large input is assigned the inputNum 1.
 
         if (input == buildTable) {
-          val key = t.getField(buildAttributeName).asInstanceOf[K]
-          val storedTuples = buildTableHashMap.getOrElse(key, new ArrayBuffer[Tuple]())
-          storedTuples += t
-          buildTableHashMap.put(key, storedTuples)
+          buildRows.add(t)
           Iterator()
         } else if (!isBuildTableFinished) {
           val err = WorkflowRuntimeError(
@@ -51,55 +78,134 @@ class HashJoinOpExec[K](
           )
           throw new WorkflowRuntimeException(err)
         } else {
-          val key = t.getField(probeAttributeName).asInstanceOf[K]
-          val storedTuples = buildTableHashMap.getOrElse(key, new ArrayBuffer[Tuple]())
-          if (storedTuples.isEmpty) {
-            Iterator()
-          }
-
-          storedTuples
-            .map(buildTuple => {
-              val builder = Tuple
-                .newBuilder(operatorSchemaInfo.outputSchema)
-                .add(buildTuple)
-
-              // outputProbeSchema doesnt have "probeAttribute" but t does. The following code
-              //  takes that into consideration while creating a tuple.
-              for (i <- 0 until t.getFields.size()) {
-                val attributeName = t.getSchema.getAttributeNames.get(i)
-                val attribute = t.getSchema.getAttribute(attributeName)
-
-                if (attributeName != probeAttributeName) {
-                  builder.add(
-                    new Attribute(
-                      if (buildSchema.getAttributeNames.contains(attributeName))
-                        attributeName + "#@1"
-                      else attributeName,
-                      attribute.getType
-                    ),
-                    t.getFields.get(i)
-                  )
-                }
-              }
-              builder.build()
-            })
-            .toIterator
+          probe(t)
         }
       case Right(_) =>
         if (input == buildTable) {
           isBuildTableFinished = true
+          Iterator()
+        } else if (joinType.outputsUnmatchedBuildRows) {
+          Iterator
+            .range(0, buildRows.size)
+            .filter(row => !matchedBuildRows.get(row))
+            .map(row => joinFields(buildRows.fields, buildRows.offset(row), null, 0))
+        } else {
+          Iterator()
+        }
+
+    }
+  }
+
+  /**
+    * @return the output of the probe tuple given the build tuples of the same keys in buildRows
+    */
+  def probe(probeTuple: Tuple): Iterator[Tuple] = {
+    val firstRow = if (isJoinable) buildRows.firstRow(probeTuple, probeKeyIndices) else -1
+    joinType match {
+      case JoinType.SEMI => if (firstRow >= 0) Iterator(probeTuple) else Iterator()
+      case JoinType.ANTI => if (firstRow < 0) Iterator(probeTuple) else Iterator()
+      case _ =>
+        val probeFields = probeTuple.getFields.toArray
+        if (firstRow < 0) {
+          if (joinType.outputsUnmatchedProbeRows) Iterator(joinFields(null, 0, probeFields, 0))
+          else Iterator()
+        } else {
+          if (matchedBuildRows != null) {
+            var row = firstRow
+            while (row >= 0) {
+              matchedBuildRows.set(row)
+              row = buildRows.nextRow(row)
+            }
+          }
+          Iterator
+            .iterate(firstRow)(buildRows.nextRow)
+            .takeWhile(row => row >= 0)
+            .map(row => joinFields(buildRows.fields, buildRows.offset(row), probeFields, 0))
         }
-        Iterator()
+    }
+  }
 
+  /**
+    * @return the output tuple of a build tuple and a probe tuple of the same keys
+    */
+  def joinTuples(buildTuple: Tuple, probeTuple: Tuple): Tuple =
+    joinFields(buildTuple.getFields.toArray, 0, probeTuple.getFields.toArray, 0)
+
+  /**
+    * @return the output tuple of the build fields starting at buildOffset in buildFields and
+    *         the probe fields starting at probeOffset in probeFields, either of them null for
+    *         a tuple without a match
+    */
+  def joinFields(
+      buildFields: Array[AnyRef],
+      buildOffset: Int,
+      probeFields: Array[AnyRef],
+      probeOffset: Int
+  ): Tuple = {
+    val fields = new Array[AnyRef](buildOutputIndices.length)
+    var i = 0
+    while (i < fields.length) {
+      fields(i) =
+        if (buildFields != null && buildOutputIndices(i) >= 0)
+          buildFields(buildOffset + buildOutputIndices(i))
+        else if (probeFields != null && probeOutputIndices(i) >= 0)
+          probeFields(probeOffset + probeOutputIndices(i))
+        else null
+      i += 1
+    }
+    i = 0
+    while (i < widenedOutputIndices.length) {
+      fields(widenedOutputIndices(i)) match {
+        case value: java.lang.Integer =>
+          fields(widenedOutputIndices(i)) = java.lang.Long.valueOf(value.longValue)
+        case _ =>
+      }
+      i += 1
     }
+    new Tuple(operatorSchemaInfo.outputSchema, fields: _*)
   }
 
+  private def keyTypes(schema: Schema, indices: Array[Int]): Array[AttributeType] =
+    indices.map(i => schema.getAttributes.get(i).getType)
+
   override def open(): Unit = {
-    buildTableHashMap = new mutable.HashMap[K, mutable.ArrayBuffer[Tuple]]()
+    buildRows = new JoinTable(
+      buildSchema.getAttributes.size(),
+      buildKeyIndices,
+      keyTypes(buildSchema, buildKeyIndices)
+    )
+    if (joinType.outputsUnmatchedBuildRows) matchedBuildRows = new util.BitSet()
+    if (joinType.outputsProbeRowsOnly) return
+
+    // an output attribute is the build attribute of its name if there is one, otherwise the
+    // probe attribute of its name, which has a #@1 suffix if the build input has that name too.
+    // A build key is the equal probe key for a probe tuple without a match
+    val probeKeyIndexOf = buildKeyIndices.zip(probeKeyIndices).toMap
+    val outputNames = operatorSchemaInfo.outputSchema.getAttributeNames.asScala.toArray
+    buildOutputIndices = outputNames.map(name =>
+      if (buildSchema.containsAttribute(name)) buildSchema.getIndex(name).intValue else -1
+    )
+    probeOutputIndices = outputNames.map(name =>
+      if (buildSchema.containsAttribute(name))
+        probeKeyIndexOf.getOrElse(buildSchema.getIndex(name).intValue, -1)
+      else if (probeSchema.containsAttribute(name)) probeSchema.getIndex(name).intValue
+      else probeSchema.getIndex(name.stripSuffix("#@1")).intValue
+    )
+    val outputTypes = operatorSchemaInfo.outputSchema.getAttributes.asScala.map(_.getType)
+    widenedOutputIndices = outputNames.indices
+      .filter(i =>
+        outputTypes(i) == AttributeType.LONG &&
+          (isInteger(buildSchema, buildOutputIndices(i)) ||
+            isInteger(probeSchema, probeOutputIndices(i)))
+      )
+      .toArray
   }
 
+  private def isInteger(schema: Schema, index: Int): Boolean =
+    index >= 0 && schema.getAttributes.get(index).getType == AttributeType.INTEGER
+
   override def close(): Unit = {
-    buildTableHashMap.clear()
+    buildRows.clear()
   }
 
 }
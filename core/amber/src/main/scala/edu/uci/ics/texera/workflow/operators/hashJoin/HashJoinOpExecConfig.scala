@@ -20,7 +20,11 @@ class HashJoinOpExecConfig[K](
     id: OperatorIdentity,
     val probeAttributeName: String,
     val buildAttributeName: String,
-    val operatorSchemaInfo: OperatorSchemaInfo
+    val operatorSchemaInfo: OperatorSchemaInfo,
+    val pipelined: Boolean = false,
+    val broadcast: Boolean = false,
+    val additionalKeys: List[(String, String)] = List(),
+    val joinType: JoinType = JoinType.INNER
 ) extends OpExecConfig(id) {
 
   override lazy val topology: Topology = {
@@ -43,26 +47,49 @@ class HashJoinOpExecConfig[K](
     val buildLink = inputToOrdinalMapping.find(pair => pair._2 == 0).get._1
     buildTable = buildLink
     val probeLink = inputToOrdinalMapping.find(pair => pair._2 == 1).get._1
-    workflow.getSources(toOperatorIdentity(probeLink.from)).foreach { source =>
-      workflow.getOperator(source).topology.layers.head.startAfter(buildLink)
+    // the probe tuples without a match are only known once the build input is finished
+    if (pipelined && joinType == JoinType.INNER) {
+      // the probe input is joined while the build input is read
+      topology.layers.head.metadata = _ =>
+        new SymmetricHashJoinOpExec[K](
+          buildTable,
+          buildAttributeName,
+          probeAttributeName,
+          operatorSchemaInfo,
+          additionalKeys = additionalKeys
+        )
+    } else {
+      workflow.getSources(toOperatorIdentity(probeLink.from)).foreach { source =>
+        workflow.getOperator(source).topology.layers.head.startAfter(buildLink)
+      }
+      topology.layers.head.metadata = _ =>
+        new HashJoinOpExec[K](
+          buildTable,
+          buildAttributeName,
+          probeAttributeName,
+          operatorSchemaInfo,
+          additionalKeys,
+          joinType
+        )
     }
-    topology.layers.head.metadata = _ =>
-      new HashJoinOpExec[K](
-        buildTable,
-        buildAttributeName,
-        probeAttributeName,
-        operatorSchemaInfo
-      )
   }
 
-  override def requiredShuffle: Boolean = true
+  // a broadcast join sends the whole build input to every worker, the probe input stays put,
+  // so it cannot output the build tuples without a match, see WorkflowCompiler
+  override def requiredShuffle: Boolean = !broadcast
+
+  override def requiredBroadcast(layer: LayerIdentity): Boolean =
+    broadcast && layer == buildTable.from
 
   override def getPartitionColumnIndices(layer: LayerIdentity): Array[Int] = {
     if (layer == buildTable.from) {
-      Array(operatorSchemaInfo.inputSchemas(0).getIndex(buildAttributeName))
-
+      (buildAttributeName :: additionalKeys.map(_._1))
+        .map(name => operatorSchemaInfo.inputSchemas(0).getIndex(name).intValue)
+        .toArray
     } else {
-      Array(operatorSchemaInfo.inputSchemas(1).getIndex(probeAttributeName))
+      (probeAttributeName :: additionalKeys.map(_._2))
+        .map(name => operatorSchemaInfo.inputSchemas(1).getIndex(name).intValue)
+        .toArray
     }
   }
 
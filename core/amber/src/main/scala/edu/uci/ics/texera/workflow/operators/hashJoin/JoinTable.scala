@@ -0,0 +1,89 @@
+package edu.uci.ics.texera.workflow.operators.hashJoin
+
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.AttributeType
+import edu.uci.ics.texera.workflow.operators.aggregate.GroupIdTable
+
+import java.util
+
+/**
+  * The tuples of one input of a hash join, by their join keys.
+  *
+  * The distinct keys get dense ids from a GroupIdTable, and the rows of each key are chained
+  * through int arrays, so that the table has no map entry nor buffer per key. Only the fields
+  * of the tuples are kept, packed in a single array: the fields of row r are at
+  * offset(r) until offset(r) + width.
+  *
+  * @param width the number of fields of the tuples
+  * @param keyIndices the indices of the join keys in the tuples
+  * @param keyTypes the types of the join keys
+  */
+class JoinTable(val width: Int, keyIndices: Array[Int], keyTypes: Array[AttributeType]) {
+
+  private var keys = new GroupIdTable(keyIndices, keyTypes)
+  private var rowFields = new Array[AnyRef](16 * width)
+  // the first and last rows of each key, and the next row of the same key of each row, -1 if none
+  private var firstRows = new Array[Int](16)
+  private var lastRows = new Array[Int](16)
+  private var nextRows = new Array[Int](16)
+  private var numRows = 0
+
+  def size: Int = numRows
+
+  /**
+    * @return the array of the fields of all the rows, valid until the next add
+    */
+  def fields: Array[AnyRef] = rowFields
+
+  def offset(row: Int): Int = row * width
+
+  def add(tuple: Tuple): Unit = {
+    val numKeys = keys.size
+    val key = keys.groupId(tuple)
+    if (key == numKeys) {
+      if (key == firstRows.length) {
+        firstRows = util.Arrays.copyOf(firstRows, key * 2)
+        lastRows = util.Arrays.copyOf(lastRows, key * 2)
+      }
+      firstRows(key) = -1
+    }
+    if (numRows == nextRows.length) {
+      nextRows = util.Arrays.copyOf(nextRows, numRows * 2)
+      rowFields = util.Arrays.copyOf(rowFields, numRows * 2 * width)
+    }
+    var i = 0
+    while (i < width) {
+      rowFields(numRows * width + i) = tuple.get(i)
+      i += 1
+    }
+    nextRows(numRows) = -1
+    if (firstRows(key) < 0) firstRows(key) = numRows
+    else nextRows(lastRows(key)) = numRows
+    lastRows(key) = numRows
+    numRows += 1
+  }
+
+  /**
+    * @return the first row whose keys equal the fields at the given indices of the tuple,
+    *         which have the types of the keys, -1 if there is none
+    */
+  def firstRow(tuple: Tuple, indices: Array[Int]): Int = {
+    val key = keys.find(tuple, indices)
+    if (key < 0) -1 else firstRows(key)
+  }
+
+  /**
+    * @return the next row of the same keys as the given row, -1 if there is none
+    */
+  def nextRow(row: Int): Int = nextRows(row)
+
+  def clear(): Unit = {
+    keys = new GroupIdTable(keyIndices, keyTypes)
+    rowFields = new Array[AnyRef](16 * width)
+    firstRows = new Array[Int](16)
+    lastRows = new Array[Int](16)
+    nextRows = new Array[Int](16)
+    numRows = 0
+  }
+
+}
@@ -0,0 +1,62 @@
+package edu.uci.ics.texera.workflow.operators.hashJoin;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * The rows a hash join outputs. Left is the small input, right is the large input.
+ */
+public enum JoinType {
+
+    // the pairs of rows of equal keys
+    INNER("inner"),
+
+    // also the small input rows without a match, with nulls for the large input
+    LEFT_OUTER("left outer"),
+
+    // also the large input rows without a match, with nulls for the small input
+    RIGHT_OUTER("right outer"),
+
+    // also the rows of both inputs without a match
+    FULL_OUTER("full outer"),
+
+    // the large input rows with a match, each once
+    SEMI("semi"),
+
+    // the large input rows without a match
+    ANTI("anti");
+
+    private final String name;
+
+    JoinType(String name) {
+        this.name = name;
+    }
+
+    // use the name string instead of enum string in JSON
+    @JsonValue
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return whether the small input rows without a match are output, which is only known
+     * once the whole large input is read
+     */
+    public boolean outputsUnmatchedBuildRows() {
+        return this == LEFT_OUTER || this == FULL_OUTER;
+    }
+
+    /**
+     * @return whether the large input rows without a match are output in the pairs of rows
+     */
+    public boolean outputsUnmatchedProbeRows() {
+        return this == RIGHT_OUTER || this == FULL_OUTER;
+    }
+
+    /**
+     * @return whether the output has the attributes of the large input only
+     */
+    public boolean outputsProbeRowsOnly() {
+        return this == SEMI || this == ANTI;
+    }
+
+}
@@ -0,0 +1,136 @@
+package edu.uci.ics.texera.workflow.operators.hashJoin
+
+import edu.uci.ics.amber.engine.common.{InputExhausted, WorkflowLogger}
+import edu.uci.ics.amber.engine.common.virtualidentity.LinkIdentity
+import edu.uci.ics.texera.web.WebUtils
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.OperatorSchemaInfo
+
+import scala.collection.mutable.ArrayBuffer
+import scala.util.Try
+
+object SymmetricHashJoinOpExec {
+
+  // the estimated size of the probe tuples a worker keeps before it falls back
+  var memoryLimit: Long =
+    Try(WebUtils.config.getLong("hashJoin.symmetricMemoryMB")).getOrElse(256L) * 1024 * 1024
+
+  /**
+    * @return a rough estimate of the bytes the tuple takes on the heap
+    */
+  def estimatedSize(tuple: Tuple): Long = {
+    var size = 64L
+    for (i <- 0 until tuple.length) {
+      size += (tuple.get(i) match {
+        case string: String => 40 + 2 * string.length
+        case _              => 16
+      })
+    }
+    size
+  }
+}
+
+/**
+  * A hash join that keeps a hash table of both inputs while the build input is not finished,
+  * so that the probe input does not have to wait for it. Each tuple is joined with the tuples
+  * of the other input received so far and added to the table of its own input, which outputs
+  * each pair exactly once, as soon as both of its tuples have arrived. A table is dropped once
+  * the other input is finished, since no tuple can match it anymore.
+  *
+  * If the probe table grows beyond memoryLimit before the build input is finished, the next
+  * probe tuples are only buffered, and joined once the build input is finished, like in
+  * HashJoinOpExec.
+  */
+class SymmetricHashJoinOpExec[K](
+    buildTable: LinkIdentity,
+    buildAttributeName: String,
+    probeAttributeName: String,
+    operatorSchemaInfo: OperatorSchemaInfo,
+    val memoryLimit: Long = SymmetricHashJoinOpExec.memoryLimit,
+    additionalKeys: List[(String, String)] = List()
+) extends HashJoinOpExec[K](
+      buildTable,
+      buildAttributeName,
+      probeAttributeName,
+      operatorSchemaInfo,
+      additionalKeys
+    ) {
+
+  private val logger = WorkflowLogger("SymmetricHashJoinOpExec")
+
+  var probeRows: JoinTable = _
+  var probeTableSize = 0L
+  var isProbeTableFinished = false
+  // the probe tuples received after the probe table became too large
+  var deferredProbeTuples: ArrayBuffer[Tuple] = _
+
+  def isFallback: Boolean = deferredProbeTuples != null
+
+  override def processTexeraTuple(
+      tuple: Either[Tuple, InputExhausted],
+      input: LinkIdentity
+  ): Iterator[Tuple] = {
+    tuple match {
+      case Left(t) if input == buildTable =>
+        // the build tuple is only needed for the probe tuples still to come
+        if (!isProbeTableFinished || isFallback) {
+          buildRows.add(t)
+        }
+        probeMatches(t)
+      case Left(_) if isBuildTableFinished =>
+        super.processTexeraTuple(tuple, input)
+      case Left(t) if isFallback =>
+        deferredProbeTuples += t
+        Iterator()
+      case Left(t) =>
+        probeRows.add(t)
+        probeTableSize += SymmetricHashJoinOpExec.estimatedSize(t)
+        if (probeTableSize > memoryLimit) {
+          logger.logInfo(
+            s"probe table exceeds $memoryLimit bytes, " +
+              "joining the next probe tuples once the build input is finished"
+          )
+          deferredProbeTuples = new ArrayBuffer[Tuple]()
+        }
+        probe(t)
+      case Right(_) if input == buildTable =>
+        isBuildTableFinished = true
+        probeRows.clear()
+        val deferred = if (isFallback) deferredProbeTuples else ArrayBuffer[Tuple]()
+        deferredProbeTuples = null
+        deferred.iterator.flatMap(probe)
+      case Right(_) =>
+        isProbeTableFinished = true
+        if (!isFallback) buildRows.clear()
+        Iterator()
+    }
+  }
+
+  /**
+    * @return the build tuple joined with the probe tuples of the same keys received so far
+    */
+  private def probeMatches(buildTuple: Tuple): Iterator[Tuple] = {
+    val firstRow = if (isJoinable) probeRows.firstRow(buildTuple, buildKeyIndices) else -1
+    if (firstRow < 0) return Iterator()
+    val buildFields = buildTuple.getFields.toArray
+    Iterator
+      .iterate(firstRow)(probeRows.nextRow)
+      .takeWhile(row => row >= 0)
+      .map(row => joinFields(buildFields, 0, probeRows.fields, probeRows.offset(row)))
+  }
+
+  override def open(): Unit = {
+    super.open()
+    probeRows = new JoinTable(
+      probeSchema.getAttributes.size(),
+      probeKeyIndices,
+      probeKeyIndices.map(i => probeSchema.getAttributes.get(i).getType)
+    )
+  }
+
+  override def close(): Unit = {
+    super.close()
+    probeRows.clear()
+  }
+
+}
@@ -4,13 +4,21 @@ import com.google.common.base.Preconditions
 import edu.uci.ics.amber.engine.common.InputExhausted
 import edu.uci.ics.amber.engine.common.virtualidentity.LinkIdentity
 import edu.uci.ics.texera.workflow.common.operators.OperatorExecutor
-import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.{FingerprintSet, RowFingerprint, Tuple}
 
 import scala.collection.mutable
 
+/**
+  * Outputs each tuple of both inputs once, as soon as it has been seen in both of them.
+  *
+  * Only the fingerprints of the tuples are kept, see RowFingerprint: those of both inputs
+  * until one of them is exhausted, then only those of the exhausted input, against which the
+  * other input is streamed.
+  */
 class IntersectOpExec extends OperatorExecutor {
-  private val hashMap: mutable.HashMap[LinkIdentity, mutable.HashSet[Tuple]] =
+  private val fingerprints: mutable.HashMap[LinkIdentity, FingerprintSet] =
     new mutable.HashMap()
+  private val outputFingerprints = new FingerprintSet()
 
   private var exhaustedCounter: Int = 0
 
@@ -21,33 +29,26 @@ class IntersectOpExec extends OperatorExecutor {
     tuple match {
       case Left(t) =>
         // for each input stream, initialize an empty set
-        if (!hashMap.contains(input)) {
-          hashMap.put(input, mutable.HashSet())
-        }
+        val inputFingerprints = fingerprints.getOrElseUpdate(input, new FingerprintSet())
 
         // should expect no more than 2 input streams, thus no more than 2 sets
-        Preconditions.checkArgument(hashMap.size <= 2)
+        Preconditions.checkArgument(fingerprints.size <= 2)
 
-        // add the tuple to corresponding set
-        hashMap(input) += t
-        Iterator()
+        val fingerprint = RowFingerprint.of(t)
+        // once the other input is exhausted, no tuple of it is left to look this one up
+        if (exhaustedCounter == 0) inputFingerprints.add(fingerprint)
+        val isInOtherInput =
+          fingerprints.exists(pair => pair._1 != input && pair._2.contains(fingerprint))
+        if (isInOtherInput && outputFingerprints.add(fingerprint)) Iterator(t) else Iterator()
 
       case Right(_) =>
         // for empty input stream, initialize an empty set
-        if (!hashMap.contains(input)) {
-          hashMap.put(input, mutable.HashSet())
-        }
+        fingerprints.getOrElseUpdate(input, new FingerprintSet())
         exhaustedCounter += 1
-        if (exhaustedCounter == 2) {
-          // both streams are exhausted, take the intersect and return the results
-
-          hashMap.valuesIterator
-            .reduce((set1, set2) => { set1.intersect(set2) })
-            .iterator
-        } else {
-          // only one of the stream is exhausted, continue accepting tuples
-          Iterator()
-        }
+        // only the fingerprints of the exhausted inputs are still looked up
+        fingerprints.foreach(pair => if (pair._1 != input || exhaustedCounter == 2) pair._2.clear())
+        if (exhaustedCounter == 2) outputFingerprints.clear()
+        Iterator()
 
     }
   }
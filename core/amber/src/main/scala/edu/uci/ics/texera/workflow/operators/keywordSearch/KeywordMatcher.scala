@@ -0,0 +1,215 @@
+package edu.uci.ics.texera.workflow.operators.keywordSearch
+
+import org.apache.lucene.analysis.tokenattributes.{CharTermAttribute, PositionIncrementAttribute}
+import org.apache.lucene.analysis.{Analyzer, CharArrayMap}
+import org.apache.lucene.search.BooleanClause.Occur
+import org.apache.lucene.search._
+
+import java.util
+import scala.collection.JavaConverters._
+import scala.collection.mutable.ArrayBuffer
+
+/**
+  * A Lucene query compiled to be evaluated on the tokens of one field value at a time, without
+  * indexing the value into a MemoryIndex: the terms of the query get ids, and the tokens of
+  * the value are looked up in them, into arrays reused for every value.
+  *
+  * Only the queries whose match does not depend on the score are compiled, see compile.
+  */
+class KeywordMatcher private (
+    analyzer: Analyzer,
+    field: String,
+    root: KeywordMatcher.Node,
+    termIds: CharArrayMap[Integer],
+    prefixes: Array[Array[Char]]
+) {
+
+  // the id of the term of each token of the value, -1 if not a term of the query, and its
+  // position
+  private var tokenTerms = new Array[Int](64)
+  private var tokenPositions = new Array[Int](64)
+  private var numTokens = 0
+  // the number of the last value each term and prefix of the query is in
+  private val termValues = new Array[Int](termIds.size)
+  private val prefixValues = new Array[Int](prefixes.length)
+  private var value = 0
+
+  def matches(text: String): Boolean = {
+    tokenize(text)
+    root.matches(this)
+  }
+
+  private def tokenize(text: String): Unit = {
+    value += 1
+    numTokens = 0
+    val stream = analyzer.tokenStream(field, text)
+    try {
+      val termAttribute = stream.addAttribute(classOf[CharTermAttribute])
+      val positionAttribute = stream.addAttribute(classOf[PositionIncrementAttribute])
+      stream.reset()
+      var position = -1
+      while (stream.incrementToken()) {
+        position += positionAttribute.getPositionIncrement
+        val term = termIds.get(termAttribute.buffer, 0, termAttribute.length)
+        if (numTokens == tokenTerms.length) {
+          tokenTerms = util.Arrays.copyOf(tokenTerms, numTokens * 2)
+          tokenPositions = util.Arrays.copyOf(tokenPositions, numTokens * 2)
+        }
+        tokenTerms(numTokens) = if (term == null) -1 else term.intValue
+        tokenPositions(numTokens) = position
+        numTokens += 1
+        if (term != null) termValues(term.intValue) = value
+        var i = 0
+        while (i < prefixes.length) {
+          if (startsWith(termAttribute, prefixes(i))) prefixValues(i) = value
+          i += 1
+        }
+      }
+      stream.end()
+    } finally {
+      stream.close()
+    }
+  }
+
+  private def startsWith(term: CharTermAttribute, prefix: Array[Char]): Boolean = {
+    if (term.length < prefix.length) return false
+    val buffer = term.buffer
+    var i = 0
+    while (i < prefix.length) {
+      if (buffer(i) != prefix(i)) return false
+      i += 1
+    }
+    true
+  }
+
+  private def hasTerm(term: Int): Boolean = termValues(term) == value
+
+  private def hasPrefix(prefix: Int): Boolean = prefixValues(prefix) == value
+
+  /**
+    * @param offsets the position of each term after the first one
+    */
+  private def hasPhrase(terms: Array[Int], offsets: Array[Int]): Boolean = {
+    if (!terms.forall(hasTerm)) return false
+    var i = 0
+    while (i < numTokens) {
+      if (tokenTerms(i) == terms(0) && hasPhraseAt(i, terms, offsets)) return true
+      i += 1
+    }
+    false
+  }
+
+  private def hasPhraseAt(first: Int, terms: Array[Int], offsets: Array[Int]): Boolean = {
+    var k = 1
+    while (k < terms.length) {
+      val position = tokenPositions(first) + offsets(k)
+      // the positions of the tokens only increase
+      var j = first
+      while (j < numTokens && tokenPositions(j) < position) j += 1
+      while (j < numTokens && tokenPositions(j) == position && tokenTerms(j) != terms(k)) j += 1
+      if (j == numTokens || tokenPositions(j) != position) return false
+      k += 1
+    }
+    true
+  }
+
+}
+
+object KeywordMatcher {
+
+  private[keywordSearch] sealed trait Node {
+    def matches(matcher: KeywordMatcher): Boolean
+  }
+
+  private case object MatchAll extends Node {
+    override def matches(matcher: KeywordMatcher): Boolean = true
+  }
+
+  private case object MatchNone extends Node {
+    override def matches(matcher: KeywordMatcher): Boolean = false
+  }
+
+  private case class TermNode(term: Int) extends Node {
+    override def matches(matcher: KeywordMatcher): Boolean = matcher.hasTerm(term)
+  }
+
+  private case class PrefixNode(prefix: Int) extends Node {
+    override def matches(matcher: KeywordMatcher): Boolean = matcher.hasPrefix(prefix)
+  }
+
+  private case class PhraseNode(terms: Array[Int], offsets: Array[Int]) extends Node {
+    override def matches(matcher: KeywordMatcher): Boolean = matcher.hasPhrase(terms, offsets)
+  }
+
+  private case class BooleanNode(
+      must: Array[Node],
+      should: Array[Node],
+      mustNot: Array[Node],
+      minShouldMatch: Int
+  ) extends Node {
+    override def matches(matcher: KeywordMatcher): Boolean =
+      must.forall(_.matches(matcher)) && !mustNot.exists(_.matches(matcher)) &&
+        should.count(_.matches(matcher)) >= minShouldMatch
+  }
+
+  /**
+    * Compiles the term, prefix, exact phrase, match all and boolean queries, which match the
+    * field value if and only if a MemoryIndex of the value gives them a positive score. The
+    * other queries, and those with a boost that is not positive or a filter clause, which
+    * may match with a score of 0, are not compiled.
+    *
+    * @return the matcher of the query on the values of the field, None if not compiled
+    */
+  def compile(query: Query, field: String, analyzer: Analyzer): Option[KeywordMatcher] = {
+    val termIds = new CharArrayMap[Integer](16, false)
+    val prefixes = new ArrayBuffer[Array[Char]]()
+
+    def termId(text: String): Int = {
+      if (!termIds.containsKey(text)) termIds.put(text, Int.box(termIds.size))
+      termIds.get(text)
+    }
+
+    def compileQuery(query: Query): Option[Node] =
+      query match {
+        case _: MatchAllDocsQuery => Some(MatchAll)
+        case _: MatchNoDocsQuery  => Some(MatchNone)
+        case q: TermQuery =>
+          Some(if (q.getTerm.field == field) TermNode(termId(q.getTerm.text)) else MatchNone)
+        case q: PrefixQuery =>
+          if (q.getPrefix.field != field) Some(MatchNone)
+          else {
+            prefixes += q.getPrefix.text.toCharArray
+            Some(PrefixNode(prefixes.size - 1))
+          }
+        case q: PhraseQuery if q.getSlop == 0 =>
+          if (q.getTerms.isEmpty || q.getField != field) Some(MatchNone)
+          else {
+            val terms = q.getTerms.map(term => termId(term.text))
+            val positions = q.getPositions
+            Some(PhraseNode(terms, positions.map(_ - positions(0))))
+          }
+        case q: BoostQuery if q.getBoost > 0 => compileQuery(q.getQuery)
+        case q: BooleanQuery =>
+          val clauses = q.clauses.asScala
+          val nodes = clauses.map(clause => compileQuery(clause.getQuery))
+          if (nodes.exists(_.isEmpty) || clauses.exists(_.getOccur == Occur.FILTER)) None
+          else {
+            def occurring(occur: Occur): Array[Node] =
+              clauses.zip(nodes).filter(_._1.getOccur == occur).map(_._2.get).toArray
+            val must = occurring(Occur.MUST)
+            // the should clauses are optional next to must clauses, unless a minimum is set
+            val minShouldMatch =
+              if (must.isEmpty) math.max(q.getMinimumNumberShouldMatch, 1)
+              else q.getMinimumNumberShouldMatch
+            val should = occurring(Occur.SHOULD)
+            Some(BooleanNode(must, should, occurring(Occur.MUST_NOT), minShouldMatch))
+          }
+        case _ => None
+      }
+
+    compileQuery(query).map(root =>
+      new KeywordMatcher(analyzer, field, root, termIds, prefixes.toArray)
+    )
+  }
+
+}
@@ -12,6 +12,9 @@ class KeywordSearchOpExec(var counter: Int, val opDesc: KeywordSearchOpDesc) ext
   @transient lazy val query: Query =
     new QueryParser(opDesc.attribute, analyzer).parse(opDesc.keyword)
   @transient lazy val memoryIndex: MemoryIndex = new MemoryIndex()
+  // the query matched on the tokens of the field values, unless it needs a MemoryIndex
+  @transient lazy val matcher: Option[KeywordMatcher] =
+    KeywordMatcher.compile(query, opDesc.attribute, analyzer)
 
   this.setFilterFunc(this.findKeyword)
 
@@ -20,10 +23,14 @@ class KeywordSearchOpExec(var counter: Int, val opDesc: KeywordSearchOpDesc) ext
       false
     } else {
       val fieldValue = tuple.getField(opDesc.attribute).toString
-      memoryIndex.addField(opDesc.attribute, fieldValue, analyzer)
-      val isMatch = memoryIndex.search(query) > 0.0f
-      memoryIndex.reset()
-      isMatch
+      if (matcher.isDefined) {
+        matcher.get.matches(fieldValue)
+      } else {
+        memoryIndex.addField(opDesc.attribute, fieldValue, analyzer)
+        val isMatch = memoryIndex.search(query) > 0.0f
+        memoryIndex.reset()
+        isMatch
+      }
     }
   }
 
@@ -0,0 +1,109 @@
+package edu.uci.ics.texera.workflow.operators.regex
+
+import scala.collection.mutable
+import scala.collection.mutable.ArrayBuffer
+
+/**
+  * Finds which of a set of literals occur in a text, in a single pass over the text, with the
+  * Aho-Corasick automaton of the literals.
+  *
+  * Each literal belongs to one or more of up to 64 groups, given as a bitmask, and the
+  * automaton tells the groups of which at least one literal occurs in the text.
+  *
+  * @param childChars the sorted chars of the children of each node
+  * @param childNodes the children of each node, in the order of their chars
+  * @param failNodes the node of the longest proper suffix of each node
+  * @param outputs the groups of the literals ending at each node or at one of its suffixes
+  * @param foldCase whether the literals and the text are compared case insensitively
+  */
+class AhoCorasick private (
+    childChars: Array[Array[Char]],
+    childNodes: Array[Array[Int]],
+    failNodes: Array[Int],
+    outputs: Array[Long],
+    val foldCase: Boolean
+) extends Serializable {
+
+  private def child(node: Int, c: Char): Int = {
+    val i = java.util.Arrays.binarySearch(childChars(node), c)
+    if (i < 0) -1 else childNodes(node)(i)
+  }
+
+  /**
+    * @param until the groups after finding which the text needs not be read further
+    * @return the groups of which at least one literal occurs in the text
+    */
+  def matchedGroups(text: CharSequence, until: Long): Long = {
+    var matched = outputs(0)
+    var node = 0
+    var i = 0
+    while (i < text.length && (matched & until) != until) {
+      val c = AhoCorasick.fold(text.charAt(i), foldCase)
+      var next = child(node, c)
+      while (next < 0 && node != 0) {
+        node = failNodes(node)
+        next = child(node, c)
+      }
+      node = math.max(next, 0)
+      matched |= outputs(node)
+      i += 1
+    }
+    matched
+  }
+
+}
+
+object AhoCorasick {
+
+  /**
+    * @param literals the literals with the bitmask of their groups
+    * @param foldCase whether the literals and the text are compared case insensitively
+    */
+  def apply(literals: Iterable[(String, Long)], foldCase: Boolean): AhoCorasick = {
+    val children = ArrayBuffer(mutable.TreeMap[Char, Int]())
+    val groups = ArrayBuffer(0L)
+    literals.foreach {
+      case (literal, mask) =>
+        var node = 0
+        literal.foreach(c =>
+          node = children(node).getOrElseUpdate(
+            fold(c, foldCase), {
+              children += mutable.TreeMap[Char, Int]()
+              groups += 0L
+              children.size - 1
+            }
+          )
+        )
+        groups(node) |= mask
+    }
+
+    // the suffixes of a node are shorter, so they are completed before it in breadth first order
+    val failNodes = new Array[Int](children.size)
+    val queue = mutable.Queue[Int](children.head.values.toSeq: _*)
+    while (queue.nonEmpty) {
+      val node = queue.dequeue()
+      groups(node) |= groups(failNodes(node))
+      children(node).foreach {
+        case (c, child) =>
+          var suffix = failNodes(node)
+          while (suffix != 0 && !children(suffix).contains(c)) suffix = failNodes(suffix)
+          failNodes(child) = children(suffix).getOrElse(c, 0)
+          queue.enqueue(child)
+      }
+    }
+    new AhoCorasick(
+      children.map(_.keys.toArray).toArray,
+      children.map(_.values.toArray).toArray,
+      failNodes,
+      groups.toArray,
+      foldCase
+    )
+  }
+
+  /**
+    * Maps the chars that are equal ignoring case to the same char.
+    */
+  def fold(c: Char, foldCase: Boolean): Char =
+    if (foldCase) Character.toLowerCase(Character.toUpperCase(c)) else c
+
+}
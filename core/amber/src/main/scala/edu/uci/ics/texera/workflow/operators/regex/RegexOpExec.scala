@@ -1,22 +1,52 @@
 package edu.uci.ics.texera.workflow.operators.regex
 
-import java.util.regex.Pattern
-
+import com.google.re2j.PatternSyntaxException
 import edu.uci.ics.texera.workflow.common.operators.filter.FilterOpExec
 import edu.uci.ics.texera.workflow.common.tuple.Tuple
 
+/**
+  * Matches the regular expression with RE2J, in linear time of the text, after skipping the
+  * texts without the literals required to match, see RegexPrefilter. The expressions RE2
+  * does not support, such as those with backreferences, are matched with java.util.regex.
+  *
+  * RE2J matches like java.util.regex, which this operator used before, except that:
+  *  - $ only matches at the end of the text, not before a line terminator ending it, unless
+  *    the (?m) flag is set;
+  *  - . matches any character but \n, including \r and the other line terminators of
+  *    java.util.regex;
+  *  - a case insensitive match folds the case of all Unicode letters, while java.util.regex
+  *    only folds ASCII letters without the UNICODE_CASE flag.
+  */
 class RegexOpExec(val opDesc: RegexOpDesc) extends FilterOpExec {
-  val pattern: Pattern =
-    if (opDesc.caseInsensitive) Pattern.compile(opDesc.regex, Pattern.CASE_INSENSITIVE)
-    else Pattern.compile(opDesc.regex)
+  val re2Pattern: Option[com.google.re2j.Pattern] =
+    try {
+      Some(
+        if (opDesc.caseInsensitive)
+          com.google.re2j.Pattern.compile(opDesc.regex, com.google.re2j.Pattern.CASE_INSENSITIVE)
+        else com.google.re2j.Pattern.compile(opDesc.regex)
+      )
+    } catch {
+      case _: PatternSyntaxException => None
+    }
+  val pattern: Option[java.util.regex.Pattern] =
+    if (re2Pattern.isDefined) None
+    else if (opDesc.caseInsensitive)
+      Some(java.util.regex.Pattern.compile(opDesc.regex, java.util.regex.Pattern.CASE_INSENSITIVE))
+    else Some(java.util.regex.Pattern.compile(opDesc.regex))
+  val prefilter: Option[RegexPrefilter] =
+    if (re2Pattern.isDefined) RegexPrefilter(opDesc.regex, opDesc.caseInsensitive) else None
   this.setFilterFunc(this.matchRegex)
 
   def matchRegex(tuple: Tuple): Boolean = {
     val tupleValue = Option[Any](tuple.getField(opDesc.attribute)).map(x => x.toString)
     if (tupleValue.isEmpty)
       false
+    else if (!prefilter.forall(_.mayMatch(tupleValue.get)))
+      false
+    else if (re2Pattern.isDefined)
+      re2Pattern.get.matcher(tupleValue.get).find
     else
-      pattern.matcher(tupleValue.get).find
+      pattern.get.matcher(tupleValue.get).find
   }
 
 }
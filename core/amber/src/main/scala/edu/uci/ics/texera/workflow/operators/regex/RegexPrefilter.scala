@@ -0,0 +1,150 @@
+package edu.uci.ics.texera.workflow.operators.regex
+
+import com.google.re2j.PublicRegexp.PublicOp
+import com.google.re2j.{PatternSyntaxException, PublicParser, PublicRE2, PublicRegexp}
+
+/**
+  * A condition every text a regular expression matches satisfies: to contain one of the
+  * literals of each of some groups. Texts without them are skipped without running the
+  * regular expression, after a single pass of an Aho-Corasick automaton over them.
+  */
+class RegexPrefilter(val groups: List[Set[String]], foldCase: Boolean) extends Serializable {
+
+  private val allGroups: Long = if (groups.size == 64) -1L else (1L << groups.size) - 1
+
+  private val automaton: AhoCorasick = AhoCorasick(
+    groups.zipWithIndex
+      .flatMap { case (group, i) => group.map(literal => (literal, 1L << i)) }
+      .groupBy(_._1)
+      .map { case (literal, masks) => (literal, masks.map(_._2).reduce(_ | _)) },
+    foldCase
+  )
+
+  /**
+    * @return false if the regular expression certainly does not match the text
+    */
+  def mayMatch(text: CharSequence): Boolean =
+    automaton.matchedGroups(text, allGroups) == allGroups
+
+}
+
+object RegexPrefilter {
+
+  // the most strings of the exact set of an expression and of a group, and the most groups
+  val maxExactSize = 16
+  val maxGroupSize = 64
+  val maxGroups = 64
+
+  /**
+    * What is known of the texts an expression matches, as in RegexToGramQueryTranslator of the
+    * old engine (https://swtch.com/~rsc/regexp/regexp4.html) but with whole literals instead
+    * of n-grams.
+    *
+    * @param exact all the texts the expression matches, if there are few of them
+    * @param groups groups of literals such that the texts the expression matches contain one
+    *               literal of each group
+    */
+  private case class Info(exact: Option[Set[String]], groups: List[Set[String]]) {
+
+    // the groups including the exact texts, unless one of them is empty
+    def allGroups: List[Set[String]] =
+      exact match {
+        case Some(texts) if !texts.contains("") => texts :: groups
+        case _                                  => groups
+      }
+  }
+
+  private val anyText = Info(None, List())
+  private val emptyText = Info(Some(Set("")), List())
+  private val noText = Info(Some(Set()), List())
+
+  /**
+    * @return the prefilter of the regular expression in RE2 syntax, None if it cannot be
+    *         parsed or no literal is required for it to match
+    */
+  def apply(regex: String, caseInsensitive: Boolean): Option[RegexPrefilter] = {
+    val flags = if (caseInsensitive) PublicRE2.PERL | PublicRE2.FOLD_CASE else PublicRE2.PERL
+    val re =
+      try {
+        PublicParser.parse(regex, flags)
+      } catch {
+        case _: PatternSyntaxException => return None
+      }
+    // the literals of a case insensitive part of the expression are matched ignoring case,
+    // the others may as well be
+    val foldCase = isFoldCase(re)
+    val groups = analyze(re, foldCase).allGroups.distinct
+      .sortBy(group => (-shortest(group), group.size))
+      .take(maxGroups)
+    if (groups.isEmpty) None else Some(new RegexPrefilter(groups, foldCase))
+  }
+
+  private def isFoldCase(re: PublicRegexp): Boolean =
+    (re.getFlags & PublicRE2.FOLD_CASE) != 0 ||
+      (re.getSubs != null && re.getSubs.exists(isFoldCase))
+
+  private def analyze(re: PublicRegexp, foldCase: Boolean): Info = {
+    def sub: Info = analyze(re.getSubs()(0), foldCase)
+    def subs: Array[Info] = re.getSubs.map(analyze(_, foldCase))
+    re.getOp match {
+      case PublicOp.NO_MATCH => noText
+      case PublicOp.EMPTY_MATCH | PublicOp.BEGIN_LINE | PublicOp.END_LINE | PublicOp.BEGIN_TEXT |
+          PublicOp.END_TEXT | PublicOp.WORD_BOUNDARY | PublicOp.NO_WORD_BOUNDARY =>
+        emptyText
+      case PublicOp.LITERAL if canFold(re.getRunes, foldCase) =>
+        Info(Some(Set(new String(re.getRunes, 0, re.getRunes.length))), List())
+      case PublicOp.CHAR_CLASS if canFold(re.getRunes, foldCase) =>
+        // the runes are the bounds of ranges of runes
+        val ranges = re.getRunes.grouped(2).toList
+        if (ranges.map(range => range(1) - range(0) + 1).sum > maxExactSize) anyText
+        else {
+          val runes = ranges.flatMap(range => range(0) to range(1))
+          Info(Some(runes.map(rune => new String(Character.toChars(rune))).toSet), List())
+        }
+      case PublicOp.CAPTURE                 => sub
+      case PublicOp.CONCAT                  => subs.foldLeft(emptyText)(concat)
+      case PublicOp.ALTERNATE               => subs.foldLeft(noText)(alternate)
+      case PublicOp.QUEST                   => alternate(sub, emptyText)
+      case PublicOp.PLUS                    => Info(None, sub.allGroups)
+      case PublicOp.REPEAT if re.getMin > 0 => Info(None, sub.allGroups)
+      case _                                => anyText
+    }
+  }
+
+  // the case of the runes beyond the 16 bits of a char is not folded by AhoCorasick
+  private def canFold(runes: Array[Int], foldCase: Boolean): Boolean =
+    !foldCase || runes.forall(rune => rune <= Character.MAX_VALUE)
+
+  private def concat(x: Info, y: Info): Info = {
+    (x.exact, y.exact) match {
+      case (Some(xTexts), Some(yTexts)) if xTexts.size * yTexts.size <= maxExactSize =>
+        Info(Some(for (xText <- xTexts; yText <- yTexts) yield xText + yText), List())
+      case _ => Info(None, x.allGroups ++ y.allGroups)
+    }
+  }
+
+  private def alternate(x: Info, y: Info): Info = {
+    (x.exact, y.exact) match {
+      case (Some(xTexts), Some(yTexts)) if (xTexts ++ yTexts).size <= maxExactSize =>
+        Info(Some(xTexts ++ yTexts), List())
+      case _ =>
+        // a text either alternative matches contains a literal of the best group of either
+        (bestGroup(x), bestGroup(y)) match {
+          case (Some(xGroup), Some(yGroup)) if (xGroup ++ yGroup).size <= maxGroupSize =>
+            Info(None, List(xGroup ++ yGroup))
+          case _ => anyText
+        }
+    }
+  }
+
+  // the group whose shortest literal is the longest
+  private def bestGroup(info: Info): Option[Set[String]] = {
+    val groups = info.allGroups
+    if (groups.isEmpty) None else Some(groups.minBy(group => (-shortest(group), group.size)))
+  }
+
+  // the length of the shortest literal of the group, no text contains a literal of an empty one
+  private def shortest(group: Set[String]): Int =
+    if (group.isEmpty) Int.MaxValue else group.map(_.length).min
+
+}
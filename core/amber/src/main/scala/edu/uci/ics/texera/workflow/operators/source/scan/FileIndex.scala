@@ -0,0 +1,303 @@
+package edu.uci.ics.texera.workflow.operators.source.scan
+
+import com.github.tototoshi.csv.CSVReader
+import edu.uci.ics.amber.engine.common.WorkflowLogger
+import edu.uci.ics.texera.web.WebUtils
+import edu.uci.ics.texera.workflow.common.Utils.objectMapper
+import edu.uci.ics.texera.workflow.common.scanner.{Compression, FileSplit}
+import edu.uci.ics.texera.workflow.common.tuple.schema.AttributeTypeUtils.parseField
+import edu.uci.ics.texera.workflow.common.tuple.schema.Schema
+import edu.uci.ics.texera.workflow.operators.source.scan.csv.CSVScanSourceOpDesc
+import edu.uci.ics.texera.workflow.operators.source.scan.json.JSONLScanSourceOpDesc
+import edu.uci.ics.texera.workflow.operators.source.scan.json.JSONUtil.JSONToMap
+
+import java.io.{BufferedInputStream, File, InputStreamReader, RandomAccessFile}
+import java.nio.charset.StandardCharsets
+import java.nio.file.{Files, Path, StandardCopyOption}
+import java.util.concurrent.{ConcurrentHashMap, ExecutorService, Executors}
+import scala.collection.JavaConverters._
+import scala.collection.mutable.ArrayBuffer
+import scala.util.{Failure, Success, Try}
+
+/**
+  * The min, max and number of nulls of an attribute over all the rows of an indexed file.
+  * A value that cannot be parsed as the type of the attribute counts as a null.
+  */
+case class ColumnStatistics(
+    attributeName: String,
+    nullCount: Long,
+    min: Option[String],
+    max: Option[String]
+)
+
+/**
+  * What is known about an uncompressed text file after reading it once, built in the
+  * background after the file is uploaded and stored next to it, see FileIndex.build.
+  *
+  * @param fileSize the size of the indexed version of the file
+  * @param lastModified the last modified time of the indexed version of the file
+  * @param lineCount the number of lines of the file, including a header and blank lines
+  * @param interval the number of lines between two entries of lineOffsets
+  * @param lineOffsets the byte offset of every interval-th line, starting with line 0
+  * @param fileTypeName the scan the file was indexed for, "CSV" or "JSONL"
+  * @param options the options of that scan the schema was inferred with
+  * @param schema the schema inferred from a sample of all the rows of the file
+  * @param columnStatistics statistics of each attribute of the schema
+  */
+case class FileIndex(
+    fileSize: Long,
+    lastModified: Long,
+    lineCount: Long,
+    interval: Int,
+    lineOffsets: Array[Long],
+    fileTypeName: String,
+    options: Map[String, String],
+    schema: Schema,
+    columnStatistics: List[ColumnStatistics]
+) {
+
+  def isValidFor(file: File): Boolean =
+    file.length() == fileSize && file.lastModified() == lastModified
+
+  /**
+    * @return the byte offset of the closest indexed line at or before the given line,
+    *         and the number of lines to skip from there to reach it
+    */
+  def seek(line: Long): (Long, Int) = {
+    if (line >= lineCount) return (fileSize, 0)
+    val entry = (line / interval).toInt
+    (lineOffsets(entry), (line - entry.toLong * interval).toInt)
+  }
+
+  /**
+    * Splits the file into numSplits byte ranges of about the same number of lines, each
+    * starting exactly at an indexed line.
+    */
+  def split(numSplits: Int): java.util.List[FileSplit] = {
+    val boundaries = (0 until numSplits).map(i => {
+      val (offset, _) = seek(lineCount * i / numSplits / interval * interval)
+      offset
+    }) :+ fileSize
+    (0 until numSplits).map(i => new FileSplit(0, boundaries(i), boundaries(i + 1))).asJava
+  }
+}
+
+object FileIndex {
+
+  // one offset every this many lines, the index of a file of 100M lines stays under 2MB
+  val INTERVAL = 1024
+  val SAMPLE_SIZE = 10000
+
+  var indexOnUpload: Boolean =
+    Try(WebUtils.config.getBoolean("scan.indexOnUpload")).getOrElse(false)
+
+  private val logger = WorkflowLogger("FileIndex")
+  private val indexes = new ConcurrentHashMap[String, FileIndex]()
+  private lazy val indexer: ExecutorService = Executors.newSingleThreadExecutor(runnable => {
+    val thread = new Thread(runnable, "file-indexer")
+    thread.setDaemon(true)
+    thread
+  })
+
+  /**
+    * @return the path of the index of a file, a hidden file next to it
+    */
+  def indexPath(filePath: Path): Path =
+    filePath.resolveSibling("." + filePath.getFileName + ".index")
+
+  /**
+    * @return the index of the current version of the file, if it was indexed
+    */
+  def load(filePath: String): Option[FileIndex] = {
+    val file = new File(filePath)
+    val cached = indexes.get(file.getAbsolutePath)
+    if (cached != null && cached.isValidFor(file)) return Option(cached)
+
+    val path = indexPath(file.toPath)
+    if (!Files.exists(path)) return None
+    Try(objectMapper.readValue(path.toFile, classOf[FileIndex])).toOption
+      .filter(index => index.isValidFor(file))
+      .map(index => {
+        indexes.put(file.getAbsolutePath, index)
+        index
+      })
+  }
+
+  /**
+    * Indexes the file on a background thread if scan.indexOnUpload is set in web.conf.
+    */
+  def buildInBackground(filePath: Path): Unit = {
+    if (!indexOnUpload) return
+    indexer.submit(new Runnable {
+      override def run(): Unit =
+        build(filePath) match {
+          case Failure(e) => logger.logWarning(s"failed to index $filePath: ${e.getMessage}")
+          case Success(_) =>
+        }
+    })
+  }
+
+  /**
+    * Reads the file twice, once for the line offsets and once for the column statistics,
+    * and writes its index next to it. Compressed and binary files are not indexed.
+    *
+    * @return the index, or None if the file is not an uncompressed CSV or JSONL file
+    */
+  def build(filePath: Path): Try[Option[FileIndex]] =
+    Try {
+      val file = filePath.toFile
+      val fileSize = file.length()
+      val lastModified = file.lastModified()
+      val head = readHead(filePath, 4096)
+      if (Compression.detect(filePath.toString) != Compression.NONE || head.contains(0.toByte)) {
+        None
+      } else {
+        val (lineCount, lineOffsets) = indexLines(filePath)
+        val isJSONL = head.find(byte => !Character.isWhitespace(byte)).contains('{'.toByte)
+        val (fileTypeName, options, schema, columnStatistics) =
+          if (isJSONL) indexJSONL(filePath) else indexCSV(filePath)
+
+        if (schema == null || file.length() != fileSize || file.lastModified() != lastModified) {
+          // not a file we can scan, or it changed while being indexed
+          None
+        } else {
+          val index = FileIndex(
+            fileSize,
+            lastModified,
+            lineCount,
+            INTERVAL,
+            lineOffsets,
+            fileTypeName,
+            options,
+            schema,
+            columnStatistics
+          )
+          // write the index aside first, so that a scan never reads a partial one
+          val temporaryPath = filePath.resolveSibling(indexPath(filePath).getFileName + ".tmp")
+          objectMapper.writeValue(temporaryPath.toFile, index)
+          Files.move(temporaryPath, indexPath(filePath), StandardCopyOption.REPLACE_EXISTING)
+          Option(index)
+        }
+      }
+    }
+
+  private def readHead(filePath: Path, length: Int): Array[Byte] = {
+    val file = new RandomAccessFile(filePath.toFile, "r")
+    try {
+      val head = new Array[Byte](length)
+      val read = file.read(head)
+      head.take(math.max(read, 0))
+    } finally file.close()
+  }
+
+  /**
+    * @return the number of lines of the file, and the offset of every INTERVAL-th line
+    */
+  private def indexLines(filePath: Path): (Long, Array[Long]) = {
+    val fileSize = Files.size(filePath)
+    val lineOffsets = ArrayBuffer[Long]()
+    var lineCount = 0L
+    if (fileSize > 0) {
+      lineOffsets += 0
+      lineCount = 1
+    }
+
+    val input = new BufferedInputStream(Files.newInputStream(filePath))
+    try {
+      val buffer = new Array[Byte](1 << 16)
+      var position = 0L
+      var read = input.read(buffer)
+      while (read != -1) {
+        var i = 0
+        while (i < read) {
+          // a line starts after every line break but the one ending the file
+          if (buffer(i) == '\n' && position + i + 1 < fileSize) {
+            if (lineCount % INTERVAL == 0) lineOffsets += position + i + 1
+            lineCount += 1
+          }
+          i += 1
+        }
+        position += read
+        read = input.read(buffer)
+      }
+    } finally input.close()
+    (lineCount, lineOffsets.toArray)
+  }
+
+  private def indexCSV(
+      filePath: Path
+  ): (String, Map[String, String], Schema, List[ColumnStatistics]) = {
+    // the default options of the CSV scans
+    val desc = new CSVScanSourceOpDesc()
+    desc.customDelimiter = Option(",")
+    desc.hasHeader = true
+    desc.filePath = Option(filePath.toString)
+    val schema = desc.inferSchemaFromFile(Option(SAMPLE_SIZE))
+
+    val reader = CSVReader.open(
+      new InputStreamReader(Files.newInputStream(filePath), StandardCharsets.UTF_8)
+    )
+    try {
+      val rows = reader.iterator.drop(1).map(row => row.toArray[Object])
+      (desc.fileTypeName.get, desc.indexOptions.get, schema, columnStatistics(schema, rows))
+    } finally reader.close()
+  }
+
+  private def indexJSONL(
+      filePath: Path
+  ): (String, Map[String, String], Schema, List[ColumnStatistics]) = {
+    val desc = new JSONLScanSourceOpDesc()
+    desc.filePath = Option(filePath.toString)
+    val schema = desc.inferSchemaFromFile(Option(SAMPLE_SIZE))
+    val attributeNames = schema.getAttributeNames.asScala.toArray
+
+    val lines = Files.lines(filePath, StandardCharsets.UTF_8)
+    try {
+      val rows = lines.iterator.asScala
+        .flatMap(line => Try(objectMapper.readTree(line)).toOption)
+        .filter(root => root.isObject)
+        .map(root => {
+          val fields = JSONToMap(root, flatten = desc.flatten)
+          attributeNames.map(name => fields.getOrElse(name, null).asInstanceOf[Object])
+        })
+      (desc.fileTypeName.get, desc.indexOptions.get, schema, columnStatistics(schema, rows))
+    } finally lines.close()
+  }
+
+  private def columnStatistics(
+      schema: Schema,
+      rows: Iterator[Array[Object]]
+  ): List[ColumnStatistics] = {
+    val attributes = schema.getAttributes.asScala.toArray
+    val nullCounts = new Array[Long](attributes.length)
+    val mins = new Array[Comparable[Object]](attributes.length)
+    val maxs = new Array[Comparable[Object]](attributes.length)
+
+    rows.foreach(fields => {
+      for (i <- attributes.indices) {
+        val value =
+          if (i >= fields.length || fields(i) == null || fields(i).toString.isEmpty) null
+          else Try(parseField(fields(i), attributes(i).getType)).getOrElse(null)
+        value match {
+          case comparable: Comparable[Object] @unchecked =>
+            if (mins(i) == null || comparable.compareTo(mins(i)) < 0) mins(i) = comparable
+            if (maxs(i) == null || comparable.compareTo(maxs(i)) > 0) maxs(i) = comparable
+          case null => nullCounts(i) += 1
+          case _    =>
+        }
+      }
+    })
+
+    attributes.indices
+      .map(i =>
+        ColumnStatistics(
+          attributes(i).getName,
+          nullCounts(i),
+          Option(mins(i)).map(_.toString),
+          Option(maxs(i)).map(_.toString)
+        )
+      )
+      .toList
+  }
+
+}
@@ -10,14 +10,23 @@ import edu.uci.ics.texera.workflow.common.metadata.{
   OperatorInfo,
   OutputPort
 }
-import edu.uci.ics.texera.workflow.common.operators.source.SourceOperatorDescriptor
+import edu.uci.ics.texera.workflow.common.operators.source.{
+  SourceOperatorDescriptor,
+  SourcePushdown
+}
+import edu.uci.ics.texera.workflow.common.scanner.Compression
 import edu.uci.ics.texera.workflow.common.tuple.schema.Schema
+import edu.uci.ics.texera.workflow.operators.filter.FilterPredicate
 
+import java.io.{File, InputStreamReader, Reader}
+import java.nio.charset.StandardCharsets
 import java.util.Collections.singletonList
 import scala.collection.JavaConverters.asScalaBuffer
 import scala.collection.immutable.List
+import scala.collection.mutable.ArrayBuffer
+import scala.util.Random
 
-abstract class ScanSourceOpDesc extends SourceOperatorDescriptor {
+abstract class ScanSourceOpDesc extends SourceOperatorDescriptor with SourcePushdown {
 
   /** in the case we do not want to read the entire large file, but only
     * the first a few lines of it to do the type inference.
@@ -48,10 +57,27 @@ abstract class ScanSourceOpDesc extends SourceOperatorDescriptor {
   @JsonDeserialize(contentAs = classOf[Int])
   var offset: Option[Int] = None
 
+  /** the attributes to output, set by the compiler when a projection is pushed down */
+  @JsonIgnore
+  var projection: Option[List[String]] = None
+
+  /** filters in AND of predicates in OR, set by the compiler when filters are pushed down */
+  @JsonIgnore
+  var predicates: List[List[FilterPredicate]] = List()
+
   override def sourceSchema(): Schema = {
     if (filePath.isEmpty) return null
-    inferSchema()
+    SourcePushdown.projectSchema(inferSchema(), projection)
+
+  }
 
+  override def pushDown(
+      projection: Option[List[String]],
+      predicates: List[List[FilterPredicate]]
+  ): Unit = {
+    this.projection = projection
+    // limit and offset apply before the filters downstream, filtering first would change them
+    if (limit.isEmpty && offset.isEmpty) this.predicates = predicates
   }
 
   override def setContext(workflowContext: WorkflowContext): Unit = {
@@ -79,5 +105,110 @@ abstract class ScanSourceOpDesc extends SourceOperatorDescriptor {
     )
   }
 
-  def inferSchema(): Schema
+  /**
+    * @return the estimated number of bytes of the output of this operator: the size of the file,
+    *         scaled down to the limit if the FileIndex of the file tells its number of lines.
+    *         None if the file is compressed, since its decompressed size is unknown
+    */
+  def estimatedOutputSize(): Option[Long] = {
+    val file = filePath.map(path => new File(path)).filter(file => file.isFile)
+    if (file.isEmpty || Compression.detect(file.get.getPath) != Compression.NONE) return None
+    val fileSize = file.get.length()
+    (limit, FileIndex.load(file.get.getPath).filter(index => index.lineCount > 0)) match {
+      case (Some(lines), Some(index)) =>
+        Option(fileSize / index.lineCount * math.min(lines.toLong, index.lineCount))
+      case _ => Option(fileSize)
+    }
+  }
+
+  /**
+    * Opens the file for reading its text, decompressing it if it is compressed.
+    */
+  def openFile(): Reader =
+    new InputStreamReader(Compression.open(filePath.get), StandardCharsets.UTF_8)
+
+  /** the schema inferred for a version of the file, kept so that all workers use it */
+  @JsonIgnore
+  var inferredSchema: Option[(SchemaInferenceCache.Key, Schema)] = None
+
+  /**
+    * Infer the schema of all the attributes in the file, sourceSchema() is its projection.
+    * The schema is taken from the FileIndex of the file if it was indexed with the options
+    * of this operator, otherwise it is looked up in SchemaInferenceCache, so the file is
+    * only read again if it or the options of this operator changed.
+    *
+    * @return Texera.Schema build for this operator
+    */
+  def inferSchema(): Schema = {
+    if (filePath.isEmpty) return null
+    val file = new File(filePath.get)
+    val key = SchemaInferenceCache.Key(
+      getClass.getName,
+      file.getAbsolutePath,
+      file.length(),
+      file.lastModified(),
+      inferenceOptions
+    )
+    inferredSchema match {
+      case Some((inferredKey, schema)) if inferredKey == key => schema
+      case _ =>
+        val schema = indexedSchema()
+          .getOrElse(SchemaInferenceCache.getOrInfer(key, inferSchemaFromFile))
+        if (schema != null) inferredSchema = Option((key, schema))
+        schema
+    }
+  }
+
+  /**
+    * Infer the schema by reading the file.
+    *
+    * @param sampleSize if empty, infer from the first rows of the file,
+    *                   otherwise from a random sample of this many rows, see rowsToInfer
+    * @return Texera.Schema build for this operator
+    */
+  protected[scan] def inferSchemaFromFile(sampleSize: Option[Int]): Schema
+
+  /**
+    * @return the properties of this operator that change the inferred schema
+    */
+  protected def inferenceOptions: List[Any]
+
+  /**
+    * @return the options a FileIndex schema must have been inferred with to be used by this
+    *         operator, None if this operator does not use indexed schemas
+    */
+  protected[scan] def indexOptions: Option[Map[String, String]] = None
+
+  private def indexedSchema(): Option[Schema] =
+    for {
+      options <- indexOptions
+      index <- FileIndex.load(filePath.get)
+      if fileTypeName.contains(index.fileTypeName) && index.options == options
+    } yield index.schema
+
+  /**
+    * Select the rows to infer the schema from: the first INFER_READ_LIMIT rows, or a uniform
+    * random sample of the given size, drawn from all the rows (up to the limit) in one pass.
+    */
+  protected def rowsToInfer[T](rows: Iterator[T], sampleSize: Option[Int]): Iterator[T] = {
+    sampleSize match {
+      case None => rows.take(limit.getOrElse(INFER_READ_LIMIT).min(INFER_READ_LIMIT))
+      case Some(size) =>
+        val sample = new ArrayBuffer[T](size)
+        val random = new Random()
+        var seen = 0L
+        rows
+          .take(limit.getOrElse(Int.MaxValue))
+          .foreach(row => {
+            seen += 1
+            if (sample.size < size) {
+              sample += row
+            } else {
+              val i = (random.nextDouble() * seen).toLong
+              if (i < size) sample(i.toInt) = row
+            }
+          })
+        sample.iterator
+    }
+  }
 }
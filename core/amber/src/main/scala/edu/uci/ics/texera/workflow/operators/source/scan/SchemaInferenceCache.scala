@@ -0,0 +1,66 @@
+package edu.uci.ics.texera.workflow.operators.source.scan
+
+import edu.uci.ics.texera.web.WebUtils
+import edu.uci.ics.texera.workflow.common.tuple.schema.Schema
+
+import java.util.concurrent.{ConcurrentHashMap, ExecutorService, Executors}
+import scala.util.Try
+
+/**
+  * A process-wide cache of the schemas inferred from scanned files, shared by the schema
+  * propagation of the UI, the compiler and the workers on this node.
+  *
+  * A schema is inferred once per version of a file (path, size and last modified time) and
+  * per descriptor options that change the inference, e.g. the delimiter or the header flag.
+  * If scan.backgroundSampleSize is set in web.conf, the schema is then inferred again in the
+  * background from a random sample of that many rows of the whole file, and replaces the
+  * cached one for the workflows compiled afterwards.
+  */
+object SchemaInferenceCache {
+
+  case class Key(
+      descriptor: String,
+      filePath: String,
+      fileSize: Long,
+      lastModified: Long,
+      options: List[Any]
+  )
+
+  // drop everything beyond this many entries, they are only stale versions of files
+  val MAX_ENTRIES = 1024
+
+  var backgroundSampleSize: Int =
+    Try(WebUtils.config.getInt("scan.backgroundSampleSize")).getOrElse(0)
+
+  private val schemas = new ConcurrentHashMap[Key, Schema]()
+  private val sampled = ConcurrentHashMap.newKeySet[Key]()
+  private lazy val sampler: ExecutorService = Executors.newSingleThreadExecutor(runnable => {
+    val thread = new Thread(runnable, "schema-inference-sampler")
+    thread.setDaemon(true)
+    thread
+  })
+
+  /**
+    * @param key the file version and options to infer the schema for
+    * @param infer infers the schema from the first rows of the file if given None,
+    *              or from a random sample of the given number of rows
+    * @return the cached schema, or the newly inferred one. Null schemas are not cached.
+    */
+  def getOrInfer(key: Key, infer: Option[Int] => Schema): Schema = {
+    if (schemas.size > MAX_ENTRIES) {
+      schemas.clear()
+      sampled.clear()
+    }
+    val schema = schemas.computeIfAbsent(key, _ => infer(None))
+    if (schema != null && backgroundSampleSize > 0 && sampled.add(key)) {
+      sampler.submit(new Runnable {
+        override def run(): Unit =
+          Try(infer(Option(backgroundSampleSize))).foreach(sampledSchema => {
+            if (sampledSchema != null) schemas.replace(key, sampledSchema)
+          })
+      })
+    }
+    schema
+  }
+
+}
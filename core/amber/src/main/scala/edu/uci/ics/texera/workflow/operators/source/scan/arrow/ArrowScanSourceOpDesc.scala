@@ -0,0 +1,78 @@
+package edu.uci.ics.texera.workflow.operators.source.scan.arrow
+
+import edu.uci.ics.amber.engine.common.Constants
+import edu.uci.ics.amber.engine.operators.OpExecConfig
+import edu.uci.ics.texera.workflow.common.operators.{ManyToOneOpExecConfig, OneToOneOpExecConfig}
+import edu.uci.ics.texera.workflow.common.tuple.schema.{OperatorSchemaInfo, Schema}
+import edu.uci.ics.texera.workflow.operators.pythonUDF.ArrowUtils
+import edu.uci.ics.texera.workflow.operators.source.scan.ScanSourceOpDesc
+import org.apache.arrow.memory.RootAllocator
+import org.apache.arrow.vector.ipc.ArrowFileReader
+
+import java.io.IOException
+import java.nio.channels.FileChannel
+import java.nio.file.{Paths, StandardOpenOption}
+
+/**
+  * Scans an Arrow IPC file (the random access "file" format, e.g. written by pyarrow's
+  * RecordBatchFileWriter or feather v2 without compression). The schema is read from the
+  * footer of the file, and the record batches are split among the workers.
+  */
+class ArrowScanSourceOpDesc extends ScanSourceOpDesc {
+
+  fileTypeName = Option("Arrow")
+
+  @throws[IOException]
+  override def operatorExecutor(operatorSchemaInfo: OperatorSchemaInfo): OpExecConfig =
+    operatorExecutor(operatorSchemaInfo, Constants.defaultNumWorkers)
+
+  /**
+    * @param numWorkers the number of workers to split the record batches of the file among
+    */
+  @throws[IOException]
+  def operatorExecutor(operatorSchemaInfo: OperatorSchemaInfo, numWorkers: Int): OpExecConfig = {
+    filePath match {
+      case Some(_) =>
+        if (offset.isDefined || limit.isDefined) {
+          // offset and limit are counted in rows from the head of the file,
+          // so a single worker reads all the record batches in order.
+          return new ManyToOneOpExecConfig(
+            operatorIdentifier,
+            _ => new ArrowScanSourceOpExec(this, 0, 1)
+          )
+        }
+
+        new OneToOneOpExecConfig(
+          operatorIdentifier,
+          (i: Int) => new ArrowScanSourceOpExec(this, i, numWorkers),
+          numWorkers
+        )
+
+      case None =>
+        throw new RuntimeException("File path is not provided.")
+    }
+  }
+
+  // the schema is stored in the file, no option of this operator changes it
+  override protected def inferenceOptions: List[Any] = List()
+
+  /**
+    * Read Texera.Schema from the Arrow schema in the footer of the file, no rows are read.
+    *
+    * @return Texera.Schema build for this operator
+    */
+  override protected[scan] def inferSchemaFromFile(sampleSize: Option[Int]): Schema = {
+    val allocator = new RootAllocator()
+    val reader = new ArrowFileReader(
+      FileChannel.open(Paths.get(filePath.get), StandardOpenOption.READ),
+      allocator
+    )
+    try {
+      ArrowUtils.toTexeraSchema(reader.getVectorSchemaRoot.getSchema)
+    } finally {
+      reader.close()
+      allocator.close()
+    }
+  }
+
+}
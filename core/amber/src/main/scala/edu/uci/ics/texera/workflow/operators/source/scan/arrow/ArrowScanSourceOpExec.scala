@@ -0,0 +1,138 @@
+package edu.uci.ics.texera.workflow.operators.source.scan.arrow
+
+import edu.uci.ics.texera.workflow.common.operators.source.SourceOperatorExecutor
+import edu.uci.ics.texera.workflow.common.operators.source.SourcePushdown.{
+  BoundFilter,
+  bindPredicates,
+  evaluate
+}
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.AttributeTypeUtils.parseField
+import edu.uci.ics.texera.workflow.common.tuple.schema.{AttributeType, Schema}
+import org.apache.arrow.memory.RootAllocator
+import org.apache.arrow.vector._
+import org.apache.arrow.vector.ipc.ArrowFileReader
+import org.apache.arrow.vector.types.TimeUnit
+import org.apache.arrow.vector.types.pojo.ArrowType
+
+import java.nio.channels.FileChannel
+import java.nio.charset.StandardCharsets
+import java.nio.file.{Paths, StandardOpenOption}
+import java.sql.Timestamp
+import scala.collection.Iterator
+import scala.collection.JavaConverters._
+
+class ArrowScanSourceOpExec private[arrow] (
+    val desc: ArrowScanSourceOpDesc,
+    val workerIndex: Int,
+    val numWorkers: Int
+) extends SourceOperatorExecutor {
+  private var schema: Schema = _
+  private var outputSchema: Schema = _
+  private var outputIndices: Array[Int] = _
+  private var filters: Array[BoundFilter] = _
+  // vectors of attributes that are neither output nor filtered on are not converted
+  private var kept: Array[Boolean] = _
+  private var allocator: RootAllocator = _
+  private var reader: ArrowFileReader = _
+  private var rows: Iterator[Tuple] = _
+
+  override def produceTexeraTuple(): Iterator[Tuple] = rows
+
+  override def open(): Unit = {
+    schema = desc.inferSchema()
+    outputSchema = desc.sourceSchema()
+    outputIndices =
+      outputSchema.getAttributeNames.asScala.map(name => schema.getIndex(name).intValue).toArray
+    filters = bindPredicates(schema, desc.predicates)
+    kept = schema.getAttributes.asScala.indices
+      .map(i => outputIndices.contains(i) || filters.exists(filter => filter.exists(_._1 == i)))
+      .toArray
+
+    allocator = new RootAllocator()
+    reader = new ArrowFileReader(
+      FileChannel.open(Paths.get(desc.filePath.get), StandardOpenOption.READ),
+      allocator
+    )
+
+    // each worker reads a contiguous range of record batches, so rows stay in file order
+    val blocks = reader.getRecordBlocks.asScala
+    val assigned = blocks.slice(
+      blocks.size * workerIndex / numWorkers,
+      blocks.size * (workerIndex + 1) / numWorkers
+    )
+
+    // a batch is only loaded once all rows of the previous one are consumed,
+    // since loading the next batch overwrites the vectors of the schema root.
+    var tuples: Iterator[Tuple] = assigned.iterator.flatMap(block => {
+      reader.loadRecordBatch(block)
+      readBatch(reader.getVectorSchemaRoot)
+    })
+    if (desc.offset.isDefined) tuples = tuples.drop(desc.offset.get)
+    if (desc.limit.isDefined) tuples = tuples.take(desc.limit.get)
+    rows = tuples
+  }
+
+  override def close(): Unit = {
+    reader.close()
+    allocator.close()
+  }
+
+  /**
+    * Lazily converts the rows of the loaded record batch into Texera.Tuples, reading only
+    * the vectors of the kept attributes.
+    */
+  private def readBatch(root: VectorSchemaRoot): Iterator[Tuple] = {
+    val readers: Array[Int => Object] = schema.getAttributes.asScala.indices
+      .map(i =>
+        if (kept(i)) fieldReader(root.getVector(i), schema.getAttributes.get(i).getType)
+        else null
+      )
+      .toArray
+
+    (0 until root.getRowCount).iterator
+      .map(row => {
+        val fields = new Array[Object](readers.length)
+        for (i <- readers.indices if readers(i) != null) fields(i) = readers(i)(row)
+
+        if (evaluate(filters, fields))
+          Tuple.newBuilder(outputSchema).addSequentially(outputIndices.map(fields(_))).build
+        else null
+      })
+      .filter(tuple => tuple != null)
+  }
+
+  /**
+    * @return a function reading the value of a row of the vector as the given AttributeType,
+    *         see ArrowUtils.toAttributeType for how Arrow types map to AttributeTypes.
+    */
+  private def fieldReader(vector: FieldVector, attributeType: AttributeType): Int => Object = {
+    val read: Int => Object = vector match {
+      case v: BaseIntVector if attributeType == AttributeType.INTEGER =>
+        (i: Int) => Integer.valueOf(v.getValueAsLong(i).toInt)
+      case v: BaseIntVector =>
+        (i: Int) => java.lang.Long.valueOf(v.getValueAsLong(i))
+      case v: Float8Vector =>
+        (i: Int) => java.lang.Double.valueOf(v.get(i))
+      case v: Float4Vector =>
+        (i: Int) => java.lang.Double.valueOf(v.get(i).toDouble)
+      case v: BitVector =>
+        (i: Int) => java.lang.Boolean.valueOf(v.get(i) != 0)
+      case v: TimeStampVector =>
+        val toMillis: Long => Long =
+          v.getField.getType.asInstanceOf[ArrowType.Timestamp].getUnit match {
+            case TimeUnit.SECOND      => _ * 1000
+            case TimeUnit.MILLISECOND => identity
+            case TimeUnit.MICROSECOND => _ / 1000
+            case TimeUnit.NANOSECOND  => _ / 1000000
+          }
+        (i: Int) => new Timestamp(toMillis(v.get(i)))
+      case v: VarCharVector =>
+        (i: Int) => new String(v.get(i), StandardCharsets.UTF_8)
+      case v =>
+        (i: Int) => parseField(v.getObject(i), attributeType)
+    }
+    (i: Int) => if (vector.isNull(i)) null else read(i)
+  }
+
+}
@@ -48,13 +48,20 @@ class CSVScanSourceOpDesc extends ScanSourceOpDesc {
 
   }
 
+  override protected def inferenceOptions: List[Any] =
+    List(customDelimiter, hasHeader, offset, limit)
+
+  override protected[scan] def indexOptions: Option[Map[String, String]] =
+    customDelimiter.map(delimiter =>
+      Map("delimiter" -> delimiter, "hasHeader" -> hasHeader.toString)
+    )
+
   /**
-    * Infer Texera.Schema based on the top few lines of data.
+    * Infer Texera.Schema based on the top few lines of data, or a sample of all lines.
     *
     * @return Texera.Schema build for this operator
     */
-  @Override
-  def inferSchema(): Schema = {
+  override protected[scan] def inferSchemaFromFile(sampleSize: Option[Int]): Schema = {
     if (customDelimiter.isEmpty) {
       return null
     }
@@ -64,19 +71,16 @@ class CSVScanSourceOpDesc extends ScanSourceOpDesc {
     implicit object CustomFormat extends DefaultCSVFormat {
       override val delimiter: Char = customDelimiter.get.charAt(0)
     }
-    var reader: CSVReader = CSVReader.open(filePath.get)(CustomFormat)
+    var reader: CSVReader = CSVReader.open(openFile())(CustomFormat)
     val firstRow: Array[String] = reader.iterator.next().toArray
     reader.close()
 
     // reopen the file to read from the beginning
-    reader = CSVReader.open(filePath.get)(CustomFormat)
+    reader = CSVReader.open(openFile())(CustomFormat)
 
     val startOffset = offset.getOrElse(0) + (if (hasHeader) 1 else 0)
-    val endOffset =
-      startOffset + limit.getOrElse(INFER_READ_LIMIT).min(INFER_READ_LIMIT)
     val attributeTypeList: Array[AttributeType] = inferSchemaFromRows(
-      reader.iterator
-        .slice(startOffset, endOffset)
+      rowsToInfer(reader.iterator.drop(startOffset), sampleSize)
         .map(seq => seq.toArray)
     )
 
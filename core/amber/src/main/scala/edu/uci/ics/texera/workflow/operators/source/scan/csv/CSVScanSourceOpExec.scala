@@ -2,14 +2,29 @@ package edu.uci.ics.texera.workflow.operators.source.scan.csv
 
 import com.github.tototoshi.csv.{CSVReader, DefaultCSVFormat}
 import edu.uci.ics.texera.workflow.common.operators.source.SourceOperatorExecutor
+import edu.uci.ics.texera.workflow.common.operators.source.SourcePushdown.{
+  BoundFilter,
+  bindPredicates,
+  evaluate
+}
 import edu.uci.ics.texera.workflow.common.tuple.Tuple
-import edu.uci.ics.texera.workflow.common.tuple.schema.{Attribute, AttributeTypeUtils, Schema}
+import edu.uci.ics.texera.workflow.common.tuple.schema.{AttributeType, AttributeTypeUtils, Schema}
 
 import scala.collection.convert.ImplicitConversions.`collection AsScalaIterable`
 
 class CSVScanSourceOpExec private[csv] (val desc: CSVScanSourceOpDesc)
     extends SourceOperatorExecutor {
   val schema: Schema = desc.inferSchema()
+  val attributeTypes: Array[AttributeType] = schema.getAttributes.map(_.getType).toArray
+  // the pushed down projection and filters, fields that are neither output nor filtered on
+  // are not parsed
+  val outputSchema: Schema = desc.sourceSchema()
+  val outputIndices: Array[Int] =
+    outputSchema.getAttributeNames.map(name => schema.getIndex(name).intValue).toArray
+  val filters: Array[BoundFilter] = bindPredicates(schema, desc.predicates)
+  val kept: Array[Boolean] = attributeTypes.indices
+    .map(i => outputIndices.contains(i) || filters.exists(filter => filter.exists(_._1 == i)))
+    .toArray
   var reader: CSVReader = _
   var rows: Iterator[Seq[String]] = _
   override def produceTexeraTuple(): Iterator[Tuple] = {
@@ -17,13 +32,20 @@ class CSVScanSourceOpExec private[csv] (val desc: CSVScanSourceOpDesc)
     var tuples = rows
       .map(fields =>
         try {
-          val parsedFields: Array[Object] = AttributeTypeUtils.parseFields(
-            fields.toArray,
-            schema.getAttributes
-              .map((attr: Attribute) => attr.getType)
-              .toArray
-          )
-          Tuple.newBuilder(schema).addSequentially(parsedFields).build
+          if (fields.length != attributeTypes.length) {
+            null
+          } else {
+            val parsedFields = new Array[Object](attributeTypes.length)
+            for (i <- attributeTypes.indices if kept(i)) {
+              parsedFields(i) = AttributeTypeUtils.parseField(fields(i), attributeTypes(i))
+            }
+            if (evaluate(filters, parsedFields))
+              Tuple
+                .newBuilder(outputSchema)
+                .addSequentially(outputIndices.map(parsedFields(_)))
+                .build
+            else null
+          }
         } catch {
           case _: Throwable => null
         }
@@ -38,7 +60,7 @@ class CSVScanSourceOpExec private[csv] (val desc: CSVScanSourceOpDesc)
     implicit object CustomFormat extends DefaultCSVFormat {
       override val delimiter: Char = desc.customDelimiter.get.charAt(0)
     }
-    reader = CSVReader.open(desc.filePath.get)(CustomFormat)
+    reader = CSVReader.open(desc.openFile())(CustomFormat)
     // skip line if this worker reads the start of a file, and the file has a header line
     val startOffset = desc.offset.getOrElse(0) + (if (desc.hasHeader) 1 else 0)
 
@@ -5,7 +5,8 @@ import com.github.tototoshi.csv.{CSVReader, DefaultCSVFormat}
 import com.kjetland.jackson.jsonSchema.annotations.JsonSchemaTitle
 import edu.uci.ics.amber.engine.common.Constants
 import edu.uci.ics.amber.engine.operators.OpExecConfig
-import edu.uci.ics.texera.workflow.common.operators.OneToOneOpExecConfig
+import edu.uci.ics.texera.workflow.common.operators.{ManyToOneOpExecConfig, OneToOneOpExecConfig}
+import edu.uci.ics.texera.workflow.common.scanner.{Compression, FileSplit}
 import edu.uci.ics.texera.workflow.common.tuple.schema.AttributeTypeUtils.inferSchemaFromRows
 import edu.uci.ics.texera.workflow.common.tuple.schema.{
   Attribute,
@@ -13,10 +14,10 @@ import edu.uci.ics.texera.workflow.common.tuple.schema.{
   OperatorSchemaInfo,
   Schema
 }
-import edu.uci.ics.texera.workflow.operators.source.scan.ScanSourceOpDesc
+import edu.uci.ics.texera.workflow.operators.source.scan.{FileIndex, ScanSourceOpDesc}
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize
 
-import java.io.{File, IOException}
+import java.io.IOException
 import scala.jdk.CollectionConverters.asJavaIterableConverter
 
 class ParallelCSVScanSourceOpDesc extends ScanSourceOpDesc {
@@ -42,23 +43,28 @@ class ParallelCSVScanSourceOpDesc extends ScanSourceOpDesc {
 
     filePath match {
       case Some(path) =>
-        val totalBytes: Long = new File(path).length()
-        val numWorkers: Int = Constants.defaultNumWorkers
-
+        val compression = Compression.detect(path)
+
+        if (!compression.isSplittable) {
+          // a file compressed as a single stream can only be decompressed from its start
+          return new ManyToOneOpExecConfig(
+            operatorIdentifier,
+            _ =>
+              new ParallelCSVScanSourceOpExec(this, compression, new FileSplit(0, 0, Long.MaxValue))
+          )
+        }
+
+        // TODO: add support for limit
+        // TODO: add support for offset
+        // with an index, the file is split at line starts into ranges of about the same
+        // number of lines rather than bytes
+        val splits = FileIndex
+          .load(path)
+          .map(index => index.split(Constants.defaultNumWorkers))
+          .getOrElse(Compression.split(path, compression, Constants.defaultNumWorkers))
         new OneToOneOpExecConfig(
           operatorIdentifier,
-          (i: Int) => {
-            // TODO: add support for limit
-            // TODO: add support for offset
-            val startOffset: Long = totalBytes / numWorkers * i
-            val endOffset: Long =
-              if (i != numWorkers - 1) totalBytes / numWorkers * (i + 1) else totalBytes
-            new ParallelCSVScanSourceOpExec(
-              this,
-              startOffset,
-              endOffset
-            )
-          }
+          (i: Int) => new ParallelCSVScanSourceOpExec(this, compression, splits.get(i))
         )
 
       case None =>
@@ -67,12 +73,18 @@ class ParallelCSVScanSourceOpDesc extends ScanSourceOpDesc {
 
   }
 
+  override protected def inferenceOptions: List[Any] = List(customDelimiter, hasHeader, limit)
+
+  override protected[scan] def indexOptions: Option[Map[String, String]] =
+    customDelimiter.map(delimiter =>
+      Map("delimiter" -> delimiter, "hasHeader" -> hasHeader.toString)
+    )
+
   /**
-    * Infer Texera.Schema based on the top few lines of data.
+    * Infer Texera.Schema based on the top few lines of data, or a sample of all lines.
     * @return Texera.Schema build for this operator
     */
-  @Override
-  def inferSchema(): Schema = {
+  override protected[scan] def inferSchemaFromFile(sampleSize: Option[Int]): Schema = {
     if (customDelimiter.isEmpty) {
       return null
     }
@@ -83,18 +95,17 @@ class ParallelCSVScanSourceOpDesc extends ScanSourceOpDesc {
       override val delimiter: Char = customDelimiter.get.charAt(0)
 
     }
-    var reader: CSVReader = CSVReader.open(filePath.get)(CustomFormat)
+    var reader: CSVReader = CSVReader.open(openFile())(CustomFormat)
     val firstRow: Array[String] = reader.iterator.next().toArray
     reader.close()
 
     // reopen the file to read from the beginning
-    reader = CSVReader.open(filePath.get)(CustomFormat)
+    reader = CSVReader.open(openFile())(CustomFormat)
     if (hasHeader)
       reader.readNext()
 
     val attributeTypeList: Array[AttributeType] = inferSchemaFromRows(
-      reader.iterator
-        .take(limit.getOrElse(INFER_READ_LIMIT).min(INFER_READ_LIMIT))
+      rowsToInfer(reader.iterator, sampleSize)
         .map(seq => seq.toArray)
     )
 
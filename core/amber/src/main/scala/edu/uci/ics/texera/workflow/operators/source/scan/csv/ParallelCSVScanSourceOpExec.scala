@@ -1,63 +1,70 @@
 package edu.uci.ics.texera.workflow.operators.source.scan.csv
 
+import edu.uci.ics.amber.engine.common.WorkflowLogger
 import edu.uci.ics.texera.workflow.common.operators.source.SourceOperatorExecutor
-import edu.uci.ics.texera.workflow.common.scanner.BufferedBlockReader
+import edu.uci.ics.texera.workflow.common.operators.source.SourcePushdown.{
+  BoundFilter,
+  bindPredicates,
+  evaluate
+}
+import edu.uci.ics.texera.workflow.common.scanner.{
+  Compression,
+  FileSplit,
+  MappedBlockReader,
+  StreamBlockReader
+}
 import edu.uci.ics.texera.workflow.common.tuple.Tuple
-import edu.uci.ics.texera.workflow.common.tuple.schema.{Attribute, AttributeTypeUtils, Schema}
-import org.tukaani.xz.SeekableFileInputStream
+import edu.uci.ics.texera.workflow.common.tuple.schema.{AttributeType, AttributeTypeUtils, Schema}
 
-import java.util
-import java.util.stream.{IntStream, Stream}
 import scala.collection.Iterator
 import scala.collection.convert.ImplicitConversions.`collection AsScalaIterable`
 
 class ParallelCSVScanSourceOpExec private[csv] (
     val desc: ParallelCSVScanSourceOpDesc,
-    val startOffset: Long,
-    val endOffset: Long
+    val compression: Compression,
+    val split: FileSplit
 ) extends SourceOperatorExecutor {
   private val schema: Schema = desc.inferSchema()
-  private var reader: BufferedBlockReader = _
+  private val attributeTypes: Array[AttributeType] = schema.getAttributes.map(_.getType).toArray
+  // the pushed down projection and filters, fields that are neither output nor filtered on
+  // are not parsed
+  private val outputSchema: Schema = desc.sourceSchema()
+  private val outputIndices: Array[Int] =
+    outputSchema.getAttributeNames.map(name => schema.getIndex(name).intValue).toArray
+  private val filters: Array[BoundFilter] = bindPredicates(schema, desc.predicates)
+  private val kept: Array[Boolean] = attributeTypes.indices
+    .map(i => outputIndices.contains(i) || filters.exists(filter => filter.exists(_._1 == i)))
+    .toArray
+  private var reader: MappedBlockReader = _
+  // compressed files are read from a decompressing stream instead of a mapped window
+  private var streamReader: StreamBlockReader = _
 
   override def produceTexeraTuple(): Iterator[Tuple] =
     new Iterator[Tuple]() {
-      override def hasNext: Boolean = reader.hasNext
+      override def hasNext: Boolean = if (reader != null) reader.hasNext else streamReader.hasNext
 
       override def next: Tuple = {
 
         try {
-          // obtain String representation of each field
-          // a null value will present if omit in between fields, e.g., ['hello', null, 'world']
-          val line = reader.readLine
-          if (line == null) {
+          // numeric fields are already parsed by the reader, the rest are Strings or nulls.
+          // a blank record (null) is discarded, missing fields in the end are nulls.
+          val fields = readRecord()
+          if (fields == null) {
             return null
           }
-          var fields: Array[Object] = line.toArray
-
-          if (fields == null || util.Arrays.stream(fields).noneMatch(s => s != null)) {
-            // discard tuple if it's null or it only contains null
-            // which means it will always discard Tuple(null) from readLine()
+          var i = 0
+          while (i < fields.length) {
+            fields(i) match {
+              case str: String if attributeTypes(i) != AttributeType.STRING =>
+                fields(i) = AttributeTypeUtils.parseField(str, attributeTypes(i))
+              case _ =>
+            }
+            i += 1
+          }
+          if (!evaluate(filters, fields)) {
             return null
           }
-
-          // however the null values won't present if omitted in the end, we need to match nulls.
-          if (fields.length != schema.getAttributes.size)
-            fields = Stream
-              .concat(
-                util.Arrays.stream(fields),
-                IntStream
-                  .range(0, schema.getAttributes.size - fields.length)
-                  .mapToObj((_: Int) => null)
-              )
-              .toArray()
-          // parse Strings into inferred AttributeTypes
-          val parsedFields: Array[Object] = AttributeTypeUtils.parseFields(
-            fields,
-            schema.getAttributes
-              .map((attr: Attribute) => attr.getType)
-              .toArray
-          )
-          Tuple.newBuilder(schema).addSequentially(parsedFields).build
+          Tuple.newBuilder(outputSchema).addSequentially(outputIndices.map(fields(_))).build
         } catch {
           case _: Throwable => null
         }
@@ -65,21 +72,47 @@ class ParallelCSVScanSourceOpExec private[csv] (
 
     }.filter(tuple => tuple != null)
 
+  /**
+    * @return the fields of the next record, or null if it is blank
+    */
+  private def readRecord(): Array[Object] =
+    if (reader != null) reader.readRecord else streamReader.readRecord
+
   override def open(): Unit = {
-    val stream = new SeekableFileInputStream(desc.filePath.get)
-    stream.seek(startOffset)
-    reader = new BufferedBlockReader(
-      stream,
-      endOffset - startOffset,
-      desc.customDelimiter.get.charAt(0),
-      null
-    )
-    // skip line if this worker reads from middle of a file
-    if (startOffset > 0) reader.readLine
+    if (compression == Compression.NONE) {
+      reader = new MappedBlockReader(
+        desc.filePath.get,
+        split.startOffset,
+        split.endOffset,
+        desc.customDelimiter.get.charAt(0),
+        attributeTypes,
+        kept
+      )
+    } else {
+      streamReader = new StreamBlockReader(
+        Compression.open(desc.filePath.get, compression, split.blockOffset),
+        split.startOffset,
+        split.endOffset,
+        desc.customDelimiter.get.charAt(0),
+        attributeTypes.length,
+        kept
+      )
+    }
     // skip line if this worker reads the start of a file, and the file has a header line
-    if (startOffset == 0 && desc.hasHeader) reader.readLine
+    if (split.isFirst && desc.hasHeader) {
+      if (reader != null) reader.skipRecord() else streamReader.skipRecord()
+    }
   }
 
-  override def close(): Unit = reader.close()
+  override def close(): Unit = {
+    if (reader != null) {
+      WorkflowLogger(s"ParallelCSVScanSourceOpExec $split").logInfo(
+        f"read ${reader.getBytesRead} bytes at ${reader.getBytesPerSecond / (1 << 20)}%.1f MB/s"
+      )
+      reader.close()
+    } else {
+      streamReader.close()
+    }
+  }
 
 }
@@ -5,15 +5,15 @@ import com.fasterxml.jackson.databind.JsonNode
 import edu.uci.ics.amber.engine.common.Constants
 import edu.uci.ics.amber.engine.operators.OpExecConfig
 import edu.uci.ics.texera.workflow.common.Utils.objectMapper
-import edu.uci.ics.texera.workflow.common.operators.OneToOneOpExecConfig
+import edu.uci.ics.texera.workflow.common.operators.{ManyToOneOpExecConfig, OneToOneOpExecConfig}
+import edu.uci.ics.texera.workflow.common.scanner.{Compression, FileSplit}
 import edu.uci.ics.texera.workflow.common.tuple.schema.AttributeTypeUtils.inferSchemaFromRows
 import edu.uci.ics.texera.workflow.common.tuple.schema.{Attribute, OperatorSchemaInfo, Schema}
-import edu.uci.ics.texera.workflow.operators.source.scan.ScanSourceOpDesc
+import edu.uci.ics.texera.workflow.operators.source.scan.{FileIndex, ScanSourceOpDesc}
 import edu.uci.ics.texera.workflow.operators.source.scan.json.JSONUtil.JSONToMap
 
-import java.io.{BufferedReader, FileReader, IOException}
+import java.io.{BufferedReader, IOException}
 import scala.collection.JavaConverters._
-import scala.collection.convert.ImplicitConversions.`iterator asScala`
 import scala.collection.mutable.ArrayBuffer
 class JSONLScanSourceOpDesc extends ScanSourceOpDesc {
 
@@ -26,27 +26,70 @@ class JSONLScanSourceOpDesc extends ScanSourceOpDesc {
   @throws[IOException]
   override def operatorExecutor(
       operatorSchemaInfo: OperatorSchemaInfo
+  ): OpExecConfig = operatorExecutor(operatorSchemaInfo, Constants.defaultNumWorkers)
+
+  /**
+    * @param numWorkers the number of workers to split the lines of the file among
+    */
+  @throws[IOException]
+  def operatorExecutor(
+      operatorSchemaInfo: OperatorSchemaInfo,
+      numWorkers: Int
   ): OpExecConfig = {
     filePath match {
       case Some(path) =>
-        // count lines and partition the task to each worker
-        val reader = new BufferedReader(new FileReader(path))
-        val offsetValue = offset.getOrElse(0)
-        var lines = reader.lines().iterator().drop(offsetValue)
-        if (limit.isDefined) lines = lines.take(limit.get)
-        val count: Int = lines.map(_ => 1).sum
-        reader.close()
+        val compression = Compression.detect(path)
+
+        val index = FileIndex.load(path)
+        if (index.isDefined) {
+          // the index knows where the lines start, so the lines between offset and limit are
+          // split evenly, and each worker seeks to its first line instead of reading up to it
+          val lineCount = index.get.lineCount
+          val first = offset.getOrElse(0).toLong.min(lineCount)
+          val last = limit.map(first + _).getOrElse(lineCount).min(lineCount)
+          return new OneToOneOpExecConfig(
+            operatorIdentifier,
+            (i: Int) => {
+              val from = first + (last - first) * i / numWorkers
+              val to = first + (last - first) * (i + 1) / numWorkers
+              val (startOffset, skipLines) = index.get.seek(from)
+              new JSONLScanSourceOpExec(
+                this,
+                compression,
+                new FileSplit(0, startOffset, Long.MaxValue),
+                skipLines,
+                to - from
+              )
+            },
+            numWorkers
+          )
+        }
 
-        val numWorkers = Constants.defaultNumWorkers
+        if (offset.isDefined || limit.isDefined || !compression.isSplittable) {
+          // offset and limit are counted in lines from the head of the file, which a
+          // byte-range worker cannot know, so a single worker reads the file sequentially
+          // and stops as soon as the limit is reached. A file compressed as a single stream
+          // can only be decompressed from its start as well.
+          return new ManyToOneOpExecConfig(
+            operatorIdentifier,
+            _ =>
+              new JSONLScanSourceOpExec(
+                this,
+                compression,
+                new FileSplit(0, 0, Long.MaxValue),
+                offset.getOrElse(0),
+                limit.map(_.toLong).getOrElse(Long.MaxValue)
+              )
+          )
+        }
 
+        // partition the file into byte ranges, or ranges of compressed blocks,
+        // each worker resyncs to the next line break
+        val splits = Compression.split(path, compression, numWorkers)
         new OneToOneOpExecConfig(
           operatorIdentifier,
-          (i: Int) => {
-            val startOffset: Int = offsetValue + count / numWorkers * i
-            val endOffset: Int =
-              offsetValue + (if (i != numWorkers - 1) count / numWorkers * (i + 1) else count)
-            new JSONLScanSourceOpExec(this, startOffset, endOffset)
-          }
+          (i: Int) => new JSONLScanSourceOpExec(this, compression, splits.get(i), 0, Long.MaxValue),
+          numWorkers
         )
 
       case None =>
@@ -55,26 +98,23 @@ class JSONLScanSourceOpDesc extends ScanSourceOpDesc {
 
   }
 
+  override protected def inferenceOptions: List[Any] = List(flatten, offset, limit)
+
+  override protected[scan] def indexOptions: Option[Map[String, String]] =
+    Option(Map("flatten" -> flatten.toString))
+
   /**
-    * Infer Texera.Schema based on the top few lines of data.
+    * Infer Texera.Schema based on the top few lines of data, or a sample of all lines.
     *
     * @return Texera.Schema build for this operator
     */
-  @Override
-  def inferSchema(): Schema = {
-    val reader = new BufferedReader(new FileReader(filePath.get))
+  override protected[scan] def inferSchemaFromFile(sampleSize: Option[Int]): Schema = {
+    val reader = new BufferedReader(openFile())
     var fieldNames = Set[String]()
 
     val allFields: ArrayBuffer[Map[String, String]] = ArrayBuffer()
 
-    val startOffset = offset.getOrElse(0)
-    val endOffset =
-      startOffset + limit.getOrElse(INFER_READ_LIMIT).min(INFER_READ_LIMIT)
-    reader
-      .lines()
-      .iterator()
-      .asScala
-      .slice(startOffset, endOffset)
+    rowsToInfer(reader.lines().iterator().asScala.drop(offset.getOrElse(0)), sampleSize)
       .foreach(line => {
         val root: JsonNode = objectMapper.readTree(line)
         if (root.isObject) {
@@ -2,40 +2,52 @@ package edu.uci.ics.texera.workflow.operators.source.scan.json
 
 import edu.uci.ics.texera.workflow.common.Utils.objectMapper
 import edu.uci.ics.texera.workflow.common.operators.source.SourceOperatorExecutor
+import edu.uci.ics.texera.workflow.common.operators.source.SourcePushdown.{
+  BoundFilter,
+  bindPredicates,
+  evaluate
+}
+import edu.uci.ics.texera.workflow.common.scanner.{BufferedLineReader, Compression, FileSplit}
 import edu.uci.ics.texera.workflow.common.tuple.Tuple
 import edu.uci.ics.texera.workflow.common.tuple.schema.AttributeTypeUtils.parseField
 import edu.uci.ics.texera.workflow.common.tuple.schema.Schema
 import edu.uci.ics.texera.workflow.operators.source.scan.json.JSONUtil.JSONToMap
 
-import java.io.{BufferedReader, FileReader}
 import scala.collection.Iterator
 import scala.collection.JavaConverters._
 
 class JSONLScanSourceOpExec private[json] (
     val desc: JSONLScanSourceOpDesc,
-    val startOffset: Int,
-    val endOffset: Int
+    val compression: Compression,
+    val split: FileSplit,
+    val skipLines: Int,
+    val maxLines: Long
 ) extends SourceOperatorExecutor {
   private var schema: Schema = _
+  private var outputSchema: Schema = _
+  private var outputIndices: Array[Int] = _
+  private var filters: Array[BoundFilter] = _
+  // attributes that are neither output nor filtered on are not parsed
+  private var kept: Array[Boolean] = _
   private var rows: Iterator[String] = _
-  private var reader: BufferedReader = _
+  private var reader: BufferedLineReader = _
 
   override def produceTexeraTuple(): Iterator[Tuple] = {
     rows
       .map(line => {
         try {
-          val fields = scala.collection.mutable.ArrayBuffer.empty[Object]
+          val fields = new Array[Object](schema.getAttributes.size)
           val data = JSONToMap(objectMapper.readTree(line), flatten = desc.flatten)
 
-          for (fieldName <- schema.getAttributeNames.asScala) {
-            if (data.contains(fieldName))
-              fields += parseField(data(fieldName), schema.getAttribute(fieldName).getType)
-            else {
-              fields += null
-            }
+          for (i <- fields.indices if kept(i)) {
+            val attribute = schema.getAttributes.get(i)
+            if (data.contains(attribute.getName))
+              fields(i) = parseField(data(attribute.getName), attribute.getType)
           }
 
-          Tuple.newBuilder(schema).addSequentially(fields.toArray).build
+          if (evaluate(filters, fields))
+            Tuple.newBuilder(outputSchema).addSequentially(outputIndices.map(fields(_))).build
+          else null
         } catch {
           case _: Throwable => null
         }
@@ -45,8 +57,33 @@ class JSONLScanSourceOpExec private[json] (
   }
   override def open(): Unit = {
     schema = desc.inferSchema()
-    reader = new BufferedReader(new FileReader(desc.filePath.get))
-    rows = reader.lines().iterator().asScala.slice(startOffset, endOffset)
+    outputSchema = desc.sourceSchema()
+    outputIndices =
+      outputSchema.getAttributeNames.asScala.map(name => schema.getIndex(name).intValue).toArray
+    filters = bindPredicates(schema, desc.predicates)
+    kept = schema.getAttributes.asScala.indices
+      .map(i => outputIndices.contains(i) || filters.exists(filter => filter.exists(_._1 == i)))
+      .toArray
+    val stream = Compression.open(desc.filePath.get, compression, split.blockOffset)
+    // start one byte early, so that a line beginning exactly at startOffset is kept
+    val seekPosition = math.max(split.startOffset - 1, 0)
+    Compression.skipFully(stream, seekPosition)
+    reader = new BufferedLineReader(stream)
+    // skip the partial line, it belongs to the previous worker
+    if (split.startOffset > 0) reader.readLine
+    for (_ <- 0 until skipLines) reader.readLine
+
+    // a line belongs to this worker if it starts before endOffset,
+    // and it reads at most maxLines of them
+    var remaining = maxLines
+    rows = Iterator
+      .continually(
+        if (remaining > 0 && seekPosition + reader.getBytesRead < split.endOffset) {
+          remaining -= 1
+          reader.readLine
+        } else null
+      )
+      .takeWhile(line => line != null)
   }
 
   override def close(): Unit = reader.close()
@@ -1,15 +1,20 @@
 package edu.uci.ics.texera.workflow.operators.source.sql
 
-import com.fasterxml.jackson.annotation.{JsonProperty, JsonPropertyDescription}
+import com.fasterxml.jackson.annotation.{JsonIgnore, JsonProperty, JsonPropertyDescription}
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize
 import com.kjetland.jackson.jsonSchema.annotations.{JsonSchemaInject, JsonSchemaTitle}
+import edu.uci.ics.amber.engine.common.Constants
 import edu.uci.ics.texera.workflow.common.metadata.annotations.{AutofillAttributeName, UIWidget}
-import edu.uci.ics.texera.workflow.common.operators.source.SourceOperatorDescriptor
+import edu.uci.ics.texera.workflow.common.operators.source.{
+  SourceOperatorDescriptor,
+  SourcePushdown
+}
 import edu.uci.ics.texera.workflow.common.tuple.schema.{Attribute, AttributeType, Schema}
+import edu.uci.ics.texera.workflow.operators.filter.FilterPredicate
 
 import java.sql._
 
-abstract class SQLSourceOpDesc extends SourceOperatorDescriptor {
+abstract class SQLSourceOpDesc extends SourceOperatorDescriptor with SourcePushdown {
 
   @JsonProperty(required = true)
   @JsonSchemaTitle("Host")
@@ -96,6 +101,14 @@ abstract class SQLSourceOpDesc extends SourceOperatorDescriptor {
   @JsonSchemaInject(json = """{"dependOn" : "batchByColumn"}""")
   var interval = 0L
 
+  /** the columns to select, set by the compiler when a projection is pushed down */
+  @JsonIgnore
+  var projection: Option[List[String]] = None
+
+  /** filters in AND of predicates in OR, set by the compiler when filters are pushed down */
+  @JsonIgnore
+  var predicates: List[List[FilterPredicate]] = List()
+
   /**
     * Make sure all the required parameters are not empty,
     * then query the remote PostgreSQL server for the table schema
@@ -108,7 +121,29 @@ abstract class SQLSourceOpDesc extends SourceOperatorDescriptor {
       || this.table == null || this.username == null || this.password == null
     )
       return null
-    querySchema
+    SourcePushdown.projectSchema(querySchema, projection)
+  }
+
+  override def pushDown(
+      projection: Option[List[String]],
+      predicates: List[List[FilterPredicate]]
+  ): Unit = {
+    // keep the columns the query itself refers to
+    this.projection = projection.map(attributes => attributes ++ searchByColumn ++ batchByColumn)
+    // limit and offset apply before the filters downstream, filtering first would change them
+    if (limit.isEmpty && offset.isEmpty) this.predicates = predicates
+  }
+
+  /**
+    * The number of workers to read the table with. In progressive mode, the range of the
+    * batchByColumn is split among them, each reading its part through its own connection.
+    * Otherwise, or if a limit or offset is given, which are counted from the first row of
+    * the whole table, a single worker reads it.
+    */
+  def numWorkers: Int = {
+    if (progressive.getOrElse(false) && batchByColumn.isDefined && limit.isEmpty && offset.isEmpty)
+      Constants.defaultNumWorkers
+    else 1
   }
 
   // needs to define getters for sub classes to override Jackson Annotations
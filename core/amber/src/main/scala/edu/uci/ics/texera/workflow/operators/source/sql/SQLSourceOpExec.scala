@@ -1,18 +1,18 @@
 package edu.uci.ics.texera.workflow.operators.source.sql
 
+import edu.uci.ics.amber.engine.common.WorkflowLogger
 import edu.uci.ics.texera.workflow.common.operators.source.SourceOperatorExecutor
 import edu.uci.ics.texera.workflow.common.tuple.Tuple
 import edu.uci.ics.texera.workflow.common.tuple.schema.{Attribute, Schema}
 import edu.uci.ics.texera.workflow.common.tuple.schema.AttributeType._
-import edu.uci.ics.texera.workflow.common.tuple.schema.AttributeTypeUtils.{
-  parseField,
-  parseTimestamp
-}
+import edu.uci.ics.texera.workflow.common.tuple.schema.AttributeTypeUtils.parseTimestamp
+import edu.uci.ics.texera.workflow.operators.filter.{ComparisonType, FilterPredicate}
 
 import java.sql._
 import scala.collection.Iterator
 import scala.collection.mutable.ArrayBuffer
 import scala.jdk.CollectionConverters._
+import scala.util.Try
 import scala.util.control.Breaks.{break, breakable}
 
 abstract class SQLSourceOpExec(
@@ -29,7 +29,12 @@ abstract class SQLSourceOpExec(
     batchByColumn: Option[String],
     min: Option[String],
     max: Option[String],
-    interval: Long
+    interval: Long,
+    // filters pushed down from the operators after the source
+    predicates: List[List[FilterPredicate]],
+    // the part of the batchByColumn range read by this worker, in progressive mode
+    workerIndex: Int,
+    numWorkers: Int
 ) extends SourceOperatorExecutor {
 
   // connection and query related
@@ -39,11 +44,22 @@ abstract class SQLSourceOpExec(
   var connection: Connection = _
   var curQuery: Option[PreparedStatement] = None
   var curResultSet: Option[ResultSet] = None
+  // typed getters of the attributes of the schema in curResultSet, resolved once per query
+  var columnReaders: Array[ResultSet => AnyRef] = _
   var curLowerBound: Number = _
   var upperBound: Number = _
+  // the last worker reads up to and including the upper bound, the others up to the next part
+  var upperBoundInclusive: Boolean = true
+  // set once the window ending at the upper bound is queried
+  var lastBatchSent: Boolean = false
   var cachedTuple: Option[Tuple] = None
   var querySent: Boolean = false
 
+  // throughput statistics of this worker
+  var rowCount: Long = 0
+  var openTime: Long = _
+  var firstTupleTime: Option[Long] = None
+
   /**
     * A generator of a Texera.Tuple, which converted from a SQL row
     * @return Iterator[Tuple]
@@ -108,6 +124,8 @@ abstract class SQLSourceOpExec(
                       curLimit = Option(limit - 1)
                     }
                   })
+                  if (firstTupleTime.isEmpty) firstTupleTime = Option(System.nanoTime())
+                  rowCount += 1
                   return tuple
                 } else {
                   // close the current resultSet and query
@@ -122,6 +140,7 @@ abstract class SQLSourceOpExec(
                 curQuery match {
                   case Some(query) =>
                     curResultSet = Option(query.executeQuery)
+                    columnReaders = resolveColumnReaders(curResultSet.get)
                     break
                   case None =>
                     curResultSet = None
@@ -146,6 +165,7 @@ abstract class SQLSourceOpExec(
     */
   @throws[SQLException]
   override def open(): Unit = {
+    openTime = System.nanoTime()
     connection = establishConn()
 
     // load user table names from the given database
@@ -169,6 +189,20 @@ abstract class SQLSourceOpExec(
     curQuery.foreach(query => query.close())
 
     if (connection != null) connection.close()
+
+    logThroughput()
+  }
+
+  /**
+    * Report the number of rows read by this worker and its rows per second.
+    */
+  protected def logThroughput(): Unit = {
+    val seconds = (System.nanoTime() - openTime) / 1e9
+    val firstTupleSeconds = firstTupleTime.map(time => (time - openTime) / 1e9).getOrElse(seconds)
+    WorkflowLogger(s"${getClass.getSimpleName} [$workerIndex / $numWorkers]").logInfo(
+      f"read $rowCount rows in $seconds%.1f s, ${rowCount / math.max(seconds, 1e-3)}%.1f rows/s, " +
+        f"first tuple after $firstTupleSeconds%.3f s"
+    )
   }
 
   /**
@@ -179,29 +213,49 @@ abstract class SQLSourceOpExec(
     */
   @throws[SQLException]
   protected def buildTupleFromRow: Tuple = {
-    val tupleBuilder = Tuple.newBuilder(schema)
-
-    for (attr <- schema.getAttributes.asScala) {
-
-      breakable {
-        val columnName = attr.getName
-        val columnType = attr.getType
-        val value = curResultSet.get.getObject(columnName)
+    val resultSet = curResultSet.get
+    Tuple.newBuilder(schema).addSequentially(columnReaders.map(read => read(resultSet))).build
+  }
 
-        if (value == null) {
-          // add the field as null
-          tupleBuilder.add(attr, null)
-          break
+  /**
+    * Resolve the column index of each attribute of the schema in the result set, and a typed
+    * getter reading it, so that a row is decoded without looking up its columns by name and
+    * without converting its values through parseField.
+    *
+    * @param resultSet the result set of the current query
+    * @return a reader for each attribute of the schema, returning null for SQL NULL
+    * @throws SQLException if an attribute is not a column of the result set
+    */
+  @throws[SQLException]
+  protected def resolveColumnReaders(resultSet: ResultSet): Array[ResultSet => AnyRef] = {
+    schema.getAttributes.asScala
+      .map(attr => {
+        val index = resultSet.findColumn(attr.getName)
+        val read: ResultSet => AnyRef = attr.getType match {
+          case INTEGER   => row => Int.box(row.getInt(index))
+          case LONG      => row => Long.box(row.getLong(index))
+          case DOUBLE    => row => Double.box(row.getDouble(index))
+          case BOOLEAN   => row => Boolean.box(row.getBoolean(index))
+          case TIMESTAMP => row => row.getTimestamp(index)
+          case STRING    => row => row.getString(index)
+          case ANY | _   => row => row.getObject(index)
         }
-
-        // otherwise, transform the type of the value
-        tupleBuilder.add(attr, parseField(value, columnType))
-
-      }
-    }
-    tupleBuilder.build
+        (row: ResultSet) => {
+          val value = read(row)
+          if (row.wasNull) null else value
+        }
+      })
+      .toArray
   }
 
+  /**
+    * The number of rows the driver fetches from the server at a time. A positive fetch size
+    * on a forward-only, read-only statement lets the driver stream the rows of a query
+    * instead of buffering the whole result before the first tuple.
+    * @return the fetch size to set on each query
+    */
+  protected def fetchSize: Int = 10000
+
   /**
     * Checks if there is a next query.
     * - This is mostly used for progressive mode: if the lower bound is
@@ -213,14 +267,17 @@ abstract class SQLSourceOpExec(
     * @return A boolean value whether there exists the next query or not.
     */
   @throws[IllegalArgumentException]
-  protected def hasNextQuery: Boolean = {
+  protected[sql] def hasNextQuery: Boolean = {
     batchByAttribute match {
+      case Some(_) if lastBatchSent => false
       case Some(attribute) =>
         attribute.getType match {
           case INTEGER | LONG | TIMESTAMP =>
-            curLowerBound.longValue <= upperBound.longValue
+            curLowerBound.longValue < upperBound.longValue ||
+              upperBoundInclusive && curLowerBound.longValue == upperBound.longValue
           case DOUBLE =>
-            curLowerBound.doubleValue <= upperBound.doubleValue
+            curLowerBound.doubleValue < upperBound.doubleValue ||
+              upperBoundInclusive && curLowerBound.doubleValue == upperBound.doubleValue
           case STRING | ANY | BOOLEAN | _ =>
             throw new IllegalArgumentException("Unexpected type: " + attribute.getType)
         }
@@ -244,7 +301,63 @@ abstract class SQLSourceOpExec(
   }
 
   protected def addBaseSelect(queryBuilder: StringBuilder): Unit = {
-    queryBuilder ++= "\n" + "SELECT * FROM " + table + " where 1 = 1"
+    queryBuilder ++= "\n" + "SELECT " +
+      schema.getAttributeNames.asScala.map(quoteIdentifier).mkString(", ") +
+      " FROM " + table + " where 1 = 1"
+  }
+
+  /**
+    * Quote a column name taken from the schema, so that it keeps its case in the query.
+    * @param name the column name
+    * @return the quoted name, in standard SQL double quotes by default
+    */
+  protected def quoteIdentifier(name: String): String = {
+    "\"" + name + "\""
+  }
+
+  /**
+    * Add the filters pushed down from downstream operators, e.g.
+    * AND (price > 10 OR price < 1) AND (amount >= 5)
+    *
+    * Only filters whose predicates all compare a numeric attribute with a number are added,
+    * as they mean the same in SQL. The other filters are left to the filter operator, which
+    * stays after the source and evaluates all of them again.
+    *
+    * @param queryBuilder the target query builder
+    */
+  protected def addPushedPredicates(queryBuilder: StringBuilder): Unit = {
+    predicates
+      .filter(filter => filter.nonEmpty && filter.forall(isNumericPredicate))
+      .foreach(filter => {
+        queryBuilder ++= filter
+          .map(predicate =>
+            // the attribute name comes from the schema and the value is a parsed number
+            quoteIdentifier(schema.getAttribute(predicate.attribute).getName) + " " +
+              toSQLOperator(predicate.condition) + " " +
+              new java.math.BigDecimal(predicate.value.trim).toPlainString
+          )
+          .mkString(" AND (", " OR ", ")")
+      })
+  }
+
+  private def isNumericPredicate(predicate: FilterPredicate): Boolean = {
+    schema.containsAttribute(predicate.attribute) &&
+    (schema.getAttribute(predicate.attribute).getType match {
+      case INTEGER | LONG | DOUBLE => true
+      case _                       => false
+    }) &&
+    Try(new java.math.BigDecimal(predicate.value.trim)).isSuccess
+  }
+
+  private def toSQLOperator(condition: ComparisonType): String = {
+    condition match {
+      case ComparisonType.EQUAL_TO                 => "="
+      case ComparisonType.GREATER_THAN             => ">"
+      case ComparisonType.GREATER_THAN_OR_EQUAL_TO => ">="
+      case ComparisonType.LESS_THAN                => "<"
+      case ComparisonType.LESS_THAN_OR_EQUAL_TO    => "<="
+      case ComparisonType.NOT_EQUAL_TO             => "<>"
+    }
   }
 
   /**
@@ -257,7 +370,8 @@ abstract class SQLSourceOpExec(
     * There will be a lower bound and upper bound for each sliding window.
     *
     * The last window would be [lower, upper], while the other windows will
-    * be [lower, nextLower)
+    * be [lower, nextLower). If the range is split among workers, the last window of all
+    * but the last worker is [lower, upper) as well.
     *
     * @param queryBuilder the target query builder
     * @throws IllegalArgumentException if the given batchByAttribute's type is
@@ -284,7 +398,7 @@ abstract class SQLSourceOpExec(
           " >= " + batchAttributeToString(curLowerBound) +
           " AND " + attribute.getName +
           (if (isLastBatch)
-             " <= " + batchAttributeToString(upperBound)
+             (if (upperBoundInclusive) " <= " else " < ") + batchAttributeToString(upperBound)
            else
              " < " + batchAttributeToString(nextLowerBound))
       case None =>
@@ -293,6 +407,7 @@ abstract class SQLSourceOpExec(
         )
     }
     curLowerBound = nextLowerBound
+    lastBatchSent = isLastBatch
   }
 
   /**
@@ -378,6 +493,7 @@ abstract class SQLSourceOpExec(
 
   /**
     * generate sql query string using the info provided by user. One of following
+    * (with the attributes of the schema in place of *)
     * select * from TableName where 1 = 1 AND MATCH (ColumnName) AGAINST ( ? IN BOOLEAN MODE) LIMIT ?;
     * select * from TableName where 1 = 1 AND MATCH (ColumnName) AGAINST ( ? IN BOOLEAN MODE);
     * select * from TableName where 1 = 1 LIMIT ? ;
@@ -393,7 +509,7 @@ abstract class SQLSourceOpExec(
     * @return string of sql query
     */
   @throws[IllegalArgumentException]
-  protected def generateSqlQuery: Option[String] = {
+  protected[sql] def generateSqlQuery: Option[String] = {
     // in sql prepared statement, table name cannot be inserted using PreparedStatement.setString
     // so it has to be inserted here during sql query generation
     // table has to be verified to be existing in the given schema.
@@ -407,6 +523,9 @@ abstract class SQLSourceOpExec(
     if (search.getOrElse(false) && searchByColumn.isDefined && keywords.isDefined)
       addKeywordSearch(queryBuilder)
 
+    // add the filters pushed down from downstream operators
+    addPushedPredicates(queryBuilder)
+
     // add sliding window if progressive mode is enabled
     if (progressive.getOrElse(false) && batchByColumn.isDefined && interval > 0L)
       addBatchSlidingWindow(queryBuilder)
@@ -443,7 +562,12 @@ abstract class SQLSourceOpExec(
       val nextQuery = generateSqlQuery
       nextQuery match {
         case Some(query) =>
-          val preparedStatement = connection.prepareStatement(query)
+          val preparedStatement = connection.prepareStatement(
+            query,
+            ResultSet.TYPE_FORWARD_ONLY,
+            ResultSet.CONCUR_READ_ONLY
+          )
+          preparedStatement.setFetchSize(fetchSize)
           var curIndex = 1
 
           // fill up the keywords
@@ -483,7 +607,7 @@ abstract class SQLSourceOpExec(
     */
   @throws[SQLException]
   @throws[IllegalArgumentException]
-  private def initBatchColumnBoundaries(): Unit = {
+  protected[sql] def initBatchColumnBoundaries(): Unit = {
     // TODO: add interval
     if (batchByAttribute.isDefined && min.isDefined && max.isDefined) {
 
@@ -509,5 +633,32 @@ abstract class SQLSourceOpExec(
         s"Missing required progressive configuration, $batchByAttribute, $min or $max."
       )
     }
+
+    // each worker reads its own part of the range, through its own connection
+    if (numWorkers > 1) partitionBatchColumnBoundaries()
+  }
+
+  /**
+    * Narrow [curLowerBound, upperBound] down to the part of this worker: the range is split
+    * into numWorkers parts of equal width, [b_i, b_i+1) for each but the last worker, which
+    * reads [b_n-1, upperBound].
+    */
+  private def partitionBatchColumnBoundaries(): Unit = {
+    val lowerBound = curLowerBound
+    def boundary(i: Int): Number =
+      batchByAttribute.get.getType match {
+        case DOUBLE =>
+          lowerBound.doubleValue +
+            (upperBound.doubleValue - lowerBound.doubleValue) * i / numWorkers
+        case _ =>
+          lowerBound.longValue +
+            (BigInt(upperBound.longValue - lowerBound.longValue) * i / numWorkers).toLong
+      }
+
+    curLowerBound = boundary(workerIndex)
+    if (workerIndex != numWorkers - 1) {
+      upperBound = boundary(workerIndex + 1)
+      upperBoundInclusive = false
+    }
   }
 }
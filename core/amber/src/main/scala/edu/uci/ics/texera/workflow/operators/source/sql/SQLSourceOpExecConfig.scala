@@ -12,7 +12,8 @@ import edu.uci.ics.texera.workflow.common.operators.source.SourceOperatorExecuto
 
 class SQLSourceOpExecConfig(
     tag: OperatorIdentity,
-    opExec: Int => SourceOperatorExecutor
+    opExec: Int => SourceOperatorExecutor,
+    numWorkers: Int = 1
 ) extends OpExecConfig(tag) {
 
   override lazy val topology: Topology = {
@@ -21,7 +22,7 @@ class SQLSourceOpExecConfig(
         new WorkerLayer(
           makeLayer(tag, "main"),
           opExec,
-          1,
+          numWorkers,
           UseAll(), // it's source operator
           OneOnEach()
         )
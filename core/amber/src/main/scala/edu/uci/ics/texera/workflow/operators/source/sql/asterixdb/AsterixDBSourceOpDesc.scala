@@ -14,6 +14,7 @@ import edu.uci.ics.texera.workflow.common.metadata.{
   OutputPort
 }
 import edu.uci.ics.texera.workflow.common.metadata.annotations.UIWidget
+import edu.uci.ics.texera.workflow.common.operators.source.SourcePushdown
 import edu.uci.ics.texera.workflow.common.tuple.schema.{
   Attribute,
   AttributeType,
@@ -45,7 +46,7 @@ class AsterixDBSourceOpDesc extends SQLSourceOpDesc {
   override def operatorExecutor(operatorSchemaInfo: OperatorSchemaInfo): OpExecConfig =
     new SQLSourceOpExecConfig(
       this.operatorIdentifier,
-      (worker: Any) =>
+      (i: Int) =>
         new AsterixDBSourceOpExec(
           sourceSchema(),
           host,
@@ -61,15 +62,19 @@ class AsterixDBSourceOpDesc extends SQLSourceOpDesc {
           batchByColumn,
           min,
           max,
-          interval
-        )
+          interval,
+          predicates,
+          i,
+          numWorkers
+        ),
+      numWorkers
     )
 
   override def sourceSchema(): Schema = {
     if (this.host == null || this.port == null || this.database == null || this.table == null)
       return null
 
-    querySchema
+    SourcePushdown.projectSchema(querySchema, projection)
   }
 
   override def operatorInfo: OperatorInfo =
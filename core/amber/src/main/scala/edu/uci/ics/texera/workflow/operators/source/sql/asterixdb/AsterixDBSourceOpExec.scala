@@ -10,6 +10,7 @@ import edu.uci.ics.texera.workflow.operators.source.sql.asterixdb.AsterixDBConnU
   updateAsterixDBVersionMapping
 }
 import edu.uci.ics.texera.workflow.operators.source.sql.SQLSourceOpExec
+import edu.uci.ics.texera.workflow.operators.filter.FilterPredicate
 
 import java.sql._
 import java.time.{ZoneId, ZoneOffset}
@@ -34,7 +35,10 @@ class AsterixDBSourceOpExec private[asterixdb] (
     batchByColumn: Option[String],
     min: Option[String],
     max: Option[String],
-    interval: Long
+    interval: Long,
+    predicates: List[List[FilterPredicate]],
+    workerIndex: Int,
+    numWorkers: Int
 ) extends SQLSourceOpExec(
       schema,
       table,
@@ -47,10 +51,11 @@ class AsterixDBSourceOpExec private[asterixdb] (
       batchByColumn,
       min,
       max,
-      interval
+      interval,
+      predicates,
+      workerIndex,
+      numWorkers
     ) {
-  // update AsterixDB API version upon initialization.
-  updateAsterixDBVersionMapping(host, port)
 
   // format Timestamp. TODO: move to some util package
   val formatter: DateTimeFormatter =
@@ -112,6 +117,7 @@ class AsterixDBSourceOpExec private[asterixdb] (
                       curLimit = Option(limit - 1)
                     }
                   })
+                  rowCount += 1
                   return tuple
                 } else {
                   // close the current resultSet and query
@@ -138,12 +144,21 @@ class AsterixDBSourceOpExec private[asterixdb] (
     }
   }
 
+  /**
+    * update AsterixDB API version before the first query.
+    */
+  override def open(): Unit = {
+    updateAsterixDBVersionMapping(host, port)
+    super.open()
+  }
+
   /**
     * close curResultIterator, curQueryString
     */
   override def close(): Unit = {
     curResultIterator = None
     curQueryString = None
+    logThroughput()
   }
 
   /**
@@ -244,6 +259,13 @@ class AsterixDBSourceOpExec private[asterixdb] (
       .mkString(", ")} FROM $database.$table WHERE 1 = 1 "
   }
 
+  /**
+    * SQL++ reads a double quoted name as a string literal, a backquoted one as an identifier.
+    */
+  override protected def quoteIdentifier(name: String): String = {
+    "`" + name + "`"
+  }
+
   override def addLimit(queryBuilder: StringBuilder): Unit = {
     queryBuilder ++= " LIMIT " + curLimit.get
   }
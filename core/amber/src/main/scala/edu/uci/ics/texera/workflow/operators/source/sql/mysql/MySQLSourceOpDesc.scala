@@ -19,9 +19,9 @@ class MySQLSourceOpDesc extends SQLSourceOpDesc {
   override def operatorExecutor(operatorSchemaInfo: OperatorSchemaInfo): OpExecConfig =
     new SQLSourceOpExecConfig(
       this.operatorIdentifier,
-      (worker: Any) =>
+      (i: Int) =>
         new MySQLSourceOpExec(
-          this.querySchema,
+          sourceSchema(),
           host,
           port,
           database,
@@ -37,8 +37,12 @@ class MySQLSourceOpDesc extends SQLSourceOpDesc {
           batchByColumn,
           min,
           max,
-          interval
-        )
+          interval,
+          predicates,
+          i,
+          numWorkers
+        ),
+      numWorkers
     )
 
   override def operatorInfo: OperatorInfo =
@@ -3,6 +3,7 @@ package edu.uci.ics.texera.workflow.operators.source.sql.mysql
 import edu.uci.ics.texera.workflow.common.tuple.schema.{AttributeType, Schema}
 import edu.uci.ics.texera.workflow.operators.source.sql.mysql.MySQLConnUtil.connect
 import edu.uci.ics.texera.workflow.operators.source.sql.SQLSourceOpExec
+import edu.uci.ics.texera.workflow.operators.filter.FilterPredicate
 
 import java.sql._
 
@@ -23,7 +24,10 @@ class MySQLSourceOpExec private[mysql] (
     batchByColumn: Option[String],
     min: Option[String],
     max: Option[String],
-    interval: Long
+    interval: Long,
+    predicates: List[List[FilterPredicate]],
+    workerIndex: Int,
+    numWorkers: Int
 ) extends SQLSourceOpExec(
       schema,
       table,
@@ -36,7 +40,10 @@ class MySQLSourceOpExec private[mysql] (
       batchByColumn,
       min,
       max,
-      interval
+      interval,
+      predicates,
+      workerIndex,
+      numWorkers
     ) {
 
   val FETCH_TABLE_NAMES_SQL =
@@ -56,6 +63,16 @@ class MySQLSourceOpExec private[mysql] (
       throw new RuntimeException("Can't do keyword search on type " + columnType.toString)
   }
 
+  /**
+    * The MySQL driver ignores a positive fetch size unless cursor fetch is enabled on the
+    * connection, Integer.MIN_VALUE makes it stream the rows of the query one by one.
+    */
+  override protected def fetchSize: Int = Integer.MIN_VALUE
+
+  override protected def quoteIdentifier(name: String): String = {
+    "`" + name + "`"
+  }
+
   @throws[SQLException]
   override protected def loadTableNames(): Unit = {
     val preparedStatement = connection.prepareStatement(FETCH_TABLE_NAMES_SQL)
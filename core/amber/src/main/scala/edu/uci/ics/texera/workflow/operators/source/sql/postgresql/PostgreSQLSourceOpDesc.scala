@@ -19,9 +19,9 @@ class PostgreSQLSourceOpDesc extends SQLSourceOpDesc {
   override def operatorExecutor(operatorSchemaInfo: OperatorSchemaInfo): OpExecConfig =
     new SQLSourceOpExecConfig(
       operatorIdentifier,
-      (worker: Any) =>
+      (i: Int) =>
         new PostgreSQLSourceOpExec(
-          querySchema,
+          sourceSchema(),
           host,
           port,
           database,
@@ -37,8 +37,12 @@ class PostgreSQLSourceOpDesc extends SQLSourceOpDesc {
           batchByColumn,
           min,
           max,
-          interval
-        )
+          interval,
+          predicates,
+          i,
+          numWorkers
+        ),
+      numWorkers
     )
   override def operatorInfo: OperatorInfo =
     OperatorInfo(
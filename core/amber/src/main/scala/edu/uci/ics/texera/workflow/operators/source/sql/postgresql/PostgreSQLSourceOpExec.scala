@@ -3,6 +3,7 @@ package edu.uci.ics.texera.workflow.operators.source.sql.postgresql
 import edu.uci.ics.texera.workflow.common.tuple.schema.{AttributeType, Schema}
 import edu.uci.ics.texera.workflow.operators.source.sql.postgresql.PostgreSQLConnUtil.connect
 import edu.uci.ics.texera.workflow.operators.source.sql.SQLSourceOpExec
+import edu.uci.ics.texera.workflow.operators.filter.FilterPredicate
 
 import java.sql._
 
@@ -23,7 +24,10 @@ class PostgreSQLSourceOpExec private[postgresql] (
     batchByColumn: Option[String],
     min: Option[String],
     max: Option[String],
-    interval: Long
+    interval: Long,
+    predicates: List[List[FilterPredicate]],
+    workerIndex: Int,
+    numWorkers: Int
 ) extends SQLSourceOpExec(
       schema,
       table,
@@ -36,13 +40,22 @@ class PostgreSQLSourceOpExec private[postgresql] (
       batchByColumn,
       min,
       max,
-      interval
+      interval,
+      predicates,
+      workerIndex,
+      numWorkers
     ) {
   val FETCH_TABLE_NAMES_SQL =
     "SELECT table_name FROM information_schema.tables WHERE table_type='BASE TABLE';"
 
   @throws[SQLException]
-  override def establishConn(): Connection = connect(host, port, database, username, password)
+  override def establishConn(): Connection = {
+    val connection = connect(host, port, database, username, password)
+    // the PostgreSQL driver only fetches the rows of a query through a cursor, fetchSize at a
+    // time, inside a transaction. Otherwise it buffers the whole result.
+    connection.setAutoCommit(false)
+    connection
+  }
 
   @throws[RuntimeException]
   override def addKeywordSearch(queryBuilder: StringBuilder): Unit = {
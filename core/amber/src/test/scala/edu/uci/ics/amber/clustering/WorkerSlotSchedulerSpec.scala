@@ -0,0 +1,85 @@
+package edu.uci.ics.amber.clustering
+
+import edu.uci.ics.amber.clustering.WorkerSlotScheduler.{
+  Queued,
+  Rejected,
+  SlotUtilization,
+  Started
+}
+import org.scalatest.flatspec.AnyFlatSpec
+
+import scala.collection.mutable
+
+class WorkerSlotSchedulerSpec extends AnyFlatSpec {
+
+  // a scheduler of 10 slots, and the jobs it started in order
+  def scheduler(): (WorkerSlotScheduler, mutable.ArrayBuffer[String]) =
+    (new WorkerSlotScheduler(10), mutable.ArrayBuffer[String]())
+
+  "WorkerSlotScheduler" should "start the jobs that fit into the free slots right away" in {
+    val (slots, started) = scheduler()
+    assert(slots.submit("1", 4, () => started += "1") == Started)
+    assert(slots.submit("2", 6, () => started += "2") == Started)
+    assert(started == List("1", "2"))
+    assert(slots.getUtilization == SlotUtilization(10, 10, 2, 0))
+  }
+
+  it should "queue the jobs that do not fit and start them when slots are released" in {
+    val (slots, started) = scheduler()
+    slots.submit("1", 8, () => started += "1")
+    assert(slots.submit("2", 4, () => started += "2") == Queued(1, 2))
+    assert(started == List("1"))
+    assert(slots.getUtilization == SlotUtilization(10, 8, 1, 1))
+
+    slots.release("1")
+    assert(started == List("1", "2"))
+    assert(slots.getUtilization == SlotUtilization(10, 4, 1, 0))
+    slots.release("2")
+    assert(slots.getUtilization == SlotUtilization(10, 0, 0, 0))
+  }
+
+  it should "admit the queued jobs in FIFO order" in {
+    val (slots, started) = scheduler()
+    slots.submit("1", 8, () => started += "1")
+    slots.submit("2", 6, () => started += "2")
+    // fits into the free slots, but is not started before the job queued earlier
+    assert(slots.submit("3", 2, () => started += "3") == Queued(2, 2))
+    assert(started == List("1"))
+
+    slots.release("1")
+    // both queued jobs fit once the first one is released
+    assert(started == List("1", "2", "3"))
+    assert(slots.getUtilization == SlotUtilization(10, 8, 2, 0))
+  }
+
+  it should "reject a job needing more slots than one job may hold" in {
+    val slots = new WorkerSlotScheduler(10, 0.5)
+    val started = mutable.ArrayBuffer[String]()
+    assert(slots.jobSlots == 5)
+    assert(slots.submit("1", 6, () => started += "1") == Rejected(5))
+    assert(new WorkerSlotScheduler(10).submit("2", 11, () => started += "2") == Rejected(10))
+    assert(started.isEmpty)
+
+    // two jobs of at most half the cluster run at once
+    assert(slots.submit("3", 5, () => started += "3") == Started)
+    assert(slots.submit("4", 5, () => started += "4") == Started)
+    assert(slots.submit("5", 1, () => started += "5") == Queued(1, 0))
+    assert(slots.getUtilization == SlotUtilization(10, 10, 2, 1))
+  }
+
+  it should "remove a released queued job without starting it" in {
+    val (slots, started) = scheduler()
+    slots.submit("1", 10, () => started += "1")
+    slots.submit("2", 5, () => started += "2")
+    slots.submit("3", 5, () => started += "3")
+    slots.release("2")
+    assert(slots.getUtilization == SlotUtilization(10, 10, 1, 1))
+
+    slots.release("1")
+    assert(started == List("1", "3"))
+    // releasing a job twice does not free the slots of another one
+    slots.release("1")
+    assert(slots.getUtilization == SlotUtilization(10, 5, 1, 0))
+  }
+
+}
@@ -1,7 +1,10 @@
 package edu.uci.ics.amber.engine.architecture.messaginglayer
 
 import com.softwaremill.macwire.wire
-import edu.uci.ics.amber.engine.architecture.sendsemantics.partitionings.OneToOnePartitioning
+import edu.uci.ics.amber.engine.architecture.sendsemantics.partitionings.{
+  BroadcastPartitioning,
+  OneToOnePartitioning
+}
 import edu.uci.ics.amber.engine.common.ambermessage.{DataFrame, EndOfUpstream}
 import edu.uci.ics.amber.engine.common.tuple.ITuple
 import edu.uci.ics.amber.engine.common.virtualidentity.{
@@ -43,6 +46,26 @@ class TupleToBatchConverterSpec extends AnyFlatSpec with MockFactory {
     batchProducer.emitEndOfUpstream()
   }
 
+  "TupleToBatchConverter" should "send every batch to all the receivers when broadcasting" in {
+    val batchProducer = wire[TupleToBatchConverter]
+    val tuples = Array.fill(15)(ITuple(1, 2, 3, 4, "5", 9.8))
+    val fakeIDs = Array(ActorVirtualIdentity("receiver1"), ActorVirtualIdentity("receiver2"))
+    fakeIDs.foreach(fakeID =>
+      inSequence {
+        (mockDataOutputPort.sendTo _).expects(fakeID, DataFrame(tuples.slice(0, 10)))
+        (mockDataOutputPort.sendTo _).expects(fakeID, DataFrame(tuples.slice(10, 15)))
+        (mockDataOutputPort.sendTo _).expects(fakeID, EndOfUpstream())
+      }
+    )
+    val fakeLink = LinkIdentity(layerID(), layerID())
+
+    batchProducer.addPartitionerWithPartitioning(fakeLink, BroadcastPartitioning(10, fakeIDs))
+    tuples.foreach { t =>
+      batchProducer.passTupleToDownstream(t)
+    }
+    batchProducer.emitEndOfUpstream()
+  }
+
   "TupleToBatchConverter" should "not output tuples when there is no partitioning" in {
     val tupleToBatchConverter = wire[TupleToBatchConverter]
     val tuples = Array.fill(21)(ITuple(1, 2, 3, 4, "5", 9.8))
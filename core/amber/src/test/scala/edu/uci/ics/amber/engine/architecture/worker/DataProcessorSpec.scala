@@ -24,13 +24,14 @@ import edu.uci.ics.amber.engine.common.virtualidentity.{
   LayerIdentity,
   LinkIdentity
 }
-import edu.uci.ics.amber.engine.common.worker.WorkerState.{Completed, Running}
-import edu.uci.ics.amber.engine.common.{InputExhausted, WorkflowLogger}
+import edu.uci.ics.amber.engine.common.worker.WorkerState.{Completed, Paused, Running}
+import edu.uci.ics.amber.engine.common.{IOperatorExecutor, InputExhausted, WorkflowLogger}
 import edu.uci.ics.texera.workflow.common.operators.OperatorExecutor
 import org.scalamock.scalatest.MockFactory
 import org.scalatest.BeforeAndAfterEach
 import org.scalatest.flatspec.AnyFlatSpec
 
+import java.util.concurrent.atomic.AtomicLong
 import scala.concurrent.duration.{DurationInt, FiniteDuration}
 import scala.concurrent.{Await, ExecutionContext, Future}
 
@@ -217,4 +218,65 @@ class DataProcessorSpec extends AnyFlatSpec with MockFactory with BeforeAndAfter
 
   }
 
+  "data processor" should "pause between the output tuples of one input tuple" in {
+    val id = ActorVirtualIdentity("test")
+    val ctx: ActorContext = null
+    val batchToTupleConverter = mock[BatchToTupleConverter]
+    val asyncRPCClient: AsyncRPCClient = mock[AsyncRPCClient]
+    val breakpointManager = new BreakpointManager(asyncRPCClient)
+    val workerStateManager: WorkerStateManager = new WorkerStateManager(Running)
+    val numOutputs = 100000
+    val pauseAt = 1000
+    val outputCount = new AtomicLong()
+    val outputWhilePaused = new AtomicLong()
+    var dp: DataProcessor = null
+    (asyncRPCClient.send _).expects(*, *).anyNumberOfTimes()
+    (controlOutputPort.sendTo _).expects(*, *).anyNumberOfTimes()
+    (batchProducer.passTupleToDownstream _)
+      .expects(*)
+      .onCall((_: ITuple) => {
+        if (workerStateManager.getCurrentState == Paused) {
+          outputWhilePaused.incrementAndGet()
+        }
+        // the pause arrives while the output iterator of the input tuple is being drained
+        if (outputCount.incrementAndGet() == pauseAt) {
+          dp.enqueueCommand(ControlInvocation(0, PauseWorker()), CONTROLLER)
+        }
+      })
+      .anyNumberOfTimes()
+    (batchProducer.emitEndOfUpstream _).expects().anyNumberOfTimes()
+    // a map-heavy operator: one input tuple produces many output tuples
+    val operator: IOperatorExecutor = new IOperatorExecutor {
+      override def open(): Unit = {}
+      override def close(): Unit = {}
+      override def processTuple(
+          tuple: Either[ITuple, InputExhausted],
+          input: LinkIdentity
+      ): Iterator[ITuple] = {
+        tuple match {
+          case Left(t)  => Iterator.range(0, numOutputs).map(i => ITuple(t.getInt(0) + i))
+          case Right(_) => Iterator.empty
+        }
+      }
+    }
+    val asyncRPCServer: AsyncRPCServer = wire[AsyncRPCServer]
+    dp = wire[DataProcessor]
+    val handlerInitializer = wire[WorkerAsyncRPCHandlerInitializer]
+    dp.appendElement(InputTuple(ITuple(0)))
+    dp.appendElement(EndMarker)
+    dp.appendElement(EndOfAllMarker)
+    val deadline = 5.seconds.fromNow
+    while (deadline.hasTimeLeft() && workerStateManager.getCurrentState != Paused) {
+      //wait
+    }
+    assert(workerStateManager.getCurrentState == Paused)
+    // the pause is handled right after the output tuple it was enqueued in
+    assert(outputCount.get() == pauseAt)
+    dp.enqueueCommand(ControlInvocation(1, ResumeWorker()), CONTROLLER)
+    waitForDataProcessing(workerStateManager)
+    assert(outputCount.get() == numOutputs)
+    assert(outputWhilePaused.get() == 0)
+    dp.shutdown()
+  }
+
 }
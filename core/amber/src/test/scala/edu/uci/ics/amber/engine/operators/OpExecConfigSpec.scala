@@ -0,0 +1,136 @@
+package edu.uci.ics.amber.engine.operators
+
+import edu.uci.ics.amber.engine.architecture.breakpoint.globalbreakpoint.GlobalBreakpoint
+import edu.uci.ics.amber.engine.architecture.deploysemantics.layer.{WorkerInfo, WorkerLayer}
+import edu.uci.ics.amber.engine.architecture.principal.{OperatorState, OperatorStatistics}
+import edu.uci.ics.amber.engine.common.virtualidentity.util.makeLayer
+import edu.uci.ics.amber.engine.common.virtualidentity.{ActorVirtualIdentity, OperatorIdentity}
+import edu.uci.ics.amber.engine.common.worker.WorkerState.{
+  Completed,
+  Paused,
+  Ready,
+  Running,
+  Uninitialized
+}
+import edu.uci.ics.amber.engine.common.worker.{WorkerState, WorkerStatistics}
+import org.scalatest.flatspec.AnyFlatSpec
+
+class OpExecConfigSpec extends AnyFlatSpec {
+
+  // an operator of a build layer and a probe layer of two workers each, already built
+  class TwoLayerOpExecConfig extends OpExecConfig(OperatorIdentity("workflow", "op")) {
+    val layers: Array[WorkerLayer] = Array("build", "probe").map { name =>
+      val layer = new WorkerLayer(makeLayer(id, name), null, 2, null, null)
+      layer.workers = (0 until 2).map { i =>
+        val workerID = ActorVirtualIdentity(s"Worker-$name-[$i]")
+        workerID -> WorkerInfo(workerID, Uninitialized, WorkerStatistics(Uninitialized, 0, 0))
+      }.toMap
+      layer
+    }
+
+    override lazy val topology: Topology = new Topology(layers, Array())
+
+    override def assignBreakpoint(breakpoint: GlobalBreakpoint[_]): Array[ActorVirtualIdentity] =
+      Array()
+
+    def buildWorkers: Array[ActorVirtualIdentity] = layers(0).identifiers
+
+    def probeWorkers: Array[ActorVirtualIdentity] = layers(1).identifiers
+  }
+
+  // the state of the operator computed from the states of all workers, as before they were
+  // counted
+  def expectedState(states: Iterable[WorkerState]): OperatorState = {
+    val unCompleted = states.filter(_ != Completed)
+    if (unCompleted.isEmpty) OperatorState.Completed
+    else if (states.exists(_ == Running)) OperatorState.Running
+    else if (unCompleted.forall(_ == Uninitialized)) OperatorState.Uninitialized
+    else if (unCompleted.forall(_ == Paused)) OperatorState.Paused
+    else if (unCompleted.forall(_ == Ready)) OperatorState.Ready
+    else OperatorState.Unknown
+  }
+
+  "OpExecConfig" should "find the layer of each worker" in {
+    val opExecConfig = new TwoLayerOpExecConfig()
+    opExecConfig.buildWorkers.foreach(worker =>
+      assert(opExecConfig.getLayerFromWorkerID(worker) == opExecConfig.layers(0))
+    )
+    opExecConfig.probeWorkers.foreach(worker =>
+      assert(opExecConfig.getLayerFromWorkerID(worker) == opExecConfig.layers(1))
+    )
+    assert(opExecConfig.getAllWorkers.size == 4)
+  }
+
+  it should "keep the operator state consistent with the worker states across transitions" in {
+    val opExecConfig = new TwoLayerOpExecConfig()
+    val workers = opExecConfig.buildWorkers ++ opExecConfig.probeWorkers
+    assert(opExecConfig.getState == OperatorState.Uninitialized)
+    val transitions = List(
+      (workers(0), Ready),
+      (workers(1), Ready),
+      (workers(2), Ready),
+      (workers(3), Ready),
+      (workers(0), Running),
+      (workers(0), Running),
+      (workers(1), Running),
+      (workers(0), Paused),
+      (workers(1), Paused),
+      (workers(2), Paused),
+      (workers(3), Paused),
+      (workers(2), Running),
+      (workers(0), Completed),
+      (workers(1), Completed),
+      (workers(2), Completed),
+      (workers(3), Running),
+      (workers(3), Completed)
+    )
+    for ((worker, state) <- transitions) {
+      opExecConfig.setWorkerState(worker, state)
+      assert(opExecConfig.getWorker(worker).state == state)
+      assert(opExecConfig.getState == expectedState(opExecConfig.getAllWorkerStates))
+    }
+    assert(opExecConfig.getState == OperatorState.Completed)
+
+    opExecConfig.setAllWorkerState(Paused)
+    assert(opExecConfig.getAllWorkerStates.forall(_ == Paused))
+    assert(opExecConfig.getState == OperatorState.Paused)
+  }
+
+  it should "count the input rows of the first layer and the output rows of the last one" in {
+    val opExecConfig = new TwoLayerOpExecConfig()
+    val Array(build0, build1) = opExecConfig.buildWorkers
+    val Array(probe0, probe1) = opExecConfig.probeWorkers
+    opExecConfig.setWorkerStatistics(build0, WorkerStatistics(Running, 10, 0))
+    opExecConfig.setWorkerStatistics(build1, WorkerStatistics(Running, 5, 0))
+    opExecConfig.setWorkerStatistics(probe0, WorkerStatistics(Running, 7, 3))
+    assert(opExecConfig.getInputRowCount == 15)
+    assert(opExecConfig.getOutputRowCount == 3)
+    // later reports replace the earlier ones of the same worker
+    opExecConfig.setWorkerStatistics(build0, WorkerStatistics(Running, 20, 0))
+    opExecConfig.setWorkerStatistics(probe0, WorkerStatistics(Running, 9, 4))
+    opExecConfig.setWorkerStatistics(probe1, WorkerStatistics(Running, 1, 2))
+    assert(opExecConfig.getInputRowCount == 25)
+    assert(opExecConfig.getOutputRowCount == 6)
+    assert(
+      opExecConfig.getInputRowCount == opExecConfig.layers(0).statistics.map(_.inputRowCount).sum
+    )
+    assert(
+      opExecConfig.getOutputRowCount == opExecConfig.layers(1).statistics.map(_.outputRowCount).sum
+    )
+  }
+
+  it should "recompute the cached statistics after a worker update" in {
+    val opExecConfig = new TwoLayerOpExecConfig()
+    val worker = opExecConfig.buildWorkers(0)
+    val initial = opExecConfig.getOperatorStatistics
+    assert(initial == OperatorStatistics(OperatorState.Uninitialized, 0, 0))
+    assert(opExecConfig.getOperatorStatistics eq initial)
+
+    opExecConfig.setWorkerState(worker, Running)
+    assert(opExecConfig.getOperatorStatistics == OperatorStatistics(OperatorState.Running, 0, 0))
+
+    opExecConfig.setWorkerStatistics(worker, WorkerStatistics(Running, 8, 0))
+    assert(opExecConfig.getOperatorStatistics == OperatorStatistics(OperatorState.Running, 8, 0))
+  }
+
+}
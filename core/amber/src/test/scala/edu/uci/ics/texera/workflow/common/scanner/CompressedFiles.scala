@@ -0,0 +1,68 @@
+package edu.uci.ics.texera.workflow.common.scanner
+
+import com.github.luben.zstd.Zstd
+
+import java.io.{File, FileOutputStream}
+import java.nio.{ByteBuffer, ByteOrder}
+import java.util.zip.{CRC32, Deflater}
+
+/**
+  * Writes the block compressed formats that Compression splits among workers.
+  */
+object CompressedFiles {
+
+  /**
+    * Writes the bytes as BGZF, gzip members of at most blockSize input bytes each, with the
+    * size of the member in the BC extra subfield.
+    */
+  def writeBgzf(input: Array[Byte], file: File, blockSize: Int): Unit = {
+    val output = new FileOutputStream(file)
+    for (start <- input.indices by blockSize) {
+      val length = math.min(blockSize, input.length - start)
+      val deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true)
+      deflater.setInput(input, start, length)
+      deflater.finish()
+      val compressed = new Array[Byte](length * 2 + 64)
+      val compressedLength = deflater.deflate(compressed)
+      deflater.end()
+      val crc = new CRC32()
+      crc.update(input, start, length)
+
+      val header = ByteBuffer.allocate(18).order(ByteOrder.LITTLE_ENDIAN)
+      header.put(0x1f.toByte).put(0x8b.toByte).put(8.toByte).put(4.toByte).putInt(0)
+      header.put(0.toByte).put(0xff.toByte).putShort(6.toShort)
+      header.put('B'.toByte).put('C'.toByte).putShort(2.toShort)
+      header.putShort((header.capacity + compressedLength + 8 - 1).toShort)
+      val trailer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN)
+      trailer.putInt(crc.getValue.toInt).putInt(length)
+
+      output.write(header.array())
+      output.write(compressed, 0, compressedLength)
+      output.write(trailer.array())
+    }
+    output.close()
+  }
+
+  /**
+    * Writes the bytes as seekable zstd, zstd frames of at most frameSize input bytes each,
+    * followed by the seek table in a skippable frame.
+    */
+  def writeSeekableZstd(input: Array[Byte], file: File, frameSize: Int): Unit = {
+    val output = new FileOutputStream(file)
+    val frames = (input.indices by frameSize).map(start => {
+      val frame = Zstd.compress(input.slice(start, math.min(start + frameSize, input.length)))
+      output.write(frame)
+      (frame.length, math.min(frameSize, input.length - start))
+    })
+
+    val tableSize = frames.size * 8 + 9
+    val table = ByteBuffer.allocate(8 + tableSize).order(ByteOrder.LITTLE_ENDIAN)
+    table.putInt(0x184d2a5e).putInt(tableSize)
+    frames.foreach { case (compressedSize, size) => table.putInt(compressedSize).putInt(size) }
+    // no checksums
+    table.putInt(frames.size).put(0.toByte).putInt(0x8f92eab1)
+    output.write(table.array())
+    output.close()
+  }
+
+}
@@ -0,0 +1,113 @@
+package edu.uci.ics.texera.workflow.common.scanner
+
+import edu.uci.ics.texera.workflow.common.tuple.schema.AttributeType
+import org.scalatest.flatspec.AnyFlatSpec
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.{Files, Path}
+import scala.collection.mutable.ArrayBuffer
+
+class MappedBlockReaderSpec extends AnyFlatSpec {
+
+  val types: Array[AttributeType] =
+    Array(AttributeType.INTEGER, AttributeType.STRING, AttributeType.DOUBLE)
+
+  def writeFile(content: String): Path = {
+    val path = Files.createTempFile("mapped-block-reader", ".csv")
+    path.toFile.deleteOnExit()
+    Files.write(path, content.getBytes(StandardCharsets.UTF_8))
+    path
+  }
+
+  def readAll(
+      path: Path,
+      startOffset: Long,
+      endOffset: Long,
+      windowSize: Int = MappedBlockReader.DEFAULT_WINDOW_SIZE
+  ): List[List[Any]] = {
+    val reader =
+      new MappedBlockReader(path.toString, startOffset, endOffset, ',', types, null, windowSize)
+    val records = ArrayBuffer[List[Any]]()
+    while (reader.hasNext) {
+      val record = reader.readRecord()
+      if (record != null) records += record.toList
+    }
+    reader.close()
+    records.toList
+  }
+
+  it should "parse numeric fields from bytes and pad missing fields" in {
+    val path = writeFile("1,a,1.5\r\n-20,b\n\n300,,-0.25\n")
+    assert(
+      readAll(path, 0, Files.size(path)) == List(
+        List(1, "a", 1.5),
+        List(-20, "b", null),
+        List(300, null, -0.25)
+      )
+    )
+  }
+
+  it should "keep delimiters, line breaks and escaped quotes inside quoted fields" in {
+    val path = writeFile("1,\"a,b\",2\n2,\"multi\nline \"\"quoted\"\"\",3\n3,\"\",4")
+    assert(
+      readAll(path, 0, Files.size(path)) == List(
+        List(1, "a,b", 2.0),
+        List(2, "multi\nline \"quoted\"", 3.0),
+        List(3, "", 4.0)
+      )
+    )
+  }
+
+  it should "end lines at a lone carriage return" in {
+    val path = writeFile("1,a,1.5\r2,b,2.5\r\n3,c\r\r4,\"d\re\",4.5\r")
+    assert(
+      readAll(path, 0, Files.size(path)) == List(
+        List(1, "a", 1.5),
+        List(2, "b", 2.5),
+        List(3, "c", null),
+        List(4, "d\re", 4.5)
+      )
+    )
+  }
+
+  it should "read records that cross or exceed the mapped window" in {
+    val content = "1,short,1.0\r\n" +
+      "2,\"a quoted field\nover several\nlines, longer than the window\",2.0\r\n" +
+      "3," + "x" * 100 + ",3.0\r" +
+      "4,\"\"\"escaped\"\" quotes\",4.0\n"
+    val path = writeFile(content)
+    val expected = readAll(path, 0, Files.size(path))
+    assert(
+      expected == List(
+        List(1, "short", 1.0),
+        List(2, "a quoted field\nover several\nlines, longer than the window", 2.0),
+        List(3, "x" * 100, 3.0),
+        List(4, "\"escaped\" quotes", 4.0)
+      )
+    )
+    // every split of the content between two windows, including inside a "\r\n"
+    for (windowSize <- 8 to 40) {
+      assert(readAll(path, 0, Files.size(path), windowSize) == expected, s"window $windowSize")
+    }
+  }
+
+  it should "read every record exactly once across byte-range partitions" in {
+    val lineBreaks = List("\n", "\r\n", "\r")
+    val content = (0 until 1000).map(i => s"$i,name$i,${i / 4.0}" + lineBreaks(i % 3)).mkString
+    val path = writeFile(content)
+    val totalBytes = Files.size(path)
+    val all = readAll(path, 0, totalBytes)
+    assert(all.size == 1000)
+
+    for (numWorkers <- List(2, 3, 7, 16); windowSize <- List(16, 1000, 1 << 20)) {
+      val partitioned = (0 until numWorkers).flatMap(i => {
+        val startOffset = totalBytes / numWorkers * i
+        val endOffset =
+          if (i != numWorkers - 1) totalBytes / numWorkers * (i + 1) else totalBytes
+        readAll(path, startOffset, endOffset, windowSize)
+      })
+      assert(partitioned.toList == all)
+    }
+  }
+
+}
@@ -0,0 +1,90 @@
+package edu.uci.ics.texera.workflow.common.scanner
+
+import org.scalatest.flatspec.AnyFlatSpec
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream, IOException, InputStream}
+import java.util.concurrent.{CountDownLatch, TimeUnit}
+
+class PipelinedInputStreamSpec extends AnyFlatSpec {
+
+  val bytes: Array[Byte] = Array.tabulate[Byte](10000)(i => (i * 31).toByte)
+
+  def readAll(input: InputStream, bufferSize: Int): Array[Byte] = {
+    val output = new ByteArrayOutputStream()
+    val buffer = new Array[Byte](bufferSize)
+    var read = input.read(buffer)
+    while (read != -1) {
+      output.write(buffer, 0, read)
+      read = input.read(buffer)
+    }
+    output.toByteArray
+  }
+
+  /**
+    * Returns the bytes one at a time, then throws the exception.
+    */
+  def failingStream(failure: Throwable): InputStream =
+    new InputStream {
+      var position = 0
+
+      override def read(): Int = {
+        if (position == bytes.length) throw failure
+        position += 1
+        bytes(position - 1) & 0xff
+      }
+
+      override def read(b: Array[Byte], off: Int, len: Int): Int = {
+        b(off) = read().toByte
+        1
+      }
+    }
+
+  def readUntilFailure(input: InputStream): (Int, Throwable) = {
+    var count = 0
+    try {
+      while (input.read() != -1) count += 1
+      (count, null)
+    } catch {
+      case e: Throwable => (count, e)
+    }
+  }
+
+  "PipelinedInputStream" should "read all the bytes of the input in order" in {
+    for (chunkSize <- List(1, 7, 4096, 1 << 20); bufferSize <- List(1, 13, 1 << 16)) {
+      val input = new PipelinedInputStream(new ByteArrayInputStream(bytes), chunkSize, 2)
+      assert(readAll(input, bufferSize) sameElements bytes)
+      assert(input.read() == -1)
+      input.close()
+    }
+  }
+
+  it should "throw an IOException of the input after the bytes read before it" in {
+    val failure = new IOException("truncated")
+    val input = new PipelinedInputStream(failingStream(failure), 64, 2)
+    assert(readUntilFailure(input) == (bytes.length, failure))
+    // and on every read after it
+    assert(readUntilFailure(input) == (0, failure))
+  }
+
+  it should "throw a RuntimeException of the input after the bytes read before it" in {
+    val failure = new IllegalStateException("corrupt block")
+    val input = new PipelinedInputStream(failingStream(failure), 64, 2)
+    assert(readUntilFailure(input) == (bytes.length, failure))
+  }
+
+  it should "close the input when the reader closes it before the end" in {
+    val closed = new CountDownLatch(1)
+    val input = new PipelinedInputStream(
+      new ByteArrayInputStream(bytes) {
+        override def close(): Unit = closed.countDown()
+      },
+      16,
+      1
+    )
+    assert(input.read() == (bytes(0) & 0xff))
+    // the reading thread is blocked on the full queue
+    input.close()
+    assert(closed.await(10, TimeUnit.SECONDS))
+  }
+
+}
@@ -0,0 +1,58 @@
+package edu.uci.ics.texera.workflow.common.workflow
+
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.{Attribute, AttributeType, Schema}
+import org.scalatest.flatspec.AnyFlatSpec
+
+class BreakpointPredicateSpec extends AnyFlatSpec {
+  val stringAttribute = new Attribute("col-string", AttributeType.STRING)
+  val integerAttribute = new Attribute("col-int", AttributeType.INTEGER)
+  val schema: Schema = Schema.newBuilder().add(stringAttribute).add(integerAttribute).build()
+
+  def tuple(str: String, int: Integer): Tuple =
+    Tuple.newBuilder(schema).add(stringAttribute, str).add(integerAttribute, int).build()
+
+  it should "compare numeric columns numerically" in {
+    val predicate = BreakpointPredicate.compile(
+      ConditionBreakpoint("col-int", BreakpointCondition.GT, "9"),
+      Option(schema)
+    )
+    assert(predicate(tuple("a", 10)))
+    assert(!predicate(tuple("a", 9)))
+  }
+
+  it should "compare string columns as trimmed strings" in {
+    val predicate = BreakpointPredicate.compile(
+      ConditionBreakpoint("col-string", BreakpointCondition.EQ, "abc"),
+      Option(schema)
+    )
+    assert(predicate(tuple(" abc ", 1)))
+    assert(!predicate(tuple("abd", 1)))
+  }
+
+  it should "support contains on numeric columns" in {
+    val predicate = BreakpointPredicate.compile(
+      ConditionBreakpoint("col-int", BreakpointCondition.CONTAINS, "2"),
+      Option(schema)
+    )
+    assert(predicate(tuple("a", 123)))
+    assert(!predicate(tuple("a", 13)))
+  }
+
+  it should "not trigger on null fields" in {
+    val predicate = BreakpointPredicate.compile(
+      ConditionBreakpoint("col-int", BreakpointCondition.NE, "1"),
+      Option(schema)
+    )
+    assert(!predicate(tuple("a", null)))
+  }
+
+  it should "resolve the column by name when the schema is unknown" in {
+    val predicate = BreakpointPredicate.compile(
+      ConditionBreakpoint("col-string", BreakpointCondition.EQ, "abc"),
+      Option.empty
+    )
+    assert(predicate(tuple("abc", 1)))
+  }
+
+}
@@ -0,0 +1,300 @@
+package edu.uci.ics.texera.workflow.common.workflow
+
+import edu.uci.ics.texera.workflow.common.WorkflowContext
+import edu.uci.ics.texera.workflow.common.operators.OperatorDescriptor
+import edu.uci.ics.texera.workflow.operators.cache.{
+  CacheWriterOpExecConfig,
+  CachedResultSourceOpDesc
+}
+import edu.uci.ics.texera.workflow.operators.filter.{
+  ComparisonType,
+  FilterPredicate,
+  SpecializedFilterOpDesc
+}
+import edu.uci.ics.texera.workflow.operators.projection.ProjectionOpDesc
+import edu.uci.ics.texera.workflow.operators.pythonUDF.PythonUDFOpDesc
+import edu.uci.ics.texera.workflow.operators.sink.SimpleSinkOpDesc
+import edu.uci.ics.texera.workflow.operators.source.scan.csv.CSVScanSourceOpDesc
+import edu.uci.ics.texera.workflow.operators.source.sql.mysql.MySQLSourceOpDesc
+import org.jooq.types.UInteger
+import org.scalatest.BeforeAndAfter
+import org.scalatest.flatspec.AnyFlatSpec
+
+import java.io.File
+import java.nio.file.{Files, Path, Paths}
+import java.util.Comparator
+import scala.collection.JavaConverters._
+import scala.collection.mutable
+
+class ResultCacheSpec extends AnyFlatSpec with BeforeAndAfter {
+
+  val context = new WorkflowContext()
+  context.jobID = "result-cache-test"
+
+  var directory: Path = _
+  // a copy of a CSV file, whose version can be changed
+  var csv: File = _
+
+  before {
+    directory = Files.createTempDirectory("result-cache")
+    ResultCache.cacheDirectory = directory.resolve("cache")
+    csv = directory.resolve("country_sales_small.csv").toFile
+    Files.copy(Paths.get("src/test/resources/country_sales_small.csv"), csv.toPath)
+  }
+
+  after {
+    ResultCache.cacheDirectory = null
+    Files
+      .walk(directory)
+      .sorted(Comparator.reverseOrder[Path]())
+      .forEach(path => Files.delete(path))
+  }
+
+  def workflow(
+      operators: List[OperatorDescriptor],
+      links: List[(OperatorDescriptor, OperatorDescriptor)]
+  ): WorkflowInfo = {
+    operators.foreach(operator => operator.setContext(context))
+    WorkflowInfo(
+      mutable.MutableList(operators: _*),
+      mutable.MutableList(links.map {
+        case (origin, destination) =>
+          OperatorLink(OperatorPort(origin.operatorID, 0), OperatorPort(destination.operatorID, 0))
+      }: _*),
+      mutable.MutableList[BreakpointInfo]()
+    )
+  }
+
+  def csvScan(): CSVScanSourceOpDesc = {
+    val scan = new CSVScanSourceOpDesc()
+    scan.fileName = Some(csv.getPath)
+    scan
+  }
+
+  def filter(value: String): SpecializedFilterOpDesc = {
+    val predicate = new FilterPredicate()
+    predicate.attribute = "Unit Price"
+    predicate.condition = ComparisonType.GREATER_THAN
+    predicate.value = value
+    val filter = new SpecializedFilterOpDesc()
+    filter.predicates = List(predicate).asJava
+    filter
+  }
+
+  def projection(attributes: String*): ProjectionOpDesc = {
+    val projection = new ProjectionOpDesc()
+    projection.attributes = attributes.toList
+    projection
+  }
+
+  def links(info: WorkflowInfo): Set[(String, String)] =
+    info.links.map(link => (link.origin.operatorID, link.destination.operatorID)).toSet
+
+  /**
+    * Writes an entry of the given size into the directory of a user, last used minutes ago.
+    */
+  def entry(user: String, name: String, size: Int, minutesAgo: Long): File = {
+    val file = ResultCache.cacheDirectory.resolve(user).resolve(name).toFile
+    Files.createDirectories(file.toPath.getParent)
+    Files.write(file.toPath, new Array[Byte](size))
+    file.setLastModified(System.currentTimeMillis() - minutesAgo * 60 * 1000)
+    file
+  }
+
+  def withLimits(maxAgeMinutes: Long, userQuota: Long, maxSize: Long)(test: => Unit): Unit = {
+    val limits = (ResultCache.maxAge, ResultCache.userQuota, ResultCache.maxSize)
+    ResultCache.maxAge = maxAgeMinutes * 60 * 1000
+    ResultCache.userQuota = userQuota
+    ResultCache.maxSize = maxSize
+    try test
+    finally {
+      ResultCache.maxAge = limits._1
+      ResultCache.userQuota = limits._2
+      ResultCache.maxSize = limits._3
+    }
+  }
+
+  def withCacheEnabled(test: => Unit): Unit = {
+    val enabled = ResultCache.enabled
+    ResultCache.enabled = true
+    try test
+    finally ResultCache.enabled = enabled
+  }
+
+  "ResultCache" should "give the same keys to the operators of an edited copy of a workflow" in {
+    val (scan, price, sink) = (csvScan(), filter("10"), new SimpleSinkOpDesc())
+    val keys =
+      ResultCache.keys(workflow(List(scan, price, sink), List(scan -> price, price -> sink)))
+    assert(keys.keySet == Set(scan.operatorID, price.operatorID, sink.operatorID))
+
+    // new operator IDs, and another filter value
+    val (copy, other, copySink) = (csvScan(), filter("20"), new SimpleSinkOpDesc())
+    val copyKeys = ResultCache.keys(
+      workflow(List(copy, other, copySink), List(copy -> other, other -> copySink))
+    )
+    assert(copyKeys(copy.operatorID) == keys(scan.operatorID))
+    assert(copyKeys(other.operatorID) != keys(price.operatorID))
+    assert(copyKeys(copySink.operatorID) != keys(sink.operatorID))
+  }
+
+  it should "change the keys downstream of a file when the file is modified" in {
+    val (scan, price) = (csvScan(), filter("10"))
+    val info = workflow(List(scan, price), List(scan -> price))
+    val keys = ResultCache.keys(info)
+    csv.setLastModified(csv.lastModified() - 60 * 1000)
+    val modifiedKeys = ResultCache.keys(info)
+    assert(modifiedKeys(scan.operatorID) != keys(scan.operatorID))
+    assert(modifiedKeys(price.operatorID) != keys(price.operatorID))
+  }
+
+  it should "give no key to nondeterministic operators, nor to the operators after them" in {
+    val (scan, udf, price) = (csvScan(), new PythonUDFOpDesc(), filter("10"))
+    val keys = ResultCache.keys(workflow(List(scan, udf, price), List(scan -> udf, udf -> price)))
+    assert(keys.keySet == Set(scan.operatorID))
+  }
+
+  it should "give no key to the operators after a source that is not a file scan" in {
+    val (mysql, price) = (new MySQLSourceOpDesc(), filter("10"))
+    assert(ResultCache.keys(workflow(List(mysql, price), List(mysql -> price))).isEmpty)
+  }
+
+  it should "replace a cached operator by its result and drop the operators before it" in {
+    withCacheEnabled {
+      val (scan, price, project, sink) =
+        (csvScan(), filter("10"), projection("Country"), new SimpleSinkOpDesc())
+      val info = workflow(
+        List(scan, price, project, sink),
+        List(scan -> price, price -> project, project -> sink)
+      )
+      val key = ResultCache.keys(info)(price.operatorID)
+      entry("anonymous", key + ".arrow", 100, 60)
+
+      val reused = ResultCache.reuseCachedResults(info, context)
+      assert(
+        reused.operators.map(_.operatorID).toSet == Set(price, project, sink).map(_.operatorID)
+      )
+      val source = reused.operators.head.asInstanceOf[CachedResultSourceOpDesc]
+      assert(source.operatorID == price.operatorID)
+      assert(source.key == key)
+      assert(source.path == ResultCache.path(context, key))
+      assert(
+        links(reused) == Set(
+          (price.operatorID, project.operatorID),
+          (project.operatorID, sink.operatorID)
+        )
+      )
+      // the entry is marked as used
+      assert(System.currentTimeMillis() - source.path.toFile.lastModified() < 60 * 1000)
+    }
+  }
+
+  it should "keep the operators another sink needs when a branch is cached" in {
+    withCacheEnabled {
+      val (scan, price, project, sink1, sink2) = (
+        csvScan(),
+        filter("10"),
+        projection("Country"),
+        new SimpleSinkOpDesc(),
+        new SimpleSinkOpDesc()
+      )
+      val info = workflow(
+        List(scan, price, sink1, project, sink2),
+        List(scan -> price, price -> sink1, scan -> project, project -> sink2)
+      )
+      entry("anonymous", ResultCache.keys(info)(price.operatorID) + ".arrow", 100, 0)
+
+      val reused = ResultCache.reuseCachedResults(info, context)
+      assert(reused.operators.size == 5)
+      assert(reused.operators.count(_.isInstanceOf[CachedResultSourceOpDesc]) == 1)
+      assert(
+        links(reused) == Set(
+          (price.operatorID, sink1.operatorID),
+          (scan.operatorID, project.operatorID),
+          (project.operatorID, sink2.operatorID)
+        )
+      )
+    }
+  }
+
+  it should "not replace the sinks, nor change a workflow without cached results" in {
+    withCacheEnabled {
+      val (scan, price, sink) = (csvScan(), filter("10"), new SimpleSinkOpDesc())
+      val info = workflow(List(scan, price, sink), List(scan -> price, price -> sink))
+      entry("anonymous", ResultCache.keys(info)(sink.operatorID) + ".arrow", 100, 0)
+
+      val reused = ResultCache.reuseCachedResults(info, context)
+      assert(reused.operators.toList == List(scan, price, sink))
+      assert(links(reused) == links(info))
+    }
+  }
+
+  it should "not cache the output a projection pushed into the scan narrowed" in {
+    withCacheEnabled {
+      // compiles a filter followed by a projection, and writes the entries its writers would
+      def run(attributes: String*): WorkflowInfo = {
+        val (scan, price, project, sink) =
+          (csvScan(), filter("10"), projection(attributes: _*), new SimpleSinkOpDesc())
+        val info = workflow(
+          List(scan, price, project, sink),
+          List(scan -> price, price -> project, project -> sink)
+        )
+        val reused = ResultCache.reuseCachedResults(info, context)
+        val writers = new WorkflowCompiler(reused, context).amberWorkflow.getAllOperators
+          .collect { case writer: CacheWriterOpExecConfig => writer }
+        // the filter only outputs the attributes of the projection and its own
+        assert(
+          writers.map(_.id.operator).toSet == Set(project.operatorID + ResultCache.WRITER_SUFFIX)
+        )
+        writers.foreach(writer => entry("anonymous", writer.path.toFile.getName, 100, 0))
+        reused
+      }
+
+      run("Country")
+      // the same scan and filter, with another projection
+      val reused = run("Country", "Region")
+      assert(!reused.operators.exists(_.isInstanceOf[CachedResultSourceOpDesc]))
+    }
+  }
+
+  it should "evict the entries unused for longer than the maximum age" in {
+    withLimits(maxAgeMinutes = 60, userQuota = 1000, maxSize = 1000) {
+      val old = entry("1", "old.arrow", 100, 120)
+      val abandoned = entry("1", "partial.arrow.tmp", 100, 120)
+      val writing = entry("1", "writing.arrow.tmp", 100, 0)
+      val recent = entry("2", "recent.arrow", 100, 30)
+      ResultCache.evict()
+      assert(!old.exists() && !abandoned.exists())
+      assert(writing.exists() && recent.exists())
+    }
+  }
+
+  it should "evict the least recently used entries of a user above the quota" in {
+    withLimits(maxAgeMinutes = 60, userQuota = 250, maxSize = 1000) {
+      val oldest = entry("1", "oldest.arrow", 100, 40)
+      val older = entry("1", "older.arrow", 100, 30)
+      val old = entry("1", "old.arrow", 100, 20)
+      val recent = entry("1", "recent.arrow", 100, 10)
+      val other = (1 to 2).map(i => entry("2", s"other-$i.arrow", 100, 50))
+
+      // looking an entry up makes it the most recently used
+      val userContext = new WorkflowContext()
+      userContext.userID = Option(UInteger.valueOf(1))
+      assert(ResultCache.lookup(userContext, "oldest").contains(oldest.toPath))
+      ResultCache.evict()
+      assert(oldest.exists() && recent.exists())
+      assert(!older.exists() && !old.exists())
+      assert(other.forall(_.exists()))
+    }
+  }
+
+  it should "evict the least recently used entries of all users above the maximum size" in {
+    withLimits(maxAgeMinutes = 60, userQuota = 1000, maxSize = 250) {
+      val user1 = List(entry("1", "a.arrow", 100, 50), entry("1", "b.arrow", 100, 10))
+      val user2 = List(entry("2", "c.arrow", 100, 30), entry("2", "d.arrow", 100, 20))
+      ResultCache.evict()
+      assert(user1.map(_.exists()) == List(false, true))
+      assert(user2.map(_.exists()) == List(false, true))
+    }
+  }
+
+}
@@ -0,0 +1,277 @@
+package edu.uci.ics.texera.workflow.common.workflow
+
+import edu.uci.ics.texera.workflow.common.WorkflowContext
+import edu.uci.ics.texera.workflow.common.operators.OperatorDescriptor
+import edu.uci.ics.texera.workflow.operators.filter.{
+  ComparisonType,
+  FilterPredicate,
+  SpecializedFilterOpDesc
+}
+import edu.uci.ics.texera.workflow.operators.hashJoin.{HashJoinOpDesc, JoinType}
+import edu.uci.ics.texera.workflow.operators.keywordSearch.KeywordSearchOpDesc
+import edu.uci.ics.texera.workflow.operators.projection.ProjectionOpDesc
+import edu.uci.ics.texera.workflow.operators.sink.SimpleSinkOpDesc
+import edu.uci.ics.texera.workflow.operators.source.scan.FileIndex
+import edu.uci.ics.texera.workflow.operators.source.scan.csv.CSVScanSourceOpDesc
+import edu.uci.ics.texera.workflow.operators.source.scan.json.JSONLScanSourceOpDesc
+import edu.uci.ics.texera.workflow.operators.source.sql.mysql.MySQLSourceOpDesc
+import org.scalatest.flatspec.AnyFlatSpec
+
+import java.io.File
+import java.nio.file.{Files, Paths}
+import java.util.zip.GZIPOutputStream
+import scala.collection.JavaConverters._
+import scala.collection.mutable
+
+class WorkflowCompilerSpec extends AnyFlatSpec {
+
+  def compiler(
+      operators: List[OperatorDescriptor],
+      links: List[(OperatorDescriptor, OperatorDescriptor)]
+  ): WorkflowCompiler = {
+    val context = new WorkflowContext
+    context.jobID = "workflow-compiler-test"
+    new WorkflowCompiler(
+      WorkflowInfo(
+        mutable.MutableList(operators: _*),
+        mutable.MutableList(links.zipWithIndex.map {
+          case ((origin, destination), i) =>
+            // the links into an operator are its input ports in order
+            val port = links.take(i).count(link => link._2.operatorID == destination.operatorID)
+            OperatorLink(
+              OperatorPort(origin.operatorID, 0),
+              OperatorPort(destination.operatorID, port)
+            )
+        }: _*),
+        mutable.MutableList[BreakpointInfo]()
+      ),
+      context
+    )
+  }
+
+  def csvScan(): CSVScanSourceOpDesc = {
+    val scan = new CSVScanSourceOpDesc()
+    scan.fileName = Some("src/test/resources/country_sales_small.csv")
+    scan
+  }
+
+  def filter(attribute: String, value: String): SpecializedFilterOpDesc = {
+    val predicate = new FilterPredicate()
+    predicate.attribute = attribute
+    predicate.condition = ComparisonType.GREATER_THAN
+    predicate.value = value
+    val filter = new SpecializedFilterOpDesc()
+    filter.predicates = List(predicate).asJava
+    filter
+  }
+
+  def projection(attributes: String*): ProjectionOpDesc = {
+    val projection = new ProjectionOpDesc()
+    projection.attributes = attributes.toList
+    projection
+  }
+
+  val csvSize: Long = new File("src/test/resources/country_sales_small.csv").length()
+
+  def hashJoin(joinType: JoinType = JoinType.INNER): HashJoinOpDesc[String] = {
+    val join = new HashJoinOpDesc[String]()
+    join.buildAttributeName = "Country"
+    join.probeAttributeName = "Country"
+    join.joinType = joinType
+    join
+  }
+
+  /**
+    * Chooses the strategy of a join of the last of the build operators with a scan.
+    * @return whether the join broadcasts its build input under the threshold
+    */
+  def broadcasts(
+      build: List[OperatorDescriptor],
+      join: HashJoinOpDesc[String],
+      threshold: Long
+  ): Boolean = {
+    val (probe, sink) = (csvScan(), new SimpleSinkOpDesc())
+    val chain = build :+ join
+    val defaultThreshold = HashJoinOpDesc.broadcastThreshold
+    HashJoinOpDesc.broadcastThreshold = threshold
+    try {
+      compiler(
+        probe :: sink :: chain,
+        chain.zip(chain.tail) ++ List(probe -> join, join -> sink)
+      ).chooseJoinStrategies()
+      join.broadcast
+    } finally {
+      HashJoinOpDesc.broadcastThreshold = defaultThreshold
+    }
+  }
+
+  def pushedFilters(predicates: List[List[FilterPredicate]]): List[List[String]] =
+    predicates.map(_.map(p => p.attribute + p.condition.getName + p.value))
+
+  "WorkflowCompiler" should "push the filters and the projection after a source into it" in {
+    val (scan, price, units, project, sink) = (
+      csvScan(),
+      filter("Unit Price", "10"),
+      filter("Units Sold", "100"),
+      projection("Country", "Unit Price"),
+      new SimpleSinkOpDesc()
+    )
+    compiler(
+      List(scan, price, units, project, sink),
+      List(scan -> price, price -> units, units -> project, project -> sink)
+    ).pushDownIntoSources()
+
+    assert(pushedFilters(scan.predicates) == List(List("Unit Price>10"), List("Units Sold>100")))
+    // the filters before the projection read their attributes from the source as well
+    assert(scan.projection.contains(List("Country", "Unit Price", "Units Sold")))
+  }
+
+  it should "push the filters down without a projection if none follows them" in {
+    val (scan, price, sink) = (csvScan(), filter("Unit Price", "10"), new SimpleSinkOpDesc())
+    compiler(List(scan, price, sink), List(scan -> price, price -> sink)).pushDownIntoSources()
+
+    assert(pushedFilters(scan.predicates) == List(List("Unit Price>10")))
+    assert(scan.projection.isEmpty)
+  }
+
+  it should "stop at the first operator that is neither a filter nor a projection" in {
+    val keywordSearch = new KeywordSearchOpDesc()
+    keywordSearch.attribute = "Country"
+    keywordSearch.keyword = "Chad"
+    val (scan, price, project, sink) =
+      (csvScan(), filter("Unit Price", "10"), projection("Country"), new SimpleSinkOpDesc())
+    compiler(
+      List(scan, keywordSearch, price, project, sink),
+      List(scan -> keywordSearch, keywordSearch -> price, price -> project, project -> sink)
+    ).pushDownIntoSources()
+
+    assert(scan.predicates.isEmpty)
+    assert(scan.projection.isEmpty)
+  }
+
+  it should "not push down past an operator with more than one downstream operator" in {
+    val (scan, price, project, sink1, sink2) = (
+      csvScan(),
+      filter("Unit Price", "10"),
+      projection("Country"),
+      new SimpleSinkOpDesc(),
+      new SimpleSinkOpDesc()
+    )
+    compiler(
+      List(scan, price, project, sink1, sink2),
+      List(scan -> price, price -> project, price -> sink2, project -> sink1)
+    ).pushDownIntoSources()
+
+    // the projection only applies to one of the two outputs of the filter
+    assert(pushedFilters(scan.predicates) == List(List("Unit Price>10")))
+    assert(scan.projection.isEmpty)
+
+    val (branchingScan, other) = (csvScan(), filter("Units Sold", "100"))
+    compiler(
+      List(branchingScan, price, other, sink1, sink2),
+      List(branchingScan -> price, branchingScan -> other, price -> sink1, other -> sink2)
+    ).pushDownIntoSources()
+
+    assert(branchingScan.predicates.isEmpty)
+    assert(branchingScan.projection.isEmpty)
+  }
+
+  it should "not push the filters into a source with a limit or an offset" in {
+    Seq((Some(5), None), (None, Some(5))).foreach {
+      case (limit, offset) =>
+        val (scan, price, project, sink) =
+          (csvScan(), filter("Unit Price", "10"), projection("Country"), new SimpleSinkOpDesc())
+        scan.limit = limit
+        scan.offset = offset
+        compiler(
+          List(scan, price, project, sink),
+          List(scan -> price, price -> project, project -> sink)
+        ).pushDownIntoSources()
+
+        // filtering first would change which rows the limit and offset count
+        assert(scan.predicates.isEmpty)
+        assert(scan.projection.contains(List("Country", "Unit Price")))
+    }
+  }
+
+  it should "keep the columns a SQL source queries by in its projection" in {
+    val mysql = new MySQLSourceOpDesc()
+    mysql.searchByColumn = Some("name")
+    mysql.batchByColumn = Some("created_at")
+    mysql.limit = Some(10L)
+    val (price, project, sink) =
+      (filter("price", "10"), projection("id"), new SimpleSinkOpDesc())
+    compiler(
+      List(mysql, price, project, sink),
+      List(mysql -> price, price -> project, project -> sink)
+    ).pushDownIntoSources()
+
+    assert(mysql.projection.contains(List("id", "price", "name", "created_at")))
+    assert(mysql.predicates.isEmpty)
+  }
+
+  it should "broadcast the small input of a join when it is below the threshold" in {
+    assert(broadcasts(List(csvScan()), hashJoin(), csvSize))
+    assert(!broadcasts(List(csvScan()), hashJoin(), csvSize - 1))
+  }
+
+  it should "estimate the size of a small input through the filters and projections" in {
+    def build(): List[OperatorDescriptor] =
+      List(csvScan(), filter("Unit Price", "10"), projection("Country"))
+    assert(broadcasts(build(), hashJoin(), csvSize))
+    assert(!broadcasts(build(), hashJoin(), csvSize - 1))
+  }
+
+  it should "not broadcast a small input of unknown size" in {
+    val keywordSearch = new KeywordSearchOpDesc()
+    keywordSearch.attribute = "Country"
+    keywordSearch.keyword = "Chad"
+    assert(!broadcasts(List(csvScan(), keywordSearch), hashJoin(), Long.MaxValue))
+    assert(!broadcasts(List(new MySQLSourceOpDesc()), hashJoin(), Long.MaxValue))
+
+    // the decompressed size of a compressed file is unknown
+    val directory = Files.createTempDirectory("workflow-compiler")
+    val gzip = directory.resolve("country_sales_small.csv.gz")
+    val output = new GZIPOutputStream(Files.newOutputStream(gzip))
+    Files.copy(Paths.get("src/test/resources/country_sales_small.csv"), output)
+    output.close()
+    val scan = csvScan()
+    scan.fileName = Some(gzip.toString)
+    assert(!broadcasts(List(scan), hashJoin(), Long.MaxValue))
+    Files.delete(gzip)
+    Files.delete(directory)
+  }
+
+  it should "scale the estimated size of an indexed file down to the limit of its scan" in {
+    val directory = Files.createTempDirectory("workflow-compiler")
+    val path = directory.resolve("1000.jsonl")
+    Files.copy(Paths.get("src/test/resources/1000.jsonl"), path)
+    val index = FileIndex.build(path).get.get
+    def scan(): JSONLScanSourceOpDesc = {
+      val scan = new JSONLScanSourceOpDesc()
+      scan.fileName = Some(path.toString)
+      scan.limit = Some(10)
+      scan
+    }
+    val size = path.toFile.length() / index.lineCount * 10
+    assert(broadcasts(List(scan()), hashJoin(), size))
+    assert(!broadcasts(List(scan()), hashJoin(), size - 1))
+
+    Files.delete(FileIndex.indexPath(path))
+    Files.delete(path)
+    Files.delete(directory)
+  }
+
+  it should "not broadcast the small input of a join that outputs its unmatched rows" in {
+    JoinType.values().foreach(joinType =>
+      // each worker would output the rows of the small input that it did not match
+      assert(
+        broadcasts(List(csvScan()), hashJoin(joinType), Long.MaxValue) ==
+          !joinType.outputsUnmatchedBuildRows
+      )
+    )
+    assert(!broadcasts(List(csvScan()), hashJoin(JoinType.LEFT_OUTER), Long.MaxValue))
+    assert(!broadcasts(List(csvScan()), hashJoin(JoinType.FULL_OUTER), Long.MaxValue))
+  }
+
+}
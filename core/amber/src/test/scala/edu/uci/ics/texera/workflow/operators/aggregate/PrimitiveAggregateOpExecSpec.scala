@@ -0,0 +1,144 @@
+package edu.uci.ics.texera.workflow.operators.aggregate
+
+import edu.uci.ics.amber.engine.common.InputExhausted
+import edu.uci.ics.texera.workflow.common.ProgressiveUtils
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.{AttributeType, OperatorSchemaInfo, Schema}
+import org.scalatest.flatspec.AnyFlatSpec
+
+import scala.collection.mutable
+
+class PrimitiveAggregateOpExecSpec extends AnyFlatSpec {
+  val inputSchema: Schema = Schema
+    .newBuilder()
+    .add("country", AttributeType.STRING)
+    .add("year", AttributeType.INTEGER)
+    .add("sales", AttributeType.DOUBLE)
+    .build()
+
+  def tuple(country: String, year: Integer, sales: java.lang.Double): Tuple =
+    Tuple.newBuilder(inputSchema).addSequentially(Array[Object](country, year, sales)).build()
+
+  val tuples: List[Tuple] = List(
+    tuple("US", 2020, 1.0),
+    tuple("US", 2021, 2.0),
+    tuple("FR", 2020, 3.0),
+    tuple("US", 2020, 4.0),
+    tuple(null, 2020, 5.0),
+    tuple("FR", null, null)
+  )
+
+  def aggregate(
+      function: AggregationFunction,
+      groupByKeys: List[String],
+      numWorkers: Int = 2,
+      input: Seq[Tuple] = tuples,
+      progressive: Boolean = false
+  ): Map[List[Any], Any] = {
+    val desc = new SpecializedAverageOpDesc()
+    desc.aggFunction = function
+    desc.attribute = "sales"
+    desc.resultAttribute = "result"
+    desc.groupByKeys = groupByKeys
+    desc.progressive = progressive
+    val schemaInfo =
+      OperatorSchemaInfo(Array(inputSchema), desc.getOutputSchema(Array(inputSchema)))
+
+    val partials = (0 until numWorkers).flatMap(worker => {
+      val partialExec =
+        new PartialPrimitiveAggregateOpExec(function, "sales", groupByKeys, progressive, schemaInfo)
+      partialExec.open()
+      val output = input.indices
+        .filter(i => i % numWorkers == worker)
+        .flatMap(i => partialExec.processTexeraTuple(Left(input(i)), null)) ++
+        partialExec.processTexeraTuple(Right(InputExhausted()), null)
+      partialExec.close()
+      output
+    })
+
+    val finalExec = new FinalPrimitiveAggregateOpExec(
+      function,
+      "sales",
+      groupByKeys.size,
+      progressive,
+      schemaInfo
+    )
+    finalExec.open()
+    val output = partials.flatMap(partial => finalExec.processTexeraTuple(Left(partial), null)) ++
+      finalExec.processTexeraTuple(Right(InputExhausted()), null)
+    finalExec.close()
+    output.foreach(tuple => assert(tuple.getSchema == schemaInfo.outputSchema))
+
+    // apply the insertions and retractions like a sink
+    val sinkSchemaInfo = OperatorSchemaInfo(
+      Array(schemaInfo.outputSchema),
+      Schema
+        .newBuilder()
+        .add(schemaInfo.outputSchema)
+        .removeIfExists(ProgressiveUtils.insertRetractFlagAttr.getName)
+        .build()
+    )
+    val results = mutable.ListBuffer[Tuple]()
+    output.foreach(tuple => {
+      val (isInsertion, result) = ProgressiveUtils.getTupleFlagAndValue(tuple, sinkSchemaInfo)
+      if (isInsertion) results += result else results -= result
+    })
+    results
+      .map(result => (result.getFields.toArray.toList.dropRight(1), result.get(result.length - 1)))
+      .toMap
+  }
+
+  it should "average each group of a single string key, including a null key" in {
+    val results = aggregate(AggregationFunction.AVERAGE, List("country"))
+    assert(results(List("US")) == 7.0 / 3)
+    // the values of a group can all be null
+    assert(results(List("FR")) == 3.0)
+    assert(results(List(null)) == 5.0)
+    assert(results.size == 3)
+  }
+
+  it should "count the non null values of each group of a single integer key" in {
+    val results = aggregate(AggregationFunction.COUNT, List("year"))
+    assert(results(List(2020)) == 4)
+    assert(results(List(2021)) == 1)
+    assert(results(List(null)) == 0)
+  }
+
+  it should "aggregate groups of several keys" in {
+    val results = aggregate(AggregationFunction.SUM, List("country", "year"), numWorkers = 3)
+    assert(results(List("US", 2020)) == 5.0)
+    assert(results(List("US", 2021)) == 2.0)
+    assert(results(List("FR", null)) == 0.0)
+    assert(results.size == 5)
+  }
+
+  it should "aggregate all the tuples without a group by key" in {
+    assert(aggregate(AggregationFunction.MIN, List()) == Map(List() -> 1.0))
+    assert(aggregate(AggregationFunction.MAX, List()) == Map(List() -> 5.0))
+  }
+
+  it should "output a null min for a group without values" in {
+    val results = aggregate(AggregationFunction.MIN, List("year"))
+    assert(results(List(null)) == null)
+  }
+
+  it should "keep the groups apart as the table grows" in {
+    val table = new GroupIdTable(Array(1), Array(AttributeType.INTEGER))
+    val ids = (0 until 100000).map(i => table.groupId(tuple("US", i % 50000, 0.0)))
+    assert(table.size == 50000)
+    assert(ids.take(50000) == (0 until 50000))
+    assert(ids.drop(50000) == (0 until 50000))
+  }
+
+  it should "converge to the blocking results when progressive" in {
+    // enough tuples for several updates, of values that sum up exactly in any order
+    val input = (0 until 250000).map(i =>
+      tuple(if (i % 3 == 0) "US" else "FR", i % 7, (i % 10).toDouble)
+    )
+    val groupByKeys = List("country", "year")
+    for (function <- AggregationFunction.values()) {
+      val blocking = aggregate(function, groupByKeys, input = input)
+      assert(aggregate(function, groupByKeys, input = input, progressive = true) == blocking)
+    }
+  }
+}
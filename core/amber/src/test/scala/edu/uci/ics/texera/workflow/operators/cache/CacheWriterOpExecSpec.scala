@@ -0,0 +1,91 @@
+package edu.uci.ics.texera.workflow.operators.cache
+
+import edu.uci.ics.amber.engine.common.InputExhausted
+import edu.uci.ics.texera.workflow.common.WorkflowContext
+import edu.uci.ics.texera.workflow.common.operators.OneToOneOpExecConfig
+import edu.uci.ics.texera.workflow.common.operators.source.SourceOperatorExecutor
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.{Attribute, AttributeType, Schema}
+import org.scalatest.BeforeAndAfter
+import org.scalatest.flatspec.AnyFlatSpec
+
+import java.nio.file.{Files, Path}
+import java.sql.Timestamp
+
+class CacheWriterOpExecSpec extends AnyFlatSpec with BeforeAndAfter {
+
+  val schema: Schema = Schema
+    .newBuilder()
+    .add(new Attribute("id", AttributeType.LONG))
+    .add(new Attribute("count", AttributeType.INTEGER))
+    .add(new Attribute("score", AttributeType.DOUBLE))
+    .add(new Attribute("flagged", AttributeType.BOOLEAN))
+    .add(new Attribute("created", AttributeType.TIMESTAMP))
+    .add(new Attribute("name", AttributeType.STRING))
+    .build()
+
+  var directory: Path = _
+  var path: Path = _
+
+  before {
+    directory = Files.createTempDirectory("result-cache")
+    path = directory.resolve("key.arrow")
+  }
+
+  after {
+    Files.deleteIfExists(path)
+    Files.delete(directory)
+  }
+
+  def tuple(i: Int): Tuple =
+    Tuple
+      .newBuilder(schema)
+      .addSequentially(
+        Array[Object](
+          java.lang.Long.valueOf(i.toLong * 1000000007L),
+          Integer.valueOf(i),
+          java.lang.Double.valueOf(i / 3.0),
+          java.lang.Boolean.valueOf(i % 2 == 0),
+          new Timestamp(1600000000000L + i),
+          if (i % 10 == 0) null else s"name-$i"
+        )
+      )
+      .build()
+
+  it should "write the tuples to a file that a cached result source reads back" in {
+    // more than one record batch
+    val tuples = (0 until 10000).map(tuple).toList
+    val writer = new CacheWriterOpExec(schema, path)
+    writer.open()
+    tuples.foreach(t => writer.processTexeraTuple(Left(t), null))
+    assert(!Files.exists(path))
+    writer.processTexeraTuple(Right(InputExhausted()), null)
+    writer.close()
+    assert(Files.exists(path))
+    assert(Files.list(directory).count() == 1)
+
+    val source = new CachedResultSourceOpDesc("key", path)
+    source.setContext(new WorkflowContext())
+    assert(source.sourceSchema() == schema)
+    val numWorkers = 3
+    val config = source.operatorExecutor(null, numWorkers).asInstanceOf[OneToOneOpExecConfig]
+    assert(config.topology.layers.head.numWorkers == numWorkers)
+    val read = (0 until numWorkers).flatMap(i => {
+      val exec = config.opExec(i).asInstanceOf[SourceOperatorExecutor]
+      exec.open()
+      val result = exec.produceTexeraTuple().toList
+      exec.close()
+      result
+    })
+    assert(read.toList == tuples)
+  }
+
+  it should "not leave a partial result when the execution is interrupted" in {
+    val writer = new CacheWriterOpExec(schema, path)
+    writer.open()
+    (0 until 100).foreach(i => writer.processTexeraTuple(Left(tuple(i)), null))
+    writer.close()
+    assert(Files.list(directory).count() == 0)
+  }
+
+}
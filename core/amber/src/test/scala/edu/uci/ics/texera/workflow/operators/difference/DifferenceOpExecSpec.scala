@@ -124,11 +124,9 @@ class DifferenceOpExecSpec extends AnyFlatSpec with BeforeAndAfter {
     val commonTuples = (1 to 10).map(_ => tuple()).toList
 
     assert(opExec.processTexeraTuple(Right(InputExhausted()), linkID2).isEmpty)
-    (0 to 9).map(i => {
+    val outputTuples: Set[Tuple] = ((0 to 9).flatMap(i => {
       opExec.processTexeraTuple(Left(commonTuples(i)), linkID1)
-    })
-
-    val outputTuples: Set[Tuple] = opExec.processTexeraTuple(Right(InputExhausted()), linkID1).toSet
+    }) ++ opExec.processTexeraTuple(Right(InputExhausted()), linkID1)).toSet
     assert(outputTuples.equals(commonTuples.toSet))
     opExec.close()
   }
@@ -161,4 +159,22 @@ class DifferenceOpExecSpec extends AnyFlatSpec with BeforeAndAfter {
     opExec.close()
   }
 
+  it should "stream the left tuples once the right input is exhausted" in {
+    opExec.open()
+    counter = 0
+    val commonTuples = (1 to 10).map(_ => tuple()).toList
+
+    (5 to 9).map(i => {
+      assert(opExec.processTexeraTuple(Left(commonTuples(i)), linkID2).isEmpty)
+    })
+    assert(opExec.processTexeraTuple(Right(InputExhausted()), linkID2).isEmpty)
+    (0 to 9).map(i => {
+      val outputTuples = opExec.processTexeraTuple(Left(commonTuples(i)), linkID1).toList
+      assert(outputTuples == (if (i < 5) List(commonTuples(i)) else List()))
+    })
+    assert(opExec.processTexeraTuple(Left(commonTuples.head), linkID1).isEmpty)
+    assert(opExec.processTexeraTuple(Right(InputExhausted()), linkID1).isEmpty)
+    opExec.close()
+  }
+
 }
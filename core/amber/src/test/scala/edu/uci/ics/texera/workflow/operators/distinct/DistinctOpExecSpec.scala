@@ -49,11 +49,9 @@ class DistinctOpExecSpec extends AnyFlatSpec with BeforeAndAfter {
   it should "remove duplicate Tuple with the same content" in {
 
     opExec.open()
-    (1 to 1000).map(_ => {
+    val outputTuples: List[Tuple] = ((1 to 1000).flatMap(_ => {
       opExec.processTexeraTuple(Left(tuple()), null)
-    })
-
-    val outputTuples: List[Tuple] = opExec.processTexeraTuple(Right(InputExhausted()), null).toList
+    }) ++ opExec.processTexeraTuple(Right(InputExhausted()), null)).toList
     assert(outputTuples.size == 1)
     assert(outputTuples.head.equals(tuple()))
     opExec.close()
@@ -62,21 +60,26 @@ class DistinctOpExecSpec extends AnyFlatSpec with BeforeAndAfter {
   it should "preserve the insertion order" in {
 
     opExec.open()
-    (1 to 1000).map(_ => {
+    val outputTuples: List[Tuple] = ((1 to 1000).flatMap(_ => {
       opExec.processTexeraTuple(Left(tuple()), null)
-    })
-    (1 to 1000).map(_ => {
+    }) ++ (1 to 1000).flatMap(_ => {
       opExec.processTexeraTuple(Left(tuple2()), null)
-    })
-    (1 to 1000).map(_ => {
+    }) ++ (1 to 1000).flatMap(_ => {
       opExec.processTexeraTuple(Left(tuple()), null)
-    })
-
-    val outputTuples: List[Tuple] = opExec.processTexeraTuple(Right(InputExhausted()), null).toList
+    }) ++ opExec.processTexeraTuple(Right(InputExhausted()), null)).toList
     assert(outputTuples.size == 2)
     assert(outputTuples.head.equals(tuple()))
     assert(outputTuples.apply(1).equals(tuple2()))
     opExec.close()
   }
 
+  it should "output each tuple the first time it is seen" in {
+    opExec.open()
+    assert(opExec.processTexeraTuple(Left(tuple()), null).toList == List(tuple()))
+    assert(opExec.processTexeraTuple(Left(tuple()), null).isEmpty)
+    assert(opExec.processTexeraTuple(Left(tuple2()), null).toList == List(tuple2()))
+    assert(opExec.processTexeraTuple(Right(InputExhausted()), null).isEmpty)
+    opExec.close()
+  }
+
 }
@@ -0,0 +1,98 @@
+package edu.uci.ics.texera.workflow.operators.filter
+
+import edu.uci.ics.amber.engine.common.InputExhausted
+import edu.uci.ics.texera.workflow.common.WorkflowContext
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.{AttributeType, Schema}
+import org.scalatest.flatspec.AnyFlatSpec
+
+import java.sql.Timestamp
+import scala.collection.JavaConverters._
+
+class SpecializedFilterOpExecSpec extends AnyFlatSpec {
+  val inputSchema: Schema = Schema
+    .newBuilder()
+    .add("string", AttributeType.STRING)
+    .add("boolean", AttributeType.BOOLEAN)
+    .add("long", AttributeType.LONG)
+    .add("integer", AttributeType.INTEGER)
+    .add("double", AttributeType.DOUBLE)
+    .add("timestamp", AttributeType.TIMESTAMP)
+    .build()
+
+  val tuples: List[Tuple] = (0 until 20).toList.map(i =>
+    new Tuple(
+      inputSchema,
+      List[AnyRef](
+        if (i % 3 == 0) "abc" + i else " " + (i - 10) / 2.0,
+        Boolean.box(i % 2 == 0),
+        if (i == 5) null else Long.box(i * 3L),
+        if (i == 6) null else Int.box(i - 7),
+        if (i == 7) null else Double.box(i / 4.0),
+        new Timestamp(1600000000000L + i * 1000L)
+      ): _*
+    )
+  )
+
+  def predicate(attribute: String, condition: ComparisonType, value: String): FilterPredicate = {
+    val predicate = new FilterPredicate()
+    predicate.attribute = attribute
+    predicate.condition = condition
+    predicate.value = value
+    predicate
+  }
+
+  it should "evaluate the compiled predicates the same as the predicates" in {
+    val values = Map(
+      "string" -> List("abc12", "-2.5", "1"),
+      "boolean" -> List("TRUE ", "false"),
+      "long" -> List("9", " 30 "),
+      "integer" -> List("0", "3.5"),
+      "double" -> List("1.25", "4"),
+      "timestamp" -> List(new Timestamp(1600000010000L).toString)
+    )
+    for {
+      (attribute, attributeValues) <- values
+      value <- attributeValues
+      condition <- ComparisonType.values()
+      tuple <- tuples
+    } {
+      val p = predicate(attribute, condition, value)
+      assert(
+        p.compile(inputSchema).test(tuple) == p.evaluate(tuple, new WorkflowContext()),
+        s"$attribute $condition $value on $tuple"
+      )
+    }
+  }
+
+  it should "evaluate compiled predicates in AND and OR" in {
+    val compiled = CompiledPredicate.and(
+      List(
+        CompiledPredicate.or(
+          List(
+            predicate("integer", ComparisonType.LESS_THAN, "0").compile(inputSchema),
+            predicate("string", ComparisonType.EQUAL_TO, "abc18").compile(inputSchema)
+          ).asJava
+        ),
+        predicate("boolean", ComparisonType.EQUAL_TO, "true").compile(inputSchema)
+      ).asJava
+    )
+    val expected = tuples.indices.filter(i => (i < 6 || i == 18) && i % 2 == 0)
+    assert(tuples.indices.filter(i => compiled.test(tuples(i))) == expected)
+  }
+
+  it should "filter with the predicates in OR" in {
+    val opDesc = new SpecializedFilterOpDesc()
+    opDesc.predicates = List(
+      predicate("long", ComparisonType.GREATER_THAN_OR_EQUAL_TO, "54"),
+      predicate("double", ComparisonType.LESS_THAN, "0.5")
+    ).asJava
+    val opExec = new SpecializedFilterOpExec(opDesc, inputSchema)
+    opExec.open()
+    val output = tuples.flatMap(t => opExec.processTexeraTuple(Left(t), null))
+    assert(opExec.processTexeraTuple(Right(InputExhausted()), null).isEmpty)
+    opExec.close()
+    assert(output == List(tuples(0), tuples(1), tuples(18), tuples(19)))
+  }
+
+}
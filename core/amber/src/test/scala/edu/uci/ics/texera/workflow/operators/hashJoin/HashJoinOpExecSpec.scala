@@ -13,6 +13,8 @@ import edu.uci.ics.texera.workflow.common.tuple.schema.{
 import org.scalatest.BeforeAndAfter
 import org.scalatest.flatspec.AnyFlatSpec
 
+import scala.collection.JavaConverters._
+
 class HashJoinOpExecSpec extends AnyFlatSpec with BeforeAndAfter {
   val build: LinkIdentity = linkID()
   val probe: LinkIdentity = linkID()
@@ -111,4 +113,166 @@ class HashJoinOpExecSpec extends AnyFlatSpec with BeforeAndAfter {
 
     opExec.close()
   }
+
+  it should "join on several keys of different types" in {
+    val buildSchema = Schema
+      .newBuilder()
+      .add("id", AttributeType.INTEGER)
+      .add("name", AttributeType.STRING)
+      .add("value", AttributeType.DOUBLE)
+      .build()
+    val probeSchema = Schema
+      .newBuilder()
+      .add("name", AttributeType.STRING)
+      .add("value", AttributeType.DOUBLE)
+      .add("pid", AttributeType.INTEGER)
+      .build()
+    val buildTuples = (0 until 100).map(i =>
+      Tuple
+        .newBuilder(buildSchema)
+        .addSequentially(Array[Object](Int.box(i % 10), "n" + i % 3, Double.box(i)))
+        .build()
+    )
+    val probeTuples = (0 until 50).map(i =>
+      Tuple
+        .newBuilder(probeSchema)
+        .addSequentially(Array[Object]("n" + i % 4, Double.box(-i), Int.box(i % 12)))
+        .build()
+    )
+
+    opDesc = new HashJoinOpDesc[String]()
+    opDesc.buildAttributeName = "id"
+    opDesc.probeAttributeName = "pid"
+    val key = new HashJoinKey()
+    key.buildAttributeName = "name"
+    key.probeAttributeName = "name"
+    opDesc.additionalKeys = List(key)
+    val inputSchemas = Array(buildSchema, probeSchema)
+    val outputSchema = opDesc.getOutputSchema(inputSchemas)
+    assert(outputSchema.getAttributeNames.asScala == List("id", "value", "name", "value#@1"))
+
+    opExec = new HashJoinOpExec[String](
+      build,
+      "id",
+      "pid",
+      OperatorSchemaInfo(inputSchemas, outputSchema),
+      opDesc.joinKeys.tail
+    )
+    opExec.open()
+    buildTuples.foreach(t => assert(opExec.processTexeraTuple(Left(t), build).isEmpty))
+    opExec.processTexeraTuple(Right(InputExhausted()), build)
+    val outputTuples = probeTuples.flatMap(t => opExec.processTexeraTuple(Left(t), probe))
+    opExec.close()
+
+    val expected = for {
+      b <- buildTuples
+      p <- probeTuples
+      if b.getField[Integer]("id") == p.getField[Integer]("pid")
+      if b.getField[String]("name") == p.getField[String]("name")
+    } yield List(b.get(0), b.get(2), p.get(0), p.get(1))
+    assert(expected.nonEmpty)
+    val output = outputTuples.map(t => t.getFields.asScala.toList)
+    assert(output.sortBy(_.toString) == expected.sortBy(_.toString))
+  }
+
+  it should "output the rows without a match of outer, semi and anti joins" in {
+    val inputSchemas = Array(schema("build"), schema("probe"))
+    def join(joinType: JoinType): List[List[AnyRef]] = {
+      opDesc = new HashJoinOpDesc[String]()
+      opDesc.buildAttributeName = "build_1"
+      opDesc.probeAttributeName = "probe_1"
+      opDesc.joinType = joinType
+      opExec = new HashJoinOpExec[String](
+        build,
+        "build_1",
+        "probe_1",
+        OperatorSchemaInfo(inputSchemas, opDesc.getOutputSchema(inputSchemas)),
+        joinType = joinType
+      )
+      opExec.open()
+      (0 to 7).foreach(i => opExec.processTexeraTuple(Left(tuple("build", 1, i)), build))
+      opExec.processTexeraTuple(Right(InputExhausted()), build)
+      val output = (5 to 9).flatMap(i =>
+        opExec.processTexeraTuple(Left(tuple("probe", 1, i)), probe)
+      ) ++ opExec.processTexeraTuple(Right(InputExhausted()), probe)
+      opExec.close()
+      output.map(t => t.getFields.asScala.toList).toList
+    }
+    // the output row of the build and probe tuples of the given i, if any
+    def row(buildI: Option[Int], probeI: Option[Int]): List[AnyRef] =
+      List(
+        buildI.map(i => (i * 2).toString).orNull,
+        buildI.orElse(probeI).map(i => i.toString).orNull,
+        probeI.map(i => (i * 2).toString).orNull
+      )
+
+    val matched = (5 to 7).map(i => row(Some(i), Some(i))).toList
+    val buildOnly = (0 to 4).map(i => row(Some(i), None)).toList
+    val probeOnly = (8 to 9).map(i => row(None, Some(i))).toList
+    assert(join(JoinType.INNER) == matched)
+    assert(join(JoinType.LEFT_OUTER) == matched ++ buildOnly)
+    assert(join(JoinType.RIGHT_OUTER) == matched ++ probeOnly)
+    assert(join(JoinType.FULL_OUTER) == matched ++ probeOnly ++ buildOnly)
+    val probeTuples = (5 to 9).map(i => List[AnyRef]((i * 2).toString, i.toString)).toList
+    assert(join(JoinType.SEMI) == probeTuples.take(3))
+    assert(join(JoinType.ANTI) == probeTuples.drop(3))
+  }
+
+  it should "join an INTEGER key with a LONG key by value, and output it as a LONG" in {
+    val buildSchema = Schema
+      .newBuilder()
+      .add("id", AttributeType.INTEGER)
+      .add("name", AttributeType.STRING)
+      .build()
+    val probeSchema = Schema
+      .newBuilder()
+      .add("pid", AttributeType.LONG)
+      .add("name", AttributeType.STRING)
+      .build()
+    val buildTuples = (-5 until 5).map(i =>
+      Tuple.newBuilder(buildSchema).addSequentially(Array[Object](Int.box(i), "n" + i)).build()
+    )
+    val probeTuples = (-7 until 3).map(i =>
+      Tuple.newBuilder(probeSchema).addSequentially(Array[Object](Long.box(i), "n" + i)).build()
+    )
+    val inputSchemas = Array(buildSchema, probeSchema)
+    def join(joinType: JoinType, additionalKeys: List[HashJoinKey]): List[List[AnyRef]] = {
+      opDesc = new HashJoinOpDesc[String]()
+      opDesc.buildAttributeName = "id"
+      opDesc.probeAttributeName = "pid"
+      opDesc.additionalKeys = additionalKeys
+      opDesc.joinType = joinType
+      val outputSchema = opDesc.getOutputSchema(inputSchemas)
+      assert(outputSchema.getAttribute("id").getType == AttributeType.LONG)
+      opExec = new HashJoinOpExec[String](
+        build,
+        "id",
+        "pid",
+        OperatorSchemaInfo(inputSchemas, outputSchema),
+        opDesc.joinKeys.tail,
+        joinType
+      )
+      assert(opExec.isJoinable)
+      opExec.open()
+      buildTuples.foreach(t => opExec.processTexeraTuple(Left(t), build))
+      opExec.processTexeraTuple(Right(InputExhausted()), build)
+      val output = probeTuples.flatMap(t => opExec.processTexeraTuple(Left(t), probe))
+      opExec.close()
+      output.map(t => t.getFields.asScala.toList).toList
+    }
+
+    // a single key is compared by its value encoded in a long, including negative values
+    assert(
+      join(JoinType.RIGHT_OUTER, List()) == (-7 until 3).map(i =>
+        List[AnyRef](Long.box(i), if (i < -5) null else "n" + i, "n" + i)
+      )
+    )
+    // several keys are compared field by field
+    val name = new HashJoinKey()
+    name.buildAttributeName = "name"
+    name.probeAttributeName = "name"
+    assert(
+      join(JoinType.INNER, List(name)) == (-5 until 3).map(i => List[AnyRef](Long.box(i), "n" + i))
+    )
+  }
 }
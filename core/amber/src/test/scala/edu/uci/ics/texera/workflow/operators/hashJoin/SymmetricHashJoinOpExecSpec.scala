@@ -0,0 +1,84 @@
+package edu.uci.ics.texera.workflow.operators.hashJoin
+
+import edu.uci.ics.amber.engine.common.InputExhausted
+import edu.uci.ics.amber.engine.common.virtualidentity.{LayerIdentity, LinkIdentity}
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.{AttributeType, OperatorSchemaInfo, Schema}
+import org.scalatest.flatspec.AnyFlatSpec
+
+class SymmetricHashJoinOpExecSpec extends AnyFlatSpec {
+  val join: LayerIdentity = LayerIdentity("join", "join", "join")
+  val build: LinkIdentity = LinkIdentity(LayerIdentity("build", "build", "build"), join)
+  val probe: LinkIdentity = LinkIdentity(LayerIdentity("probe", "probe", "probe"), join)
+
+  val buildSchema: Schema =
+    Schema.newBuilder().add("key", AttributeType.INTEGER).add("left", AttributeType.STRING).build()
+  val probeSchema: Schema =
+    Schema.newBuilder().add("key", AttributeType.INTEGER).add("right", AttributeType.STRING).build()
+
+  val buildTuples: List[Tuple] = (0 until 20).toList.map(i =>
+    Tuple.newBuilder(buildSchema).addSequentially(Array[Object](Int.box(i % 5), "l" + i)).build()
+  )
+  val probeTuples: List[Tuple] = (0 until 30).toList.map(i =>
+    Tuple.newBuilder(probeSchema).addSequentially(Array[Object](Int.box(i % 7), "r" + i)).build()
+  )
+
+  def schemaInfo(): OperatorSchemaInfo = {
+    val desc = new HashJoinOpDesc[Integer]()
+    desc.buildAttributeName = "key"
+    desc.probeAttributeName = "key"
+    val inputSchemas = Array(buildSchema, probeSchema)
+    OperatorSchemaInfo(inputSchemas, desc.getOutputSchema(inputSchemas))
+  }
+
+  def blockingJoin(): Set[Tuple] = {
+    val opExec = new HashJoinOpExec[Integer](build, "key", "key", schemaInfo())
+    opExec.open()
+    buildTuples.foreach(t => opExec.processTexeraTuple(Left(t), build))
+    opExec.processTexeraTuple(Right(InputExhausted()), build)
+    val output = probeTuples.flatMap(t => opExec.processTexeraTuple(Left(t), probe)) ++
+      opExec.processTexeraTuple(Right(InputExhausted()), probe)
+    opExec.close()
+    output.toSet
+  }
+
+  /**
+    * Alternates between a tuple of each input, the probe input ending first.
+    */
+  def interleavedJoin(memoryLimit: Long): List[Tuple] = {
+    type Event = (Either[Tuple, InputExhausted], LinkIdentity)
+    val probeEvents: List[Event] = probeTuples.map(t => (Left(t), probe))
+    val buildEvents: List[Event] = buildTuples.map(t => (Left(t), build))
+    val events: List[Event] =
+      probeEvents.take(15).zip(buildEvents.take(15)).flatMap(pair => List(pair._1, pair._2)) ++
+        probeEvents.drop(15) ++ List[Event]((Right(InputExhausted()), probe)) ++
+        buildEvents.drop(15) ++ List[Event]((Right(InputExhausted()), build))
+
+    val opExec =
+      new SymmetricHashJoinOpExec[Integer](build, "key", "key", schemaInfo(), memoryLimit)
+    opExec.open()
+    val output = events.flatMap(event => opExec.processTexeraTuple(event._1, event._2))
+    opExec.close()
+    output
+  }
+
+  it should "output the same tuples as the blocking join while both inputs arrive" in {
+    val output = interleavedJoin(Long.MaxValue)
+    assert(output.size == output.toSet.size)
+    assert(output.toSet == blockingJoin())
+  }
+
+  it should "output matches before the build input is finished" in {
+    val opExec = new SymmetricHashJoinOpExec[Integer](build, "key", "key", schemaInfo())
+    opExec.open()
+    assert(opExec.processTexeraTuple(Left(probeTuples.head), probe).isEmpty)
+    assert(opExec.processTexeraTuple(Left(buildTuples.head), build).size == 1)
+    opExec.close()
+  }
+
+  it should "defer the probe tuples beyond its memory limit to the end of the build input" in {
+    val output = interleavedJoin(SymmetricHashJoinOpExec.estimatedSize(probeTuples.head) * 3)
+    assert(output.size == output.toSet.size)
+    assert(output.toSet == blockingJoin())
+  }
+}
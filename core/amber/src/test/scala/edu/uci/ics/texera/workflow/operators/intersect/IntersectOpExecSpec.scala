@@ -59,15 +59,13 @@ class IntersectOpExecSpec extends AnyFlatSpec with BeforeAndAfter {
     val commonTuples = (1 to 10).map(_ => tuple()).toList
 
     (0 to 7).map(i => {
-      opExec.processTexeraTuple(Left(commonTuples(i)), linkID1)
+      assert(opExec.processTexeraTuple(Left(commonTuples(i)), linkID1).isEmpty)
     })
     assert(opExec.processTexeraTuple(Right(InputExhausted()), linkID1).isEmpty)
 
-    (5 to 9).map(i => {
+    val outputTuples: Set[Tuple] = ((5 to 9).flatMap(i => {
       opExec.processTexeraTuple(Left(commonTuples(i)), linkID2)
-    })
-
-    val outputTuples: Set[Tuple] = opExec.processTexeraTuple(Right(InputExhausted()), linkID2).toSet
+    }) ++ opExec.processTexeraTuple(Right(InputExhausted()), linkID2)).toSet
     assert(outputTuples.equals(commonTuples.slice(5, 8).toSet))
 
     opExec.close()
@@ -79,19 +77,15 @@ class IntersectOpExecSpec extends AnyFlatSpec with BeforeAndAfter {
     counter = 0
     val commonTuples = (1 to 10).map(_ => tuple()).toList
 
-    (1 to 10).map(_ => {
-
-      opExec.processTexeraTuple(Left(tuple()), links(Random.nextInt(links.size)))
-      opExec.processTexeraTuple(
-        Left(commonTuples(Random.nextInt(commonTuples.size))),
-        links(Random.nextInt(links.size))
-      )
-    })
-
-    assert(opExec.processTexeraTuple(Right(InputExhausted()), links.head).isEmpty)
+    val outputTuples: Set[Tuple] = ((1 to 10).flatMap(_ => {
 
-    val outputTuples: Set[Tuple] =
-      opExec.processTexeraTuple(Right(InputExhausted()), links(1)).toSet
+      opExec.processTexeraTuple(Left(tuple()), links(Random.nextInt(links.size))) ++
+        opExec.processTexeraTuple(
+          Left(commonTuples(Random.nextInt(commonTuples.size))),
+          links(Random.nextInt(links.size))
+        )
+    }) ++ opExec.processTexeraTuple(Right(InputExhausted()), links.head) ++
+      opExec.processTexeraTuple(Right(InputExhausted()), links(1))).toSet
     assert(outputTuples.size <= 10)
     assert(outputTuples.subsetOf(commonTuples.toSet))
     outputTuples.foreach(tuple => assert(tuple.getField[Int]("field2") <= 10))
@@ -0,0 +1,80 @@
+package edu.uci.ics.texera.workflow.operators.keywordSearch
+
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.{AttributeType, Schema}
+import org.apache.lucene.index.memory.MemoryIndex
+import org.scalatest.flatspec.AnyFlatSpec
+
+import scala.collection.JavaConverters._
+
+class KeywordSearchOpExecSpec extends AnyFlatSpec {
+  val schema: Schema = Schema.newBuilder().add("text", AttributeType.STRING).build()
+
+  val texts: List[String] = List(
+    "The quick brown fox jumps over the lazy dog",
+    "quick-brown foxes, lazy dogs",
+    "Brown FOX",
+    "a fox that is brown",
+    "dog dog dog",
+    "jumping over fences",
+    "",
+    "nothing to see here"
+  )
+
+  def opExec(keyword: String): KeywordSearchOpExec = {
+    val opDesc = new KeywordSearchOpDesc()
+    opDesc.attribute = "text"
+    opDesc.keyword = keyword
+    new KeywordSearchOpExec(0, opDesc)
+  }
+
+  // the match of the operator before it compiled the queries
+  def memoryIndexMatch(exec: KeywordSearchOpExec, text: String): Boolean = {
+    val memoryIndex = new MemoryIndex()
+    memoryIndex.addField("text", text, exec.analyzer)
+    memoryIndex.search(exec.query) > 0.0f
+  }
+
+  it should "match the same field values as a MemoryIndex" in {
+    val keywords = List(
+      "fox",
+      "brown fox",
+      "+brown +fox",
+      "\"brown fox\"",
+      "\"quick brown fox\"",
+      "fox -lazy",
+      "-dog",
+      "jump*",
+      "dog^2 OR cat",
+      "(quick AND lazy) OR \"brown fox\"",
+      "other:fox",
+      "*:*",
+      "text:dog AND NOT fox"
+    )
+    for (keyword <- keywords) {
+      val exec = opExec(keyword)
+      assert(exec.matcher.isDefined, keyword)
+      texts.foreach(text =>
+        assert(
+          exec.findKeyword(new Tuple(schema, text)) == memoryIndexMatch(exec, text),
+          s"$keyword on $text"
+        )
+      )
+    }
+  }
+
+  it should "search with a MemoryIndex the queries that are not compiled" in {
+    for (keyword <- List("fox~", "\"brown fox\"~2", "f?x", "dog^0")) {
+      val exec = opExec(keyword)
+      assert(exec.matcher.isEmpty, keyword)
+      texts.foreach(text =>
+        assert(exec.findKeyword(new Tuple(schema, text)) == memoryIndexMatch(exec, text))
+      )
+    }
+  }
+
+  it should "not match a null field value" in {
+    assert(!opExec("fox").findKeyword(new Tuple(schema, List[AnyRef](null).asJava)))
+  }
+
+}
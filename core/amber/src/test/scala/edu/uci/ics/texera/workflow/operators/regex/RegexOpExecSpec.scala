@@ -0,0 +1,106 @@
+package edu.uci.ics.texera.workflow.operators.regex
+
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.{AttributeType, Schema}
+import org.scalatest.flatspec.AnyFlatSpec
+
+import scala.util.Random
+
+class RegexOpExecSpec extends AnyFlatSpec {
+  val schema: Schema = Schema.newBuilder().add("text", AttributeType.STRING).build()
+
+  def opExec(regex: String, caseInsensitive: Boolean = false): RegexOpExec = {
+    val opDesc = new RegexOpDesc()
+    opDesc.attribute = "text"
+    opDesc.regex = regex
+    opDesc.caseInsensitive = caseInsensitive
+    new RegexOpExec(opDesc)
+  }
+
+  def tuple(text: String): Tuple = new Tuple(schema, text)
+
+  it should "only skip the texts the expression does not match" in {
+    val random = new Random(0)
+    val alphabet = "abcdforxyzABFO019- \n"
+    val texts = (0 until 2000).map(_ =>
+      (0 until random.nextInt(12)).map(_ => alphabet(random.nextInt(alphabet.length))).mkString
+    ) ++ List("colour", "color", "FOObaz", "barbaz", "xabcdx", "a-b-c", "012-x", "ab\nab")
+    val regexes = List(
+      "abc",
+      "a(b|cd)+x",
+      "colou?r",
+      "(foo|bar)baz",
+      "(?i)foo(bar)?baz",
+      "[0-9]{3}-x",
+      "\\D+y",
+      "^ab$",
+      "(?m)^ab$",
+      "a.b.c",
+      "x*",
+      "[^a]bc|z{2,}",
+      "\\bor\\b"
+    )
+    for (regex <- regexes; caseInsensitive <- List(false, true)) {
+      val exec = opExec(regex, caseInsensitive)
+      assert(exec.re2Pattern.isDefined)
+      texts.foreach(text =>
+        if (exec.re2Pattern.get.matcher(text).find) {
+          assert(exec.prefilter.forall(_.mayMatch(text)), s"$regex on $text")
+          assert(exec.matchRegex(tuple(text)))
+        } else {
+          assert(!exec.matchRegex(tuple(text)))
+        }
+      )
+    }
+  }
+
+  it should "skip the texts without the literals the expression requires" in {
+    val prefilter = RegexPrefilter("error: (disk|memory) full", caseInsensitive = false)
+    assert(prefilter.isDefined)
+    assert(!prefilter.get.mayMatch("all good"))
+    assert(!prefilter.get.mayMatch("error: disk"))
+    assert(prefilter.get.mayMatch("error: memory full"))
+
+    val caseInsensitive = RegexPrefilter("Hello", caseInsensitive = true)
+    assert(caseInsensitive.get.mayMatch("say HELLO"))
+    assert(!caseInsensitive.get.mayMatch("say hi"))
+
+    assert(RegexPrefilter(".*", caseInsensitive = false).isEmpty)
+  }
+
+  it should "match in linear time the expressions that backtrack" in {
+    val exec = opExec("(a+)+b")
+    assert(!exec.matchRegex(tuple("a" * 100 + "cb")))
+    assert(exec.matchRegex(tuple("a" * 100 + "b")))
+  }
+
+  it should "match the expressions RE2 does not support with java.util.regex" in {
+    val exec = opExec("(a)\\1")
+    assert(exec.re2Pattern.isEmpty)
+    assert(exec.matchRegex(tuple("baab")))
+    assert(!exec.matchRegex(tuple("abab")))
+  }
+
+  it should "match like RE2J where it differs from java.util.regex" in {
+    def javaFind(regex: String, text: String, flags: Int = 0): Boolean =
+      java.util.regex.Pattern.compile(regex, flags).matcher(text).find
+
+    // $ only matches at the end of the text
+    assert(javaFind("ab$", "ab\n"))
+    assert(!opExec("ab$").matchRegex(tuple("ab\n")))
+    assert(opExec("(?m)ab$").matchRegex(tuple("ab\n")))
+
+    // . matches the line terminators other than \n
+    for (terminator <- List("\r", 0x85.toChar.toString, 0x2028.toChar.toString)) {
+      assert(!javaFind("a.b", s"a${terminator}b"))
+      assert(opExec("a.b").matchRegex(tuple(s"a${terminator}b")))
+    }
+    assert(!opExec("a.b").matchRegex(tuple("a\nb")))
+
+    // the case of non ASCII letters is folded too
+    val caseInsensitive = java.util.regex.Pattern.CASE_INSENSITIVE
+    assert(!javaFind("caf\u00e9", "CAF\u00c9", caseInsensitive))
+    assert(opExec("caf\u00e9", caseInsensitive = true).matchRegex(tuple("CAF\u00c9")))
+  }
+
+}
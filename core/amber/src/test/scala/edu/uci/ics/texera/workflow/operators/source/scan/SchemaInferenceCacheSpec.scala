@@ -0,0 +1,163 @@
+package edu.uci.ics.texera.workflow.operators.source.scan
+
+import edu.uci.ics.texera.workflow.common.WorkflowContext
+import edu.uci.ics.texera.workflow.common.tuple.schema.{Attribute, AttributeType, Schema}
+import edu.uci.ics.texera.workflow.operators.source.scan.csv.CSVScanSourceOpDesc
+import org.scalatest.flatspec.AnyFlatSpec
+
+import java.io.File
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.util.concurrent.{CountDownLatch, TimeUnit}
+import java.util.concurrent.atomic.AtomicInteger
+
+class SchemaInferenceCacheSpec extends AnyFlatSpec {
+
+  def schema(attributeType: AttributeType): Schema =
+    Schema.newBuilder().add(new Attribute("a", attributeType)).build()
+
+  // a key of its own for each test, the cache is shared by the whole JVM
+  def key(test: String, i: Int = 0): SchemaInferenceCache.Key =
+    SchemaInferenceCache.Key(getClass.getName + "-" + test, s"/file-$i", 1, 1, List())
+
+  def write(file: File, content: String, lastModified: Long): Unit = {
+    Files.write(file.toPath, content.getBytes(StandardCharsets.UTF_8))
+    assert(file.setLastModified(lastModified))
+  }
+
+  def inferCsv(file: File): AttributeType = {
+    val scan = new CSVScanSourceOpDesc()
+    scan.fileName = Some(file.getPath)
+    scan.customDelimiter = Some(",")
+    scan.hasHeader = true
+    scan.setContext(new WorkflowContext())
+    scan.inferSchema().getAttribute("a").getType
+  }
+
+  "SchemaInferenceCache" should "infer the schema again when the size or mtime changes" in {
+    val file = File.createTempFile("schema-inference", ".csv")
+    file.deleteOnExit()
+    try {
+      write(file, "a,b\n12,1\n", 1000000000000L)
+      assert(inferCsv(file) == AttributeType.INTEGER)
+
+      // same size and last modified time, the file is not read again
+      write(file, "a,b\nxy,1\n", 1000000000000L)
+      assert(inferCsv(file) == AttributeType.INTEGER)
+
+      // same size, newer last modified time
+      write(file, "a,b\nxy,1\n", 1000000060000L)
+      assert(inferCsv(file) == AttributeType.STRING)
+
+      // different size, same last modified time
+      write(file, "a,b\n1.5,1\n", 1000000060000L)
+      assert(inferCsv(file) == AttributeType.DOUBLE)
+    } finally {
+      file.delete()
+    }
+  }
+
+  it should "clear the cache once it holds more than MAX_ENTRIES schemas" in {
+    val inferred = new AtomicInteger()
+    val infer = (_: Option[Int]) => {
+      inferred.incrementAndGet()
+      schema(AttributeType.STRING)
+    }
+
+    SchemaInferenceCache.getOrInfer(key("clear"), infer)
+    (1 until 10).foreach(i => SchemaInferenceCache.getOrInfer(key("clear", i), infer))
+    SchemaInferenceCache.getOrInfer(key("clear"), infer)
+    assert(inferred.get == 10)
+
+    (10 to SchemaInferenceCache.MAX_ENTRIES).foreach(i =>
+      SchemaInferenceCache.getOrInfer(key("clear", i), infer)
+    )
+    assert(inferred.get == SchemaInferenceCache.MAX_ENTRIES + 1)
+    // more than MAX_ENTRIES entries, the next lookup starts from an empty cache
+    SchemaInferenceCache.getOrInfer(key("clear"), infer)
+    assert(inferred.get == SchemaInferenceCache.MAX_ENTRIES + 2)
+    SchemaInferenceCache.getOrInfer(key("clear"), infer)
+    assert(inferred.get == SchemaInferenceCache.MAX_ENTRIES + 2)
+  }
+
+  it should "not cache null schemas" in {
+    val inferred = new AtomicInteger()
+    val infer = (_: Option[Int]) => {
+      inferred.incrementAndGet()
+      null
+    }
+    assert(SchemaInferenceCache.getOrInfer(key("null"), infer) == null)
+    assert(SchemaInferenceCache.getOrInfer(key("null"), infer) == null)
+    assert(inferred.get == 2)
+  }
+
+  it should "replace the schema with one inferred from a sample on a daemon thread" in {
+    val sampleSize = SchemaInferenceCache.backgroundSampleSize
+    SchemaInferenceCache.backgroundSampleSize = 50
+    try {
+      val sampled = new CountDownLatch(1)
+      val samples = new AtomicInteger()
+      var samplerThread: Thread = null
+      val infer = (sample: Option[Int]) => {
+        sample match {
+          case None => schema(AttributeType.INTEGER)
+          case Some(size) =>
+            assert(size == 50)
+            samples.incrementAndGet()
+            samplerThread = Thread.currentThread()
+            sampled.await()
+            schema(AttributeType.STRING)
+        }
+      }
+
+      // the first rows are returned right away, before the sample is inferred
+      assert(
+        SchemaInferenceCache.getOrInfer(key("sample"), infer) == schema(AttributeType.INTEGER)
+      )
+      assert(
+        SchemaInferenceCache.getOrInfer(key("sample"), infer) == schema(AttributeType.INTEGER)
+      )
+      sampled.countDown()
+
+      val deadline = System.currentTimeMillis() + 10000
+      while (
+        SchemaInferenceCache.getOrInfer(key("sample"), infer) != schema(AttributeType.STRING)
+      ) {
+        assert(System.currentTimeMillis() < deadline)
+        Thread.sleep(10)
+      }
+      // sampled once per key
+      assert(samples.get == 1)
+      assert(samplerThread.isDaemon)
+      assert(samplerThread.getName == "schema-inference-sampler")
+    } finally {
+      SchemaInferenceCache.backgroundSampleSize = sampleSize
+    }
+  }
+
+  it should "keep the schema of the first rows if the sample fails" in {
+    val sampleSize = SchemaInferenceCache.backgroundSampleSize
+    SchemaInferenceCache.backgroundSampleSize = 50
+    try {
+      val done = new CountDownLatch(2)
+      val infer = (sample: Option[Int]) => {
+        sample match {
+          case None => schema(AttributeType.INTEGER)
+          case Some(_) =>
+            done.countDown()
+            throw new RuntimeException("sample failed")
+        }
+      }
+      SchemaInferenceCache.getOrInfer(key("failure"), infer)
+      // the sampler runs one task at a time, the second one starts after the first failed
+      SchemaInferenceCache.getOrInfer(key("failure", 1), infer)
+      assert(done.await(10, TimeUnit.SECONDS))
+      assert(
+        SchemaInferenceCache.getOrInfer(key("failure"), infer) == schema(AttributeType.INTEGER)
+      )
+    } finally {
+      SchemaInferenceCache.backgroundSampleSize = sampleSize
+    }
+  }
+
+}
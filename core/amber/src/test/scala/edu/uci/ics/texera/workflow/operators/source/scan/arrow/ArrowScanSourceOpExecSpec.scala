@@ -0,0 +1,105 @@
+package edu.uci.ics.texera.workflow.operators.source.scan.arrow
+
+import edu.uci.ics.texera.workflow.common.WorkflowContext
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.AttributeType
+import org.apache.arrow.memory.RootAllocator
+import org.apache.arrow.vector.{BigIntVector, VarCharVector, VectorSchemaRoot}
+import org.apache.arrow.vector.ipc.ArrowFileWriter
+import org.apache.arrow.vector.types.pojo.{ArrowType, Field}
+import org.scalatest.BeforeAndAfter
+import org.scalatest.flatspec.AnyFlatSpec
+
+import java.io.{File, FileOutputStream}
+import java.nio.charset.StandardCharsets
+import scala.collection.JavaConverters._
+
+class ArrowScanSourceOpExecSpec extends AnyFlatSpec with BeforeAndAfter {
+
+  val workflowContext = new WorkflowContext()
+  val numBatches = 5
+  val rowsPerBatch = 100
+  var file: File = _
+  var arrowScanSourceOpDesc: ArrowScanSourceOpDesc = _
+
+  before {
+    file = File.createTempFile("arrow-scan", ".arrow")
+    writeFile(file)
+    arrowScanSourceOpDesc = new ArrowScanSourceOpDesc()
+    arrowScanSourceOpDesc.fileName = Some(file.getPath)
+    arrowScanSourceOpDesc.setContext(workflowContext)
+  }
+
+  after {
+    file.delete()
+  }
+
+  def writeFile(file: File): Unit = {
+    val allocator = new RootAllocator()
+    val schema = new org.apache.arrow.vector.types.pojo.Schema(
+      List(
+        Field.nullablePrimitive("id", new ArrowType.Int(64, true)),
+        Field.nullablePrimitive("name", ArrowType.Utf8.INSTANCE)
+      ).asJava
+    )
+    val root = VectorSchemaRoot.create(schema, allocator)
+    val output = new FileOutputStream(file)
+    val writer = new ArrowFileWriter(root, null, output.getChannel)
+    writer.start()
+    for (batch <- 0 until numBatches) {
+      val ids = root.getVector("id").asInstanceOf[BigIntVector]
+      val names = root.getVector("name").asInstanceOf[VarCharVector]
+      ids.allocateNew(rowsPerBatch)
+      names.allocateNew(rowsPerBatch)
+      for (row <- 0 until rowsPerBatch) {
+        val id = batch * rowsPerBatch + row
+        ids.set(row, id.toLong)
+        if (id % 10 == 0) names.setNull(row)
+        else names.setSafe(row, s"name-$id".getBytes(StandardCharsets.UTF_8))
+      }
+      root.setRowCount(rowsPerBatch)
+      writer.writeBatch()
+    }
+    writer.end()
+    writer.close()
+    output.close()
+    root.close()
+    allocator.close()
+  }
+
+  def scan(workerIndex: Int, numWorkers: Int): List[Tuple] = {
+    val exec = new ArrowScanSourceOpExec(arrowScanSourceOpDesc, workerIndex, numWorkers)
+    exec.open()
+    val tuples = exec.produceTexeraTuple().toList
+    exec.close()
+    tuples
+  }
+
+  it should "infer the schema from the Arrow schema of the file" in {
+    val schema = arrowScanSourceOpDesc.inferSchema()
+    assert(schema.getAttribute("id").getType == AttributeType.LONG)
+    assert(schema.getAttribute("name").getType == AttributeType.STRING)
+  }
+
+  it should "read every record batch exactly once across workers" in {
+    val all = scan(0, 1)
+    assert(all.map(tuple => tuple.getField[Long]("id")) == (0 until 500).map(_.toLong).toList)
+    assert(all(0).getField[String]("name") == null)
+    assert(all(1).getField[String]("name") == "name-1")
+
+    for (numWorkers <- List(2, 3, 5, 8)) {
+      val partitioned = (0 until numWorkers).flatMap(i => scan(i, numWorkers))
+      assert(partitioned.toList == all)
+    }
+  }
+
+  it should "only output the pushed down projection and apply offset and limit" in {
+    arrowScanSourceOpDesc.pushDown(Some(List("id")), List())
+    arrowScanSourceOpDesc.offset = Some(150)
+    arrowScanSourceOpDesc.limit = Some(100)
+    val tuples = scan(0, 1)
+    assert(tuples.forall(tuple => tuple.getSchema.getAttributeNames.asScala == List("id")))
+    assert(tuples.map(tuple => tuple.getField[Long]("id")) == (150 until 250).map(_.toLong).toList)
+  }
+
+}
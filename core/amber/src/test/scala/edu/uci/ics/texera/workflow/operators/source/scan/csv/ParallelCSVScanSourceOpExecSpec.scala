@@ -0,0 +1,138 @@
+package edu.uci.ics.texera.workflow.operators.source.scan.csv
+
+import com.github.luben.zstd.ZstdOutputStream
+import edu.uci.ics.texera.workflow.common.WorkflowContext
+import edu.uci.ics.texera.workflow.common.scanner.CompressedFiles.{writeBgzf, writeSeekableZstd}
+import edu.uci.ics.texera.workflow.common.scanner.{Compression, FileSplit}
+import org.scalatest.flatspec.AnyFlatSpec
+import org.tukaani.xz.{LZMA2Options, XZOutputStream}
+
+import java.io.{File, FileOutputStream, OutputStream}
+import java.nio.charset.StandardCharsets
+import java.nio.file.{Files, Paths}
+import java.util.zip.GZIPOutputStream
+import scala.collection.JavaConverters._
+
+class ParallelCSVScanSourceOpExecSpec extends AnyFlatSpec {
+
+  val csvPath = "src/test/resources/country_sales_small.csv"
+  val csv: Array[Byte] = Files.readAllBytes(Paths.get(csvPath))
+
+  def desc(fileName: String): ParallelCSVScanSourceOpDesc = {
+    val desc = new ParallelCSVScanSourceOpDesc()
+    desc.fileName = Some(fileName)
+    desc.customDelimiter = Some(",")
+    desc.hasHeader = true
+    desc.setContext(new WorkflowContext())
+    desc
+  }
+
+  def scan(
+      desc: ParallelCSVScanSourceOpDesc,
+      compression: Compression,
+      split: FileSplit
+  ): List[(Integer, Double)] = {
+    val exec = new ParallelCSVScanSourceOpExec(desc, compression, split)
+    exec.open()
+    val rows = exec
+      .produceTexeraTuple()
+      .map(tuple => (tuple.getField[Integer]("Order ID"), tuple.getField[Double]("Unit Price")))
+      .toList
+    exec.close()
+    rows
+  }
+
+  val all: List[(Integer, Double)] =
+    scan(desc(csvPath), Compression.NONE, new FileSplit(0, 0, csv.length))
+
+  def compressed(suffix: String)(write: File => Unit): File = {
+    val file = File.createTempFile("csv-scan", suffix)
+    file.deleteOnExit()
+    write(file)
+    file
+  }
+
+  def writeStream(file: File, open: OutputStream => OutputStream): Unit = {
+    val output = open(new FileOutputStream(file))
+    output.write(csv)
+    output.close()
+  }
+
+  "ParallelCSVScanSourceOpExec" should "read the uncompressed file" in {
+    assert(all.size == 100)
+  }
+
+  it should "read the files compressed as a single stream with one worker" in {
+    val files = Map(
+      Compression.GZIP -> compressed(".csv.gz")(file =>
+        writeStream(file, output => new GZIPOutputStream(output))
+      ),
+      Compression.XZ -> compressed(".csv.xz")(file =>
+        writeStream(file, output => new XZOutputStream(output, new LZMA2Options()))
+      ),
+      Compression.ZSTD -> compressed(".csv.zst")(file =>
+        writeStream(file, output => new ZstdOutputStream(output))
+      )
+    )
+    files.foreach {
+      case (compression, file) =>
+        assert(Compression.detect(file.getPath) == compression)
+        assert(!compression.isSplittable)
+        val scanDesc = desc(file.getPath)
+        // the schema is inferred from the decompressed file as well
+        assert(scanDesc.inferSchema() == desc(csvPath).inferSchema())
+        assert(scan(scanDesc, compression, new FileSplit(0, 0, Long.MaxValue)) == all)
+        file.delete()
+    }
+  }
+
+  it should "read every row exactly once across the blocks of a block compressed file" in {
+    val files = Map(
+      Compression.BGZF -> compressed(".csv.gz")(file => writeBgzf(csv, file, 1024)),
+      Compression.ZSTD_SEEKABLE -> compressed(".csv.zst")(file =>
+        writeSeekableZstd(csv, file, 1024)
+      )
+    )
+    files.foreach {
+      case (compression, file) =>
+        assert(Compression.detect(file.getPath) == compression)
+        val scanDesc = desc(file.getPath)
+        for (numWorkers <- List(1, 2, 3, 7, 16)) {
+          val splits = Compression.split(file.getPath, compression, numWorkers).asScala
+          assert(splits.size == numWorkers)
+          assert(splits.flatMap(split => scan(scanDesc, compression, split)).toList == all)
+        }
+        file.delete()
+    }
+  }
+
+  it should "parse quoted fields and UTF-8 text the same way in a compressed file" in {
+    val quoted = ("Order ID,Name,Unit Price\n1,\"a, b\",1.5\n" +
+      "2,\"multi\nline \"\"quoted\"\"\",2.5\n3,caf\u00e9 \u4e2d\u6587,3.5\n")
+      .getBytes(StandardCharsets.UTF_8)
+    val plain = compressed(".csv")(file => Files.write(file.toPath, quoted))
+    val gzipped = compressed(".csv.gz")(file => {
+      val output = new GZIPOutputStream(new FileOutputStream(file))
+      output.write(quoted)
+      output.close()
+    })
+    val expected = List(
+      List(1, "a, b", 1.5),
+      List(2, "multi\nline \"quoted\"", 2.5),
+      List(3, "caf\u00e9 \u4e2d\u6587", 3.5)
+    )
+    List(
+      (plain, Compression.NONE, new FileSplit(0, 0, quoted.length)),
+      (gzipped, Compression.GZIP, new FileSplit(0, 0, Long.MaxValue))
+    ).foreach {
+      case (file, compression, split) =>
+        val exec = new ParallelCSVScanSourceOpExec(desc(file.getPath), compression, split)
+        exec.open()
+        val rows = exec.produceTexeraTuple().map(_.getFields.asScala.toList).toList
+        exec.close()
+        assert(rows == expected)
+        file.delete()
+    }
+  }
+
+}
@@ -0,0 +1,202 @@
+package edu.uci.ics.texera.workflow.operators.source.scan.json
+
+import com.github.luben.zstd.ZstdOutputStream
+import edu.uci.ics.texera.workflow.common.WorkflowContext
+import edu.uci.ics.texera.workflow.common.operators.OneToOneOpExecConfig
+import edu.uci.ics.texera.workflow.common.scanner.CompressedFiles.{writeBgzf, writeSeekableZstd}
+import edu.uci.ics.texera.workflow.common.scanner.{Compression, FileSplit}
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.operators.filter.{ComparisonType, FilterPredicate}
+import edu.uci.ics.texera.workflow.operators.source.scan.FileIndex
+import org.scalatest.BeforeAndAfter
+import org.scalatest.flatspec.AnyFlatSpec
+
+import java.io.{File, FileOutputStream}
+import java.nio.file.{Files, Paths}
+import java.util.zip.GZIPOutputStream
+import scala.collection.JavaConverters._
+
+class JSONLScanSourceOpExecSpec extends AnyFlatSpec with BeforeAndAfter {
+
+  val workflowContext = new WorkflowContext()
+  var jsonlScanSourceOpDesc: JSONLScanSourceOpDesc = _
+  before {
+    jsonlScanSourceOpDesc = new JSONLScanSourceOpDesc()
+    jsonlScanSourceOpDesc.fileName = Some("src/test/resources/1000.jsonl")
+    jsonlScanSourceOpDesc.setContext(workflowContext)
+  }
+
+  def scan(startOffset: Long, endOffset: Long): List[Long] =
+    scan(Compression.NONE, new FileSplit(0, startOffset, endOffset))
+
+  def scan(compression: Compression, split: FileSplit): List[Long] =
+    scan(new JSONLScanSourceOpExec(jsonlScanSourceOpDesc, compression, split, 0, Long.MaxValue))
+
+  def scan(exec: JSONLScanSourceOpExec): List[Long] = {
+    exec.open()
+    val ids = exec.produceTexeraTuple().map(tuple => tuple.getField[Long]("id")).toList
+    exec.close()
+    ids
+  }
+
+  it should "read every line exactly once across byte-range partitions" in {
+    val totalBytes = new File(jsonlScanSourceOpDesc.filePath.get).length()
+    val all = scan(0, totalBytes)
+    assert(all.size == 1000)
+
+    for (numWorkers <- List(2, 3, 7, 16)) {
+      val partitioned = (0 until numWorkers).flatMap(i => {
+        val startOffset = totalBytes / numWorkers * i
+        val endOffset =
+          if (i != numWorkers - 1) totalBytes / numWorkers * (i + 1) else totalBytes
+        scan(startOffset, endOffset)
+      })
+      assert(partitioned.toList == all)
+    }
+  }
+
+  it should "apply offset and limit when reading sequentially" in {
+    val totalBytes = new File(jsonlScanSourceOpDesc.filePath.get).length()
+    val all = scan(0, totalBytes)
+
+    val exec = new JSONLScanSourceOpExec(
+      jsonlScanSourceOpDesc,
+      Compression.NONE,
+      new FileSplit(0, 0, totalBytes),
+      10,
+      5
+    )
+    assert(scan(exec) == all.slice(10, 15))
+  }
+
+  it should "only output the pushed down projection of the rows satisfying the pushed filters" in {
+    val totalBytes = new File(jsonlScanSourceOpDesc.filePath.get).length()
+    val predicate = new FilterPredicate()
+    predicate.attribute = "year"
+    predicate.condition = ComparisonType.GREATER_THAN
+    predicate.value = "2000"
+    jsonlScanSourceOpDesc.pushDown(Some(List("id", "year")), List(List(predicate)))
+
+    val exec = new JSONLScanSourceOpExec(
+      jsonlScanSourceOpDesc,
+      Compression.NONE,
+      new FileSplit(0, 0, totalBytes),
+      0,
+      Long.MaxValue
+    )
+    exec.open()
+    val tuples: List[Tuple] = exec.produceTexeraTuple().toList
+    exec.close()
+
+    assert(tuples.nonEmpty)
+    assert(tuples.forall(tuple => tuple.getSchema.getAttributeNames.asScala == List("id", "year")))
+    assert(tuples.forall(tuple => tuple.getField[Integer]("year") > 2000))
+  }
+
+  it should "read every line exactly once across the blocks of a bgzip compressed file" in {
+    val totalBytes = new File(jsonlScanSourceOpDesc.filePath.get).length()
+    val all = scan(0, totalBytes)
+
+    val file = File.createTempFile("jsonl-scan", ".jsonl.gz")
+    writeBgzf(Files.readAllBytes(Paths.get(jsonlScanSourceOpDesc.filePath.get)), file, 4096)
+    jsonlScanSourceOpDesc.fileName = Some(file.getPath)
+    jsonlScanSourceOpDesc.setContext(workflowContext)
+    assert(Compression.detect(file.getPath) == Compression.BGZF)
+
+    for (numWorkers <- List(1, 2, 3, 7, 16)) {
+      val splits = Compression.split(file.getPath, Compression.BGZF, numWorkers).asScala
+      assert(splits.size == numWorkers)
+      assert(splits.flatMap(split => scan(Compression.BGZF, split)).toList == all)
+    }
+    file.delete()
+  }
+
+  it should "read a gzip compressed file sequentially" in {
+    val totalBytes = new File(jsonlScanSourceOpDesc.filePath.get).length()
+    val all = scan(0, totalBytes)
+
+    val file = File.createTempFile("jsonl-scan", ".jsonl.gz")
+    val output = new GZIPOutputStream(new FileOutputStream(file))
+    output.write(Files.readAllBytes(Paths.get(jsonlScanSourceOpDesc.filePath.get)))
+    output.close()
+    jsonlScanSourceOpDesc.fileName = Some(file.getPath)
+    jsonlScanSourceOpDesc.setContext(workflowContext)
+    assert(Compression.detect(file.getPath) == Compression.GZIP)
+
+    assert(scan(Compression.GZIP, new FileSplit(0, 0, Long.MaxValue)) == all)
+    file.delete()
+  }
+
+  it should "read a zstd compressed file sequentially" in {
+    val totalBytes = new File(jsonlScanSourceOpDesc.filePath.get).length()
+    val all = scan(0, totalBytes)
+
+    val file = File.createTempFile("jsonl-scan", ".jsonl.zst")
+    val output = new ZstdOutputStream(new FileOutputStream(file))
+    output.write(Files.readAllBytes(Paths.get(jsonlScanSourceOpDesc.filePath.get)))
+    output.close()
+    jsonlScanSourceOpDesc.fileName = Some(file.getPath)
+    jsonlScanSourceOpDesc.setContext(workflowContext)
+    assert(Compression.detect(file.getPath) == Compression.ZSTD)
+    assert(Compression.split(file.getPath, Compression.ZSTD, 4).asScala.toList.size == 1)
+
+    assert(scan(Compression.ZSTD, new FileSplit(0, 0, Long.MaxValue)) == all)
+    file.delete()
+  }
+
+  it should "read every line exactly once across the frames of a seekable zstd file" in {
+    val totalBytes = new File(jsonlScanSourceOpDesc.filePath.get).length()
+    val all = scan(0, totalBytes)
+
+    val file = File.createTempFile("jsonl-scan", ".jsonl.zst")
+    val input = Files.readAllBytes(Paths.get(jsonlScanSourceOpDesc.filePath.get))
+    writeSeekableZstd(input, file, 4096)
+    jsonlScanSourceOpDesc.fileName = Some(file.getPath)
+    jsonlScanSourceOpDesc.setContext(workflowContext)
+    assert(Compression.detect(file.getPath) == Compression.ZSTD_SEEKABLE)
+
+    for (numWorkers <- List(1, 2, 3, 7, 16)) {
+      val splits = Compression.split(file.getPath, Compression.ZSTD_SEEKABLE, numWorkers).asScala
+      assert(splits.size == numWorkers)
+      assert(splits.flatMap(split => scan(Compression.ZSTD_SEEKABLE, split)).toList == all)
+    }
+    file.delete()
+  }
+
+  it should "split the lines between offset and limit evenly using the index of the file" in {
+    val totalBytes = new File(jsonlScanSourceOpDesc.filePath.get).length()
+    val all = scan(0, totalBytes)
+
+    val directory = Files.createTempDirectory("jsonl-scan")
+    val path = directory.resolve("1000.jsonl")
+    Files.copy(Paths.get(jsonlScanSourceOpDesc.filePath.get), path)
+    val index = FileIndex.build(path).get.get
+    assert(index.lineCount == 1000)
+    assert(index.fileTypeName == "JSONL")
+    assert(index.columnStatistics.exists(statistics => statistics.attributeName == "year"))
+    assert(FileIndex.load(path.toString).isDefined)
+
+    jsonlScanSourceOpDesc.fileName = Some(path.toString)
+    jsonlScanSourceOpDesc.setContext(workflowContext)
+    jsonlScanSourceOpDesc.offset = Some(10)
+    jsonlScanSourceOpDesc.limit = Some(500)
+    assert(jsonlScanSourceOpDesc.inferSchema() == index.schema)
+    for (numWorkers <- List(1, 3, 8)) {
+      val config = jsonlScanSourceOpDesc
+        .operatorExecutor(null, numWorkers)
+        .asInstanceOf[OneToOneOpExecConfig]
+      assert(config.topology.layers.head.numWorkers == numWorkers)
+      val partitioned = (0 until numWorkers).map(i =>
+        scan(config.opExec(i).asInstanceOf[JSONLScanSourceOpExec])
+      )
+      // evenly split: the 500 lines in parts that differ by at most one line
+      assert(partitioned.map(_.size).max - partitioned.map(_.size).min <= 1)
+      assert(partitioned.flatten.toList == all.slice(10, 510))
+    }
+
+    Files.delete(FileIndex.indexPath(path))
+    Files.delete(path)
+    Files.delete(directory)
+  }
+
+}
@@ -0,0 +1,292 @@
+package edu.uci.ics.texera.workflow.operators.source.sql
+
+import edu.uci.ics.texera.workflow.common.tuple.Tuple
+import edu.uci.ics.texera.workflow.common.tuple.schema.{Attribute, AttributeType, Schema}
+import org.scalatest.flatspec.AnyFlatSpec
+
+import java.lang.reflect.{InvocationHandler, Method, Proxy}
+import java.sql.{Connection, PreparedStatement, ResultSet, SQLException, Timestamp}
+import scala.collection.mutable.ArrayBuffer
+
+class SQLSourceOpExecSpec extends AnyFlatSpec {
+
+  /**
+    * Reads the table "orders" in progressive mode, batched by its "id" column, whose
+    * minimum and maximum are given instead of queried.
+    */
+  class ProgressiveSQLSourceOpExec(
+      idType: AttributeType,
+      minId: Number,
+      maxId: Number,
+      interval: Long,
+      workerIndex: Int,
+      numWorkers: Int
+  ) extends SQLSourceOpExec(
+        Schema.newBuilder().add(new Attribute("id", idType)).build(),
+        "orders",
+        None,
+        None,
+        None,
+        None,
+        None,
+        Some(true),
+        Some("id"),
+        Some("auto"),
+        Some("auto"),
+        interval,
+        List(),
+        workerIndex,
+        numWorkers
+      ) {
+    override protected def fetchBatchByBoundary(side: String): Number =
+      if (side == "MIN") minId else maxId
+
+    override protected def loadTableNames(): Unit = {}
+
+    override protected def addKeywordSearch(queryBuilder: StringBuilder): Unit = {}
+  }
+
+  val window = """.* AND id >= (\S+) AND id (<=?) (\S+);""".r
+
+  /**
+    * @return the windows of [lower, upper] or [lower, upper) of the id each worker queries
+    */
+  def windows(
+      idType: AttributeType,
+      minId: Number,
+      maxId: Number,
+      interval: Long,
+      numWorkers: Int
+  ): List[List[(Double, Double, Boolean)]] = {
+    (0 until numWorkers).map(i => {
+      val exec = new ProgressiveSQLSourceOpExec(idType, minId, maxId, interval, i, numWorkers)
+      exec.initBatchColumnBoundaries()
+      val queries = ArrayBuffer[(Double, Double, Boolean)]()
+      while (exec.hasNextQuery) {
+        exec.generateSqlQuery.get.replace("\n", "") match {
+          case window(lower, operator, upper) =>
+            queries += ((lower.toDouble, upper.toDouble, operator == "<="))
+        }
+      }
+      queries.toList
+    }).toList
+  }
+
+  def contains(window: (Double, Double, Boolean), id: Double): Boolean =
+    window match {
+      case (lower, upper, inclusive) => lower <= id && (id < upper || inclusive && id == upper)
+    }
+
+  /**
+    * Asserts that the windows of all the workers together query each id exactly once.
+    */
+  def assertPartition(windows: List[List[(Double, Double, Boolean)]], ids: Seq[Double]): Unit =
+    ids.foreach(id => assert(windows.flatten.count(window => contains(window, id)) == 1, id))
+
+
+  /**
+    * A table "orders" of the given columns and rows, served by JDBC proxies that record the
+    * fetch size and result set type of the statements.
+    */
+  class FakeTable(columns: Array[String], rows: Seq[Array[AnyRef]]) {
+    var fetchSizes: List[Int] = List()
+    var resultSetTypes: List[Int] = List()
+
+    def proxy[T](interface: Class[T])(handle: PartialFunction[(String, Array[AnyRef]), AnyRef]): T =
+      Proxy
+        .newProxyInstance(
+          getClass.getClassLoader,
+          Array[Class[_]](interface),
+          new InvocationHandler {
+            override def invoke(proxy: Any, method: Method, args: Array[AnyRef]): AnyRef =
+              handle.applyOrElse(
+                (method.getName, args),
+                (_: (String, Array[AnyRef])) =>
+                  throw new UnsupportedOperationException(method.getName)
+              )
+          }
+        )
+        .asInstanceOf[T]
+
+    def resultSet(): ResultSet = {
+      var row = -1
+      var wasNull = false
+      proxy(classOf[ResultSet]) {
+        case ("next", _) =>
+          row += 1
+          Boolean.box(row < rows.size)
+        case ("findColumn", Array(name)) =>
+          val index = columns.indexOf(name)
+          if (index < 0) throw new SQLException(s"column $name not found")
+          Int.box(index + 1)
+        case ("wasNull", _) => Boolean.box(wasNull)
+        case ("close", _)   => null
+        case (getter, Array(index: Integer)) =>
+          val value = rows(row)(index - 1)
+          wasNull = value == null
+          // the primitive getters return 0 or false for SQL NULL
+          (getter, value) match {
+            case ("getInt", null)     => Int.box(0)
+            case ("getLong", null)    => Long.box(0)
+            case ("getDouble", null)  => Double.box(0)
+            case ("getBoolean", null) => Boolean.box(false)
+            case _                    => value
+          }
+      }
+    }
+
+    val connection: Connection = proxy(classOf[Connection]) {
+      case ("prepareStatement", Array(_, resultSetType: Integer, _)) =>
+        resultSetTypes :+= resultSetType.intValue
+        proxy(classOf[PreparedStatement]) {
+          case ("setFetchSize", Array(size: Integer)) =>
+            fetchSizes :+= size.intValue
+            null
+          case ("executeQuery", _) => resultSet()
+          case ("close", _)        => null
+        }
+      case ("close", _) => null
+    }
+  }
+
+  /**
+    * Reads all the rows of the table "orders" at once.
+    */
+  class TableSQLSourceOpExec(schema: Schema, table: FakeTable)
+      extends SQLSourceOpExec(
+        schema,
+        "orders",
+        None,
+        None,
+        None,
+        None,
+        None,
+        None,
+        None,
+        None,
+        None,
+        0,
+        List(),
+        0,
+        1
+      ) {
+    override protected def establishConn(): Connection = table.connection
+
+    override protected def loadTableNames(): Unit = tableNames += "orders"
+  }
+
+  def read(schema: Schema, table: FakeTable): List[Tuple] = {
+    val exec = new TableSQLSourceOpExec(schema, table)
+    exec.open()
+    val tuples = exec.produceTexeraTuple().toList
+    exec.close()
+    tuples
+  }
+
+  "SQLSourceOpExec" should "query each value of the batch column once with one worker" in {
+    for (interval <- List(1L, 3L, 5L, 10L, 11L, 100L)) {
+      val workerWindows = windows(AttributeType.LONG, 0L, 10L, interval, 1)
+      assertPartition(workerWindows, (0 to 10).map(_.toDouble))
+      // the window ending at the maximum includes it, and is the last one
+      assert(workerWindows.head.last._2 == 10)
+      assert(workerWindows.head.last._3)
+      assert(workerWindows.head.init.forall(window => !window._3))
+    }
+  }
+
+  it should "split the range of the batch column among the workers" in {
+    for (numWorkers <- List(2, 3, 4, 7); interval <- List(1L, 4L, 25L, 1000L)) {
+      val workerWindows = windows(AttributeType.LONG, -50L, 49L, interval, numWorkers)
+      assertPartition(workerWindows, (-50 to 49).map(_.toDouble))
+      // only the last worker reads the maximum, up to and including it
+      assert(workerWindows.init.forall(_.forall(window => !window._3)))
+      assert(workerWindows.last.last == ((workerWindows.last.last._1, 49.0, true)))
+    }
+  }
+
+  it should "leave workers without queries if there are more workers than values" in {
+    val workerWindows = windows(AttributeType.INTEGER, 7, 9, 1, 8)
+    assertPartition(workerWindows, List(7.0, 8.0, 9.0))
+    // the parts are [7, 7) for the first three workers, [7, 8), [8, 8) for the next four
+    // and [8, 9] for the last one. Workers with an empty part send no query at all.
+    assert(workerWindows.map(_.size) == List(0, 0, 0, 1, 0, 0, 0, 1))
+
+    // a single value, read by the last worker only
+    val singleValue = windows(AttributeType.LONG, 5L, 5L, 10, 4)
+    assert(singleValue.init.forall(_.isEmpty))
+    assert(singleValue.last == List((5.0, 5.0, true)))
+  }
+
+  it should "split a double batch column at fractional boundaries" in {
+    val workerWindows = windows(AttributeType.DOUBLE, 0.5, 10.5, 2, 4)
+    assertPartition(workerWindows, (0 to 100).map(i => 0.5 + i / 10.0))
+    assert(workerWindows.map(_.head._1) == List(0.5, 3.0, 5.5, 8.0))
+    assert(workerWindows.last.last._2 == 10.5)
+  }
+
+  it should "decode each column of a row by its index with a typed getter" in {
+    val created = new Timestamp(1600000000000L)
+    val schema = Schema
+      .newBuilder()
+      .add(new Attribute("id", AttributeType.INTEGER))
+      .add(new Attribute("amount", AttributeType.LONG))
+      .add(new Attribute("price", AttributeType.DOUBLE))
+      .add(new Attribute("paid", AttributeType.BOOLEAN))
+      .add(new Attribute("created", AttributeType.TIMESTAMP))
+      .add(new Attribute("name", AttributeType.STRING))
+      .add(new Attribute("tags", AttributeType.ANY))
+      .build()
+    // the columns of the result set in another order than the schema, with one more
+    val table = new FakeTable(
+      Array("name", "ignored", "tags", "created", "paid", "price", "amount", "id"),
+      List(
+        Array[AnyRef](
+          "a",
+          "x",
+          List(1),
+          created,
+          Boolean.box(true),
+          Double.box(1.5),
+          Long.box(1L << 40),
+          Int.box(7)
+        ),
+        Array[AnyRef](null, null, null, null, null, null, null, null)
+      )
+    )
+
+    val tuples = read(schema, table)
+    assert(tuples.size == 2)
+    assert(
+      tuples.head.getFields.toArray.toList == List(
+        Int.box(7),
+        Long.box(1L << 40),
+        Double.box(1.5),
+        Boolean.box(true),
+        created,
+        "a",
+        List(1)
+      )
+    )
+    // SQL NULL is null rather than the 0 or false of the primitive getters
+    assert(tuples(1).getFields.toArray.forall(_ == null))
+  }
+
+  it should "stream the rows of a forward-only statement with the fetch size" in {
+    val schema = Schema.newBuilder().add(new Attribute("id", AttributeType.INTEGER)).build()
+    val table = new FakeTable(Array("id"), (1 to 5).map(i => Array[AnyRef](Int.box(i))))
+
+    assert(read(schema, table).map(_.getField[Integer]("id").intValue) == (1 to 5).toList)
+    assert(table.resultSetTypes == List(ResultSet.TYPE_FORWARD_ONLY))
+    assert(table.fetchSizes == List(10000))
+  }
+
+  it should "fail if an attribute of the schema is not a column of the result set" in {
+    val schema = Schema.newBuilder().add(new Attribute("missing", AttributeType.INTEGER)).build()
+    val table = new FakeTable(Array("id"), List(Array[AnyRef](Int.box(1))))
+
+    val exec = new TableSQLSourceOpExec(schema, table)
+    exec.open()
+    assertThrows[SQLException](exec.produceTexeraTuple().hasNext)
+  }
+
+}
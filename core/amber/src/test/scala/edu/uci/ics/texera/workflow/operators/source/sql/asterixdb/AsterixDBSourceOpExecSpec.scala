@@ -0,0 +1,68 @@
+package edu.uci.ics.texera.workflow.operators.source.sql.asterixdb
+
+import edu.uci.ics.texera.workflow.common.tuple.schema.{Attribute, AttributeType, Schema}
+import edu.uci.ics.texera.workflow.operators.filter.{ComparisonType, FilterPredicate}
+import org.scalatest.flatspec.AnyFlatSpec
+
+class AsterixDBSourceOpExecSpec extends AnyFlatSpec {
+  val schema: Schema = Schema
+    .newBuilder()
+    .add(new Attribute("id", AttributeType.LONG))
+    .add(new Attribute("Price", AttributeType.DOUBLE))
+    .add(new Attribute("name", AttributeType.STRING))
+    .build()
+
+  def predicate(attribute: String, condition: ComparisonType, value: String): FilterPredicate = {
+    val predicate = new FilterPredicate()
+    predicate.attribute = attribute
+    predicate.condition = condition
+    predicate.value = value
+    predicate
+  }
+
+  def exec(predicates: List[List[FilterPredicate]], limit: Option[Long]): AsterixDBSourceOpExec =
+    new AsterixDBSourceOpExec(
+      schema,
+      "localhost",
+      "19002",
+      "db",
+      "orders",
+      limit,
+      None,
+      None,
+      None,
+      None,
+      None,
+      None,
+      None,
+      None,
+      0,
+      predicates,
+      0,
+      1
+    )
+
+  "AsterixDBSourceOpExec" should "add the pushed filters with backquoted column names" in {
+    // a double quoted "Price" would be compared as a string literal in SQL++
+    val query = exec(
+      List(
+        List(
+          predicate("Price", ComparisonType.GREATER_THAN, "10"),
+          predicate("Price", ComparisonType.LESS_THAN, "1.50")
+        ),
+        List(predicate("name", ComparisonType.EQUAL_TO, "abc")),
+        List(predicate("id", ComparisonType.EQUAL_TO, "5"))
+      ),
+      Some(3)
+    ).generateSqlQuery
+
+    assert(
+      query.contains(
+        "\nSELECT if_missing(id,null) field_0, if_missing(Price,null) field_1," +
+          " if_missing(name,null) field_2 FROM db.orders WHERE 1 = 1 " +
+          " AND (`Price` > 10 OR `Price` < 1.50) AND (`id` = 5) LIMIT 3;"
+      )
+    )
+  }
+
+}
@@ -0,0 +1,105 @@
+package edu.uci.ics.texera.workflow.operators.source.sql.mysql
+
+import edu.uci.ics.texera.workflow.common.tuple.schema.{Attribute, AttributeType, Schema}
+import edu.uci.ics.texera.workflow.operators.filter.{ComparisonType, FilterPredicate}
+import org.scalatest.flatspec.AnyFlatSpec
+
+class MySQLSourceOpExecSpec extends AnyFlatSpec {
+  val schema: Schema = Schema
+    .newBuilder()
+    .add(new Attribute("id", AttributeType.LONG))
+    .add(new Attribute("Price", AttributeType.DOUBLE))
+    .add(new Attribute("name", AttributeType.STRING))
+    .build()
+
+  def predicate(attribute: String, condition: ComparisonType, value: String): FilterPredicate = {
+    val predicate = new FilterPredicate()
+    predicate.attribute = attribute
+    predicate.condition = condition
+    predicate.value = value
+    predicate
+  }
+
+  def exec(
+      predicates: List[List[FilterPredicate]],
+      limit: Option[Long] = None,
+      offset: Option[Long] = None
+  ): MySQLSourceOpExec =
+    new MySQLSourceOpExec(
+      schema,
+      "localhost",
+      "3306",
+      "db",
+      "orders",
+      "user",
+      "password",
+      limit,
+      offset,
+      None,
+      None,
+      None,
+      None,
+      None,
+      None,
+      None,
+      0,
+      predicates,
+      0,
+      1
+    )
+
+  "MySQLSourceOpExec" should "add the pushed filters with backquoted column names" in {
+    val query = exec(
+      List(
+        List(
+          predicate("Price", ComparisonType.GREATER_THAN, "10"),
+          predicate("Price", ComparisonType.LESS_THAN, " 1.50 ")
+        ),
+        List(predicate("id", ComparisonType.NOT_EQUAL_TO, "5"))
+      )
+    ).generateSqlQuery
+
+    assert(
+      query.contains(
+        "\nSELECT `id`, `Price`, `name` FROM orders where 1 = 1" +
+          " AND (`Price` > 10 OR `Price` < 1.50) AND (`id` <> 5);"
+      )
+    )
+  }
+
+  it should "leave the filters that are not numeric comparisons to the filter operator" in {
+    val query = exec(
+      List(
+        List(predicate("name", ComparisonType.EQUAL_TO, "abc")),
+        List(
+          predicate("id", ComparisonType.EQUAL_TO, "1"),
+          predicate("Price", ComparisonType.EQUAL_TO, "1; DROP TABLE orders")
+        ),
+        List(predicate("missing", ComparisonType.EQUAL_TO, "1")),
+        List(),
+        List(predicate("id", ComparisonType.GREATER_THAN_OR_EQUAL_TO, "-1e3"))
+      )
+    ).generateSqlQuery
+
+    assert(
+      query.contains(
+        "\nSELECT `id`, `Price`, `name` FROM orders where 1 = 1 AND (`id` >= -1000);"
+      )
+    )
+  }
+
+  it should "add the pushed filters before the limit and offset" in {
+    val query = exec(
+      List(List(predicate("id", ComparisonType.LESS_THAN_OR_EQUAL_TO, "7"))),
+      Some(10),
+      Some(20)
+    ).generateSqlQuery
+
+    assert(
+      query.contains(
+        "\nSELECT `id`, `Price`, `name` FROM orders where 1 = 1 AND (`id` <= 7) LIMIT ? OFFSET ?;"
+      )
+    )
+  }
+
+}
@@ -0,0 +1,67 @@
+package edu.uci.ics.texera.workflow.operators.source.sql.postgresql
+
+import edu.uci.ics.texera.workflow.common.tuple.schema.{Attribute, AttributeType, Schema}
+import edu.uci.ics.texera.workflow.operators.filter.{ComparisonType, FilterPredicate}
+import org.scalatest.flatspec.AnyFlatSpec
+
+class PostgreSQLSourceOpExecSpec extends AnyFlatSpec {
+  val schema: Schema = Schema
+    .newBuilder()
+    .add(new Attribute("id", AttributeType.INTEGER))
+    .add(new Attribute("Price", AttributeType.DOUBLE))
+    .add(new Attribute("name", AttributeType.STRING))
+    .build()
+
+  def predicate(attribute: String, condition: ComparisonType, value: String): FilterPredicate = {
+    val predicate = new FilterPredicate()
+    predicate.attribute = attribute
+    predicate.condition = condition
+    predicate.value = value
+    predicate
+  }
+
+  def exec(predicates: List[List[FilterPredicate]]): PostgreSQLSourceOpExec =
+    new PostgreSQLSourceOpExec(
+      schema,
+      "localhost",
+      "5432",
+      "db",
+      "orders",
+      "user",
+      "password",
+      None,
+      None,
+      None,
+      None,
+      None,
+      None,
+      None,
+      None,
+      None,
+      0,
+      predicates,
+      0,
+      1
+    )
+
+  "PostgreSQLSourceOpExec" should "add the pushed filters with double quoted column names" in {
+    val query = exec(
+      List(
+        List(
+          predicate("Price", ComparisonType.GREATER_THAN, "10"),
+          predicate("Price", ComparisonType.LESS_THAN, "1.50")
+        ),
+        List(predicate("name", ComparisonType.EQUAL_TO, "abc")),
+        List(predicate("id", ComparisonType.EQUAL_TO, "5"))
+      )
+    ).generateSqlQuery
+
+    assert(
+      query.contains(
+        "\nSELECT \"id\", \"Price\", \"name\" FROM orders where 1 = 1" +
+          " AND (\"Price\" > 10 OR \"Price\" < 1.50) AND (\"id\" = 5);"
+      )
+    )
+  }
+
+}
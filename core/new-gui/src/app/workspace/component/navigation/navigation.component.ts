@@ -164,6 +164,12 @@ export class NavigationComponent implements OnInit {
           onClick: () => {
           }
         };
+      case ExecutionState.Queued:
+        return {
+          text: 'Queued', icon: 'loading', disable: true,
+          onClick: () => {
+          }
+        };
       case ExecutionState.Running:
         return {
           text: 'Pause', icon: 'loading', disable: false,
@@ -90,6 +90,13 @@ export class ExecuteWorkflowService {
     switch (event.type) {
       case 'WorkflowStartedEvent':
         return {state: ExecutionState.Running};
+      case 'WorkflowQueuedEvent':
+        // the job may already have been started by the time the event arrives
+        if (this.currentState.state !== ExecutionState.WaitingToRun) {
+          return this.currentState;
+        }
+        return {state: ExecutionState.Queued, position: event.position,
+          neededSlots: event.neededSlots, freeSlots: event.freeSlots};
       case 'WorkflowCompletedEvent':
         return {state: ExecutionState.Completed};
       case 'WorkflowPausedEvent':
@@ -336,6 +343,7 @@ export class ExecuteWorkflowService {
       case ExecutionState.Resuming:
       case ExecutionState.Running:
       case ExecutionState.WaitingToRun:
+      case ExecutionState.Queued:
         this.workflowActionService.disableWorkflowModification();
         return;
       default:
@@ -108,6 +108,7 @@ export function isWebDataUpdate(update: WebResultUpdate): update is WebDataUpdat
 export enum ExecutionState {
   Uninitialized = 'Uninitialized',
   WaitingToRun = 'WaitingToRun',
+  Queued = 'Queued',
   Running = 'Running',
   Pausing = 'Pausing',
   Paused = 'Paused',
@@ -121,6 +122,8 @@ export enum ExecutionState {
 export type ExecutionStateInfo = Readonly<{
   state: ExecutionState.Uninitialized | ExecutionState.WaitingToRun | ExecutionState.Running
   | ExecutionState.Pausing | ExecutionState.Resuming | ExecutionState.Recovering
+} | {
+  state: ExecutionState.Queued, position: number, neededSlots: number, freeSlots: number
 } | {
   state: ExecutionState.Paused, currentTuples: Readonly<Record<string, OperatorCurrentTuples>>
 } | {
@@ -33,6 +33,12 @@ export interface WorkflowExecutionError extends Readonly<{
   errorMap: Record<string, string>
 }> { }
 
+export type WorkflowQueuedEvent = Readonly<{
+  position: number,
+  neededSlots: number,
+  freeSlots: number
+}>;
+
 export type ModifyOperatorLogic = Readonly<{
   operator: LogicalOperator
 }>;
@@ -91,6 +97,7 @@ export type TexeraWebsocketEventTypeMap = {
   'HeartBeatResponse': {},
   'WorkflowErrorEvent': WorkflowError,
   'WorkflowStartedEvent': {},
+  'WorkflowQueuedEvent': WorkflowQueuedEvent,
   'WorkflowCompletedEvent': {},
   'WebWorkflowStatusUpdateEvent': WorkflowStatusUpdate,
   'WebResultUpdateEvent': WorkflowResultUpdateEvent,